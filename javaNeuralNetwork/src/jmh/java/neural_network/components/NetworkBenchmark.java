@@ -0,0 +1,124 @@
+package neural_network.components;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks for the forward pass and back propagation of a {@code Network},
+ * across network widths and depths.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NetworkBenchmark {
+
+    private static final int NUM_FEATURES = 8;
+    private static final int NUM_CLASSES = 4;
+    private static final int BATCH_SIZE = 64;
+
+    @Param({"16", "64", "256"})
+    public int width;
+
+    @Param({"1", "2", "4"})
+    public int depth;
+
+    Network network;
+    private List<Double> xList;
+    private double[] x;
+    private Edge hiddenEdge;
+    private double[] batchX;
+    private double[] batchTargets;
+    private BatchWorkspace workspace;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Edge.setRandom(random);
+        network = new Network(NUM_FEATURES, depth,
+                new ArrayList<>(Collections.nCopies(depth, width)), NUM_CLASSES,
+                0.01, 0.01, false, false, Double.NaN, true);
+        xList = new ArrayList<>();
+        x = new double[NUM_FEATURES];
+        for (int j = 0; j < NUM_FEATURES; j ++) {
+            x[j] = random.nextDouble(-1, 1);
+            xList.add(x[j]);
+        }
+        // An edge into the first hidden layer, whose gradient depends on the
+        // deltas of the next layer
+        hiddenEdge = network.getEdges().get(0).get(0).get(0);
+        batchX = new double[BATCH_SIZE * NUM_FEATURES];
+        batchTargets = new double[BATCH_SIZE];
+        for (int r = 0; r < BATCH_SIZE; r ++) {
+            for (int j = 0; j < NUM_FEATURES; j ++) {
+                batchX[r * NUM_FEATURES + j] = random.nextDouble(-1, 1);
+            }
+            batchTargets[r] = random.nextInt(NUM_CLASSES);
+        }
+        workspace = network.newBatchWorkspace(BATCH_SIZE);
+        network.forwardPassOneDatapoint(x);
+        network.storeGradientsOfLoss(1.0);
+    }
+
+    @Benchmark
+    public List<Double> forwardPassOneDatapointList() {
+        return network.forwardPassOneDatapoint(xList);
+    }
+
+    @Benchmark
+    public double[] forwardPassOneDatapoint() {
+        return network.forwardPassOneDatapoint(x);
+    }
+
+    @Benchmark
+    public void storeGradientOfLoss() {
+        network.storeGradientOfLoss(hiddenEdge, 1.0, true);
+    }
+
+    @Benchmark
+    public void storeGradientsOfLoss() {
+        network.storeGradientsOfLoss(1.0);
+    }
+
+    /** Back propagation clears the gradients, so they are stored again before
+     * each invocation (outside the measured time).
+     *
+     */
+    @State(Scope.Thread)
+    public static class StoredGradients {
+
+        @Setup(Level.Invocation)
+        public void storeGradients(NetworkBenchmark benchmark) {
+            benchmark.network.storeGradientsOfLoss(1.0);
+        }
+    }
+
+    @Benchmark
+    public void backPropagateWeights(StoredGradients gradients) {
+        network.backPropagateWeights();
+    }
+
+    /** One batch of {@code BATCH_SIZE} datapoints through the matrix path, for
+     * comparison with {@code BATCH_SIZE} calls to {@code forwardPassOneDatapoint}.
+     *
+     * @return The outputs of the batch.
+     */
+    @Benchmark
+    public double[] forwardPassOneBatch() {
+        return network.forwardPassOneBatch(batchX, BATCH_SIZE, workspace);
+    }
+
+    @Benchmark
+    public void storeGradientsOfLossBatch() {
+        network.forwardPassOneBatch(batchX, BATCH_SIZE, workspace);
+        network.storeGradientsOfLoss(batchTargets, BATCH_SIZE, workspace);
+        network.accumulateGradients(workspace);
+    }
+}
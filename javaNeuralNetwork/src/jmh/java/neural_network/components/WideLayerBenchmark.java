@@ -0,0 +1,62 @@
+package neural_network.components;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmark for the per-datapoint forward and backward passes of a
+ * {@code Network} with one wide hidden {@code Layer}, with and without
+ * intra-layer parallelism.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WideLayerBenchmark {
+
+    private static final int NUM_FEATURES = 256;
+    private static final int NUM_CLASSES = 4;
+
+    @Param({"64", "1024", "4096"})
+    public int width;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Network network;
+    private double[] x;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Edge.setRandom(random);
+        network = new Network(NUM_FEATURES, 2, new ArrayList<>(List.of(width, width)),
+                NUM_CLASSES, 0.01, 0.01, false, false, Double.NaN, true);
+        if (parallel) {
+            network.setLayerParallelism(ForkJoinPool.commonPool());
+        }
+        x = new double[NUM_FEATURES];
+        for (int j = 0; j < NUM_FEATURES; j ++) {
+            x[j] = random.nextDouble(-1, 1);
+        }
+    }
+
+    @Benchmark
+    public double[] forwardPassOneDatapoint() {
+        return network.forwardPassOneDatapoint(x);
+    }
+
+    @Benchmark
+    public double[] forwardAndBackwardOneDatapoint() {
+        double[] output = network.forwardPassOneDatapoint(x);
+        network.storeGradientsOfLoss(1.0);
+        return output;
+    }
+}
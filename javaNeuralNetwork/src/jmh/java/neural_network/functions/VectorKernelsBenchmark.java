@@ -0,0 +1,67 @@
+package neural_network.functions;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks for the SIMD and scalar {@code VectorKernels}, across vector
+ * lengths (the widths of the {@code Layers}).
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VectorKernelsBenchmark {
+
+    @Param({"64", "512", "2048"})
+    public int length;
+
+    @Param({"true", "false"})
+    public boolean simd;
+
+    private Kernels kernels;
+    private double[] a;
+    private double[] b;
+    private double[] z;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (simd && ! VectorKernels.isSimd()) {
+            throw new IllegalStateException("Run with --add-modules jdk.incubator.vector");
+        }
+        kernels = (simd) ? VectorKernels.getKernels() : new ScalarKernels();
+        Random random = new Random(42);
+        a = random.doubles(length, -1.0, 1.0).toArray();
+        b = random.doubles(length, -1.0, 1.0).toArray();
+        z = new double[length];
+    }
+
+    @Benchmark
+    public double dot() {
+        return kernels.dot(a, 0, b, 0, length);
+    }
+
+    @Benchmark
+    public double[] axpy() {
+        kernels.axpy(0.5, a, 0, b, 0, length);
+        return b;
+    }
+
+    @Benchmark
+    public double[] leakyReLU() {
+        System.arraycopy(a, 0, z, 0, length);
+        kernels.leakyReLU(z, 0, length, 0.01);
+        return z;
+    }
+
+    @Benchmark
+    public double[] softmax() {
+        System.arraycopy(a, 0, z, 0, length);
+        kernels.softmax(z, 0, length);
+        return z;
+    }
+}
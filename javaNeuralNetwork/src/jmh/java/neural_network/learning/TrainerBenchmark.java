@@ -0,0 +1,67 @@
+package neural_network.learning;
+
+import neural_network.components.Network;
+import neural_network.util.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmark for one epoch of {@code Trainer.run}, across dataset sizes,
+ * network widths and the per-datapoint, batched and multithreaded paths.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class TrainerBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int numDatapoints;
+
+    @Param({"16", "64"})
+    public int width;
+
+    @Param({"1", "2"})
+    public int depth;
+
+    @Param({"false", "true"})
+    public boolean batched;
+
+    @Param({"1", "2", "4", "8"})
+    public int numThreads;
+
+    private Trainer trainer;
+    private final PrintStream originalOut = System.out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Network network = new Network(2, depth, Collections.nCopies(depth, width),
+                2, 0.01, 0.01, false, false, Double.NaN, true);
+        trainer = new Trainer(network, BenchmarkData.classification(numDatapoints, 2, 42),
+                32, 1);
+        trainer.setBatched(batched);
+        trainer.setNumThreads(numThreads);
+
+        // Trainer.run prints the loss for each epoch
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+        trainer.setNumThreads(1);
+    }
+
+    @Benchmark
+    public List<Double> runOneEpoch() {
+        trainer.run();
+        return trainer.getLossDf().get("Training");
+    }
+}
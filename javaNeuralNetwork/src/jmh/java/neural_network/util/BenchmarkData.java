@@ -0,0 +1,98 @@
+package neural_network.util;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+/** Class to generate random datasets of a given size for the benchmarks.
+ *
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    /** Generates a classification dataset, with two classes separated by the
+     * sign of the product of the first two coordinates.
+     *
+     * @param numDatapoints The number of datapoints.
+     * @param dimensions The number of coordinates per datapoint (at least 2).
+     * @param seed The seed for the random coordinates.
+     * @return The dataframe.
+     */
+    public static NavigableMap<Header, List<String>> classification(int numDatapoints,
+                                                                    int dimensions,
+                                                                    long seed) {
+        return generate(numDatapoints, dimensions, seed, false);
+    }
+
+    /** Generates a regression dataset, with the value being the sum of the
+     * squares of the coordinates.
+     *
+     * @param numDatapoints The number of datapoints.
+     * @param dimensions The number of coordinates per datapoint (at least 2).
+     * @param seed The seed for the random coordinates.
+     * @return The dataframe.
+     */
+    public static NavigableMap<Header, List<String>> regression(int numDatapoints,
+                                                                int dimensions,
+                                                                long seed) {
+        return generate(numDatapoints, dimensions, seed, true);
+    }
+
+    /** Writes a dataframe to a .csv file in the format read by the
+     * {@code DataSplitter}.
+     *
+     * @param df The dataframe.
+     * @param path The path of the .csv file.
+     * @throws IOException If an IO error occurs.
+     */
+    public static void writeCsv(NavigableMap<Header, List<String>> df, Path path)
+            throws IOException {
+        List<List<String>> columns = new ArrayList<>(df.values());
+        int numDatapoints = columns.get(0).size();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(path.toFile()))) {
+            for (int i = 0; i < numDatapoints; i ++) {
+                StringBuilder line = new StringBuilder();
+                for (int c = 0; c < columns.size(); c ++) {
+                    if (c > 0) {
+                        line.append(',');
+                    }
+                    line.append(columns.get(c).get(i));
+                }
+                writer.println(line);
+            }
+        }
+    }
+
+    private static NavigableMap<Header, List<String>> generate(int numDatapoints,
+                                                               int dimensions,
+                                                               long seed,
+                                                               boolean regression) {
+        Random random = new Random(seed);
+        Header.setDimensions(dimensions);
+        Header[] headers = Header.values();
+        NavigableMap<Header, List<String>> df = new TreeMap<>();
+        for (int c = 0; c < dimensions; c ++) {
+            df.put(headers[c], new ArrayList<>(numDatapoints));
+        }
+        df.put(Header.Y, new ArrayList<>(numDatapoints));
+        double[] x = new double[dimensions];
+        for (int i = 0; i < numDatapoints; i ++) {
+            double sumOfSquares = 0.0;
+            for (int c = 0; c < dimensions; c ++) {
+                x[c] = random.nextDouble(-1, 1);
+                sumOfSquares += x[c] * x[c];
+                df.get(headers[c]).add(Double.toString(x[c]));
+            }
+            df.get(Header.Y).add(regression ? Double.toString(sumOfSquares)
+                    : (x[0] * x[1] >= 0 ? "a" : "b"));
+        }
+        return df;
+    }
+}
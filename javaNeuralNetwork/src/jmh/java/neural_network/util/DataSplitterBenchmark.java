@@ -0,0 +1,49 @@
+package neural_network.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmark for reading and splitting a .csv file with the
+ * {@code DataSplitter}, into dataframes or a {@code Dataset}, across dataset sizes.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class DataSplitterBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int numDatapoints;
+
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = Files.createTempFile("dataSplitterBenchmark", ".csv");
+        BenchmarkData.writeCsv(BenchmarkData.classification(numDatapoints, 2, 42), path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public List<NavigableMap<Header, List<String>>> split() {
+        return new DataSplitter(path.toString(), List.of(3, 1, 1)).split();
+    }
+
+    @Benchmark
+    public List<Dataset> splitDataset() {
+        return new DataSplitter(path.toString(), List.of(3, 1, 1)).splitDataset(false);
+    }
+}
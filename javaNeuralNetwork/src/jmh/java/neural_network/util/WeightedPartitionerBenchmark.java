@@ -0,0 +1,43 @@
+package neural_network.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmark for one call of the {@code WeightedPartitioner} (one epoch of
+ * batches), across dataset sizes.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WeightedPartitionerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int numDatapoints;
+
+    @Param({"false", "true"})
+    public boolean regression;
+
+    private WeightedPartitioner partitioner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Double> yVals = (regression
+                ? BenchmarkData.regression(numDatapoints, 2, 42).get(Header.Y).stream()
+                        .map(Double::valueOf)
+                : BenchmarkData.classification(numDatapoints, 2, 42).get(Header.Y).stream()
+                        .map(y -> y.equals("a") ? 0.0 : 1.0))
+                .toList();
+        partitioner = new WeightedPartitioner(numDatapoints, 32, yVals, regression, 10);
+    }
+
+    @Benchmark
+    public List<List<Integer>> call() {
+        return partitioner.call();
+    }
+}
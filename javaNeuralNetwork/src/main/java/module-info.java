@@ -5,6 +5,8 @@
 module javaNeuralNetwork.main {
     requires static org.apache.commons.csv;
     requires static org.knowm.xchart;
+    // Optional SIMD kernels (see VectorKernels)
+    requires static jdk.incubator.vector;
     requires java.datatransfer;
     requires java.desktop;
 }
\ No newline at end of file
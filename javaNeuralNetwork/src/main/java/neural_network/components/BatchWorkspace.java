@@ -0,0 +1,175 @@
+package neural_network.components;
+
+import java.util.Arrays;
+import java.util.List;
+
+/** Class to hold the scratch matrices needed to pass a whole batch of
+ * datapoints through a {@code Network} at once.
+ * <p>
+ * For each {@code Layer}, the {@code BatchWorkspace} holds a matrix of values
+ * and a matrix of deltas (one row per datapoint), as well as the gradients of
+ * the loss accumulated for the incoming weights and the biases. All matrices
+ * are row-major {@code double[]} arrays which are allocated once and reused for
+ * every batch, up to a size of {@code capacity}.
+ * </p>
+ *
+ */
+public class BatchWorkspace {
+
+    private final int capacity;
+    private final int[] layerSizes;
+
+    // Per-layer matrices, with one row per datapoint
+    private final double[][] values;
+    private final double[][] deltas;
+
+    // Per-layer gradients of the loss, summed over the datapoints
+    private final double[][] weightGradients;
+    private final double[][] biasGradients;
+    private int numGradients = 0;
+
+    // Whether the deltas of the output layer were found in the forward pass
+    private boolean outputDeltasStored = false;
+
+    /** Constructor method.
+     *
+     * @param layerSizes The number of {@code Neurons} in each {@code Layer} of
+     *                   the {@code Network} (including input and output).
+     * @param capacity The maximum number of datapoints in one batch.
+     */
+    BatchWorkspace(List<Integer> layerSizes, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive (%d)"
+                    .formatted(capacity));
+        }
+        int numLayers = layerSizes.size();
+        this.capacity = capacity;
+        this.layerSizes = new int[numLayers];
+        this.values = new double[numLayers][];
+        this.deltas = new double[numLayers][];
+        this.weightGradients = new double[numLayers][];
+        this.biasGradients = new double[numLayers][];
+        for (int i = 0; i < numLayers; i ++) {
+            int size = layerSizes.get(i);
+            this.layerSizes[i] = size;
+            values[i] = new double[capacity * size];
+            deltas[i] = new double[capacity * size];
+            if (i > 0) {
+                weightGradients[i] = new double[size * layerSizes.get(i - 1)];
+                biasGradients[i] = new double[size];
+            }
+        }
+    }
+
+    /** Getter method for {@code capacity}.
+     *
+     * @return The maximum number of datapoints in one batch.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** The number of {@code Layers} in the {@code Network}.
+     *
+     * @return The number of {@code Layers} (including input and output).
+     */
+    int getNumLayers() {
+        return layerSizes.length;
+    }
+
+    /** The number of {@code Neurons} in a {@code Layer}.
+     *
+     * @param layer The index of the {@code Layer}.
+     * @return The size of the {@code Layer}.
+     */
+    int getLayerSize(int layer) {
+        return layerSizes[layer];
+    }
+
+    /** Getter method for the matrix of values of one {@code Layer}. Note that
+     * this is not a copy.
+     *
+     * @param layer The index of the {@code Layer}.
+     * @return The values, with one row per datapoint.
+     */
+    double[] getValues(int layer) {
+        return values[layer];
+    }
+
+    /** Getter method for the matrix of deltas of one {@code Layer}. Note that
+     * this is not a copy.
+     *
+     * @param layer The index of the {@code Layer}.
+     * @return The deltas, with one row per datapoint.
+     */
+    double[] getDeltas(int layer) {
+        return deltas[layer];
+    }
+
+    /** Getter method for the summed weight gradients of one {@code Layer}. Note
+     * that this is not a copy.
+     *
+     * @param layer The index of the {@code Layer}.
+     * @return The weight gradients (right {@code Neuron} x left {@code Neuron}).
+     */
+    double[] getWeightGradients(int layer) {
+        return weightGradients[layer];
+    }
+
+    /** Getter method for the summed bias gradients of one {@code Layer}. Note
+     * that this is not a copy.
+     *
+     * @param layer The index of the {@code Layer}.
+     * @return The bias gradients.
+     */
+    double[] getBiasGradients(int layer) {
+        return biasGradients[layer];
+    }
+
+    /** Getter method for {@code numGradients}.
+     *
+     * @return The number of datapoints whose gradients have been summed since
+     * the last call to {@code clearGradients}.
+     */
+    int getNumGradients() {
+        return numGradients;
+    }
+
+    /** Records that the gradients of a further {@code n} datapoints have been
+     * summed.
+     *
+     * @param n The number of datapoints.
+     */
+    void addNumGradients(int n) {
+        numGradients += n;
+    }
+
+    /** Getter method for {@code outputDeltasStored}.
+     *
+     * @return Whether the deltas of the output {@code Layer} were found by the
+     * last forward pass.
+     */
+    boolean isOutputDeltasStored() {
+        return outputDeltasStored;
+    }
+
+    /** Setter method for {@code outputDeltasStored}.
+     *
+     * @param outputDeltasStored Whether the deltas of the output {@code Layer}
+     *                           were found by the last forward pass.
+     */
+    void setOutputDeltasStored(boolean outputDeltasStored) {
+        this.outputDeltasStored = outputDeltasStored;
+    }
+
+    /** Resets all the summed gradients to zero.
+     *
+     */
+    void clearGradients() {
+        for (int i = 1; i < layerSizes.length; i ++) {
+            Arrays.fill(weightGradients[i], 0.0);
+            Arrays.fill(biasGradients[i], 0.0);
+        }
+        numGradients = 0;
+    }
+}
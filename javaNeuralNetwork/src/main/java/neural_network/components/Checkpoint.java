@@ -0,0 +1,273 @@
+package neural_network.components;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Class to save a {@code Network} to, and load it from, a compact binary
+ * checkpoint file.
+ * <p>
+ * The file starts with a magic number and a format version, followed by the
+ * layer sizes, the hyperparameters (leak, learning rate, adaptive, gamma and
+ * the regression flag), the epoch at which the checkpoint was taken, the
+ * category names, and the class name, number of moments and step of the
+ * {@code Optimiser} last used to train (an empty name if there was none). The
+ * weights, biases, velocities and {@code Optimiser} moments of each
+ * {@code Layer} follow as raw {@code doubles}, in the same row-major order as
+ * the arrays of the {@code Layer}. Files are loaded by memory-mapping them, so that each of
+ * these arrays is filled by a single bulk copy.
+ * </p>
+ *
+ */
+public final class Checkpoint {
+
+    // "NNCP" in ASCII
+    private static final int MAGIC = 0x4E4E4350;
+    static final int VERSION = 2;
+
+    private final Network network;
+    private final List<String> categoryNames;
+    private final int epoch;
+
+    /** Constructor method.
+     *
+     * @param network The loaded {@code Network}.
+     * @param categoryNames The category names (empty for regression).
+     * @param epoch The number of epochs trained when the checkpoint was taken.
+     */
+    private Checkpoint(Network network, List<String> categoryNames, int epoch) {
+        this.network = network;
+        this.categoryNames = List.copyOf(categoryNames);
+        this.epoch = epoch;
+    }
+
+    /** Saves the {@code network} to a checkpoint file. The file is first written
+     * alongside {@code path} and then moved into place, so a crash while saving
+     * never leaves a partially written checkpoint at {@code path}.
+     *
+     * @param network The {@code Network} to save.
+     * @param categoryNames The category names (empty for regression).
+     * @param epoch The number of epochs trained so far.
+     * @param path The path of the checkpoint file.
+     * @throws IOException If an IO error occurs.
+     */
+    public static void save(Network network, List<String> categoryNames, int epoch, Path path)
+            throws IOException {
+        Path absolutePath = path.toAbsolutePath();
+        Path temporaryPath = absolutePath.resolveSibling(absolutePath.getFileName() + ".tmp");
+        List<Layer> layers = network.getLayers();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporaryPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            // Shape and hyperparameters
+            out.writeInt(layers.size());
+            for (Layer layer : layers) {
+                out.writeInt(layer.size());
+            }
+            out.writeDouble(network.getLeak());
+            out.writeDouble(network.getLearningRate());
+            out.writeBoolean(network.isAdaptive());
+            out.writeDouble(network.getGamma());
+            out.writeBoolean(network.isRegressor());
+            out.writeInt(epoch);
+            out.writeInt(categoryNames.size());
+            for (String name : categoryNames) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            // Optimiser state
+            String optimiserName = network.getOptimiserName();
+            int numMoments = (optimiserName != null)
+                    ? layers.get(1).getWeightMoments().length : 0;
+            byte[] optimiserBytes = (optimiserName != null)
+                    ? optimiserName.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            out.writeInt(optimiserBytes.length);
+            out.write(optimiserBytes);
+            out.writeInt(numMoments);
+            out.writeInt(network.getOptimiserStep());
+
+            // Parameters of each layer (after the input layer)
+            for (Layer layer : layers.subList(1, layers.size())) {
+                writeDoubles(out, layer.getWeights());
+                writeDoubles(out, layer.getBiases());
+                writeDoubles(out, layer.getVelocities());
+                for (int m = 0; m < numMoments; m ++) {
+                    writeDoubles(out, layer.getWeightMoments()[m]);
+                    writeDoubles(out, layer.getBiasMoments()[m]);
+                }
+            }
+        }
+        Files.move(temporaryPath, absolutePath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Loads a checkpoint file by memory-mapping it.
+     *
+     * @param path The path of the checkpoint file.
+     * @return The {@code Checkpoint}, holding the loaded {@code Network}.
+     * @throws IOException If an IO error occurs.
+     * @throws IllegalArgumentException If the file is not a checkpoint, or was
+     * written with an unsupported version of the format.
+     */
+    public static Checkpoint load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("%s is not a Network checkpoint"
+                        .formatted(path));
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(
+                        "Unsupported checkpoint version %d (expected %d)"
+                                .formatted(version, VERSION));
+            }
+
+            // Shape and hyperparameters
+            int numLayers = buffer.getInt();
+            List<Integer> layerSizes = new ArrayList<>();
+            for (int i = 0; i < numLayers; i ++) {
+                layerSizes.add(buffer.getInt());
+            }
+            double leak = buffer.getDouble();
+            double learningRate = buffer.getDouble();
+            boolean adaptive = buffer.get() != 0;
+            double gamma = buffer.getDouble();
+            boolean regression = buffer.get() != 0;
+            int epoch = buffer.getInt();
+            int numCategories = buffer.getInt();
+            List<String> categoryNames = new ArrayList<>();
+            for (int c = 0; c < numCategories; c ++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                categoryNames.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            byte[] optimiserBytes = new byte[buffer.getInt()];
+            buffer.get(optimiserBytes);
+            String optimiserName = (optimiserBytes.length > 0)
+                    ? new String(optimiserBytes, StandardCharsets.UTF_8) : null;
+            int numMoments = buffer.getInt();
+            int optimiserStep = buffer.getInt();
+
+            // The parameters are all read from the file, so none are drawn
+            Network network = Network.uninitialised(layerSizes.get(0), numLayers - 2,
+                    layerSizes.subList(1, numLayers - 1), layerSizes.get(numLayers - 1),
+                    leak, learningRate, regression, adaptive, gamma);
+            network.restoreOptimiserState(optimiserName, numMoments, optimiserStep);
+            readParameters(buffer, network);
+            return new Checkpoint(network, categoryNames, epoch);
+        }
+    }
+
+    /** Copies the weights, biases, velocities and {@code Optimiser} state of
+     * the loaded {@code network} into another {@code Network} of the same shape
+     * (for example, to resume training). The first {@code Optimiser} of the
+     * saved class then given to the {@code target} carries on from the saved
+     * moments and step.
+     *
+     * @param target The {@code Network} to copy into.
+     * @throws IllegalArgumentException If {@code target} does not have the same
+     * shape as the loaded {@code network}.
+     */
+    public void restoreInto(Network target) {
+        if (! target.getNeuronCounts().equals(network.getNeuronCounts())) {
+            throw new IllegalArgumentException(
+                    "Checkpoint layer sizes %s do not match the Network %s"
+                            .formatted(network.getNeuronCounts(), target.getNeuronCounts()));
+        }
+        List<Layer> sourceLayers = network.getLayers();
+        List<Layer> targetLayers = target.getLayers();
+        int numMoments = sourceLayers.get(1).getWeightMoments().length;
+        target.restoreOptimiserState(network.getOptimiserName(), numMoments,
+                network.getOptimiserStep());
+        for (int i = 1; i < sourceLayers.size(); i ++) {
+            Layer source = sourceLayers.get(i);
+            Layer layer = targetLayers.get(i);
+            System.arraycopy(source.getWeights(), 0, layer.getWeights(), 0,
+                    source.getWeights().length);
+            System.arraycopy(source.getBiases(), 0, layer.getBiases(), 0,
+                    source.getBiases().length);
+            System.arraycopy(source.getVelocities(), 0, layer.getVelocities(), 0,
+                    source.getVelocities().length);
+            for (int m = 0; m < numMoments; m ++) {
+                System.arraycopy(source.getWeightMoments()[m], 0, layer.getWeightMoments()[m],
+                        0, source.getWeights().length);
+                System.arraycopy(source.getBiasMoments()[m], 0, layer.getBiasMoments()[m],
+                        0, source.getBiases().length);
+            }
+        }
+    }
+
+    /** Getter method for {@code network}.
+     *
+     * @return The loaded {@code Network}.
+     */
+    public Network getNetwork() {
+        return network;
+    }
+
+    /** Getter method for {@code categoryNames}.
+     *
+     * @return The category names (empty for regression).
+     */
+    public List<String> getCategoryNames() {
+        return categoryNames;
+    }
+
+    /** Getter method for {@code epoch}.
+     *
+     * @return The number of epochs trained when the checkpoint was taken.
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+
+    /** Writes an array of {@code doubles}.
+     *
+     * @param out The output stream.
+     * @param values The values to write.
+     * @throws IOException If an IO error occurs.
+     */
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    /** Fills the weights, biases, velocities and (already allocated)
+     * {@code Optimiser} moments of each {@code Layer} of the {@code network}
+     * from the mapped file, with one bulk copy per array.
+     *
+     * @param buffer The mapped file, positioned at the first weight.
+     * @param network The {@code Network} to fill.
+     */
+    private static void readParameters(ByteBuffer buffer, Network network) {
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        List<Layer> layers = network.getLayers();
+        for (Layer layer : layers.subList(1, layers.size())) {
+            doubles.get(layer.getWeights());
+            doubles.get(layer.getBiases());
+            doubles.get(layer.getVelocities());
+            for (int m = 0; m < layer.getWeightMoments().length; m ++) {
+                doubles.get(layer.getWeightMoments()[m]);
+                doubles.get(layer.getBiasMoments()[m]);
+            }
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package neural_network.components;
 
+import neural_network.util.RandomStreams;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /** Class to represent an {@code Edge} joining two {@code Neurons} of a
  * {@code Network}
+ * <p>
+ * The {@code weight} and {@code velocity} of the {@code Edge} are stored in the
+ * primitive arrays of the right {@code Layer}. The {@code delta} is that of the
+ * right {@code Neuron}, so it is shared by every {@code Edge} into that
+ * {@code Neuron}.
+ * </p>
  *
  */
 public class Edge {
@@ -13,17 +22,63 @@ public class Edge {
     private final Neuron leftNeuron;
     private final Neuron rightNeuron;
     private final List<Integer> id = new ArrayList<>();
-    private double weight;
+    private final double[] weights;
+    private final double[] velocities;
+    private final double[] lossGradientSums;
+    private final int[] lossGradientCounts;
+    private final int index;
+    private final double[] deltas;
+    private final int deltaIndex;
     private final List<Double> lossGradients = new ArrayList<>();
-    private double delta = 0.0;
-    private double velocity = 0.0;
-    private static Random random = new Random();
+    private static Random random = null;
+    private static boolean recordGradients = false;
 
-    /** Constructor method.
+    /** Constructor method for a standalone {@code Edge}, which owns its
+     * own storage.
      * @param leftNeuron The left {@code Neuron} of the {@code Edge}.
      * @param rightNeuron The right {@code Neuron} of the {@code Edge}.
      */
     Edge(Neuron leftNeuron, Neuron rightNeuron) {
+        this(leftNeuron, rightNeuron, new double[1], new double[1],
+                new double[1], new int[1], 0, new double[1], 0,
+                RandomStreams.nextStream("edge"));
+    }
+
+    /** Constructor method for an {@code Edge} which is a view over the
+     * storage of the right {@code Layer}.
+     * @param leftNeuron The left {@code Neuron} of the {@code Edge}.
+     * @param rightNeuron The right {@code Neuron} of the {@code Edge}.
+     * @param rightLayer The {@code Layer} containing the {@code rightNeuron}.
+     * @param index The index of this {@code Edge} in the weights of the
+     *              {@code rightLayer}.
+     */
+    Edge(Neuron leftNeuron, Neuron rightNeuron, Layer rightLayer, int index) {
+        this(leftNeuron, rightNeuron, rightLayer, index, RandomStreams.nextStream("edge"));
+    }
+
+    /** Constructor method for an {@code Edge} which is a view over the
+     * storage of the right {@code Layer}, drawing its initial weight from a
+     * given stream (shared by all {@code Edges} of the {@code Layer}).
+     * @param leftNeuron The left {@code Neuron} of the {@code Edge}.
+     * @param rightNeuron The right {@code Neuron} of the {@code Edge}.
+     * @param rightLayer The {@code Layer} containing the {@code rightNeuron}.
+     * @param index The index of this {@code Edge} in the weights of the
+     *              {@code rightLayer}.
+     * @param generator The stream of random numbers for the initial weight,
+     *                  or {@code null} to leave the weight at zero.
+     */
+    Edge(Neuron leftNeuron, Neuron rightNeuron, Layer rightLayer, int index,
+         RandomGenerator generator) {
+        this(leftNeuron, rightNeuron, rightLayer.getWeights(),
+                rightLayer.getVelocities(), rightLayer.getWeightGradients(),
+                rightLayer.getWeightGradientCounts(), index,
+                rightLayer.getDeltas(), rightNeuron.getRow(), generator);
+    }
+
+    private Edge(Neuron leftNeuron, Neuron rightNeuron, double[] weights,
+                 double[] velocities, double[] lossGradientSums,
+                 int[] lossGradientCounts, int index, double[] deltas, int deltaIndex,
+                 RandomGenerator generator) {
         this.leftNeuron = leftNeuron;
         this.rightNeuron = rightNeuron;
         int leftLayerId = leftNeuron.getId().get(0);
@@ -36,21 +91,39 @@ public class Edge {
         }
         // Below is a three-membered id to uniquely determine the edge
         this.id.addAll(List.of(leftLayerId, leftRowId, rightRowId));
-        this.weight = random.nextDouble(-1, 1);
+        this.weights = weights;
+        this.velocities = velocities;
+        this.lossGradientSums = lossGradientSums;
+        this.lossGradientCounts = lossGradientCounts;
+        this.index = index;
+        this.deltas = deltas;
+        this.deltaIndex = deltaIndex;
+        // Without a generator, the weight is left for the caller to fill in
+        if (generator != null) {
+            weights[index] = (random == null ? generator : random).nextDouble(-1, 1);
+        }
     }
 
-    /** Adds an element to the {@code lossGradients} list.
+    /** Adds a loss gradient to the running sum for the current batch (and
+     * to the {@code lossGradients} list if we are recording gradients).
      *
      * @param lossGradient The loss gradient to be added.
      */
     void addLossGradient(double lossGradient) {
-        lossGradients.add(lossGradient);
+        lossGradientSums[index] += lossGradient;
+        lossGradientCounts[index] ++;
+        if (recordGradients) {
+            lossGradients.add(lossGradient);
+        }
     }
 
-    /** Clears the {@code lossGradients} list.
+    /** Resets the running sum of loss gradients (and clears the
+     * {@code lossGradients} list).
      *
      */
     void clearLossGradients() {
+        lossGradientSums[index] = 0.0;
+        lossGradientCounts[index] = 0;
         lossGradients.clear();
     }
 
@@ -83,7 +156,7 @@ public class Edge {
      * @return The {@code weight} of the {@code Edge}.
      */
     double getWeight() {
-        return weight;
+        return weights[index];
     }
 
     /** Setter method for {@code weight}.
@@ -91,23 +164,45 @@ public class Edge {
      * @param weight The new {@code weight}.
      */
     void setWeight(double weight) {
-        this.weight = weight;
+        weights[index] = weight;
     }
 
-    /** Getter method for {@code lossGradients}.
+    /** Getter method for {@code lossGradients}. This is only available when
+     * recording gradients.
      *
      * @return The {@code lossGradients}.
+     * @throws IllegalStateException If we are not recording gradients.
      */
     List<Double> getLossGradients() {
+        if (! recordGradients) {
+            throw new IllegalStateException("Loss gradients are only kept when " +
+                    "recording gradients (see setRecordGradients)");
+        }
         return List.copyOf(lossGradients);
     }
 
+    /** Getter method for the running sum of loss gradients.
+     *
+     * @return The sum of the loss gradients added in this batch.
+     */
+    double getLossGradientSum() {
+        return lossGradientSums[index];
+    }
+
+    /** Getter method for the number of loss gradients.
+     *
+     * @return The number of loss gradients added in this batch.
+     */
+    int getNumLossGradients() {
+        return lossGradientCounts[index];
+    }
+
     /** Getter method for {@code delta}.
      *
      * @return The current {@code delta}.
      */
     double getDelta() {
-        return delta;
+        return deltas[deltaIndex];
     }
 
     /** Setter method for {@code delta}.
@@ -115,7 +210,7 @@ public class Edge {
      * @param delta The new {@code delta}.
      */
     void setDelta(double delta) {
-        this.delta = delta;
+        deltas[deltaIndex] = delta;
     }
 
     /** Getter method for {@code velocity}.
@@ -123,7 +218,7 @@ public class Edge {
      * @return The current {@code velocity} (for adaptive only).
      */
     double getVelocity() {
-        return velocity;
+        return velocities[index];
     }
 
     /** Setter method for {@code velocity}.
@@ -131,18 +226,37 @@ public class Edge {
      * @param velocity The new {@code velocity}.
      */
     void setVelocity(double velocity) {
-        this.velocity = velocity;
+        velocities[index] = velocity;
     }
 
     /** Setter method for {@code random}.
      *
-     * @param random The new {@code random}. This can be used for mocking
-     *               purposes.
+     * @param random The new {@code random}, used in place of the streams of
+     *               {@code RandomStreams} if not {@code null}. This can be
+     *               used for mocking purposes.
      */
     static void setRandom(Random random) {
         Edge.random = random;
     }
 
+    /** Setter method for {@code recordGradients}.
+     *
+     * @param recordGradients If {@code true}, each individual loss gradient is
+     *                        also kept in a list. This is for testing and
+     *                        debugging purposes.
+     */
+    static void setRecordGradients(boolean recordGradients) {
+        Edge.recordGradients = recordGradients;
+    }
+
+    /** Getter method for {@code recordGradients}.
+     *
+     * @return Whether each individual loss gradient is also kept in a list.
+     */
+    static boolean isRecordGradients() {
+        return recordGradients;
+    }
+
     /** String method.
      *
      * @return {@code String} representation of the {@code Edge}.
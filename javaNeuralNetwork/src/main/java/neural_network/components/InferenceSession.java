@@ -0,0 +1,160 @@
+package neural_network.components;
+
+import neural_network.functions.LeakyReLU;
+import neural_network.functions.Softmax;
+import neural_network.functions.VectorKernels;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/** Class to make predictions from a trained {@code Network}, separately from
+ * any training state.
+ * <p>
+ * The {@code InferenceSession} takes a frozen copy of the weights and biases
+ * of the {@code Network} when it is created. Each thread which calls
+ * {@code predict} gets its own scratch arrays for the values of the hidden
+ * {@code Layers}, so no state is shared between calls and one session can be
+ * used from any number of threads at once. After the scratch arrays have been
+ * allocated for a thread, {@code predict} does not allocate any objects,
+ * unless a wide {@code Layer} is split across threads (see
+ * {@code Network.setLayerParallelism}).
+ * </p>
+ *
+ */
+public class InferenceSession {
+
+    private final int numFeatures;
+    private final int numOutputs;
+    private final boolean regression;
+
+    // Frozen copies of the weights and biases of each layer (after the input
+    // layer), with the weights in row-major order (right x left neuron)
+    private final int[] layerSizes;
+    private final double[][] weights;
+    private final double[][] biases;
+
+    // Functions (both stateless for the methods used here)
+    private final LeakyReLU relu;
+    private final Softmax softmax = new Softmax();
+
+    // Intra-layer parallelism, as set on the network when the session was created
+    private final ForkJoinPool layerPool;
+    private final long parallelThreshold;
+
+    // Per-thread values of the hidden layers
+    private final ThreadLocal<double[][]> scratch;
+
+    /** Constructor method, which copies the weights and biases of the
+     * {@code network}.
+     *
+     * @param network The trained {@code Network}.
+     */
+    InferenceSession(Network network) {
+        List<Layer> layers = network.getLayers();
+        int numLayers = layers.size();
+        this.numFeatures = layers.get(0).size();
+        this.numOutputs = layers.get(numLayers - 1).size();
+        this.regression = network.isRegressor();
+        this.layerSizes = new int[numLayers];
+        this.weights = new double[numLayers][];
+        this.biases = new double[numLayers][];
+        for (int i = 0; i < numLayers; i ++) {
+            Layer layer = layers.get(i);
+            layerSizes[i] = layer.size();
+            weights[i] = layer.getWeights().clone();
+            biases[i] = layer.getBiases().clone();
+        }
+        this.relu = new LeakyReLU(network.getLeak());
+        this.layerPool = network.getLayerParallelism();
+        this.parallelThreshold = network.getParallelThreshold();
+        this.scratch = ThreadLocal.withInitial(() -> {
+            double[][] values = new double[numLayers - 1][];
+            for (int i = 1; i < numLayers - 1; i ++) {
+                values[i] = new double[layerSizes[i]];
+            }
+            return values;
+        });
+    }
+
+    /** Performs a forward pass for one datapoint, writing the outputs into
+     * {@code out}. This is safe to call from many threads at once.
+     *
+     * @param in The datapoint, with all features.
+     * @param out The array to hold the softmax probabilities of each class (for
+     *            classification) or the predicted regression value (for
+     *            regression). This must have at least {@code getNumOutputs()}
+     *            elements.
+     */
+    public void predict(double[] in, double[] out) {
+        if (in.length != numFeatures) {
+            throw new IllegalArgumentException(
+                    "Number of features must match the number of neurons in the input layer " +
+                            "(%d != %d)".formatted(in.length, numFeatures));
+        }
+        if (out.length < numOutputs) {
+            throw new IllegalArgumentException(
+                    "out must have space for every output neuron (%d < %d)"
+                            .formatted(out.length, numOutputs));
+        }
+        double[][] values = scratch.get();
+        int outputIndex = layerSizes.length - 1;
+        double[] left = in;
+        for (int i = 1; i <= outputIndex; i ++) {
+            double[] right = (i == outputIndex) ? out : values[i];
+            int numInputs = layerSizes[i - 1];
+            // Wide layers are split across the layerPool (see
+            // Network.setLayerParallelism)
+            if (ParallelRows.isParallel(layerPool, layerSizes[i], numInputs, parallelThreshold)) {
+                int layer = i;
+                double[] layerInputs = left;
+                ParallelRows.run(layerPool, layerSizes[i], numInputs, parallelThreshold,
+                        (from, to) -> predictLayer(layer, layerInputs, right, from, to));
+            } else {
+                predictLayer(i, left, right, 0, layerSizes[i]);
+            }
+            left = right;
+        }
+        if (! regression) {
+            softmax.activate(out, 0, numOutputs);
+        }
+    }
+
+    /** Finds the values of the {@code Neurons} from {@code from} (inclusive)
+     * to {@code to} (exclusive) of one {@code Layer}.
+     *
+     * @param layer The index of the {@code Layer}.
+     * @param left The values of the previous {@code Layer}.
+     * @param right The values of the {@code Layer}, which are overwritten.
+     * @param from The first {@code Neuron} (inclusive).
+     * @param to The last {@code Neuron} (exclusive).
+     */
+    private void predictLayer(int layer, double[] left, double[] right, int from, int to) {
+        int numInputs = layerSizes[layer - 1];
+        double[] layerWeights = weights[layer];
+        double[] layerBiases = biases[layer];
+        for (int j = from; j < to; j ++) {
+            right[j] = VectorKernels.dot(layerWeights, j * numInputs, left, 0, numInputs)
+                    + layerBiases[j];
+        }
+        if (layer < layerSizes.length - 1) {
+            relu.call(right, from, to);
+        }
+    }
+
+    /** Getter method for {@code numFeatures}.
+     *
+     * @return The number of features per datapoint.
+     */
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    /** Getter method for {@code numOutputs}.
+     *
+     * @return The number of outputs per datapoint (the number of classes, or 1
+     * for regression).
+     */
+    public int getNumOutputs() {
+        return numOutputs;
+    }
+}
@@ -1,10 +1,18 @@
 package neural_network.components;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Stream;
 
 /** Class to represent one {@code Layer} of a {@code Network}.
+ * <p>
+ * The {@code Layer} owns the primitive storage for its {@code Neurons} and for
+ * the {@code Edges} coming into it from the previous {@code Layer}. The
+ * {@code weights} are stored contiguously in row-major order, with one row per
+ * (right) {@code Neuron} of this {@code Layer} and one column per (left)
+ * {@code Neuron} of the previous {@code Layer}. The {@code Neuron} and
+ * {@code Edge} objects are simply views over these arrays.
+ * </p>
  * @version 1.0.0
  * @since 1.0.0
  */
@@ -12,20 +20,61 @@ public class Layer {
 
     private final int id;
     private final int numNeurons;
+    private final int numInputs;
     private final List<Neuron> neurons = new ArrayList<>();
 
-    /** Constructor method.
+    // Primitive storage, shared with the Neuron and Edge views
+    private final double[] values;
+    private final double[] biases;
+    private final double[] weights;
+    private final double[] velocities;
+
+    // State of the Optimiser (if any), parallel to the weights and biases
+    private double[][] weightMoments = new double[0][];
+    private double[][] biasMoments = new double[0][];
+
+    // Deltas of the Neurons in the last backward pass, shared with the Edge views
+    private final double[] deltas;
+
+    // Running sums (and counts) of the gradients of the loss over a batch
+    private final double[] weightGradients;
+    private final int[] weightGradientCounts;
+    private final double[] biasGradients;
+    private final int[] biasGradientCounts;
+
+    /** Constructor method for a {@code Layer} with no incoming {@code Edges}
+     * (such as the input {@code Layer}).
      *
      * @param id The id of the {@code Layer}.
      * @param numNeurons The number of {@code Neurons} in the {@code Layer}.
      */
     Layer(int id, int numNeurons) {
+        this(id, numNeurons, 0);
+    }
+
+    /** Constructor method.
+     *
+     * @param id The id of the {@code Layer}.
+     * @param numNeurons The number of {@code Neurons} in the {@code Layer}.
+     * @param numInputs The number of {@code Neurons} in the previous {@code Layer}.
+     */
+    Layer(int id, int numNeurons, int numInputs) {
         this.id = id;
         this.numNeurons = numNeurons;
-        this.neurons.addAll(Stream
-                .iterate(0, j -> j < numNeurons, j -> j + 1)
-                .map(j -> new Neuron(id, j))
-                .toList());
+        this.numInputs = numInputs;
+        this.values = new double[numNeurons];
+        Arrays.fill(values, Double.NaN);
+        this.biases = new double[numNeurons];
+        this.weights = new double[numNeurons * numInputs];
+        this.velocities = new double[numNeurons * numInputs];
+        this.deltas = new double[numNeurons];
+        this.weightGradients = new double[numNeurons * numInputs];
+        this.weightGradientCounts = new int[numNeurons * numInputs];
+        this.biasGradients = new double[numNeurons];
+        this.biasGradientCounts = new int[numNeurons];
+        for (int j = 0; j < numNeurons; j ++) {
+            neurons.add(new Neuron(this, j));
+        }
     }
 
     /** Getter method for {@code id}.
@@ -44,6 +93,16 @@ public class Layer {
         return List.copyOf(neurons);
     }
 
+    /** Getter method for a single {@code Neuron}, without copying the
+     * {@code neurons} list.
+     *
+     * @param row The row of the {@code Neuron}.
+     * @return The {@code Neuron} in that row.
+     */
+    Neuron getNeuron(int row) {
+        return neurons.get(row);
+    }
+
     /** The size of the {@code Layer}.
      *
      * @return The number of {@code Neurons} in the {@code Layer}.
@@ -52,6 +111,125 @@ public class Layer {
         return numNeurons;
     }
 
+    /** Getter method for {@code numInputs}.
+     *
+     * @return The number of {@code Neurons} in the previous {@code Layer}.
+     */
+    int getNumInputs() {
+        return numInputs;
+    }
+
+    /** Getter method for the backing {@code values} array. Note that this is
+     * not a copy.
+     *
+     * @return The values of the {@code Neurons}.
+     */
+    double[] getValues() {
+        return values;
+    }
+
+    /** Getter method for the backing {@code biases} array. Note that this is
+     * not a copy.
+     *
+     * @return The biases of the {@code Neurons}.
+     */
+    double[] getBiases() {
+        return biases;
+    }
+
+    /** Getter method for the backing {@code weights} array. Note that this is
+     * not a copy.
+     *
+     * @return The incoming weights in row-major order (right {@code Neuron} x
+     * left {@code Neuron}).
+     */
+    double[] getWeights() {
+        return weights;
+    }
+
+    /** Getter method for the backing {@code velocities} array. Note that this
+     * is not a copy.
+     *
+     * @return The velocities of the incoming weights (for adaptive only).
+     */
+    double[] getVelocities() {
+        return velocities;
+    }
+
+    /** Allocates new (zero) moments of an {@code Optimiser} for the weights
+     * and biases, discarding any previous moments.
+     *
+     * @param numMoments The number of moments for each of the weights and biases.
+     */
+    void allocateMoments(int numMoments) {
+        weightMoments = new double[numMoments][weights.length];
+        biasMoments = new double[numMoments][numNeurons];
+    }
+
+    /** Getter method for the backing {@code weightMoments} arrays. Note that
+     * these are not copies.
+     *
+     * @return The moments of the {@code Optimiser} for the weights.
+     */
+    double[][] getWeightMoments() {
+        return weightMoments;
+    }
+
+    /** Getter method for the backing {@code biasMoments} arrays. Note that
+     * these are not copies.
+     *
+     * @return The moments of the {@code Optimiser} for the biases.
+     */
+    double[][] getBiasMoments() {
+        return biasMoments;
+    }
+
+    /** Getter method for the backing {@code deltas} array. Note that this is
+     * not a copy.
+     *
+     * @return The gradients of the loss with respect to the pre-activated
+     * values of the {@code Neurons}, from the last backward pass.
+     */
+    double[] getDeltas() {
+        return deltas;
+    }
+
+    /** Getter method for the backing {@code weightGradients} array. Note that
+     * this is not a copy.
+     *
+     * @return The running sums of the loss gradients for each incoming weight.
+     */
+    double[] getWeightGradients() {
+        return weightGradients;
+    }
+
+    /** Getter method for the backing {@code weightGradientCounts} array. Note
+     * that this is not a copy.
+     *
+     * @return The number of loss gradients summed for each incoming weight.
+     */
+    int[] getWeightGradientCounts() {
+        return weightGradientCounts;
+    }
+
+    /** Getter method for the backing {@code biasGradients} array. Note that
+     * this is not a copy.
+     *
+     * @return The running sums of the bias gradients for each {@code Neuron}.
+     */
+    double[] getBiasGradients() {
+        return biasGradients;
+    }
+
+    /** Getter method for the backing {@code biasGradientCounts} array. Note
+     * that this is not a copy.
+     *
+     * @return The number of bias gradients summed for each {@code Neuron}.
+     */
+    int[] getBiasGradientCounts() {
+        return biasGradientCounts;
+    }
+
     /** String method.
      *
      * @return {@code String} representation of the {@code Layer}.
@@ -2,18 +2,29 @@ package neural_network.components;
 
 import neural_network.functions.LeakyReLU;
 import neural_network.functions.MSELoss;
+import neural_network.functions.MatrixKernels;
 import neural_network.functions.Softmax;
+import neural_network.functions.SoftmaxCrossEntropy;
 import neural_network.functions.TransferFunction;
+import neural_network.functions.VectorKernels;
+import neural_network.optimisers.Optimiser;
+import neural_network.util.RandomStreams;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Stream;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
 import static java.lang.Math.sqrt;
 
 /** Class to represent the whole network.
+ * <p>
+ * The weights, biases and values of the {@code Network} are held in contiguous
+ * primitive arrays owned by each {@code Layer}, with the {@code Edges} and
+ * {@code Neurons} acting as views over these arrays.
+ * </p>
  *
  */
 public class Network {
@@ -35,17 +46,33 @@ public class Network {
     // Edge info
     private final List<List<List<Edge>>> edges = new ArrayList<>();
 
-    // Functions
+    // Functions. The activators are final classes called through their
+    // primitive methods, so the calls are monomorphic and can be inlined
     private final TransferFunction transfer;
     private final LeakyReLU relu;
     private MSELoss mseLoss = null;
     private Softmax softmax = null;
 
     // Hyperparameters
-    private final double learningRate;
+    private final double leak;
+    private double learningRate;
     private final boolean adaptive;
     private final double gamma;
-    private static Random random = new Random();
+    private static Random random = null;
+
+    // The Optimiser which the moments of the layers belong to, and the number
+    // of updates it has made
+    private Optimiser optimiser = null;
+    private int optimiserStep = 0;
+    // The class of the Optimiser whose moments were restored from a
+    // Checkpoint, until an Optimiser of that class takes them over
+    private String restoredOptimiser = null;
+
+    // Intra-layer parallelism for wide layers (see setLayerParallelism), with
+    // the number of multiply-adds per task
+    private static final long DEFAULT_PARALLEL_THRESHOLD = 1 << 15;
+    private ForkJoinPool layerPool = null;
+    private long parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
     /** Minimal constructor - need to specify number of inputs, outputs and
      * hidden layers.
@@ -92,6 +119,36 @@ public class Network {
     public Network(int numFeatures, int numHiddenLayers, List<Integer> neuronCounts,
                    int numClasses, double leak, double learningRate, boolean regression,
                    boolean adaptive, double gamma, boolean heWeights) {
+        this(numFeatures, numHiddenLayers, neuronCounts, numClasses, leak, learningRate,
+                regression, adaptive, gamma, heWeights, true);
+    }
+
+    /** Creates a {@code Network} whose weights are all zero, to be filled in
+     * by the caller (for example, from a {@code Checkpoint}). No random numbers
+     * are drawn, so creating it does not change the weights of the
+     * {@code Networks} created after it (see {@code RandomStreams}).
+     *
+     * @param numFeatures The number of coordinates per datapoint.
+     * @param numHiddenLayers The number of hidden {@code Layers} for the {@code Network}.
+     * @param neuronCounts The number of {@code Neurons} in each hidden {@code Layer}.
+     * @param numClasses The number of classes for a classification task.
+     * @param leak The leak for the {@code LeakyReLU}.
+     * @param learningRate The learning rate of the {@code Network}.
+     * @param regression Whether we are performing regression or not.
+     * @param adaptive Whether we wish to have an adaptive {@code learningRate} or not.
+     * @param gamma The adaptive learning rate parameter.
+     * @return The new {@code Network}.
+     */
+    static Network uninitialised(int numFeatures, int numHiddenLayers, List<Integer> neuronCounts,
+                                 int numClasses, double leak, double learningRate,
+                                 boolean regression, boolean adaptive, double gamma) {
+        return new Network(numFeatures, numHiddenLayers, neuronCounts, numClasses, leak,
+                learningRate, regression, adaptive, gamma, false, false);
+    }
+
+    private Network(int numFeatures, int numHiddenLayers, List<Integer> neuronCounts,
+                    int numClasses, double leak, double learningRate, boolean regression,
+                    boolean adaptive, double gamma, boolean heWeights, boolean initialise) {
         if (numHiddenLayers != neuronCounts.size()) {
             throw new IllegalArgumentException(
                     "neuronCounts (%d) must have a length equal to numHiddenLayers (%d)"
@@ -111,33 +168,44 @@ public class Network {
 
         // Layers
         this.inputLayer = new Layer(0, numFeatures);
-        this.hiddenLayers.addAll(Stream
-                .iterate(1, j -> j <= numHiddenLayers, j -> j + 1)
-                .map(j -> new Layer(j, neuronCounts.get(j - 1)))
-                .toList());
-        this.outputLayer = new Layer(numHiddenLayers + 1, numClasses);
+        int numInputs = numFeatures;
+        for (int j = 1; j <= numHiddenLayers; j ++) {
+            hiddenLayers.add(new Layer(j, neuronCounts.get(j - 1), numInputs));
+            numInputs = neuronCounts.get(j - 1);
+        }
+        this.outputLayer = new Layer(numHiddenLayers + 1, numClasses, numInputs);
         this.layers.add(inputLayer);
         this.layers.addAll(hiddenLayers);
         this.layers.add(outputLayer);
 
         // Edges
-        // Order in edges is left layer then right neuron then left neuron
+        // Each pair of layers draws its initial weights from its own stream,
+        // keyed by this network and the index of the right layer (unless the
+        // weights are not initialised)
+        long instance = initialise ? RandomStreams.nextInstance("network") : -1;
+        // Order in edges is left layer then right neuron then left neuron.
+        // Each edge is a view over the weights of the right layer, which are
+        // stored in the same order (right neuron then left neuron)
         for (int i = 0; i <= numHiddenLayers; i ++) {
             Layer leftLayer = layers.get(i);
             Layer rightLayer = layers.get(i + 1);
             List<List<Edge>> layerList = new ArrayList<>();
+            SplittableRandom layerRandom = initialise
+                    ? RandomStreams.stream("network", instance, i + 1) : null;
             for (Neuron rightNeuron : rightLayer.getNeurons()) {
+                int offset = rightNeuron.getRow() * leftLayer.size();
                 List<Edge> edgeList = leftLayer.getNeurons().stream()
-                        .map(leftNeuron -> new Edge(leftNeuron, rightNeuron))
+                        .map(leftNeuron -> new Edge(leftNeuron, rightNeuron,
+                                rightLayer, offset + leftNeuron.getRow(), layerRandom))
                         .toList();
                 layerList.add(edgeList);
 
                 // If we are using He initialisation, we will set the weights here
                 // according to that (mean = 0, std dev = 2 / leftLayer.size())
-                if (heWeights) {
+                if (heWeights && initialise) {
                     int n = leftLayer.size();
                     for (Edge edge : edgeList) {
-                        edge.setWeight(random.nextGaussian(0.0,
+                        edge.setWeight((random == null ? layerRandom : random).nextGaussian(0.0,
                                 sqrt(2.0 / n)));
                     }
                 }
@@ -155,6 +223,7 @@ public class Network {
         }
 
         // Hyper-parameters
+        this.leak = leak;
         this.learningRate = learningRate;
         this.adaptive = adaptive;
         this.gamma = gamma;
@@ -176,48 +245,158 @@ public class Network {
         }
 
         // Input layer
-        List<Neuron> inputNeurons = inputLayer.getNeurons();
+        double[] inputValues = inputLayer.getValues();
         for (int j = 0; j < inputLayer.size(); j ++) {
-            inputNeurons.get(j).setValue(x.get(j));
+            inputValues[j] = x.get(j);
         }
 
-        // This is setting up for the output layer
+        // Hidden layers
+        forwardPassHiddenLayers();
+
+        // Output layer
+        Layer leftLayer = layers.get(numHiddenLayers);
+        if (regression) {
+            // We only have one output neuron with linear activation
+            // for a regression network
+            Neuron outputNeuron = outputLayer.getNeuron(0);
+            double z = calculatePreActivatedValue(leftLayer, outputNeuron);
+            outputNeuron.setValue(z);
+            return new ArrayList<>(List.of(z));
+        }
         List<Double> zOutputLayer = new ArrayList<>();
-        // Hidden layers and output layer
-        for (Layer leftLayer : layers.subList(0, layers.size() - 1)) {
-            Layer rightLayer = layers.get(leftLayer.getId() + 1);
-
-            if (rightLayer.getId() != outputLayer.getId()) {
-                for (Neuron rightNeuron : rightLayer.getNeurons()) {
-                    // Calculates the desired value for each neuron
-                    double z = calculatePreActivatedValue(leftLayer, rightNeuron);
-                    // Uses ReLU activation for the neuron
-                    rightNeuron.setValue(relu.call(z));
-                }
-            } else {
-                if (regression) {
-                    // We only have one output neuron with linear activation
-                    // for a regression network
-                    Neuron outputNeuron = outputLayer.getNeurons().get(0);
-                    double z = calculatePreActivatedValue(leftLayer, outputNeuron);
-                    outputNeuron.setValue(z);
-                    // Here, we exit the method, returning the value of the
-                    // output neuron
-                    return new ArrayList<>(List.of(z));
-                } else {
-                    for (Neuron rightNeuron : rightLayer.getNeurons()) {
-                        double z = calculatePreActivatedValue(leftLayer, rightNeuron);
-                        zOutputLayer.add(z);
-                    }
-                }
-            }
+        for (int j = 0; j < outputLayer.size(); j ++) {
+            zOutputLayer.add(calculatePreActivatedValue(leftLayer, outputLayer.getNeuron(j)));
         }
 
-        // Output layer
         // Activates the output layer using softmax activation
         return activateOutputLayer(zOutputLayer);
     }
 
+    /** Performs a forward pass for one datapoint, working directly on the
+     * primitive arrays of the {@code Network} so that no objects are allocated.
+     * Note that the returned array is the backing array of the {@code outputLayer},
+     * so it will be overwritten by the next forward pass.
+     *
+     * @param x The datapoint, with all features.
+     * @return The softmax probabilities of each class (for classification) or
+     *             the predicted regression value (for regression).
+     */
+    public double[] forwardPassOneDatapoint(double[] x) {
+        double[] outputValues = forwardPassToLogits(x);
+        if (! regression) {
+            softmax.activate(outputValues);
+        }
+        return outputValues;
+    }
+
+    /** Performs a forward pass for one datapoint, like
+     * {@code forwardPassOneDatapoint(double[])}, and also finds its loss. For
+     * classification, the softmax activation, cross entropy loss and predicted
+     * class are all found by the fused {@code SoftmaxCrossEntropy} kernel on
+     * the values of the {@code outputLayer}, which then hold the softmax
+     * probabilities for a following call to {@code storeGradientsOfLoss}.
+     *
+     * @param x The datapoint, with all features.
+     * @param target The true class/value of the datapoint.
+     * @param prediction For classification, the predicted class is written to
+     *                   {@code prediction[0]}. It is not used for regression.
+     * @return The loss of the datapoint.
+     */
+    public double forwardPassOneDatapoint(double[] x, double target, int[] prediction) {
+        double[] outputValues = forwardPassToLogits(x);
+        if (regression) {
+            return mseLoss.call(outputValues[0], target);
+        }
+        return SoftmaxCrossEntropy.call(outputValues, (int) target, null, prediction);
+    }
+
+    /** Passes one datapoint through the {@code Network} up to the pre-activated
+     * values of the {@code outputLayer}, working directly on the primitive
+     * arrays of the {@code Network}.
+     *
+     * @param x The datapoint, with all features.
+     * @return The backing array of values of the {@code outputLayer}.
+     */
+    private double[] forwardPassToLogits(double[] x) {
+        if (x.length != inputLayer.size()) {
+            throw new IllegalArgumentException(
+                    "Number of features must match the number of neurons in the input layer " +
+                            "(%d != %d)".formatted(x.length, inputLayer.size()));
+        }
+        System.arraycopy(x, 0, inputLayer.getValues(), 0, x.length);
+        forwardPassHiddenLayers();
+
+        // Output layer, with linear activation for regression (and softmax
+        // activation for classification left to the caller)
+        Layer leftLayer = layers.get(numHiddenLayers);
+        double[] outputValues = outputLayer.getValues();
+        if (isParallel(outputLayer, leftLayer)) {
+            forwardPassLayer(leftLayer, outputLayer, false);
+        } else {
+            for (int j = 0; j < outputLayer.size(); j ++) {
+                outputValues[j] = calculatePreActivatedValue(leftLayer, outputLayer.getNeuron(j));
+            }
+        }
+        return outputValues;
+    }
+
+    /** Propagates the values of the {@code inputLayer} through all the hidden
+     * {@code Layers}, using {@code LeakyReLU} activation.
+     *
+     */
+    void forwardPassHiddenLayers() {
+        for (int i = 1; i <= numHiddenLayers; i ++) {
+            Layer leftLayer = layers.get(i - 1);
+            Layer rightLayer = layers.get(i);
+            if (isParallel(rightLayer, leftLayer)) {
+                forwardPassLayer(leftLayer, rightLayer, true);
+                continue;
+            }
+            for (int j = 0; j < rightLayer.size(); j ++) {
+                Neuron rightNeuron = rightLayer.getNeuron(j);
+                // Calculates the desired value for each neuron
+                double z = calculatePreActivatedValue(leftLayer, rightNeuron);
+                // Uses ReLU activation for the neuron
+                rightNeuron.setValue(relu.call(z));
+            }
+        }
+    }
+
+    /** Propagates the values of the {@code leftLayer} to the {@code rightLayer},
+     * splitting the rows of the weights of the {@code rightLayer} across the
+     * {@code layerPool}.
+     *
+     * @param leftLayer The current left {@code Layer} in forward propagation.
+     * @param rightLayer The current right {@code Layer} in forward propagation.
+     * @param activate Whether to use {@code LeakyReLU} activation.
+     */
+    private void forwardPassLayer(Layer leftLayer, Layer rightLayer, boolean activate) {
+        double[] leftValues = leftLayer.getValues();
+        double[] weights = rightLayer.getWeights();
+        double[] biases = rightLayer.getBiases();
+        double[] values = rightLayer.getValues();
+        int numInputs = leftLayer.size();
+        ParallelRows.run(layerPool, rightLayer.size(), numInputs, parallelThreshold,
+                (from, to) -> {
+                    for (int j = from; j < to; j ++) {
+                        double z = transfer.call(leftValues, weights, j * numInputs, biases[j]);
+                        values[j] = activate ? relu.call(z) : z;
+                    }
+                });
+    }
+
+    /** Whether the weights of the {@code layer} are big enough to be split
+     * across the {@code layerPool}.
+     *
+     * @param layer The {@code Layer}.
+     * @param previousLayer The {@code Layer} to the left of {@code layer}.
+     * @return {@code true} if the work should be split.
+     */
+    private boolean isParallel(Layer layer, Layer previousLayer) {
+        return ParallelRows.isParallel(layerPool, layer.size(), previousLayer.size(),
+                parallelThreshold);
+    }
+
     /** Given a {@code leftLayer} and a {@code rightNeuron}, this calculates the
      * activation function and value from the {@code leftLayer} and propagates
      * this value to the {@code rightNeuron}.
@@ -227,25 +406,13 @@ public class Network {
      * @return The value returned by the {@code transferFunction} before activation.
      */
     double calculatePreActivatedValue(Layer leftLayer, Neuron rightNeuron) {
-        List<Neuron> leftNeurons = leftLayer.getNeurons();
-        int i = rightNeuron.getId().get(0); int j = rightNeuron.getId().get(1);
-
-        // All edges connecting the leftLayer to the rightNeuron
-        List<Edge> innerEdges = edges.get(i - 1).get(j);
-
-        // Lists of values and weights, with the bias
-        List<Double> oList = leftNeurons.stream()
-                .map(Neuron::getValue)
-                .toList();
-        List<Double> weights = innerEdges.stream()
-                .map(Edge::getWeight)
-                .toList();
-        double bias = rightNeuron.getBias();
-        transfer.bindWeights(weights);
-        transfer.bindBias(bias);
+        Layer rightLayer = layers.get(leftLayer.getId() + 1);
+        int row = rightNeuron.getRow();
 
-        // Return the pre-activated value for this neuron
-        return transfer.call(oList);
+        // The weights connecting the leftLayer to the rightNeuron form one
+        // contiguous row of the weights of the rightLayer
+        return transfer.call(leftLayer.getValues(), rightLayer.getWeights(),
+                row * leftLayer.size(), rightNeuron.getBias());
     }
 
     /** Activates the values from the {@code outputLayer} using the {@code softmax}
@@ -256,20 +423,25 @@ public class Network {
      * @return The list of softmax probabilities.
      */
     List<Double> activateOutputLayer(List<Double> zOutputLayer) {
-        softmax.normalise(zOutputLayer);
-        List<Neuron> softmaxNeurons = outputLayer.getNeurons();
+        // The probabilities are found in the values of the outputLayer, so that
+        // no state is stored on the softmax
+        double[] outputValues = outputLayer.getValues();
+        for (int j = 0; j < zOutputLayer.size(); j ++) {
+            outputValues[j] = zOutputLayer.get(j);
+        }
+        softmax.activate(outputValues, 0, zOutputLayer.size());
         List<Double> softmaxVector = new ArrayList<>();
         for (int j = 0; j < zOutputLayer.size(); j ++) {
-            double softmaxValue = softmax.call(zOutputLayer.get(j));
-            softmaxVector.add(softmaxValue);
-            softmaxNeurons.get(j).setValue(softmaxValue);
+            softmaxVector.add(outputValues[j]);
         }
         return softmaxVector;
     }
 
     /** Calculates the gradient of the loss function with respect to one
-     * weight (assigned to the {@code edge}) based on the values at edges of future
-     * layers. One part of the back propagation process.
+     * weight (assigned to the {@code edge}) based on the deltas of future
+     * layers. This finds the delta of the right {@code Neuron} again for each of
+     * its {@code Edges}, so {@code storeGradientsOfLoss} finds each delta only once
+     * instead.
      *
      * @param edge The {@code Edge} containing the weight we are interested in.
      * @param target The target value for the final output neuron for this specific
@@ -286,41 +458,423 @@ public class Network {
 
         int rightIndex = rightNeuron.getId().get(0); int row = rightNeuron.getId().get(1);
 
-        // Output layer
+        double delta;
         if (leftLayerIndex == numHiddenLayers) {
-            double delta = (regression) ? mseLoss.gradient(oRight, target)
+            // Output layer
+            delta = (regression) ? mseLoss.gradient(oRight, target)
                     : oRight - Boolean.compare(row == (int) target, false);
-            edge.setDelta(delta);
-            edge.addLossGradient(oLeft * delta);
-
-            // If this is the first time we call this function for the neuron,
-            // we need to also store the gradient of the loss for the bias
-            if (first) {
-                rightNeuron.addBiasGradient(delta);
-            }
         } else {
-            // Hidden layers
+            // Hidden layers. The weights from the rightNeuron to the layer to
+            // the right of the right layer form one column of its weights
+            Layer rightLayer = layers.get(rightIndex);
             Layer nextLayer = layers.get(rightIndex + 1);
+            double[] nextWeights = nextLayer.getWeights();
+            double[] nextDeltas = nextLayer.getDeltas();
+            double factor = 0.0;
+            for (int j = 0; j < nextLayer.size(); j ++) {
+                factor += nextWeights[j * rightLayer.size() + row] * nextDeltas[j];
+            }
+
+            // Constant (either +1 or self._leak)
+            delta = factor * relu.gradient(oRight);
+        }
+        edge.setDelta(delta);
+        edge.addLossGradient(oLeft * delta);
+
+        // If this is the first time we call this function for the neuron,
+        // we need to also store the gradient of the loss for the bias
+        if (first) {
+            rightNeuron.addBiasGradient(delta);
+        }
+    }
 
-            // Edges connected to the current rightNeuron in the layer to
-            // the right of the right layer
-            List<Edge> nextEdges = Stream
-                    .iterate(0, j -> j < nextLayer.size(), j -> j + 1)
-                    .map(j -> edges.get(rightIndex).get(j).get(row))
-                    .toList();
+    /** Calculates and stores the gradients of the loss with respect to every
+     * weight and bias of the {@code Network} for one datapoint, following a call
+     * to {@code forwardPassOneDatapoint}. The {@code Layers} are walked in
+     * reverse, finding the deltas of each {@code Layer} once from those of the
+     * next {@code Layer} (a transposed matrix-vector product), and the weight
+     * gradients from the deltas and the values of the previous {@code Layer}
+     * (an outer product). This takes time proportional to the number of weights.
+     *
+     * @param target The target value for the final output neuron for this specific
+     *               datapoint.
+     */
+    public void storeGradientsOfLoss(double target) {
+        // Deltas of the output layer
+        double[] outputValues = outputLayer.getValues();
+        double[] outputDeltas = outputLayer.getDeltas();
+        for (int j = 0; j < outputLayer.size(); j ++) {
+            outputDeltas[j] = (regression) ? mseLoss.gradient(outputValues[j], target)
+                    : outputValues[j] - Boolean.compare(j == (int) target, false);
+        }
 
-            double factor = nextEdges.stream()
-                    .mapToDouble(newEdge -> newEdge.getWeight() * newEdge.getDelta())
-                    .sum();
+        for (int i = numHiddenLayers + 1; i >= 1; i --) {
+            Layer layer = layers.get(i);
+            Layer previousLayer = layers.get(i - 1);
+            storeGradientsOfLayer(layer, previousLayer);
+            if (i > 1 && isParallel(layer, previousLayer)) {
+                propagateDeltas(layer, previousLayer);
+            } else if (i > 1) {
+                double[] previousDeltas = previousLayer.getDeltas();
+                MatrixKernels.multiply(layer.getDeltas(), layer.getWeights(), previousDeltas,
+                        1, layer.size(), previousLayer.size());
+                relu.multiplyByGradient(previousLayer.getValues(), previousDeltas,
+                        0, previousLayer.size());
+            }
+        }
+    }
 
-            // Constant (either +1 or self._leak)
-            double reluGrad = relu.gradient(oRight);
-            double delta = factor * reluGrad;
-            edge.setDelta(delta);
-            edge.addLossGradient(oLeft * delta);
+    /** Adds the gradients of the loss with respect to the weights and biases
+     * of one {@code Layer}, given its deltas, to their running sums.
+     *
+     * @param layer The {@code Layer}.
+     * @param previousLayer The {@code Layer} to the left of {@code layer}.
+     */
+    private void storeGradientsOfLayer(Layer layer, Layer previousLayer) {
+        double[] deltas = layer.getDeltas();
+        if (Edge.isRecordGradients() || Neuron.isRecordGradients()) {
+            // Go through the views, so that each gradient is recorded
+            List<List<Edge>> edgeLayer = edges.get(layer.getId() - 1);
+            for (int j = 0; j < layer.size(); j ++) {
+                for (Edge edge : edgeLayer.get(j)) {
+                    edge.addLossGradient(edge.getLeftNeuron().getValue() * deltas[j]);
+                }
+                layer.getNeuron(j).addBiasGradient(deltas[j]);
+            }
+            return;
+        }
+        if (isParallel(layer, previousLayer)) {
+            storeGradientsOfLayerParallel(layer, previousLayer);
+            return;
+        }
+        MatrixKernels.addTransposedProduct(deltas, previousLayer.getValues(),
+                layer.getWeightGradients(), 1, layer.size(), previousLayer.size());
+        int[] weightGradientCounts = layer.getWeightGradientCounts();
+        for (int j = 0; j < weightGradientCounts.length; j ++) {
+            weightGradientCounts[j] ++;
+        }
+        double[] biasGradients = layer.getBiasGradients();
+        int[] biasGradientCounts = layer.getBiasGradientCounts();
+        for (int j = 0; j < layer.size(); j ++) {
+            biasGradients[j] += deltas[j];
+            biasGradientCounts[j] ++;
+        }
+    }
+
+    /** Like {@code storeGradientsOfLayer}, but splitting the rows of the
+     * weight gradients across the {@code layerPool}.
+     *
+     * @param layer The {@code Layer}.
+     * @param previousLayer The {@code Layer} to the left of {@code layer}.
+     */
+    private void storeGradientsOfLayerParallel(Layer layer, Layer previousLayer) {
+        double[] deltas = layer.getDeltas();
+        double[] previousValues = previousLayer.getValues();
+        double[] weightGradients = layer.getWeightGradients();
+        int[] weightGradientCounts = layer.getWeightGradientCounts();
+        double[] biasGradients = layer.getBiasGradients();
+        int[] biasGradientCounts = layer.getBiasGradientCounts();
+        int numInputs = previousLayer.size();
+        ParallelRows.run(layerPool, layer.size(), numInputs, parallelThreshold,
+                (from, to) -> {
+                    for (int j = from; j < to; j ++) {
+                        VectorKernels.axpy(deltas[j], previousValues, 0, weightGradients,
+                                j * numInputs, numInputs);
+                        for (int k = j * numInputs; k < (j + 1) * numInputs; k ++) {
+                            weightGradientCounts[k] ++;
+                        }
+                        biasGradients[j] += deltas[j];
+                        biasGradientCounts[j] ++;
+                    }
+                });
+    }
+
+    /** Finds the deltas of the {@code previousLayer} from those of the
+     * {@code layer} (a transposed matrix-vector product), splitting the
+     * {@code Neurons} of the {@code previousLayer} (the columns of the weights)
+     * across the {@code layerPool}.
+     *
+     * @param layer The {@code Layer}.
+     * @param previousLayer The {@code Layer} to the left of {@code layer}.
+     */
+    private void propagateDeltas(Layer layer, Layer previousLayer) {
+        double[] deltas = layer.getDeltas();
+        double[] weights = layer.getWeights();
+        double[] previousDeltas = previousLayer.getDeltas();
+        double[] previousValues = previousLayer.getValues();
+        int size = layer.size();
+        int numInputs = previousLayer.size();
+        ParallelRows.run(layerPool, numInputs, size, parallelThreshold,
+                (from, to) -> {
+                    Arrays.fill(previousDeltas, from, to, 0.0);
+                    for (int j = 0; j < size; j ++) {
+                        VectorKernels.axpy(deltas[j], weights, j * numInputs + from,
+                                previousDeltas, from, to - from);
+                    }
+                    relu.multiplyByGradient(previousValues, previousDeltas, from, to);
+                });
+    }
+
+    /** Creates a {@code BatchWorkspace} with the shape of this {@code Network},
+     * which can be reused for every batch of up to {@code capacity} datapoints.
+     *
+     * @param capacity The maximum number of datapoints in one batch.
+     * @return The new {@code BatchWorkspace}.
+     */
+    public BatchWorkspace newBatchWorkspace(int capacity) {
+        return new BatchWorkspace(getNeuronCounts(), capacity);
+    }
+
+    /** Performs a forward pass for a whole batch of datapoints at once. Each
+     * {@code Layer} is computed as one matrix product of the values of the
+     * previous {@code Layer} (one row per datapoint) with the transposed weights,
+     * followed by the bias and activation over the whole matrix. The per-datapoint
+     * {@code forwardPassOneDatapoint} gives the same results one row at a time.
+     * Note that the returned array is owned by the {@code workspace}, so it will
+     * be overwritten by the next batch.
+     *
+     * @param x The datapoints in row-major order ({@code batchSize x numFeatures}).
+     * @param batchSize The number of datapoints in the batch.
+     * @param workspace The {@code BatchWorkspace} to hold the values of each
+     *                  {@code Layer}.
+     * @return The softmax probabilities of each class (for classification) or
+     *             the predicted regression value (for regression), with one row
+     *             per datapoint.
+     */
+    public double[] forwardPassOneBatch(double[] x, int batchSize, BatchWorkspace workspace) {
+        double[] output = forwardPassToLogits(x, batchSize, workspace);
+
+        // Linear activation (regression) or softmax activation (classification)
+        // for the output layer
+        if (! regression) {
+            int size = outputLayer.size();
+            for (int r = 0; r < batchSize; r ++) {
+                softmax.activate(output, r * size, (r + 1) * size);
+            }
+        }
+        workspace.setOutputDeltasStored(false);
+        return output;
+    }
+
+    /** Performs a forward pass for a whole batch of datapoints at once, like
+     * {@code forwardPassOneBatch}, and also finds the total loss of the batch.
+     * For classification, the softmax activation, cross entropy loss, predicted
+     * classes and output deltas are all found by the fused
+     * {@code SoftmaxCrossEntropy} kernel, and the output deltas are kept in the
+     * {@code workspace} for a following call to {@code storeGradientsOfLoss}.
+     *
+     * @param x The datapoints in row-major order ({@code batchSize x numFeatures}).
+     * @param targets The true class/value of each datapoint.
+     * @param batchSize The number of datapoints in the batch.
+     * @param workspace The {@code BatchWorkspace} to hold the values of each
+     *                  {@code Layer}.
+     * @param predictions For classification, this is filled with the predicted
+     *                    class of each datapoint. It is not used for regression.
+     * @return The total loss of the batch.
+     */
+    public double forwardPassOneBatch(double[] x, double[] targets, int batchSize,
+                                      BatchWorkspace workspace, int[] predictions) {
+        if (targets.length < batchSize) {
+            throw new IllegalArgumentException(
+                    "targets must contain a value for each datapoint (%d < %d)"
+                            .formatted(targets.length, batchSize));
+        }
+        double[] output = forwardPassToLogits(x, batchSize, workspace);
+        if (regression) {
+            double totalLoss = 0.0;
+            for (int r = 0; r < batchSize; r ++) {
+                totalLoss += mseLoss.call(output[r], targets[r]);
+            }
+            workspace.setOutputDeltasStored(false);
+            return totalLoss;
+        }
+        double totalLoss = SoftmaxCrossEntropy.call(output, targets, batchSize,
+                outputLayer.size(), workspace.getDeltas(numHiddenLayers + 1), predictions);
+        workspace.setOutputDeltasStored(true);
+        return totalLoss;
+    }
 
-            if (first) {
-                rightNeuron.addBiasGradient(delta);
+    /** Passes a batch through the {@code Network} up to the pre-activated values
+     * of the {@code outputLayer}.
+     *
+     * @param x The datapoints in row-major order ({@code batchSize x numFeatures}).
+     * @param batchSize The number of datapoints in the batch.
+     * @param workspace The {@code BatchWorkspace} to hold the values of each
+     *                  {@code Layer}.
+     * @return The pre-activated values of the {@code outputLayer}, with one row
+     *             per datapoint.
+     */
+    private double[] forwardPassToLogits(double[] x, int batchSize, BatchWorkspace workspace) {
+        checkWorkspace(batchSize, workspace);
+        if (x.length < batchSize * numFeatures) {
+            throw new IllegalArgumentException(
+                    "x must contain batchSize rows of numFeatures values " +
+                            "(%d < %d)".formatted(x.length, batchSize * numFeatures));
+        }
+        System.arraycopy(x, 0, workspace.getValues(0), 0, batchSize * numFeatures);
+
+        for (int i = 1; i <= numHiddenLayers + 1; i ++) {
+            Layer layer = layers.get(i);
+            int size = layer.size();
+            double[] values = workspace.getValues(i);
+            MatrixKernels.multiplyTransposed(workspace.getValues(i - 1), layer.getWeights(),
+                    values, batchSize, size, layer.getNumInputs());
+            MatrixKernels.addToRows(values, layer.getBiases(), batchSize, size);
+
+            // LeakyReLU for the hidden layers
+            if (i <= numHiddenLayers) {
+                relu.call(values, 0, batchSize * size);
+            }
+        }
+        return workspace.getValues(numHiddenLayers + 1);
+    }
+
+    /** Calculates the gradients of the loss with respect to every weight and
+     * bias of the {@code Network} for a whole batch of datapoints, following a
+     * call to {@code forwardPassOneBatch}. The deltas of each {@code Layer} are
+     * propagated back as one matrix product, and the gradients are summed into
+     * the {@code workspace}. Use {@code accumulateGradients} to add these to the
+     * gradients of the {@code Network}.
+     *
+     * @param targets The target value of each datapoint in the batch.
+     * @param batchSize The number of datapoints in the batch.
+     * @param workspace The {@code BatchWorkspace} used for the forward pass.
+     */
+    public void storeGradientsOfLoss(double[] targets, int batchSize, BatchWorkspace workspace) {
+        checkWorkspace(batchSize, workspace);
+        int outputIndex = numHiddenLayers + 1;
+        int outputSize = outputLayer.size();
+
+        // Deltas of the output layer, unless they were already found by the
+        // fused SoftmaxCrossEntropy kernel in the forward pass
+        if (! workspace.isOutputDeltasStored()) {
+            double[] outputValues = workspace.getValues(outputIndex);
+            double[] outputDeltas = workspace.getDeltas(outputIndex);
+            for (int r = 0; r < batchSize; r ++) {
+                int target = (int) targets[r];
+                for (int j = 0; j < outputSize; j ++) {
+                    int index = r * outputSize + j;
+                    outputDeltas[index] = (regression)
+                            ? mseLoss.gradient(outputValues[index], targets[r])
+                            : outputValues[index] - Boolean.compare(j == target, false);
+                }
+            }
+        }
+        workspace.setOutputDeltasStored(false);
+
+        // Walk back through the layers, summing the gradients and finding the
+        // deltas of the previous layer
+        for (int i = outputIndex; i >= 1; i --) {
+            Layer layer = layers.get(i);
+            int size = layer.size();
+            int numInputs = layer.getNumInputs();
+            double[] deltas = workspace.getDeltas(i);
+            MatrixKernels.addTransposedProduct(deltas, workspace.getValues(i - 1),
+                    workspace.getWeightGradients(i), batchSize, size, numInputs);
+            MatrixKernels.addColumnSums(deltas, workspace.getBiasGradients(i), batchSize, size);
+            if (i > 1) {
+                double[] previousDeltas = workspace.getDeltas(i - 1);
+                MatrixKernels.multiply(deltas, layer.getWeights(), previousDeltas,
+                        batchSize, size, numInputs);
+                relu.multiplyByGradient(workspace.getValues(i - 1), previousDeltas,
+                        0, batchSize * numInputs);
+            }
+        }
+        workspace.addNumGradients(batchSize);
+    }
+
+    /** Adds the gradients summed in the {@code workspace} to the gradients of
+     * the {@code Network}, ready for {@code backPropagateWeights} and
+     * {@code backPropagateBiases}, and then clears the {@code workspace}. Note
+     * that the individual gradients are not recorded on the {@code Edges} and
+     * {@code Neurons}, even when recording gradients.
+     *
+     * @param workspace The {@code BatchWorkspace} holding the summed gradients.
+     */
+    public void accumulateGradients(BatchWorkspace workspace) {
+        int n = workspace.getNumGradients();
+        for (int i = 1; i < layers.size(); i ++) {
+            Layer layer = layers.get(i);
+            addGradients(workspace.getWeightGradients(i), layer.getWeightGradients(),
+                    layer.getWeightGradientCounts(), n);
+            addGradients(workspace.getBiasGradients(i), layer.getBiasGradients(),
+                    layer.getBiasGradientCounts(), n);
+        }
+        workspace.clearGradients();
+    }
+
+    /** Applies the gradients summed in the {@code workspace} straight to the
+     * weights and biases of the {@code Network} by gradient descent (with
+     * momentum for the weights, if adaptive), and then clears the
+     * {@code workspace}. No locks are taken, so this can be called from many
+     * threads at once (Hogwild): an update may then overwrite part of another,
+     * which is tolerated for sparse enough gradients. The gradients stored in
+     * each {@code Layer} are not touched.
+     *
+     * @param workspace The {@code BatchWorkspace} holding the summed gradients.
+     * @param learningRate The learning rate of the update.
+     */
+    public void applyGradients(BatchWorkspace workspace, double learningRate) {
+        int n = workspace.getNumGradients();
+        if (n == 0) {
+            return;
+        }
+        double step = learningRate / n;
+        for (int i = 1; i < layers.size(); i ++) {
+            Layer layer = layers.get(i);
+            double[] weights = layer.getWeights();
+            double[] weightGradients = workspace.getWeightGradients(i);
+            if (adaptive) {
+                double[] velocities = layer.getVelocities();
+                for (int j = 0; j < weights.length; j ++) {
+                    double velocity = gamma * velocities[j] + step * weightGradients[j];
+                    velocities[j] = velocity;
+                    weights[j] -= velocity;
+                }
+            } else {
+                VectorKernels.axpy(- step, weightGradients, 0, weights, 0, weights.length);
+            }
+            double[] biases = layer.getBiases();
+            VectorKernels.axpy(- step, workspace.getBiasGradients(i), 0, biases, 0,
+                    biases.length);
+        }
+        workspace.clearGradients();
+    }
+
+    /** Adds one array of summed gradients to another, along with the counts.
+     *
+     * @param source The summed gradients to add.
+     * @param sums The running sums to add to.
+     * @param counts The running counts to add to.
+     * @param n The number of gradients summed in {@code source}.
+     */
+    private static void addGradients(double[] source, double[] sums, int[] counts, int n) {
+        for (int j = 0; j < source.length; j ++) {
+            sums[j] += source[j];
+            counts[j] += n;
+        }
+    }
+
+    /** Checks that the {@code workspace} has the shape of this {@code Network}
+     * and can hold {@code batchSize} datapoints.
+     *
+     * @param batchSize The number of datapoints in the batch.
+     * @param workspace The {@code BatchWorkspace}.
+     */
+    private void checkWorkspace(int batchSize, BatchWorkspace workspace) {
+        if (batchSize > workspace.getCapacity()) {
+            throw new IllegalArgumentException(
+                    "batchSize must not exceed the capacity of the workspace " +
+                            "(%d > %d)".formatted(batchSize, workspace.getCapacity()));
+        }
+        if (workspace.getNumLayers() != layers.size()) {
+            throw new IllegalArgumentException(
+                    "workspace does not match the shape of the Network");
+        }
+        for (int i = 0; i < layers.size(); i ++) {
+            if (workspace.getLayerSize(i) != layers.get(i).size()) {
+                throw new IllegalArgumentException(
+                        "workspace does not match the shape of the Network");
             }
         }
     }
@@ -335,10 +889,8 @@ public class Network {
 
         // The number of datapoints which we have passed through the network
         // in a batch
-        int batchSize = edge.getLossGradients().size();
-        double avgLossGradient = edge.getLossGradients().stream()
-                .mapToDouble(a -> a)
-                .sum() / batchSize;
+        int batchSize = edge.getNumLossGradients();
+        double avgLossGradient = edge.getLossGradientSum() / batchSize;
 
         // If the network is adaptive we need a different gradient descent algorithm
         if (adaptive) {
@@ -359,11 +911,9 @@ public class Network {
      *
      */
     public void backPropagateWeights() {
-        // Make a copy of the edges list so that we can reverse it
-        List<List<List<Edge>>> edges = getEdges();
-        Collections.reverse(edges);
-        for (List<List<Edge>> edgeLayer : edges) {
-            for (List<Edge> rightNeuron : edgeLayer) {
+        // Walk the layers in reverse by index rather than copying the edges
+        for (int i = edges.size() - 1; i >= 0; i --) {
+            for (List<Edge> rightNeuron : edges.get(i)) {
                 for (Edge edge : rightNeuron) {
                     backPropagateWeight(edge);
                 }
@@ -378,10 +928,8 @@ public class Network {
      */
     void backPropagateBias(Neuron neuron) {
         double currentBias = neuron.getBias();
-        double batchSize = neuron.getBiasGradients().size();
-        double avgBiasGradient = neuron.getBiasGradients().stream()
-                .mapToDouble(a -> a)
-                .sum() / batchSize;
+        double batchSize = neuron.getNumBiasGradients();
+        double avgBiasGradient = neuron.getBiasGradientSum() / batchSize;
         neuron.setBias(currentBias - learningRate * avgBiasGradient);
         neuron.clearBiasGradients();
     }
@@ -398,6 +946,219 @@ public class Network {
         }
     }
 
+    /** Back propagates all the weights and biases of the network after one
+     * batch of datapoints has been passed through, using the update rule of the
+     * {@code optimiser} instead of {@code backPropagateWeights} and
+     * {@code backPropagateBiases}. The state of the {@code optimiser} is held
+     * in each {@code Layer}, and is reset whenever a different {@code optimiser}
+     * is passed.
+     *
+     * @param optimiser The update rule.
+     */
+    public void backPropagate(Optimiser optimiser) {
+        if (optimiser != this.optimiser) {
+            // Restored moments carry on with the step they were saved at
+            if (! optimiser.getClass().getName().equals(restoredOptimiser)) {
+                for (Layer layer : layers.subList(1, layers.size())) {
+                    layer.allocateMoments(optimiser.getNumMoments());
+                }
+                this.optimiserStep = 0;
+            }
+            this.optimiser = optimiser;
+            this.restoredOptimiser = null;
+        }
+        optimiserStep ++;
+        for (int i = 1; i < layers.size(); i ++) {
+            Layer layer = layers.get(i);
+            update(layer.getWeights(), layer.getWeightGradients(),
+                    layer.getWeightGradientCounts(), layer.getWeightMoments(), true);
+            update(layer.getBiases(), layer.getBiasGradients(),
+                    layer.getBiasGradientCounts(), layer.getBiasMoments(), false);
+        }
+
+        // Clear any recorded gradients for the next batch
+        if (Edge.isRecordGradients() || Neuron.isRecordGradients()) {
+            for (int i = 0; i < edges.size(); i ++) {
+                for (List<Edge> rightNeuron : edges.get(i)) {
+                    rightNeuron.forEach(Edge::clearLossGradients);
+                }
+                layers.get(i + 1).getNeurons().forEach(Neuron::clearBiasGradients);
+            }
+        }
+    }
+
+    /** The class of the {@code Optimiser} which the moments of the layers
+     * belong to, for a {@code Checkpoint}.
+     *
+     * @return The class name, or {@code null} if there are no moments.
+     */
+    String getOptimiserName() {
+        return (optimiser != null) ? optimiser.getClass().getName() : restoredOptimiser;
+    }
+
+    /** Getter method for {@code optimiserStep}.
+     *
+     * @return The number of updates made by the {@code Optimiser} (see
+     * {@code getOptimiserName}).
+     */
+    int getOptimiserStep() {
+        return optimiserStep;
+    }
+
+    /** Allocates (zero) moments for an {@code Optimiser} of a given class, to
+     * be filled in by the caller (for example, from a {@code Checkpoint}). The
+     * first {@code Optimiser} of that class passed to {@code backPropagate}
+     * then carries on from these moments and {@code optimiserStep}, rather
+     * than starting afresh.
+     *
+     * @param optimiserName The class name of the {@code Optimiser}, or
+     *                      {@code null} to discard any moments.
+     * @param numMoments The number of moments for each of the weights and biases.
+     * @param optimiserStep The number of updates made so far.
+     */
+    void restoreOptimiserState(String optimiserName, int numMoments, int optimiserStep) {
+        this.optimiser = null;
+        this.restoredOptimiser = optimiserName;
+        this.optimiserStep = (optimiserName != null) ? optimiserStep : 0;
+        if (optimiserName != null) {
+            for (Layer layer : layers.subList(1, layers.size())) {
+                layer.allocateMoments(numMoments);
+            }
+        }
+    }
+
+    /** Averages the summed gradients of one array of parameters, updates the
+     * parameters with the {@code optimiser}, and resets the sums for the next batch.
+     *
+     * @param parameters The weights or biases of a {@code Layer}.
+     * @param sums The running sums of the gradients.
+     * @param counts The number of gradients in each sum.
+     * @param moments The state of the {@code optimiser}.
+     * @param weights Whether the parameters are weights.
+     */
+    private void update(double[] parameters, double[] sums, int[] counts, double[][] moments,
+                        boolean weights) {
+        for (int j = 0; j < sums.length; j ++) {
+            sums[j] /= counts[j];
+        }
+        optimiser.update(parameters, sums, moments, 0, parameters.length, optimiserStep,
+                weights);
+        Arrays.fill(sums, 0.0);
+        Arrays.fill(counts, 0);
+    }
+
+    /** Creates a {@code ParameterSnapshot} holding a copy of the current
+     * weights, biases and velocities, which can be restored later.
+     *
+     * @return The new {@code ParameterSnapshot}.
+     */
+    public ParameterSnapshot newSnapshot() {
+        return new ParameterSnapshot(this);
+    }
+
+    /** Creates an {@code InferenceSession} holding a frozen copy of the current
+     * weights and biases, which can be used to make predictions from many
+     * threads at once. Further training of this {@code Network} does not
+     * affect the session.
+     *
+     * @return The new {@code InferenceSession}.
+     */
+    public InferenceSession newInferenceSession() {
+        return new InferenceSession(this);
+    }
+
+    /** Turns on intra-layer parallelism for the per-datapoint forward and
+     * backward passes ({@code forwardPassOneDatapoint} and
+     * {@code storeGradientsOfLoss}), so that the rows of the weights of each
+     * wide {@code Layer} are split across the threads of the {@code pool}. This
+     * speeds up a single datapoint through a wide {@code Network}. A
+     * {@code Layer} with less work than two tasks (see
+     * {@code setParallelThreshold}) is still done serially, so small
+     * {@code Networks} do not pay for the overhead. Pass {@code null} to turn
+     * this off.
+     *
+     * @param pool The pool of threads, for example {@code ForkJoinPool.commonPool()}.
+     */
+    public void setLayerParallelism(ForkJoinPool pool) {
+        this.layerPool = pool;
+    }
+
+    /** Getter method for {@code layerPool}.
+     *
+     * @return The pool of threads for intra-layer parallelism, or {@code null}
+     * if it is off.
+     */
+    public ForkJoinPool getLayerParallelism() {
+        return layerPool;
+    }
+
+    /** Setter method for {@code parallelThreshold}. Each {@code Layer} is split
+     * into tasks of about this many multiply-adds, so a {@code Layer} with
+     * fewer than twice this many weights is done serially.
+     *
+     * @param parallelThreshold The number of multiply-adds per task.
+     */
+    public void setParallelThreshold(long parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("parallelThreshold must be positive (%d)"
+                    .formatted(parallelThreshold));
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /** Getter method for {@code parallelThreshold}.
+     *
+     * @return The number of multiply-adds per task.
+     */
+    public long getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /** Getter method for {@code learningRate}.
+     *
+     * @return The learning rate of the {@code Network}.
+     */
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    /** Setter method for {@code learningRate} (for example, to follow a
+     * {@code LearningRateSchedule}).
+     *
+     * @param learningRate The new learning rate.
+     */
+    public void setLearningRate(double learningRate) {
+        if (! (learningRate > 0.0)) {
+            throw new IllegalArgumentException("learningRate must be positive (%f)"
+                    .formatted(learningRate));
+        }
+        this.learningRate = learningRate;
+    }
+
+    /** Getter method for {@code adaptive}.
+     *
+     * @return {@code true} if the {@code learningRate} is adaptive (momentum).
+     */
+    boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /** Getter method for {@code gamma}.
+     *
+     * @return The adaptive learning rate parameter.
+     */
+    double getGamma() {
+        return gamma;
+    }
+
+    /** Getter method for {@code leak}.
+     *
+     * @return The leak of the {@code LeakyReLU}.
+     */
+    double getLeak() {
+        return leak;
+    }
+
     /** Getter method for all the neuron counts, for the input,
      * hidden and output {@code Layers}.
      *
@@ -445,8 +1206,9 @@ public class Network {
 
     /** Setter method for {@code random}.
      *
-     * @param random The new {@code random}. This can be used for mocking
-     *               purposes.
+     * @param random The new {@code random}, used in place of the streams of
+     *               {@code RandomStreams} if not {@code null}. This can be
+     *               used for mocking purposes.
      */
     static void setRandom(Random random) {
         Network.random = random;
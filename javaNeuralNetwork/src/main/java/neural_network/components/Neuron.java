@@ -4,36 +4,76 @@ import java.util.ArrayList;
 import java.util.List;
 
 /** Class to represent a single {@code Neuron} in a {@code Network}.
+ * <p>
+ * The {@code value} and {@code bias} of the {@code Neuron} are not stored in the
+ * {@code Neuron} itself, but in the primitive arrays of its {@code Layer}.
+ * </p>
  * @version 1.0.0
  * @since 1.0.0
  */
 public class Neuron {
 
     private final List<Integer> id = new ArrayList<>();
-    private double bias = 0.0;
-    private double value = Double.NaN;
+    private final int rowId;
+    private final double[] values;
+    private final double[] biases;
+    private final double[] biasGradientSums;
+    private final int[] biasGradientCounts;
+    private final int index;
     private final List<Double> biasGradients = new ArrayList<>();
+    private static boolean recordGradients = false;
 
-    /** Constructor method.
+    /** Constructor method for a standalone {@code Neuron}, which owns its
+     * own storage.
      * @param layerId The id of the {@code Layer} of the {@code Network}.
      * @param rowId The row in the {@code Layer}.
      */
     Neuron(int layerId, int rowId) {
+        this(layerId, rowId, new double[] {Double.NaN}, new double[1],
+                new double[1], new int[1], 0);
+    }
+
+    /** Constructor method for a {@code Neuron} which is a view over the
+     * storage of a {@code Layer}.
+     * @param layer The {@code Layer} containing the {@code Neuron}.
+     * @param rowId The row in the {@code Layer}.
+     */
+    Neuron(Layer layer, int rowId) {
+        this(layer.getId(), rowId, layer.getValues(), layer.getBiases(),
+                layer.getBiasGradients(), layer.getBiasGradientCounts(), rowId);
+    }
+
+    private Neuron(int layerId, int rowId, double[] values, double[] biases,
+                   double[] biasGradientSums, int[] biasGradientCounts, int index) {
         this.id.addAll(List.of(layerId, rowId));
+        this.rowId = rowId;
+        this.values = values;
+        this.biases = biases;
+        this.biasGradientSums = biasGradientSums;
+        this.biasGradientCounts = biasGradientCounts;
+        this.index = index;
     }
 
-    /** Adds an element to the {@code biasGradients} list.
+    /** Adds a bias gradient to the running sum for the current batch (and
+     * to the {@code biasGradients} list if we are recording gradients).
      *
      * @param biasGradient The bias gradient to be added.
      */
     void addBiasGradient(double biasGradient) {
-        biasGradients.add(biasGradient);
+        biasGradientSums[index] += biasGradient;
+        biasGradientCounts[index] ++;
+        if (recordGradients) {
+            biasGradients.add(biasGradient);
+        }
     }
 
-    /** Clears the {@code biasGradients} list.
+    /** Resets the running sum of bias gradients (and clears the
+     * {@code biasGradients} list).
      *
      */
     void clearBiasGradients() {
+        biasGradientSums[index] = 0.0;
+        biasGradientCounts[index] = 0;
         biasGradients.clear();
     }
 
@@ -45,12 +85,20 @@ public class Neuron {
         return id;
     }
 
+    /** Getter method for the row of the {@code Neuron}, without boxing.
+     *
+     * @return The row of the {@code Neuron} in its {@code Layer}.
+     */
+    int getRow() {
+        return rowId;
+    }
+
     /** Getter method for {@code bias}.
      *
      * @return The {@code bias} of the {@code Neuron}.
      */
     double getBias() {
-        return bias;
+        return biases[index];
     }
 
     /** Setter method for {@code bias}.
@@ -58,7 +106,7 @@ public class Neuron {
      * @param bias The new {@code bias}.
      */
     void setBias(double bias) {
-        this.bias = bias;
+        biases[index] = bias;
     }
 
     /** Getter method for {@code value}.
@@ -66,7 +114,7 @@ public class Neuron {
      * @return The {@code value} of the {@code Neuron}.
      */
     double getValue() {
-        return value;
+        return values[index];
     }
 
     /** Setter method for {@code value}.
@@ -74,17 +122,57 @@ public class Neuron {
      * @param value The new {@code value}.
      */
     void setValue(double value) {
-        this.value = value;
+        values[index] = value;
     }
 
-    /** Getter method for {@code biasGradients}.
+    /** Getter method for {@code biasGradients}. This is only available when
+     * recording gradients.
      *
      * @return A copy of the {@code biasGradients} list.
+     * @throws IllegalStateException If we are not recording gradients.
      */
     List<Double> getBiasGradients() {
+        if (! recordGradients) {
+            throw new IllegalStateException("Bias gradients are only kept when " +
+                    "recording gradients (see setRecordGradients)");
+        }
         return List.copyOf(biasGradients);
     }
 
+    /** Getter method for the running sum of bias gradients.
+     *
+     * @return The sum of the bias gradients added in this batch.
+     */
+    double getBiasGradientSum() {
+        return biasGradientSums[index];
+    }
+
+    /** Getter method for the number of bias gradients.
+     *
+     * @return The number of bias gradients added in this batch.
+     */
+    int getNumBiasGradients() {
+        return biasGradientCounts[index];
+    }
+
+    /** Setter method for {@code recordGradients}.
+     *
+     * @param recordGradients If {@code true}, each individual bias gradient is
+     *                        also kept in a list. This is for testing and
+     *                        debugging purposes.
+     */
+    static void setRecordGradients(boolean recordGradients) {
+        Neuron.recordGradients = recordGradients;
+    }
+
+    /** Getter method for {@code recordGradients}.
+     *
+     * @return Whether each individual bias gradient is also kept in a list.
+     */
+    static boolean isRecordGradients() {
+        return recordGradients;
+    }
+
     /** String method.
      *
      * @return {@code String} representation of the {@code Neuron}.
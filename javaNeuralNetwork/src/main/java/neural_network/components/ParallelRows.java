@@ -0,0 +1,95 @@
+package neural_network.components;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Class to split the rows of one {@code Layer} (for example, of its weight
+ * matrix) across the threads of a work-stealing {@code ForkJoinPool}.
+ * <p>
+ * The split is adaptive: the rows are divided in half until each task holds
+ * about {@code threshold} multiply-adds, so a wide {@code Layer} is split into
+ * many tasks while a {@code Layer} with fewer than two tasks' worth of work is
+ * run serially on the calling thread, without touching the pool.
+ * </p>
+ *
+ */
+final class ParallelRows {
+
+    /** The work done on a range of rows. */
+    @FunctionalInterface
+    interface RowAction {
+
+        /** Does the work for the rows from {@code from} (inclusive) to
+         * {@code to} (exclusive).
+         *
+         * @param from The first row (inclusive).
+         * @param to The last row (exclusive).
+         */
+        void apply(int from, int to);
+    }
+
+    private ParallelRows() {}
+
+    /** Whether a {@code Layer} is big enough to be split across the {@code pool}.
+     *
+     * @param pool The pool of threads, or {@code null} for serial.
+     * @param numRows The number of rows.
+     * @param rowCost The number of multiply-adds in each row.
+     * @param threshold The number of multiply-adds per task.
+     * @return {@code true} if the rows should be split.
+     */
+    static boolean isParallel(ForkJoinPool pool, int numRows, int rowCost, long threshold) {
+        return pool != null && pool.getParallelism() > 1 && numRows > 1
+                && (long) numRows * rowCost >= 2 * threshold;
+    }
+
+    /** Does the {@code action} for all {@code numRows} rows, split across the
+     * {@code pool} if there is enough work (see {@code isParallel}). This
+     * returns once every row is done.
+     *
+     * @param pool The pool of threads, or {@code null} for serial.
+     * @param numRows The number of rows.
+     * @param rowCost The number of multiply-adds in each row.
+     * @param threshold The number of multiply-adds per task.
+     * @param action The work done on each range of rows.
+     */
+    static void run(ForkJoinPool pool, int numRows, int rowCost, long threshold,
+                    RowAction action) {
+        if (! isParallel(pool, numRows, rowCost, threshold)) {
+            action.apply(0, numRows);
+            return;
+        }
+        int grain = (int) Math.max(1, threshold / Math.max(1, rowCost));
+        pool.invoke(new RowTask(action, 0, numRows, grain));
+    }
+
+    /** A task for a range of rows, which splits itself in half until it holds
+     * no more than {@code grain} rows.
+     *
+     */
+    private static final class RowTask extends RecursiveAction {
+
+        private final RowAction action;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        private RowTask(RowAction action, int from, int to, int grain) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                action.apply(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowTask(action, from, middle, grain),
+                    new RowTask(action, middle, to, grain));
+        }
+    }
+}
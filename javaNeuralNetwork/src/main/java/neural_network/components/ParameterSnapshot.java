@@ -0,0 +1,56 @@
+package neural_network.components;
+
+import java.util.List;
+
+/** Class to hold an in-memory copy of the weights, biases and velocities of
+ * a {@code Network}, which can later be copied back (for example, to restore
+ * the best weights seen during training).
+ *
+ */
+public final class ParameterSnapshot {
+
+    private final List<Integer> neuronCounts;
+    private final double[][] weights;
+    private final double[][] biases;
+    private final double[][] velocities;
+
+    /** Constructor method, which copies the parameters of the {@code network}.
+     *
+     * @param network The {@code Network} to copy.
+     */
+    ParameterSnapshot(Network network) {
+        List<Layer> layers = network.getLayers();
+        this.neuronCounts = network.getNeuronCounts();
+        this.weights = new double[layers.size()][];
+        this.biases = new double[layers.size()][];
+        this.velocities = new double[layers.size()][];
+        for (int i = 1; i < layers.size(); i ++) {
+            Layer layer = layers.get(i);
+            weights[i] = layer.getWeights().clone();
+            biases[i] = layer.getBiases().clone();
+            velocities[i] = layer.getVelocities().clone();
+        }
+    }
+
+    /** Copies the parameters of the snapshot into a {@code Network} of the
+     * same shape.
+     *
+     * @param target The {@code Network} to copy into.
+     * @throws IllegalArgumentException If {@code target} does not have the same
+     * shape as the copied {@code Network}.
+     */
+    public void restoreInto(Network target) {
+        if (! target.getNeuronCounts().equals(neuronCounts)) {
+            throw new IllegalArgumentException(
+                    "Snapshot layer sizes %s do not match the Network %s"
+                            .formatted(neuronCounts, target.getNeuronCounts()));
+        }
+        List<Layer> layers = target.getLayers();
+        for (int i = 1; i < layers.size(); i ++) {
+            Layer layer = layers.get(i);
+            System.arraycopy(weights[i], 0, layer.getWeights(), 0, weights[i].length);
+            System.arraycopy(biases[i], 0, layer.getBiases(), 0, biases[i].length);
+            System.arraycopy(velocities[i], 0, layer.getVelocities(), 0, velocities[i].length);
+        }
+    }
+}
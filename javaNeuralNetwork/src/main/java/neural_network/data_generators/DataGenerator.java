@@ -3,6 +3,7 @@ package neural_network.data_generators;
 import neural_network.util.Header;
 
 import neural_network.util.Plotter;
+import neural_network.util.RandomStreams;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 
@@ -12,6 +13,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Stream;
 
 /** Class to randomly generate datapoints and categorise them according to
@@ -28,7 +30,8 @@ public abstract class DataGenerator<T> {
     private final List<Header> headers;
     private final NavigableMap<Header, List<String>> df = new TreeMap<>();
     private final List<List<Double>> xData = new ArrayList<>();
-    private static Random random = new Random();
+    private static Random random = null;
+    private final long instance = RandomStreams.nextInstance("data_generator");
     private CSVPrinter printer = null;
 
     /** Constructor method for {@code DataGenerator}. Importantly, the {@code df} is
@@ -196,18 +199,24 @@ public abstract class DataGenerator<T> {
         xData.addAll(data);
     }
 
-    /** Getter method for {@code random}.
+    /** Gets the random numbers for one coordinate. Each coordinate has its
+     * own stream from {@code RandomStreams} (unless {@code random} is set),
+     * so the coordinates can be generated independently.
      *
-     * @return The {@code random}.
+     * @param dimension The index of the coordinate.
+     * @return The random numbers for the coordinate.
      */
-    static Random getRandom() {
-        return random;
+    RandomGenerator getRandom(int dimension) {
+        return random == null
+                ? RandomStreams.stream("data_generator", instance, dimension)
+                : random;
     }
 
     /** Setter method for {@code random}.
      *
-     * @param random The new {@code random}. This can be used for mocking
-     *               purposes.
+     * @param random The new {@code random}, used in place of the streams of
+     *               {@code RandomStreams} if not {@code null}. This can be
+     *               used for mocking purposes.
      */
     static void setRandom(Random random) {
         DataGenerator.random = random;
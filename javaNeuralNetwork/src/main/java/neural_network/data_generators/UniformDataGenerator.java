@@ -2,6 +2,7 @@ package neural_network.data_generators;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.random.RandomGenerator;
 import java.util.stream.Stream;
 
 /** Class to randomly generate datapoints and categorise them according to
@@ -60,10 +61,13 @@ public class UniformDataGenerator<T> extends DataGenerator<T> {
     void generateData() {
         List<List<Double>> xData = Stream
                 .iterate(0, i -> i < getDimensions(), i -> i + 1)
-                .map(i -> Stream
-                        .generate(() -> getRandom().nextDouble(lowerBounds.get(i), upperBounds.get(i)))
-                        .limit(getNumDatapoints())
-                        .toList())
+                .map(i -> {
+                    RandomGenerator dimensionRandom = getRandom(i);
+                    return Stream
+                            .generate(() -> dimensionRandom.nextDouble(lowerBounds.get(i), upperBounds.get(i)))
+                            .limit(getNumDatapoints())
+                            .toList();
+                })
                 .toList();
         addData(xData);
     }
@@ -1,6 +1,9 @@
 package neural_network.functions;
 
-/** Interface for an activating function in a neural network.
+/** Interface for an activating function in a neural network. For
+ * {@code Double} inputs, this is an adapter over the {@code PrimitiveActivator}
+ * implemented by the same class, which should be preferred on hot paths as it
+ * does not box.
  *
  * @param <T> The type of the input parameter to the {@code call} method. This
  *           will typically be either a {@code Double} or {@code List} of
@@ -29,4 +29,25 @@ public class CrossEntropyLoss {
                     " and 1 (yHat.get(%d) = %f)".formatted(y, softmaxValue));
         }
     }
+
+    /** This returns the cross entropy loss for one row of a batch of
+     * {@code Softmax} probabilities, without boxing.
+     *
+     * @param yHat The {@code Softmax} probabilities of a batch of datapoints,
+     *             with one row per datapoint.
+     * @param offset The start of the row of the datapoint.
+     * @param y The index of the true label of the datapoint.
+     * @throws IllegalArgumentException Thrown if the chosen {@code yHat} value
+     * is not an acceptable probability.
+     * @return The cross entropy loss.
+     */
+    public double call(double[] yHat, int offset, int y) {
+        double softmaxValue = yHat[offset + y];
+        if (0 <= softmaxValue && softmaxValue <= 1) {
+            return -log(softmaxValue);
+        } else {
+            throw new IllegalArgumentException("Softmax value should be between 0" +
+                    " and 1 (yHat[%d] = %f)".formatted(offset + y, softmaxValue));
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package neural_network.functions;
+
+/** Interface for the vector kernels behind {@code VectorKernels}, so that a
+ * SIMD implementation can be chosen at runtime, with a scalar fallback.
+ *
+ */
+interface Kernels {
+
+    /** Computes the dot product of {@code length} values of {@code a} and {@code b}.
+     *
+     * @param a The first vector.
+     * @param aOffset The index of the first value of {@code a}.
+     * @param b The second vector.
+     * @param bOffset The index of the first value of {@code b}.
+     * @param length The number of values.
+     * @return The dot product.
+     */
+    double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    /** Computes {@code y += alpha * x} for {@code length} values.
+     *
+     * @param alpha The scalar.
+     * @param x The vector to add.
+     * @param xOffset The index of the first value of {@code x}.
+     * @param y The vector which is added to.
+     * @param yOffset The index of the first value of {@code y}.
+     * @param length The number of values.
+     */
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+    /** Applies the leaky ReLU function in place from {@code from} (inclusive)
+     * to {@code to} (exclusive).
+     *
+     * @param x The values, which are overwritten.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param leak The leak.
+     */
+    void leakyReLU(double[] x, int from, int to, double leak);
+
+    /** Applies the sigmoid function in place from {@code from} (inclusive) to
+     * {@code to} (exclusive).
+     *
+     * @param x The values, which are overwritten.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    void sigmoid(double[] x, int from, int to);
+
+    /** Converts the values from {@code from} (inclusive) to {@code to}
+     * (exclusive) into softmax probabilities in place.
+     *
+     * @param z The pre-activated values, which are overwritten.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    void softmax(double[] z, int from, int to);
+}
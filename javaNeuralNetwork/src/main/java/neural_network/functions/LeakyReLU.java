@@ -4,7 +4,7 @@ package neural_network.functions;
  * is set to 0.0), which is an {@code Activator} for {@code Neurons}.
  *
  */
-public class LeakyReLU implements Activator<Double> {
+public final class LeakyReLU implements PrimitiveActivator, Activator<Double> {
 
     private final double leak;
 
@@ -30,20 +30,72 @@ public class LeakyReLU implements Activator<Double> {
      * @return The leaky ReLU output.
      */
     @Override
-    public double call(Double x) {
+    public double call(double x) {
         return x >= 0 ? x : x * leak;
     }
 
+    /** Boxed adapter for {@code call}.
+     *
+     * @param x The input value (from the {@code TransferFunction}).
+     * @return The leaky ReLU output.
+     */
+    @Override
+    public double call(Double x) {
+        return call(x.doubleValue());
+    }
+
     /** The gradient of the leaky ReLU function.
      *
      * @param x The input value (from the {@code TransferFunction}).
      * @return The gradient of the leaky ReLU.
      */
     @Override
-    public Double gradient(Double x) {
+    public double gradient(double x) {
         return x >= 0 ? 1 : leak;
     }
 
+    /** Boxed adapter for {@code gradient}.
+     *
+     * @param x The input value (from the {@code TransferFunction}).
+     * @return The gradient of the leaky ReLU.
+     */
+    @Override
+    public Double gradient(Double x) {
+        return gradient(x.doubleValue());
+    }
+
+    /** Applies the leaky ReLU function in place to the values from {@code from}
+     * (inclusive) to {@code to} (exclusive), without boxing.
+     *
+     * @param xArray The input values, which are overwritten with the outputs.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    @Override
+    public void call(double[] xArray, int from, int to) {
+        VectorKernels.leakyReLU(xArray, from, to, leak);
+    }
+
+    /** Multiplies each delta by the gradient of the leaky ReLU, from
+     * {@code from} (inclusive) to {@code to} (exclusive), without boxing. An
+     * activated value has the sign of its input, so the gradient is the
+     * {@code leak} where the sign is negative. This includes {@code -0.0},
+     * the output of a negative input when the {@code leak} is zero.
+     *
+     * @param xArray The activated values at which to find the gradient.
+     * @param deltas The deltas, which are multiplied in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    @Override
+    public void multiplyByGradient(double[] xArray, double[] deltas, int from, int to) {
+        for (int j = from; j < to; j ++) {
+            if (Math.copySign(1.0, xArray[j]) < 0) {
+                deltas[j] *= leak;
+            }
+        }
+    }
+
     /** Getter method for {@code leak}.
      *
      * @return The leak of the leaky ReLU.
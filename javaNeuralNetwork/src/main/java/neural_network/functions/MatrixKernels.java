@@ -0,0 +1,133 @@
+package neural_network.functions;
+
+import java.util.Arrays;
+
+/** Class containing the matrix kernels used to pass a whole batch of
+ * datapoints through a {@code Network} at once.
+ * <p>
+ * All matrices are stored as row-major {@code double[]} arrays. The loops are
+ * blocked so that a tile of each operand stays in cache while it is reused, and
+ * the innermost loops are the dot products and {@code y += alpha * x} updates of
+ * {@code VectorKernels}.
+ * </p>
+ *
+ */
+public final class MatrixKernels {
+
+    // The number of rows in each tile of the blocked loops
+    private static final int BLOCK_SIZE = 64;
+
+    private MatrixKernels() {}
+
+    /** Computes {@code c = a * b^T}, where {@code a} is {@code m x k}, {@code b}
+     * is {@code n x k} and {@code c} is {@code m x n}. This is the forward pass
+     * of a {@code Layer}, where {@code a} holds the values of the previous
+     * {@code Layer} (one row per datapoint) and {@code b} holds the weights
+     * (one row per {@code Neuron}).
+     *
+     * @param a The left matrix ({@code m x k}).
+     * @param b The right matrix, which is transposed ({@code n x k}).
+     * @param c The output matrix ({@code m x n}), which is overwritten.
+     * @param m The number of rows of {@code a}.
+     * @param n The number of rows of {@code b}.
+     * @param k The number of columns of {@code a} and {@code b}.
+     */
+    public static void multiplyTransposed(double[] a, double[] b, double[] c,
+                                          int m, int n, int k) {
+        for (int iBlock = 0; iBlock < m; iBlock += BLOCK_SIZE) {
+            int iEnd = Math.min(iBlock + BLOCK_SIZE, m);
+            for (int jBlock = 0; jBlock < n; jBlock += BLOCK_SIZE) {
+                int jEnd = Math.min(jBlock + BLOCK_SIZE, n);
+                for (int i = iBlock; i < iEnd; i ++) {
+                    int aOffset = i * k;
+                    for (int j = jBlock; j < jEnd; j ++) {
+                        c[i * n + j] = VectorKernels.dot(a, aOffset, b, j * k, k);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Computes {@code c = a * b}, where {@code a} is {@code m x n}, {@code b}
+     * is {@code n x k} and {@code c} is {@code m x k}. This propagates the
+     * deltas of a {@code Layer} (one row per datapoint) back through its
+     * weights (one row per {@code Neuron}).
+     *
+     * @param a The left matrix ({@code m x n}).
+     * @param b The right matrix ({@code n x k}).
+     * @param c The output matrix ({@code m x k}), which is overwritten.
+     * @param m The number of rows of {@code a}.
+     * @param n The number of columns of {@code a} and rows of {@code b}.
+     * @param k The number of columns of {@code b}.
+     */
+    public static void multiply(double[] a, double[] b, double[] c,
+                                int m, int n, int k) {
+        Arrays.fill(c, 0, m * k, 0.0);
+        for (int jBlock = 0; jBlock < n; jBlock += BLOCK_SIZE) {
+            int jEnd = Math.min(jBlock + BLOCK_SIZE, n);
+            for (int i = 0; i < m; i ++) {
+                int cOffset = i * k;
+                for (int j = jBlock; j < jEnd; j ++) {
+                    VectorKernels.axpy(a[i * n + j], b, j * k, c, cOffset, k);
+                }
+            }
+        }
+    }
+
+    /** Computes {@code c += a^T * b}, where {@code a} is {@code m x n}, {@code b}
+     * is {@code m x k} and {@code c} is {@code n x k}. This accumulates the
+     * gradients of the weights of a {@code Layer} from its deltas and the
+     * values of the previous {@code Layer} (both with one row per datapoint).
+     *
+     * @param a The left matrix, which is transposed ({@code m x n}).
+     * @param b The right matrix ({@code m x k}).
+     * @param c The output matrix ({@code n x k}), which is added to.
+     * @param m The number of rows of {@code a} and {@code b}.
+     * @param n The number of columns of {@code a}.
+     * @param k The number of columns of {@code b}.
+     */
+    public static void addTransposedProduct(double[] a, double[] b, double[] c,
+                                            int m, int n, int k) {
+        for (int iBlock = 0; iBlock < m; iBlock += BLOCK_SIZE) {
+            int iEnd = Math.min(iBlock + BLOCK_SIZE, m);
+            for (int j = 0; j < n; j ++) {
+                int cOffset = j * k;
+                for (int i = iBlock; i < iEnd; i ++) {
+                    VectorKernels.axpy(a[i * n + j], b, i * k, c, cOffset, k);
+                }
+            }
+        }
+    }
+
+    /** Adds the sum of each column of {@code a} to {@code c}.
+     *
+     * @param a The matrix ({@code m x n}).
+     * @param c The column sums ({@code n}), which are added to.
+     * @param m The number of rows of {@code a}.
+     * @param n The number of columns of {@code a}.
+     */
+    public static void addColumnSums(double[] a, double[] c, int m, int n) {
+        for (int i = 0; i < m; i ++) {
+            int aOffset = i * n;
+            for (int j = 0; j < n; j ++) {
+                c[j] += a[aOffset + j];
+            }
+        }
+    }
+
+    /** Adds the vector {@code b} to each row of {@code a}.
+     *
+     * @param a The matrix ({@code m x n}), which is added to.
+     * @param b The vector ({@code n}).
+     * @param m The number of rows of {@code a}.
+     * @param n The number of columns of {@code a}.
+     */
+    public static void addToRows(double[] a, double[] b, int m, int n) {
+        for (int i = 0; i < m; i ++) {
+            int aOffset = i * n;
+            for (int j = 0; j < n; j ++) {
+                a[aOffset + j] += b[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package neural_network.functions;
+
+/** Interface for an activating function of single {@code double} values, which
+ * never boxes its inputs or outputs. This is what the {@code Network} calls on
+ * every {@code Neuron}. The generic {@code Activator} is kept as an adapter on
+ * top of this, for the {@code Double} values of the older code.
+ *
+ */
+public interface PrimitiveActivator {
+
+    /** Calling of the activating function.
+     *
+     * @param x The input value (from the {@code TransferFunction}).
+     * @return The output value.
+     */
+    double call(double x);
+
+    /** The gradient of the activating function to be used in back propagation.
+     *
+     * @param x The input value (from the {@code TransferFunction}).
+     * @return The gradient of the function at {@code x}.
+     */
+    double gradient(double x);
+
+    /** Applies the activating function in place to the values from {@code from}
+     * (inclusive) to {@code to} (exclusive).
+     *
+     * @param xArray The input values, which are overwritten with the outputs.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    void call(double[] xArray, int from, int to);
+
+    /** Multiplies each delta by the gradient of the activating function,
+     * from {@code from} (inclusive) to {@code to} (exclusive). Unlike
+     * {@code gradient}, the gradient is found from the activated values (the
+     * outputs of {@code call}), as these are all that a {@code Network} keeps.
+     *
+     * @param xArray The activated values at which to find the gradient.
+     * @param deltas The deltas, which are multiplied in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    void multiplyByGradient(double[] xArray, double[] deltas, int from, int to);
+}
@@ -0,0 +1,60 @@
+package neural_network.functions;
+
+import static java.lang.Math.exp;
+
+/** Scalar implementation of the vector kernels, used when the
+ * {@code jdk.incubator.vector} module is not available.
+ *
+ */
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double sum = 0.0;
+        for (int i = 0; i < length; i ++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset,
+                     int length) {
+        for (int i = 0; i < length; i ++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public void leakyReLU(double[] x, int from, int to, double leak) {
+        for (int j = from; j < to; j ++) {
+            double value = x[j];
+            x[j] = value >= 0 ? value : value * leak;
+        }
+    }
+
+    @Override
+    public void sigmoid(double[] x, int from, int to) {
+        for (int j = from; j < to; j ++) {
+            // We do the below to avoid overflow errors
+            double value = x[j];
+            x[j] = (value < 0) ? exp(value) / (1 + exp(value)) : 1 / (1 + exp(-value));
+        }
+    }
+
+    @Override
+    public void softmax(double[] z, int from, int to) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int j = from; j < to; j ++) {
+            max = Math.max(max, z[j]);
+        }
+        double sum = 0.0;
+        for (int j = from; j < to; j ++) {
+            z[j] = exp(z[j] - max);
+            sum += z[j];
+        }
+        for (int j = from; j < to; j ++) {
+            z[j] /= sum;
+        }
+    }
+}
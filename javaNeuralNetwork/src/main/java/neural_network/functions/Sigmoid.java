@@ -1,15 +1,12 @@
 package neural_network.functions;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static java.lang.Math.exp;
 
 /** Class to represent the sigmoid function, which is an {@code Activator} for
  * {@code Neurons}
  *
  */
-public class Sigmoid implements Activator<Double> {
+public final class Sigmoid implements PrimitiveActivator, Activator<Double> {
 
     /** Implementation of sigmoid function.
      *
@@ -17,7 +14,7 @@ public class Sigmoid implements Activator<Double> {
      * @return The sigmoid output.
      */
     @Override
-    public double call(Double x) {
+    public double call(double x) {
         // We do the below to avoid overflow errors
         if (x < 0) {
             return exp(x) /(1 + exp(x));
@@ -25,13 +22,63 @@ public class Sigmoid implements Activator<Double> {
         return 1 / (1 + exp(-x));
     }
 
+    /** Boxed adapter for {@code call}.
+     *
+     * @param x The input value (from the {@code TransferFunction}).
+     * @return The sigmoid output.
+     */
+    @Override
+    public double call(Double x) {
+        return call(x.doubleValue());
+    }
+
+    /** Applies the sigmoid function in place to the values from {@code from}
+     * (inclusive) to {@code to} (exclusive), without boxing.
+     *
+     * @param xArray The input values, which are overwritten with the outputs.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    @Override
+    public void call(double[] xArray, int from, int to) {
+        VectorKernels.sigmoid(xArray, from, to);
+    }
+
     /**
      *
      * @param x The input value (from the {@code TransferFunction}).
      * @return The gradient of the sigmoid.
      */
     @Override
+    public double gradient(double x) {
+        double sigmoid = call(x);
+        return sigmoid * (1 - sigmoid);
+    }
+
+    /** Boxed adapter for {@code gradient}.
+     *
+     * @param x The input value (from the {@code TransferFunction}).
+     * @return The gradient of the sigmoid.
+     */
+    @Override
     public Double gradient(Double x) {
-        return call(x) * (1 - call(x));
+        return gradient(x.doubleValue());
+    }
+
+    /** Multiplies each delta by the gradient of the sigmoid, from {@code from}
+     * (inclusive) to {@code to} (exclusive), without boxing. The gradient at an
+     * activated value {@code s} is {@code s * (1 - s)}.
+     *
+     * @param xArray The activated values at which to find the gradient.
+     * @param deltas The deltas, which are multiplied in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    @Override
+    public void multiplyByGradient(double[] xArray, double[] deltas, int from, int to) {
+        for (int j = from; j < to; j ++) {
+            double sigmoid = xArray[j];
+            deltas[j] *= sigmoid * (1 - sigmoid);
+        }
     }
 }
@@ -0,0 +1,124 @@
+package neural_network.functions;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static java.lang.Math.exp;
+
+/** SIMD implementation of the vector kernels, using the {@code jdk.incubator.vector}
+ * module with the widest vectors supported by the CPU. Each kernel processes
+ * whole vectors first, then finishes the remaining values with a scalar loop.
+ * <p>
+ * This class must only be loaded when the module is present (see
+ * {@code VectorKernels}). Note that the sums are accumulated in a different
+ * order to {@code ScalarKernels}, so the results may differ in the last bits.
+ * </p>
+ *
+ */
+final class SimdKernels implements Kernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final DoubleVector ONES = DoubleVector.broadcast(SPECIES, 1.0);
+
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            sums = sums.add(va.mul(vb));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i ++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset,
+                     int length) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + i);
+            vy.add(vx.mul(alpha)).intoArray(y, yOffset + i);
+        }
+        for (; i < length; i ++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public void leakyReLU(double[] x, int from, int to, double leak) {
+        int bound = from + SPECIES.loopBound(to - from);
+        int j = from;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, j);
+            VectorMask<Double> negative = v.lt(0.0);
+            v.blend(v.mul(leak), negative).intoArray(x, j);
+        }
+        for (; j < to; j ++) {
+            double value = x[j];
+            x[j] = value >= 0 ? value : value * leak;
+        }
+    }
+
+    @Override
+    public void sigmoid(double[] x, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        int j = from;
+        for (; j < bound; j += SPECIES.length()) {
+            // 1 / (1 + exp(-x)) tends to 0 rather than overflowing for large -x
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, j);
+            ONES.div(v.neg().lanewise(VectorOperators.EXP).add(1.0)).intoArray(x, j);
+        }
+        for (; j < to; j ++) {
+            double value = x[j];
+            x[j] = (value < 0) ? exp(value) / (1 + exp(value)) : 1 / (1 + exp(-value));
+        }
+    }
+
+    @Override
+    public void softmax(double[] z, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+
+        // Find the maximum to avoid overflow errors
+        DoubleVector maxes = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        int j = from;
+        for (; j < bound; j += SPECIES.length()) {
+            maxes = maxes.max(DoubleVector.fromArray(SPECIES, z, j));
+        }
+        double max = maxes.reduceLanes(VectorOperators.MAX);
+        for (; j < to; j ++) {
+            max = Math.max(max, z[j]);
+        }
+
+        // Exponentiate and sum
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        for (j = from; j < bound; j += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, z, j)
+                    .sub(max).lanewise(VectorOperators.EXP);
+            v.intoArray(z, j);
+            sums = sums.add(v);
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; j < to; j ++) {
+            z[j] = exp(z[j] - max);
+            sum += z[j];
+        }
+
+        // Normalise
+        for (j = from; j < bound; j += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, z, j).div(sum).intoArray(z, j);
+        }
+        for (; j < to; j ++) {
+            z[j] /= sum;
+        }
+    }
+}
@@ -12,7 +12,7 @@ import static java.lang.Math.exp;
  * function for the output {@code Layer}.
  *
  */
-public class Softmax implements Activator<Double> {
+public final class Softmax implements PrimitiveActivator, Activator<Double> {
 
     private double normalisation = 1.0;
     private double maxZ = 0.0;
@@ -32,6 +32,45 @@ public class Softmax implements Activator<Double> {
                 .sum();
     }
 
+    /** Converts a vector of pre-activated values into softmax probabilities
+     * in place. Unlike {@code normalise} and {@code call}, this does not store
+     * any state on the {@code Softmax}.
+     *
+     * @param zArray The pre-activated values from the output {@code Layer},
+     *               which are overwritten with the softmax probabilities.
+     */
+    public void activate(double[] zArray) {
+        activate(zArray, 0, zArray.length);
+    }
+
+    /** Converts one row of pre-activated values (from {@code from} inclusive
+     * to {@code to} exclusive) into softmax probabilities in place. This is
+     * used for a batch of datapoints, where each row is one datapoint.
+     *
+     * @param zArray The pre-activated values, which are overwritten with the
+     *               softmax probabilities.
+     * @param from The start of the row (inclusive).
+     * @param to The end of the row (exclusive).
+     */
+    public void activate(double[] zArray, int from, int to) {
+        VectorKernels.softmax(zArray, from, to);
+    }
+
+    /** Converts the values from {@code from} (inclusive) to {@code to}
+     * (exclusive) into softmax probabilities in place. This is the same as
+     * {@code activate}, as the softmax probabilities of one row depend on every
+     * value in the row.
+     *
+     * @param zArray The pre-activated values, which are overwritten with the
+     *               softmax probabilities.
+     * @param from The start of the row (inclusive).
+     * @param to The end of the row (exclusive).
+     */
+    @Override
+    public void call(double[] zArray, int from, int to) {
+        activate(zArray, from, to);
+    }
+
     /** The softmax function. Note we multiply top and bottom by {@code maxZ} to avoid
      * any overflow error.
      *
@@ -39,10 +78,20 @@ public class Softmax implements Activator<Double> {
      * @return The softmax activation value of {@code z}.
      */
     @Override
-    public double call(Double z) {
+    public double call(double z) {
         return exp(z - maxZ) / normalisation;
     }
 
+    /** Boxed adapter for {@code call}.
+     *
+     * @param z The value of an output neuron.
+     * @return The softmax activation value of {@code z}.
+     */
+    @Override
+    public double call(Double z) {
+        return call(z.doubleValue());
+    }
+
     /** Note that the gradient of {@code Softmax} is dealt with elsewhere.
      * Therefore, we throw an exception if there is an attempt to call this
      * method.
@@ -52,7 +101,33 @@ public class Softmax implements Activator<Double> {
      * @return void
      */
     @Override
+    public double gradient(double z) {
+        throw new UnsupportedOperationException("gradient method should not be" +
+                "called from the Softmax class.");
+    }
+
+    /** Boxed adapter for {@code gradient}, which also throws.
+     *
+     * @param z The value of an output neuron.
+     * @throws UnsupportedOperationException This method should not be called.
+     * @return void
+     */
+    @Override
     public Double gradient(Double z) {
+        return gradient(z.doubleValue());
+    }
+
+    /** Note that the gradient of {@code Softmax} is dealt with elsewhere (with
+     * the {@code CrossEntropyLoss}), so this also throws.
+     *
+     * @param zArray The pre-activated values.
+     * @param deltas The deltas.
+     * @param from The start of the row (inclusive).
+     * @param to The end of the row (exclusive).
+     * @throws UnsupportedOperationException This method should not be called.
+     */
+    @Override
+    public void multiplyByGradient(double[] zArray, double[] deltas, int from, int to) {
         throw new UnsupportedOperationException("gradient method should not be" +
                 "called from the Softmax class.");
     }
@@ -0,0 +1,114 @@
+package neural_network.functions;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.log;
+
+/** Class containing the fused output kernel of a classification {@code Network}:
+ * softmax activation, cross entropy loss, argmax and the output deltas in one
+ * call over a row-major {@code double[]} of logits.
+ * <p>
+ * The loss is found by log-sum-exp, {@code -log(p_y) = max + log(sum_j exp(z_j - max)) - z_y},
+ * so it stays finite even when the softmax probability of the true class
+ * underflows to zero. Unlike {@code Softmax.normalise}, nothing is stored
+ * between calls, so the kernel can be called from many threads at once.
+ * </p>
+ *
+ */
+public final class SoftmaxCrossEntropy {
+
+    private SoftmaxCrossEntropy() {}
+
+    /** Applies the kernel to each of the {@code m} rows of {@code logits}.
+     *
+     * @param logits The pre-activated values of the output {@code Layer}
+     *               ({@code m x n}), which are overwritten with the softmax
+     *               probabilities.
+     * @param labels The true class of each row ({@code m}), as stored in the
+     *               targets of a {@code Dataset}.
+     * @param m The number of rows (datapoints).
+     * @param n The number of columns (classes).
+     * @param deltas The gradients of the loss with respect to the logits
+     *               ({@code m x n}), {@code p_j - 1[j == y]}, which are
+     *               overwritten. Pass {@code null} to skip them.
+     * @param predictions The class with the largest probability for each row
+     *                    ({@code m}), which are overwritten. Pass {@code null}
+     *                    to skip them.
+     * @return The total cross entropy loss over the rows.
+     * @throws IllegalArgumentException If a label is not one of the {@code n} classes.
+     */
+    public static double call(double[] logits, double[] labels, int m, int n,
+                              double[] deltas, int[] predictions) {
+        double totalLoss = 0.0;
+        for (int r = 0; r < m; r ++) {
+            totalLoss += callRow(logits, r, n, (int) labels[r], deltas, predictions);
+        }
+        return totalLoss;
+    }
+
+    /** Applies the kernel to a single row of {@code logits} (one datapoint).
+     *
+     * @param logits The pre-activated values of the output {@code Layer}
+     *               ({@code n}), which are overwritten with the softmax
+     *               probabilities.
+     * @param label The true class.
+     * @param deltas The gradients of the loss with respect to the logits
+     *               ({@code n}), which are overwritten. Pass {@code null} to
+     *               skip them.
+     * @param prediction The class with the largest probability is written to
+     *                   {@code prediction[0]}. Pass {@code null} to skip it.
+     * @return The cross entropy loss.
+     * @throws IllegalArgumentException If the label is not one of the {@code n} classes.
+     */
+    public static double call(double[] logits, int label, double[] deltas, int[] prediction) {
+        return callRow(logits, 0, logits.length, label, deltas, prediction);
+    }
+
+    /** Applies the kernel to row {@code r} of {@code logits}.
+     *
+     * @param logits The logits ({@code m x n}).
+     * @param r The row.
+     * @param n The number of columns (classes).
+     * @param label The true class of the row.
+     * @param deltas The deltas ({@code m x n}), or {@code null}.
+     * @param predictions The predictions ({@code m}), or {@code null}.
+     * @return The cross entropy loss of the row.
+     */
+    private static double callRow(double[] logits, int r, int n, int label,
+                                  double[] deltas, int[] predictions) {
+        int offset = r * n;
+        if (label < 0 || label >= n) {
+            throw new IllegalArgumentException(
+                    "Label %d of row %d is not one of the %d classes"
+                            .formatted(label, r, n));
+        }
+
+        // The maximum (for stability) is also the argmax of the probabilities
+        int argmax = 0;
+        double max = logits[offset];
+        for (int j = 1; j < n; j ++) {
+            if (logits[offset + j] > max) {
+                max = logits[offset + j];
+                argmax = j;
+            }
+        }
+        double labelLogit = logits[offset + label];
+        double sum = 0.0;
+        for (int j = 0; j < n; j ++) {
+            double e = exp(logits[offset + j] - max);
+            logits[offset + j] = e;
+            sum += e;
+        }
+
+        for (int j = 0; j < n; j ++) {
+            double p = logits[offset + j] / sum;
+            logits[offset + j] = p;
+            if (deltas != null) {
+                deltas[offset + j] = (j == label) ? p - 1.0 : p;
+            }
+        }
+        if (predictions != null) {
+            predictions[r] = argmax;
+        }
+        return max + log(sum) - labelLogit;
+    }
+}
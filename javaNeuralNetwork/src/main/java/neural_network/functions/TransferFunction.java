@@ -49,6 +49,21 @@ public class TransferFunction implements Activator<List<Double>> {
         return transferValue;
     }
 
+    /** Primitive implementation of the transfer function, which does not
+     * require {@code weights} or {@code bias} to be bound. This returns the
+     * sum of w_ij * o_j + b_i where the w_ij are read from a contiguous
+     * row-major weight matrix.
+     *
+     * @param o The values of {@code Neurons} in the left {@code Layer}.
+     * @param weights The weight matrix, with one row per right {@code Neuron}.
+     * @param offset The index of the first weight in the row for this {@code Neuron}.
+     * @param bias The bias of the right {@code Neuron}.
+     * @return The output of the transfer function.
+     */
+    public double call(double[] o, double[] weights, int offset, double bias) {
+        return VectorKernels.dot(o, 0, weights, offset, o.length) + bias;
+    }
+
     /** Gradient of the transfer function.
      *
      * @param o A vector of values from {@code Neurons} in the left
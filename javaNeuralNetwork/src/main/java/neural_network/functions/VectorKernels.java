@@ -0,0 +1,126 @@
+package neural_network.functions;
+
+/** Class containing the vector kernels for the forward and backward passes:
+ * dot products, {@code y += alpha * x}, and the leaky ReLU, sigmoid and softmax
+ * activations over ranges of primitive arrays.
+ * <p>
+ * When the {@code jdk.incubator.vector} module is enabled (for example with
+ * {@code --add-modules jdk.incubator.vector}), these use SIMD instructions.
+ * Otherwise, they fall back to plain scalar loops. The SIMD kernels can also be
+ * turned off with {@code -Dneural_network.simd=false}.
+ * </p>
+ *
+ */
+public final class VectorKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static Kernels kernels = chooseKernels();
+
+    private VectorKernels() {}
+
+    /** Chooses the SIMD kernels if the vector module is present, else the
+     * scalar kernels. The SIMD kernels are loaded by name, so that their class
+     * is never linked without the module.
+     *
+     * @return The kernels.
+     */
+    private static Kernels chooseKernels() {
+        boolean enabled = Boolean.parseBoolean(
+                System.getProperty("neural_network.simd", "true"));
+        if (enabled && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (Kernels) Class.forName("neural_network.functions.SimdKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar kernels
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    /** Whether the SIMD kernels are being used.
+     *
+     * @return {@code true} if the SIMD kernels are being used, {@code false}
+     * for the scalar fallback.
+     */
+    public static boolean isSimd() {
+        return ! (kernels instanceof ScalarKernels);
+    }
+
+    /** Computes the dot product of {@code length} values of {@code a} and {@code b}.
+     *
+     * @param a The first vector.
+     * @param aOffset The index of the first value of {@code a}.
+     * @param b The second vector.
+     * @param bOffset The index of the first value of {@code b}.
+     * @param length The number of values.
+     * @return The dot product.
+     */
+    public static double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        return kernels.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /** Computes {@code y += alpha * x} for {@code length} values.
+     *
+     * @param alpha The scalar.
+     * @param x The vector to add.
+     * @param xOffset The index of the first value of {@code x}.
+     * @param y The vector which is added to.
+     * @param yOffset The index of the first value of {@code y}.
+     * @param length The number of values.
+     */
+    public static void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset,
+                            int length) {
+        kernels.axpy(alpha, x, xOffset, y, yOffset, length);
+    }
+
+    /** Applies the leaky ReLU function in place from {@code from} (inclusive)
+     * to {@code to} (exclusive).
+     *
+     * @param x The values, which are overwritten.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param leak The leak.
+     */
+    public static void leakyReLU(double[] x, int from, int to, double leak) {
+        kernels.leakyReLU(x, from, to, leak);
+    }
+
+    /** Applies the sigmoid function in place from {@code from} (inclusive) to
+     * {@code to} (exclusive).
+     *
+     * @param x The values, which are overwritten.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    public static void sigmoid(double[] x, int from, int to) {
+        kernels.sigmoid(x, from, to);
+    }
+
+    /** Converts the values from {@code from} (inclusive) to {@code to}
+     * (exclusive) into softmax probabilities in place.
+     *
+     * @param z The pre-activated values, which are overwritten.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     */
+    public static void softmax(double[] z, int from, int to) {
+        kernels.softmax(z, from, to);
+    }
+
+    /** Getter for {@code kernels}. For testing.
+     *
+     * @return The kernels in use.
+     */
+    static Kernels getKernels() {
+        return kernels;
+    }
+
+    /** Setter for {@code kernels}. For testing.
+     *
+     * @param kernels The new kernels.
+     */
+    static void setKernels(Kernels kernels) {
+        VectorKernels.kernels = kernels;
+    }
+}
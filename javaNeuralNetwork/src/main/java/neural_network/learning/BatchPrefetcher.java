@@ -0,0 +1,208 @@
+package neural_network.learning;
+
+import neural_network.util.Batches;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Class to gather the batches of an epoch on a background thread while the
+ * training thread trains on earlier ones (see {@code Trainer.setPrefetch}).
+ * <p>
+ * The batches are gathered into a fixed ring of {@code depth} reusable
+ * buffers. The prefetch thread fills the free buffers in batch order and
+ * waits when they are all full, and the training thread takes the full
+ * buffers in the same order and hands them back once it is done with them.
+ * </p>
+ *
+ */
+final class BatchPrefetcher {
+
+    /** A buffer holding one gathered batch.
+     *
+     */
+    static final class Slot {
+
+        private final double[] batchX;
+        private final double[] batchY;
+        private int offset;
+        private int length;
+
+        /** Constructor method.
+         *
+         * @param capacity The largest number of datapoints in a batch.
+         * @param dimensions The number of coordinates per datapoint.
+         */
+        private Slot(int capacity, int dimensions) {
+            this.batchX = new double[capacity * dimensions];
+            this.batchY = new double[capacity];
+        }
+
+        /** Getter method for {@code batchX}.
+         *
+         * @return The coordinates of the batch, as a row-major matrix.
+         */
+        double[] getBatchX() {
+            return batchX;
+        }
+
+        /** Getter method for {@code batchY}.
+         *
+         * @return The targets of the batch.
+         */
+        double[] getBatchY() {
+            return batchY;
+        }
+
+        /** Getter method for {@code offset}.
+         *
+         * @return The index of the first datapoint of the batch in the ids
+         * of the {@code Batches}.
+         */
+        int getOffset() {
+            return offset;
+        }
+
+        /** Getter method for {@code length}.
+         *
+         * @return The number of datapoints in the batch.
+         */
+        int getLength() {
+            return length;
+        }
+    }
+
+    // Put after the last batch of an epoch (or a failure) by the prefetch thread
+    private static final Slot END = new Slot(0, 0);
+    private final Learner learner;
+    private final BlockingQueue<Slot> freeSlots;
+    private final BlockingQueue<Slot> fullSlots;
+    private final PrefetchStatistics statistics;
+    private final ExecutorService executor;
+    private Future<?> producer = null;
+
+    /** Constructor method.
+     *
+     * @param learner The {@code Learner} whose datapoints are gathered.
+     * @param depth The number of buffers.
+     * @param capacity The largest number of datapoints in a batch.
+     * @param statistics The statistics to record the waits in.
+     */
+    BatchPrefetcher(Learner learner, int depth, int capacity, PrefetchStatistics statistics) {
+        this.learner = learner;
+        this.freeSlots = new ArrayBlockingQueue<>(depth);
+        // One more place than buffers, so that END always fits
+        this.fullSlots = new ArrayBlockingQueue<>(depth + 1);
+        for (int i = 0; i < depth; i ++) {
+            freeSlots.add(new Slot(capacity, learner.getDimensions()));
+        }
+        this.statistics = statistics;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Starts gathering the batches of an epoch. The previous epoch must
+     * have been finished (see {@code finish}).
+     *
+     * @param batches The batches of the epoch, before the first batch.
+     */
+    void start(Batches batches) {
+        // The END of the previous epoch, unless it was taken
+        fullSlots.remove(END);
+        producer = executor.submit(() -> {
+            try {
+                produce(batches);
+            } finally {
+                fullSlots.add(END);
+            }
+            return null;
+        });
+    }
+
+    /** The loop of the prefetch thread, which gathers each batch into the
+     * next free buffer.
+     *
+     * @param batches The batches of the epoch.
+     * @throws InterruptedException If interrupted while waiting for a buffer.
+     */
+    private void produce(Batches batches) throws InterruptedException {
+        int[] ids = batches.getIds();
+        while (batches.next()) {
+            long start = System.nanoTime();
+            Slot slot = freeSlots.take();
+            statistics.recordProducerWait(System.nanoTime() - start);
+            slot.offset = batches.getOffset();
+            slot.length = batches.getLength();
+            learner.gatherBatch(ids, slot.offset, slot.offset + slot.length,
+                    slot.batchX, slot.batchY);
+            fullSlots.put(slot);
+        }
+    }
+
+    /** Takes the next gathered batch, waiting for it if it is not ready.
+     *
+     * @return The buffer of the batch, to be handed back with {@code release}.
+     * @throws IllegalStateException If the prefetch thread failed, or has no
+     * batches left.
+     */
+    Slot take() {
+        long waitNanos = 0;
+        Slot slot = fullSlots.poll();
+        if (slot == null) {
+            long start = System.nanoTime();
+            try {
+                slot = fullSlots.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a batch", e);
+            }
+            waitNanos = System.nanoTime() - start;
+        }
+        if (slot == END) {
+            // Rethrows the failure of the prefetch thread, if there was one
+            finish();
+            throw new IllegalStateException("No batches left to prefetch");
+        }
+        statistics.recordTake(waitNanos);
+        return slot;
+    }
+
+    /** Hands a buffer back to be refilled.
+     *
+     * @param slot The buffer from {@code take}.
+     */
+    void release(Slot slot) {
+        freeSlots.add(slot);
+    }
+
+    /** Waits for the prefetch thread to finish the epoch, rethrowing any
+     * exception it threw.
+     *
+     */
+    void finish() {
+        try {
+            producer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the prefetch thread", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Prefetching failed", e.getCause());
+        }
+    }
+
+    /** Stops the prefetch thread, abandoning any batches still being gathered.
+     *
+     */
+    void close() {
+        executor.shutdownNow();
+    }
+}
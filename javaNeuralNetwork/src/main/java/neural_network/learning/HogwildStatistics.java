@@ -0,0 +1,91 @@
+package neural_network.learning;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Class to count how often the lock-free updates of Hogwild training (see
+ * {@code Trainer.setHogwild}) collide.
+ * <p>
+ * Each update is stamped with the number of updates which had been applied
+ * when its forward pass began. If any other update has been applied by the
+ * time it is applied itself, its gradients were found from weights which have
+ * since changed, and we count it as a conflict. The staleness of an update is
+ * the number of updates applied in between.
+ * </p>
+ *
+ */
+public final class HogwildStatistics {
+
+    private final AtomicLong numUpdates = new AtomicLong();
+    private final AtomicLong numConflicts = new AtomicLong();
+    private final AtomicLong totalStaleness = new AtomicLong();
+
+    /** Constructor method.
+     *
+     */
+    HogwildStatistics() {}
+
+    /** Called before the forward pass of an update.
+     *
+     * @return The stamp of the update, to pass to {@code endUpdate}.
+     */
+    long beginUpdate() {
+        return numUpdates.get();
+    }
+
+    /** Called once the update has been applied.
+     *
+     * @param stamp The stamp from {@code beginUpdate}.
+     */
+    void endUpdate(long stamp) {
+        long staleness = numUpdates.getAndIncrement() - stamp;
+        if (staleness > 0) {
+            numConflicts.incrementAndGet();
+            totalStaleness.addAndGet(staleness);
+        }
+    }
+
+    /** Getter method for {@code numUpdates}.
+     *
+     * @return The number of updates applied.
+     */
+    public long getNumUpdates() {
+        return numUpdates.get();
+    }
+
+    /** Getter method for {@code numConflicts}.
+     *
+     * @return The number of updates whose weights changed during their forward
+     * and backward passes.
+     */
+    public long getNumConflicts() {
+        return numConflicts.get();
+    }
+
+    /** The fraction of updates which were conflicts.
+     *
+     * @return The conflict rate, or zero if there have been no updates.
+     */
+    public double getConflictRate() {
+        long n = numUpdates.get();
+        return (n == 0) ? 0.0 : (double) numConflicts.get() / n;
+    }
+
+    /** The mean number of other updates applied during each update.
+     *
+     * @return The mean staleness, or zero if there have been no updates.
+     */
+    public double getMeanStaleness() {
+        long n = numUpdates.get();
+        return (n == 0) ? 0.0 : (double) totalStaleness.get() / n;
+    }
+
+    /** A summary of the statistics, for printing.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        return "Hogwild updates: %d, conflict rate: %.4f, mean staleness: %.4f"
+                .formatted(getNumUpdates(), getConflictRate(), getMeanStaleness());
+    }
+}
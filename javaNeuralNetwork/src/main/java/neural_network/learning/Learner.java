@@ -1,8 +1,11 @@
 package neural_network.learning;
 
+import neural_network.components.BatchWorkspace;
+import neural_network.components.InferenceSession;
 import neural_network.components.Network;
 import neural_network.functions.CrossEntropyLoss;
 import neural_network.functions.MSELoss;
+import neural_network.util.Dataset;
 import neural_network.util.Header;
 import neural_network.util.Partitioner;
 import neural_network.util.Plotter;
@@ -10,7 +13,10 @@ import neural_network.util.WeightedPartitioner;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /** Base class for {@code Trainer}, {@code Validator} and {@code Tester}.
  *
@@ -20,16 +26,34 @@ public abstract class Learner {
     private Network network;
     private final boolean doRegression;
     private final int dimensions;
-    private final int numDatapoints;
-    private final int batchSize;
+    private int numDatapoints;
+    private int batchSize;
     private List<String> categoryNames;
     private NavigableMap<Header, List<String>> categoricalDf;
-    private final NavigableMap<Header, List<Double>> df = new TreeMap<>();
+    private Dataset dataset;
+    private double[] yHat;
+    // Reused for each datapoint of the per-datapoint forward pass
+    private final double[] row;
+    private final int[] prediction = new int[1];
+    // Whether yHat has changed since the categoricalDf was last updated
+    private boolean categoricalDfStale = false;
     private CrossEntropyLoss crossEntropyLoss;
     private MSELoss mseLoss;
     private Partitioner partitioner;
 
+    // Matrix path for forwardPassOneBatch (see setBatched and setNumThreads),
+    // with one workspace per worker thread
+    private boolean batched = false;
+    private int numThreads = 1;
+    private ExecutorService executor;
+    private BatchWorkspace[] workspaces;
+    private double[][] batchXs;
+    private double[][] batchYs;
+    private int[][] batchPredictions;
+
     /** General constructor method (with possibility of weighted partition).
+     * The {@code data} is parsed into a {@code Dataset}, and the original
+     * {@code Strings} are kept for plots and outputs to the user.
      *
      * @param network The neural network to train.
      * @param data All the data to be passed to the {@code network}.
@@ -42,12 +66,40 @@ public abstract class Learner {
      */
     public Learner(Network network, NavigableMap<Header, List<String>> data,
                    int batchSize, boolean weighted, int numBins) {
+        this(network, Dataset.fromDataframe(data, network.isRegressor()), batchSize,
+                weighted, numBins);
+        if (! doRegression) {
+            // Save the original data to be used for plots and output data
+            data = new TreeMap<>(Map.copyOf(data));
+            data.put(Header.Y_HAT,
+                     new ArrayList<>(Collections.nCopies(numDatapoints, "")));
+            categoricalDf = new TreeMap<>(data);
+        }
+    }
+
+    /** General constructor method for a primitive {@code Dataset} (with
+     * possibility of weighted partition). The {@code dataset} is not copied.
+     *
+     * @param network The neural network to train.
+     * @param dataset All the data to be passed to the {@code network}.
+     * @param batchSize The number of datapoints per batch for an epoch.
+     * @param weighted If {@code true} then we use the {@code WeightedPartitioner},
+     *                 else we use the {@code Partitioner}.
+     * @param numBins If {@code weighted} is {@code true} and the {@code network} is
+     *                a regressor, then we need to specify the number of bins for the
+     *                {@code WeightedPartitioner}. Otherwise, this parameter is ignored.
+     */
+    public Learner(Network network, Dataset dataset, int batchSize, boolean weighted,
+                   int numBins) {
         this.network = network;
         this.doRegression = network.isRegressor();
-        data = new TreeMap<>(Map.copyOf(data));
+        if (dataset.isRegression() != doRegression) {
+            throw new IllegalArgumentException("The dataset must be for %s to match the network"
+                    .formatted(doRegression ? "regression" : "classification"));
+        }
 
         // Ensure that number of input neurons equals number of features
-        int numFeatures = data.size() - 1;
+        int numFeatures = dataset.getDimensions();
         int numInputNeurons = network.getNeuronCounts().get(0);
         if (numFeatures != numInputNeurons) {
             throw new IllegalArgumentException(
@@ -59,42 +111,27 @@ public abstract class Learner {
         this.dimensions = numFeatures;
         Header.setDimensions(dimensions);
         // Ensure that the batchSize is not too big
-        int numDatapoints = data.get(Header.Y).size();
+        int numDatapoints = dataset.size();
         if (batchSize > numDatapoints) {
             throw new IllegalArgumentException("Batch size must be smaller than " +
                     "number of datapoints");
         }
         this.numDatapoints = numDatapoints;
         this.batchSize = batchSize;
-
-        // This is setting up the df by converting strings to doubles.
-        // We do not initialise the Y column here, that is dependent on regression
-        // vs classification
-        for (Header header : Header.getInitialHeaders().subList(0, numFeatures)) {
-            // Convert all strings to doubles
-            List<Double> doubleVals = data.get(header).stream()
-                    .map(Double::valueOf)
-                    .toList();
-            df.put(header, doubleVals);
-        }
-        // Initialise the Y_HAT column with a list of zeros
-        df.put(Header.Y_HAT,
-                new ArrayList<>(Collections.nCopies(numDatapoints, 0.0)));
+        this.dataset = dataset;
+        this.yHat = new double[numDatapoints];
+        this.row = new double[numFeatures];
 
         if (doRegression) {
             // If we are doing regression, we have no categories, and we will
             // use a mean squared error loss
-            List<Double> doubleVals = data.get(Header.Y).stream()
-                    .map(Double::valueOf)
-                    .toList();
-            df.put(Header.Y, doubleVals);
             this.mseLoss = new MSELoss();
         } else {
             // Save the category names to be used for plots and output data
-            categoryNames = new ArrayList<>(new TreeSet<>(data.get(Header.Y)));
+            categoryNames = new ArrayList<>(dataset.getCategoryNames());
 
             // Ensure that the number of network output neurons equals the number
-            // of classes in the dataframe
+            // of classes in the dataset
             int numClasses = categoryNames.size();
             int numLayers = network.getLayers().size();
             int numOutputs = network.getNeuronCounts().get(numLayers - 1);
@@ -105,28 +142,58 @@ public abstract class Learner {
                         "number of classes in the dataframe " +
                         "(%d)".formatted(numClasses));
             }
-
-            // Change the category names to integers from 0 to numClasses - 1 but
-            // save the category names for reference in plots
-            data.put(Header.Y_HAT,
-                     new ArrayList<>(Collections.nCopies(numDatapoints, "")));
-            categoricalDf = new TreeMap<>(data);
-            List<Double> yVals = data.get(Header.Y).stream()
-                    .map(category -> (double) categoryNames.indexOf(category))
-                    .toList();
-            df.put(Header.Y, yVals);
             crossEntropyLoss = new CrossEntropyLoss();
         }
 
         // Now choose the partitioner
         if (weighted) {
-            partitioner = new WeightedPartitioner(numDatapoints, batchSize,
-                    df.get(Header.Y), doRegression, numBins);
+            partitioner = new WeightedPartitioner(dataset, batchSize, numBins);
         } else {
             partitioner = new Partitioner(numDatapoints, batchSize);
         }
     }
 
+    /** Replaces the {@code dataset} with another with the same features (for
+     * example, the next chunk of a file streamed by a {@code StreamingTrainer}),
+     * keeping the worker threads and {@code BatchWorkspaces} of this
+     * {@code Learner}. The partition is only rebuilt if the number of
+     * datapoints or the batch size changes.
+     *
+     * @param dataset The new data to be passed to the {@code network}.
+     * @param batchSize The number of datapoints per batch.
+     * @throws IllegalArgumentException If the {@code dataset} does not match
+     * the {@code network}, or the {@code batchSize} is too big.
+     * @throws IllegalStateException If the partition is weighted.
+     */
+    void setDataset(Dataset dataset, int batchSize) {
+        if (partitioner instanceof WeightedPartitioner) {
+            throw new IllegalStateException("Cannot replace the dataset of a weighted partition");
+        }
+        if (dataset.isRegression() != doRegression || dataset.getDimensions() != dimensions) {
+            throw new IllegalArgumentException(
+                    "The dataset must have %d features for %s to match the network"
+                            .formatted(dimensions, doRegression ? "regression" : "classification"));
+        }
+        if (batchSize > dataset.size()) {
+            throw new IllegalArgumentException("Batch size must be smaller than " +
+                    "number of datapoints");
+        }
+        if (dataset.size() != numDatapoints || batchSize != this.batchSize) {
+            partitioner = new Partitioner(dataset.size(), batchSize);
+        }
+        if (dataset.size() != numDatapoints) {
+            yHat = new double[dataset.size()];
+        }
+        this.dataset = dataset;
+        this.numDatapoints = dataset.size();
+        this.batchSize = batchSize;
+        if (! doRegression) {
+            categoryNames = new ArrayList<>(dataset.getCategoryNames());
+        }
+        categoricalDf = null;
+        categoricalDfStale = false;
+    }
+
     /** Constructor for non-weighted partitions.
      *
      * @param network The neural network to train.
@@ -139,34 +206,45 @@ public abstract class Learner {
     }
 
     /** Performs the forward pass through the {@code network}
-     * for one batch of the data.
+     * for one batch of the data. See {@code forwardPassOneBatch(int[], int, int)}.
      *
      * @param batchIds The random list of ids for the current batch.
      * @return The total loss of the batch (to keep track).
      */
     double forwardPassOneBatch(List<Integer> batchIds) {
+        return forwardPassOneBatch(toArray(batchIds), 0, batchIds.size());
+    }
+
+    /** Performs the forward pass through the {@code network}
+     * for one batch of the data, given as a range of an array of ids (see
+     * {@code Batches}).
+     *
+     * @param ids The ids of the datapoints.
+     * @param offset The index in {@code ids} of the first datapoint of the batch.
+     * @param length The number of datapoints in the batch.
+     * @return The total loss of the batch (to keep track).
+     */
+    double forwardPassOneBatch(int[] ids, int offset, int length) {
+        if (batched || numThreads > 1) {
+            return forwardPassOneBatchMatrix(ids, offset, length);
+        }
         double totalLoss = 0.0;
-        for (int id : batchIds) {
-            List<Double> labelledPoint = df.keySet().stream()
-                    .map(header -> df.get(header).get(id))
-                    .toList();
-            List<Double> x = labelledPoint.subList(0, dimensions);
-            double y = labelledPoint.get(dimensions);
-
-            // Do the forward pass and save the predicted value to the df
+        for (int i = offset; i < offset + length; i ++) {
+            int id = ids[i];
+            // Copy the row into the reused array, so that nothing is allocated
+            dataset.copyRow(id, row, 0);
+            double y = dataset.getTarget(id);
+
+            // Do the forward pass and save the predicted value
             if (doRegression) {
-                double yHat = network.forwardPassOneDatapoint(x).get(0);
-                totalLoss += mseLoss.call(yHat, y);
-                df.get(Header.Y_HAT).set(id, yHat);
+                double[] output = network.forwardPassOneDatapoint(row);
+                totalLoss += mseLoss.call(output[0], y);
+                yHat[id] = output[0];
             } else {
-                int yClass = (int) y;
-                // We choose the class with maximal softmax probability as our
-                // yHat for output
-                List<Double> softmaxVector = network.forwardPassOneDatapoint(x);
-                totalLoss += crossEntropyLoss.call(softmaxVector, yClass);
-                double yHat = softmaxVector.indexOf(
-                        Collections.max(softmaxVector));
-                df.get(Header.Y_HAT).set(id, yHat);
+                // The fused output kernel finds the loss and the class with
+                // maximal softmax probability (our yHat) together
+                totalLoss += network.forwardPassOneDatapoint(row, y, prediction);
+                yHat[id] = prediction[0];
             }
             // Store the gradients if this is the training phase
             storeGradients(id);
@@ -175,6 +253,105 @@ public abstract class Learner {
         return totalLoss;
     }
 
+    /** Evaluates the {@code network} on every datapoint, storing the
+     * predictions in {@code yHat}. See {@code evaluate(InferenceSession)}.
+     *
+     * @return The total loss over all the datapoints.
+     */
+    double evaluate() {
+        return evaluate(network.newInferenceSession());
+    }
+
+    /** Evaluates a frozen copy of the {@code network} on every datapoint,
+     * storing the predictions in {@code yHat}. Unlike {@code forwardPassOneBatch},
+     * the datapoints are not shuffled and no gradients are stored: the
+     * {@code dataset} is read in order, split into one contiguous block per
+     * worker thread (see {@code setNumThreads}), and the losses of the blocks
+     * are added in block order, so that the result is reproducible. The
+     * categories of the {@code categoricalDf} are only updated once they are
+     * next needed. As the {@code network} itself is not touched, this can also
+     * run on a background thread while the {@code network} trains.
+     *
+     * @param session The frozen copy of the {@code network}.
+     * @return The total loss over all the datapoints.
+     */
+    double evaluate(InferenceSession session) {
+        int numWorkers = Math.min(numThreads, numDatapoints);
+        int blockSize = (numDatapoints + numWorkers - 1) / numWorkers;
+        double totalLoss;
+        if (numWorkers == 1) {
+            totalLoss = evaluateBlock(session, 0, numDatapoints);
+        } else {
+            List<Future<Double>> futures = new ArrayList<>();
+            for (int from = 0; from < numDatapoints; from += blockSize) {
+                int blockFrom = from;
+                int blockTo = Math.min(from + blockSize, numDatapoints);
+                futures.add(executor.submit(() -> evaluateBlock(session, blockFrom, blockTo)));
+            }
+            totalLoss = 0.0;
+            for (Future<Double> future : futures) {
+                totalLoss += await(future);
+            }
+        }
+        categoricalDfStale = ! doRegression;
+        return totalLoss;
+    }
+
+    /** Evaluates the datapoints from {@code from} (inclusive) to {@code to}
+     * (exclusive) of the {@code dataset}, in order.
+     *
+     * @param session The frozen copy of the {@code network}.
+     * @param from The first datapoint of the block (inclusive).
+     * @param to The last datapoint of the block (exclusive).
+     * @return The total loss of the block.
+     */
+    private double evaluateBlock(InferenceSession session, int from, int to) {
+        double[] x = new double[dimensions];
+        double[] output = new double[session.getNumOutputs()];
+        double totalLoss = 0.0;
+        for (int id = from; id < to; id ++) {
+            dataset.copyRow(id, x, 0);
+            session.predict(x, output);
+            double y = dataset.getTarget(id);
+            if (doRegression) {
+                totalLoss += mseLoss.call(output[0], y);
+                yHat[id] = output[0];
+            } else {
+                totalLoss += crossEntropyLoss.call(output, 0, (int) y);
+                yHat[id] = argmax(output);
+            }
+        }
+        return totalLoss;
+    }
+
+    /** Finds the class with maximal softmax probability in one pass.
+     *
+     * @param softmaxVector The softmax probabilities.
+     * @return The index of the first maximal probability.
+     */
+    private static int argmax(double[] softmaxVector) {
+        int argmax = 0;
+        for (int j = 1; j < softmaxVector.length; j ++) {
+            if (softmaxVector[j] > softmaxVector[argmax]) {
+                argmax = j;
+            }
+        }
+        return argmax;
+    }
+
+    /** Unboxes a list of ids.
+     *
+     * @param ids The list of ids.
+     * @return The ids as an array.
+     */
+    private static int[] toArray(List<Integer> ids) {
+        int[] array = new int[ids.size()];
+        for (int i = 0; i < array.length; i ++) {
+            array[i] = ids.get(i);
+        }
+        return array;
+    }
+
     /** To be overridden by a {@code Trainer}, but will not be touched by the
      * {@code Validator} or {@code Tester}.
      *
@@ -182,6 +359,185 @@ public abstract class Learner {
      */
     void storeGradients(int id) {}
 
+    /** Performs the forward pass through the {@code network} for one batch of
+     * the data, passing the whole batch through each {@code Layer} as a single
+     * matrix product rather than one datapoint at a time. If {@code numThreads}
+     * is greater than one, the batch is split into contiguous chunks, one per
+     * worker thread, each with its own {@code BatchWorkspace} over the shared
+     * weights. The losses and gradients of the workers are then reduced in
+     * worker order, so that the results are reproducible.
+     *
+     * @param ids The ids of the datapoints.
+     * @param offset The index in {@code ids} of the first datapoint of the batch.
+     * @param length The number of datapoints in the batch.
+     * @return The total loss of the batch (to keep track).
+     */
+    double forwardPassOneBatchMatrix(int[] ids, int offset, int length) {
+        int n = length;
+        int numWorkers = Math.min(numThreads, n);
+        int chunkSize = (n + numWorkers - 1) / numWorkers;
+        ensureWorkspaces(numWorkers, chunkSize);
+        if (numWorkers == 1) {
+            double totalLoss = forwardPassChunk(ids, offset, offset + n, 0);
+            reduceBatchGradients(workspaces[0]);
+            return totalLoss;
+        }
+
+        List<Future<Double>> futures = new ArrayList<>();
+        for (int worker = 0; worker * chunkSize < n; worker ++) {
+            int from = offset + worker * chunkSize;
+            int to = Math.min(from + chunkSize, offset + n);
+            int w = worker;
+            futures.add(executor.submit(() -> forwardPassChunk(ids, from, to, w)));
+        }
+
+        // Reduce in worker order (not completion order) for reproducibility
+        double totalLoss = 0.0;
+        for (int worker = 0; worker < futures.size(); worker ++) {
+            totalLoss += await(futures.get(worker));
+            reduceBatchGradients(workspaces[worker]);
+        }
+        return totalLoss;
+    }
+
+    /** Passes the datapoints from {@code from} (inclusive) to {@code to}
+     * (exclusive) of an array of ids through the {@code network} as one
+     * matrix, using the {@code BatchWorkspace} of the given worker.
+     *
+     * @param ids The ids of the datapoints.
+     * @param from The start of the chunk in {@code ids} (inclusive).
+     * @param to The end of the chunk in {@code ids} (exclusive).
+     * @param worker The index of the worker.
+     * @return The total loss of the chunk.
+     */
+    double forwardPassChunk(int[] ids, int from, int to, int worker) {
+        double[] batchX = batchXs[worker];
+        double[] batchY = batchYs[worker];
+        gatherBatch(ids, from, to, batchX, batchY);
+        return forwardPassGathered(ids, from, to - from, batchX, batchY, worker);
+    }
+
+    /** Gathers the datapoints from {@code from} (inclusive) to {@code to}
+     * (exclusive) of an array of ids into one row-major matrix, with their
+     * targets. This only reads the {@code dataset}, so it can be done on
+     * another thread (see {@code BatchPrefetcher}).
+     *
+     * @param ids The ids of the datapoints.
+     * @param from The start of the chunk in {@code ids} (inclusive).
+     * @param to The end of the chunk in {@code ids} (exclusive).
+     * @param batchX The matrix to gather the coordinates into.
+     * @param batchY The array to gather the targets into.
+     */
+    void gatherBatch(int[] ids, int from, int to, double[] batchX, double[] batchY) {
+        for (int r = 0; r < to - from; r ++) {
+            int id = ids[from + r];
+            dataset.copyRow(id, batchX, r * dimensions);
+            batchY[r] = dataset.getTarget(id);
+        }
+    }
+
+    /** Passes a gathered chunk (see {@code gatherBatch}) through the
+     * {@code network} as one matrix, using the {@code BatchWorkspace} of the
+     * given worker.
+     *
+     * @param ids The ids of the datapoints.
+     * @param from The start of the chunk in {@code ids}.
+     * @param n The number of datapoints in the chunk.
+     * @param batchX The coordinates of the chunk.
+     * @param batchY The targets of the chunk.
+     * @param worker The index of the worker.
+     * @return The total loss of the chunk.
+     */
+    double forwardPassGathered(int[] ids, int from, int n, double[] batchX,
+                               double[] batchY, int worker) {
+        BatchWorkspace workspace = workspaces[worker];
+        int[] predictions = batchPredictions[worker];
+
+        // Do the forward pass and save the predicted values. Each worker only
+        // sets the yHat values of its own datapoints
+        double totalLoss;
+        if (doRegression) {
+            double[] output = network.forwardPassOneBatch(batchX, n, workspace);
+            totalLoss = 0.0;
+            for (int r = 0; r < n; r ++) {
+                totalLoss += mseLoss.call(output[r], batchY[r]);
+                yHat[ids[from + r]] = output[r];
+            }
+        } else {
+            // The fused output kernel finds the loss, the class with maximal
+            // softmax probability (our yHat) and the output deltas together
+            totalLoss = network.forwardPassOneBatch(batchX, batchY, n, workspace, predictions);
+            for (int r = 0; r < n; r ++) {
+                yHat[ids[from + r]] = predictions[r];
+            }
+        }
+        // Store the gradients if this is the training phase
+        storeBatchGradients(batchY, n, workspace);
+        return totalLoss;
+    }
+
+    /** Makes sure there is a {@code BatchWorkspace} (and gather buffers) for
+     * each worker, which can hold a chunk of {@code chunkSize} datapoints.
+     *
+     * @param numWorkers The number of workers needed.
+     * @param chunkSize The number of datapoints per worker.
+     */
+    void ensureWorkspaces(int numWorkers, int chunkSize) {
+        if (workspaces != null && workspaces.length >= numWorkers
+                && workspaces[0].getCapacity() >= chunkSize) {
+            return;
+        }
+        int capacity = Math.max(chunkSize, (batchSize + numThreads - 1) / numThreads);
+        int numWorkspaces = Math.max(numWorkers, numThreads);
+        workspaces = new BatchWorkspace[numWorkspaces];
+        batchXs = new double[numWorkspaces][];
+        batchYs = new double[numWorkspaces][];
+        batchPredictions = new int[numWorkspaces][];
+        for (int worker = 0; worker < numWorkspaces; worker ++) {
+            workspaces[worker] = network.newBatchWorkspace(capacity);
+            batchXs[worker] = new double[capacity * dimensions];
+            batchYs[worker] = new double[capacity];
+            batchPredictions[worker] = new int[capacity];
+        }
+    }
+
+    /** Waits for a worker to finish, rethrowing any exception it threw.
+     *
+     * @param future The {@code Future} of the worker.
+     * @return The total loss of the worker's chunk.
+     */
+    static double await(Future<Double> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a worker", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** To be overridden by a {@code Trainer}, but will not be touched by the
+     * {@code Validator} or {@code Tester}. The batch equivalent of
+     * {@code storeGradients}, which may be called from a worker thread.
+     *
+     * @param y The true classes/values of the datapoints in the chunk.
+     * @param n The number of datapoints in the chunk.
+     * @param workspace The {@code BatchWorkspace} used for the forward pass.
+     */
+    void storeBatchGradients(double[] y, int n, BatchWorkspace workspace) {}
+
+    /** To be overridden by a {@code Trainer}, but will not be touched by the
+     * {@code Validator} or {@code Tester}. Called on the calling thread once
+     * per worker, in worker order, after {@code storeBatchGradients}.
+     *
+     * @param workspace The {@code BatchWorkspace} of the worker.
+     */
+    void reduceBatchGradients(BatchWorkspace workspace) {}
+
     /** Performs training/validation/testing
      *
      */
@@ -199,18 +555,13 @@ public abstract class Learner {
             throw new RuntimeException("Cannot call updateCategoricalDataframe " +
                     "with a regression network");
         }
-        // Below is how we keep track of the index of the datapoint
-        // and increment it for each element of the stream
-        AtomicInteger index = new AtomicInteger();
-
+        categoricalDfStale = false;
         // Here we convert each of the integer categories to string named categories
         // and update the categoricalDf with these new values
-        df.get(Header.Y_HAT).stream()
-                .mapToInt(x -> (int) (double) x)
-                .forEach(category -> {
-                    categoricalDf.get(Header.Y_HAT).set(index.get(), categoryNames.get(category));
-                    index.getAndIncrement();
-                });
+        List<String> yHatColumn = categoricalDf().get(Header.Y_HAT);
+        for (int id = 0; id < numDatapoints; id ++) {
+            yHatColumn.set(id, categoryNames.get((int) yHat[id]));
+        }
     }
 
     /** Creates scatter plot from the data and their predicted values. For
@@ -222,7 +573,7 @@ public abstract class Learner {
      * @throws IOException If an IO error occurs.
      */
     void generateScatter(String phase, String title) throws IOException {
-        Plotter.datapointScatter(categoricalDf, phase, title, doRegression);
+        Plotter.datapointScatter(categoricalDf(), phase, title, doRegression);
     }
 
     /** Creates scatter plot comparing the predicted and actual values in
@@ -236,12 +587,20 @@ public abstract class Learner {
      */
     void comparisonScatter(String phase, String title) throws IOException {
         if (doRegression) {
-            Plotter.comparisonScatter(df, phase, title);
+            Plotter.comparisonScatter(getDf(), phase, title);
         } else {
             throw new RuntimeException("Cannot call this method with categorical data.");
         }
     }
 
+    /** Getter for {@code dimensions}. For subclasses.
+     *
+     * @return The number of coordinates per datapoint.
+     */
+    int getDimensions() {
+        return dimensions;
+    }
+
     /** Getter for {@code network}. For subclasses.
      *
      * @return The {@code network}.
@@ -288,24 +647,93 @@ public abstract class Learner {
      */
     NavigableMap<Header, List<String>> getCategoricalDf() {
         NavigableMap<Header, List<String>> returnMap = new TreeMap<>();
-        for (Header header : categoricalDf.keySet()) {
+        for (Header header : categoricalDf().keySet()) {
             returnMap.put(header, List.copyOf(categoricalDf.get(header)));
         }
         return returnMap;
     }
 
-    /** Getter for {@code df}. For subclasses.
+    /** The {@code categoricalDf} (for classification only). If the
+     * {@code Learner} was created from a {@code Dataset}, this is built from
+     * the {@code dataset} the first time it is needed. If {@code evaluate} has
+     * been called since, the {@code yHat} categories are updated first.
+     *
+     * @return The {@code categoricalDf}.
+     */
+    private NavigableMap<Header, List<String>> categoricalDf() {
+        if (categoricalDf == null && ! doRegression) {
+            categoricalDf = new TreeMap<>(dataset.toDataframe());
+            categoricalDf.put(Header.Y_HAT,
+                    new ArrayList<>(Collections.nCopies(numDatapoints, "")));
+        }
+        if (categoricalDfStale) {
+            categoricalDfStale = false;
+            updateCategoricalDataframe();
+        }
+        return categoricalDf;
+    }
+
+    /** Getter for {@code df}, which is built from the {@code dataset} and the
+     * predicted values. For subclasses.
      *
      * @return A deep copy of the {@code df}.
      */
     NavigableMap<Header, List<Double>> getDf() {
         NavigableMap<Header, List<Double>> returnMap = new TreeMap<>();
-        for (Header header : df.keySet()) {
-            returnMap.put(header, List.copyOf(df.get(header)));
+        Header[] headers = Header.values();
+        for (int c = 0; c < dimensions; c ++) {
+            returnMap.put(headers[c], List.copyOf(dataset.column(c)));
         }
+        returnMap.put(Header.Y, List.copyOf(dataset.targets()));
+        returnMap.put(Header.Y_HAT, Arrays.stream(yHat).boxed().toList());
         return returnMap;
     }
 
+    /** Getter for the predicted class/value of a datapoint. For subclasses.
+     *
+     * @param id The id of the datapoint.
+     * @return The predicted class (for classification) or value (for regression).
+     */
+    double getYHat(int id) {
+        return yHat[id];
+    }
+
+    /** Getter for the {@code Y} column of the {@code df}. For subclasses.
+     * Unlike {@code getDf}, this does not copy any data.
+     *
+     * @return A read-only view of the true classes/values of the datapoints.
+     */
+    List<Double> getYColumn() {
+        return dataset.targets();
+    }
+
+    /** Getter for {@code dataset}. For subclasses.
+     *
+     * @return The {@code dataset} (not a copy).
+     */
+    Dataset getDataset() {
+        return dataset;
+    }
+
+    /** Getter for the {@code BatchWorkspace} of a worker (see
+     * {@code ensureWorkspaces}). For subclasses.
+     *
+     * @param worker The index of the worker.
+     * @return The {@code BatchWorkspace} (not a copy).
+     */
+    BatchWorkspace getWorkspace(int worker) {
+        return workspaces[worker];
+    }
+
+    /** Getter for {@code executor}. For subclasses.
+     *
+     * @return The pool of worker threads, or {@code null} if {@code numThreads}
+     * is one.
+     */
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
     /** Getter for {@code partitioner}. For subclasses.
      *
      * @return The {@code partitioner}.
@@ -314,6 +742,60 @@ public abstract class Learner {
         return partitioner;
     }
 
+    /** Getter for {@code batched}.
+     *
+     * @return {@code true} if batches are passed through the {@code network}
+     * as matrices, {@code false} if one datapoint at a time.
+     */
+    public boolean isBatched() {
+        return batched;
+    }
+
+    /** Setter for {@code batched}. If {@code true}, each batch is passed
+     * through the {@code network} as one matrix per {@code Layer}, which is
+     * much faster for larger batches. Otherwise (the default), each datapoint
+     * is passed through on its own.
+     *
+     * @param batched The new {@code batched}.
+     */
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+    }
+
+    /** Getter for {@code numThreads}.
+     *
+     * @return The number of worker threads each batch is split across.
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /** Setter for {@code numThreads}. If greater than one, each batch is split
+     * across this many worker threads, using the matrix path (see
+     * {@code setBatched}) in each worker.
+     *
+     * @param numThreads The new {@code numThreads}.
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be positive (%d)"
+                    .formatted(numThreads));
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        this.numThreads = numThreads;
+        this.workspaces = null;
+        if (numThreads > 1) {
+            executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+                Thread thread = new Thread(runnable, "learner-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
     /** Setter for {@code crossEntropyLoss}. For mocking.
      *
      * @param crossEntropyLoss The new {@code crossEntropyLoss}.
@@ -336,6 +818,7 @@ public abstract class Learner {
      */
     void setNetwork(Network network) {
         this.network = network;
+        this.workspaces = null;
     }
 
     /** Setter for {@code partitioner}. For mocking.
@@ -351,7 +834,10 @@ public abstract class Learner {
      * @param yHat The new {@code yHat}.
      */
     void setYHat(List<String> yHat) {
-        categoricalDf.get(Header.Y_HAT).clear();
-        categoricalDf.get(Header.Y_HAT).addAll(yHat);
+        categoricalDf().get(Header.Y_HAT).clear();
+        categoricalDf().get(Header.Y_HAT).addAll(yHat);
+        for (int id = 0; id < numDatapoints; id ++) {
+            this.yHat[id] = categoryNames.indexOf(yHat.get(id));
+        }
     }
 }
@@ -0,0 +1,100 @@
+package neural_network.learning;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Class to measure how well batch prefetching (see {@code Trainer.setPrefetch})
+ * keeps up with training.
+ * <p>
+ * A stall is a wait of the training thread for the next batch to be gathered.
+ * If the prefetch thread keeps up, there are only stalls at the start of each
+ * epoch. The prefetch thread also waits when all the buffers are full, which
+ * means that gathering is faster than training.
+ * </p>
+ *
+ */
+public final class PrefetchStatistics {
+
+    private final AtomicLong numBatches = new AtomicLong();
+    private final AtomicLong numStalls = new AtomicLong();
+    private final AtomicLong stallNanos = new AtomicLong();
+    private final AtomicLong producerWaitNanos = new AtomicLong();
+
+    /** Constructor method.
+     *
+     */
+    PrefetchStatistics() {}
+
+    /** Called when the training thread takes a batch.
+     *
+     * @param waitNanos How long the training thread waited for it.
+     */
+    void recordTake(long waitNanos) {
+        numBatches.incrementAndGet();
+        if (waitNanos > 0) {
+            numStalls.incrementAndGet();
+            stallNanos.addAndGet(waitNanos);
+        }
+    }
+
+    /** Called when the prefetch thread gets a free buffer.
+     *
+     * @param waitNanos How long the prefetch thread waited for it.
+     */
+    void recordProducerWait(long waitNanos) {
+        producerWaitNanos.addAndGet(waitNanos);
+    }
+
+    /** Getter method for {@code numBatches}.
+     *
+     * @return The number of batches taken by the training thread.
+     */
+    public long getNumBatches() {
+        return numBatches.get();
+    }
+
+    /** Getter method for {@code numStalls}.
+     *
+     * @return The number of batches which were not ready when the training
+     * thread needed them.
+     */
+    public long getNumStalls() {
+        return numStalls.get();
+    }
+
+    /** The total time the training thread waited for batches.
+     *
+     * @return The total stall time.
+     */
+    public Duration getStallTime() {
+        return Duration.ofNanos(stallNanos.get());
+    }
+
+    /** The total time the prefetch thread waited for a free buffer.
+     *
+     * @return The total wait time of the prefetch thread.
+     */
+    public Duration getProducerWaitTime() {
+        return Duration.ofNanos(producerWaitNanos.get());
+    }
+
+    /** The fraction of batches which were not ready in time.
+     *
+     * @return The stall rate, or zero if there have been no batches.
+     */
+    public double getStallRate() {
+        long n = numBatches.get();
+        return (n == 0) ? 0.0 : (double) numStalls.get() / n;
+    }
+
+    /** A summary of the statistics, for printing.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        return "Prefetched batches: %d, stall rate: %.4f, stall time: %.3f ms, producer wait: %.3f ms"
+                .formatted(getNumBatches(), getStallRate(), stallNanos.get() / 1e6,
+                        producerWaitNanos.get() / 1e6);
+    }
+}
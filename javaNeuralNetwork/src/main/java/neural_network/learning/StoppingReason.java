@@ -0,0 +1,23 @@
+package neural_network.learning;
+
+/** Enum to represent why a {@code Trainer} stopped training.
+ *
+ */
+public enum StoppingReason {
+    /** All the epochs were trained.
+     *
+     */
+    COMPLETED,
+    /** The monitored loss stopped improving (see {@code Trainer.setEarlyStopping}).
+     *
+     */
+    EARLY_STOPPED,
+    /** The wall-clock budget ran out (see {@code Trainer.setTimeBudget}).
+     *
+     */
+    TIME_BUDGET,
+    /** The budget of datapoints processed ran out (see {@code Trainer.setSampleBudget}).
+     *
+     */
+    SAMPLE_BUDGET
+}
@@ -0,0 +1,236 @@
+package neural_network.learning;
+
+import neural_network.components.Network;
+import neural_network.optimisers.Optimiser;
+import neural_network.util.DataSplitter;
+import neural_network.util.Dataset;
+import neural_network.util.DatasetChunkReader;
+import neural_network.util.Plotter;
+
+import java.io.IOException;
+import java.util.*;
+
+/** Class to train a neural network on a .csv file which is too big to be held
+ * in memory.
+ * <p>
+ * Each epoch streams through the file in chunks (see {@code DatasetChunkReader}),
+ * training on the training datapoints of each chunk in turn with a
+ * {@code Trainer}, and computing the validation loss on the validation
+ * datapoints of each chunk. Only one chunk is held in memory at a time. The
+ * datapoints are shuffled within each chunk, but the chunks are always visited
+ * in the order of the file. The same {@code Trainer} and {@code Validator}
+ * (with their worker threads and workspaces) are used for every chunk.
+ * </p>
+ *
+ */
+public class StreamingTrainer {
+
+    private final Network network;
+    private final DataSplitter splitter;
+    private final List<String> categoryNames;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int numEpochs;
+    private final Map<String, List<Double>> lossDf = new TreeMap<>();
+    private boolean batched = false;
+    private int numThreads = 1;
+    private Optimiser optimiser = null;
+    // Created for the first chunk, and given each later chunk in turn
+    private Trainer trainer = null;
+    private Validator validator = null;
+
+    /** Constructor method.
+     *
+     * @param network The neural network to train.
+     * @param splitter The {@code DataSplitter} of the .csv file. Its first
+     *                 proportion is used for training and its second (if any)
+     *                 for validation.
+     * @param categoryNames The category names (ignored for regression).
+     * @param chunkSize The maximum number of datapoints read at once.
+     * @param batchSize The number of datapoints per batch.
+     * @param numEpochs The number of epochs we are training for.
+     */
+    public StreamingTrainer(Network network, DataSplitter splitter, List<String> categoryNames,
+                            int chunkSize, int batchSize, int numEpochs) {
+        if (batchSize < 1 || batchSize > chunkSize) {
+            throw new IllegalArgumentException(
+                    "Batch size must be positive and no bigger than the chunk size " +
+                    "(batchSize = %d, chunkSize = %d)".formatted(batchSize, chunkSize));
+        }
+        this.network = network;
+        this.splitter = splitter;
+        this.categoryNames = (network.isRegressor()) ? List.of() : List.copyOf(categoryNames);
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.numEpochs = numEpochs;
+        this.lossDf.put("Training", new ArrayList<>());
+    }
+
+    /** Performs training of the network, reading the file once per epoch.
+     *
+     * @throws RuntimeException If the file cannot be read.
+     */
+    public void run() {
+        try {
+            runEpochs();
+        } finally {
+            // Release the worker threads, and any chunk still referenced
+            if (trainer != null) {
+                trainer.setNumThreads(1);
+            }
+            if (validator != null) {
+                validator.setNumThreads(1);
+            }
+            trainer = null;
+            validator = null;
+        }
+    }
+
+    /** Performs each epoch of training (see {@code run}).
+     *
+     */
+    private void runEpochs() {
+        int factor = (int) Math.ceil((double) numEpochs / 100);
+        for (int epoch = 0; epoch < numEpochs; epoch ++) {
+            double totalLoss = 0.0;
+            double totalValidationLoss = 0.0;
+            long numTraining = 0;
+            long numValidation = 0;
+            try (DatasetChunkReader reader = splitter.readChunks(network.isRegressor(),
+                    categoryNames, chunkSize)) {
+                while (reader.hasNext()) {
+                    List<Dataset> chunks = reader.next();
+                    Dataset training = chunks.get(0);
+                    if (training.size() > 0) {
+                        totalLoss += trainOnChunk(training);
+                        numTraining += training.size();
+                    }
+                    if (chunks.size() > 1 && chunks.get(1).size() > 0) {
+                        totalValidationLoss += validateOnChunk(chunks.get(1));
+                        numValidation += chunks.get(1).size();
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not close the data file.", e);
+            }
+            if (numTraining == 0) {
+                throw new IllegalArgumentException("The data file has no training datapoints");
+            }
+
+            double loss = Math.round(10000 * totalLoss / numTraining) / 10000.0;
+            if (epoch % factor == 0) {
+                System.out.println("Epoch: " + epoch);
+                System.out.printf("Training loss: %.4f%n", loss);
+            }
+            lossDf.get("Training").add(loss);
+            if (numValidation > 0) {
+                double validationLoss = Math.round(
+                        10000 * totalValidationLoss / numValidation) / 10000.0;
+                if (epoch % factor == 0) {
+                    System.out.printf("Validation loss: %.4f%n", validationLoss);
+                }
+                lossDf.computeIfAbsent("Validation", k -> new ArrayList<>())
+                        .add(validationLoss);
+            }
+        }
+    }
+
+    /** Trains the network for one pass over the training datapoints of a chunk.
+     *
+     * @param chunk The training datapoints of the chunk.
+     * @return The total loss over the chunk.
+     */
+    double trainOnChunk(Dataset chunk) {
+        int chunkBatchSize = Math.min(batchSize, chunk.size());
+        if (trainer == null) {
+            trainer = new Trainer(network, chunk, chunkBatchSize, false, 0, 1, null, optimiser);
+            trainer.setBatched(batched);
+            trainer.setNumThreads(numThreads);
+        } else {
+            trainer.setDataset(chunk, chunkBatchSize);
+        }
+        return trainer.trainOneEpoch();
+    }
+
+    /** Computes the loss of the network over the validation datapoints of a chunk.
+     *
+     * @param chunk The validation datapoints of the chunk.
+     * @return The total loss over the chunk.
+     */
+    double validateOnChunk(Dataset chunk) {
+        if (validator == null) {
+            validator = new Validator(network, chunk, chunk.size(), false, 0);
+            validator.setNumThreads(numThreads);
+        } else {
+            validator.setDataset(chunk, chunk.size());
+        }
+        return validator.evaluate();
+    }
+
+    /** Creates a plot of the training and validation loss over time.
+     *
+     * @param title An optional title to append to the plot.
+     * @throws IOException If an IO error occurs.
+     */
+    public void generateLossPlot(String title) throws IOException {
+        Plotter.plotLoss(lossDf, title);
+    }
+
+    /** Setter for {@code batched}. See {@code Learner.setBatched}.
+     *
+     * @param batched Whether to use the matrix path for each batch.
+     */
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+    }
+
+    /** Setter for {@code numThreads}. See {@code Learner.setNumThreads}.
+     *
+     * @param numThreads The number of worker threads per batch.
+     */
+    public void setNumThreads(int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be positive (%d)"
+                    .formatted(numThreads));
+        }
+        this.numThreads = numThreads;
+    }
+
+    /** Setter for {@code optimiser}. The same {@code Optimiser} is used for
+     * every chunk, so its state is kept from one chunk to the next.
+     *
+     * @param optimiser The update rule for the weights and biases. Pass
+     *                  {@code null} to use the learning rate of the network.
+     */
+    public void setOptimiser(Optimiser optimiser) {
+        this.optimiser = optimiser;
+    }
+
+    /** Getter for {@code trainer}. For testing.
+     *
+     * @return The {@code Trainer} of the chunks, or {@code null} outside of {@code run}.
+     */
+    Trainer getTrainer() {
+        return trainer;
+    }
+
+    /** Getter for {@code validator}. For testing.
+     *
+     * @return The {@code Validator} of the chunks, or {@code null} outside of {@code run}.
+     */
+    Validator getValidator() {
+        return validator;
+    }
+
+    /** Getter for {@code lossDf}.
+     *
+     * @return A deep copy of the {@code lossDf}.
+     */
+    public Map<String, List<Double>> getLossDf() {
+        Map<String, List<Double>> returnMap = new HashMap<>();
+        for (String header : lossDf.keySet()) {
+            returnMap.put(header, List.copyOf(lossDf.get(header)));
+        }
+        return returnMap;
+    }
+}
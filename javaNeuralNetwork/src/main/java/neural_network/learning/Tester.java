@@ -1,6 +1,7 @@
 package neural_network.learning;
 
 import neural_network.components.Network;
+import neural_network.util.Dataset;
 import neural_network.util.Header;
 
 import java.io.IOException;
@@ -28,6 +29,22 @@ public class Tester extends Learner {
         super(network, data, batchSize, weighted, numBins);
     }
 
+    /** Constructor for a primitive {@code Dataset} - matches {@code Learner}.
+     *
+     * @param network The neural network to train.
+     * @param dataset All the data to be passed to the {@code network}.
+     * @param batchSize The number of datapoints per batch for an epoch.
+     * @param weighted If {@code true} then we use the {@code WeightedPartitioner},
+     *                 else we use the {@code Partitioner}.
+     * @param numBins If {@code weighted} is {@code true} and the {@code network} is
+     *                a regressor, then we need to specify the number of bins for the
+     *                {@code WeightedPartitioner}. Otherwise, this parameter is ignored.
+     */
+    public Tester(Network network, Dataset dataset, int batchSize, boolean weighted,
+                     int numBins) {
+        super(network, dataset, batchSize, weighted, numBins);
+    }
+
     /** Default constructor for non-weighted partitions - matches {@code Learner}.
      *
      * @param network The neural network to train.
@@ -38,27 +55,14 @@ public class Tester extends Learner {
         super(network, data, batchSize);
     }
 
-    /** Performs testing of the network.
+    /** Performs testing of the network. The datapoints are evaluated in
+     * order, without shuffling or storing gradients (see {@code evaluate}).
      *
      */
     @Override
     public void run() {
-        double totalLoss = 0.0;
-        List<List<Integer>> batchPartition = getPartitioner().call();
-        int itsPerEpoch = (int) Math
-                .ceil((double) getNumDatapoints() / getBatchSize());
-        for (int iteration = 0; iteration < itsPerEpoch; iteration ++) {
-            List<Integer> batchIds = batchPartition.get(iteration);
-
-            // Do forward pass and back propagation for this specific batch
-            totalLoss += forwardPassOneBatch(batchIds);
-        }
-        double loss = Math.round(10000 * totalLoss / getNumDatapoints()) / 10000.0;
+        double loss = Math.round(10000 * evaluate() / getNumDatapoints()) / 10000.0;
         System.out.printf("Testing loss: %.4f%n", loss);
-
-        if (! isRegressor()) {
-            updateCategoricalDataframe();
-        }
     }
 
     /** Creates scatter plot from the data and their predicted values.
@@ -89,23 +93,15 @@ public class Tester extends Learner {
         List<String> categoryNames = getCategoryNames();
         int numCategories = categoryNames.size();
         // Below is a matrix of 0s with size numCategories
+        // Count the y and y hat pairs straight from the predicted classes
+        int[][] counts = new int[numCategories][numCategories];
+        List<Double> y = getYColumn();
+        for (int id = 0; id < getNumDatapoints(); id ++) {
+            counts[y.get(id).intValue()][(int) getYHat(id)] ++;
+        }
         List<List<Integer>> contingencyTable = new ArrayList<>();
-        List<String> y = getCategoricalDf().get(Header.Y);
-        List<String> yHat = getCategoricalDf().get(Header.Y_HAT);
-        // All y and y hat pairs
-        List<List<String>> pairs = Stream
-                .iterate(0, i -> i < getNumDatapoints(), i -> i + 1)
-                .map(i -> List.of(y.get(i), yHat.get(i)))
-                .toList();
-        // Setting up the frequencies of pairs in the contingency table
         for (int i = 0; i < numCategories; i ++) {
-            String yCategory = categoryNames.get(i);
-            contingencyTable.add(new ArrayList<>());
-            for (int j = 0; j < numCategories; j ++) {
-                String yHatCategory = categoryNames.get(j);
-                List<String> pair = List.of(yCategory, yHatCategory);
-                contingencyTable.get(i).add(Collections.frequency(pairs, pair));
-            }
+            contingencyTable.add(Arrays.stream(counts[i]).boxed().toList());
         }
         printConfusion(contingencyTable);
         printDiceScores(contingencyTable);
@@ -1,12 +1,27 @@
 package neural_network.learning;
 
-import neural_network.components.Edge;
+import neural_network.components.BatchWorkspace;
+import neural_network.components.Checkpoint;
+import neural_network.components.InferenceSession;
 import neural_network.components.Network;
+import neural_network.components.ParameterSnapshot;
+import neural_network.optimisers.LearningRateSchedule;
+import neural_network.optimisers.Optimiser;
+import neural_network.util.Batches;
+import neural_network.util.Dataset;
 import neural_network.util.Header;
 import neural_network.util.Plotter;
+import neural_network.util.WeightedPartitioner;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 /** Class to train a neural network.
  *
@@ -17,6 +32,48 @@ public class Trainer extends Learner {
     private Validator validator;
     private final Map<String, List<Double>> lossDf = new TreeMap<>();
 
+    // The update rule (see backPropagateOneBatch)
+    private final Optimiser optimiser;
+
+    // Learning rate schedule (see setLearningRateSchedule), with the number of
+    // batches trained so far in the current run
+    private LearningRateSchedule schedule = null;
+    private double baseLearningRate = Double.NaN;
+    private int currentEpoch = 0;
+    private int step = 0;
+
+    // Checkpointing (see setCheckpointing and resumeFrom)
+    private Path checkpointPath = null;
+    private int checkpointInterval = 0;
+    private int startEpoch = 0;
+
+    // Early stopping and budgets (see setEarlyStopping, setTimeBudget and
+    // setSampleBudget)
+    private int patience = 0;
+    private double minDelta = 0.0;
+    private Duration timeBudget = null;
+    private long sampleBudget = 0;
+    private LongSupplier clock = System::nanoTime;
+    private StoppingReason stoppingReason = null;
+    private int bestEpoch = -1;
+    private double bestLoss = Double.POSITIVE_INFINITY;
+    private int numWithoutImprovement = 0;
+    private ParameterSnapshot bestParameters = null;
+
+    // Lock-free asynchronous training (see setHogwild)
+    private boolean hogwild = false;
+    private HogwildStatistics hogwildStatistics = null;
+
+    // Gathering of batches on a background thread (see setPrefetch)
+    private int prefetchDepth = 0;
+    private BatchPrefetcher prefetcher = null;
+    private PrefetchStatistics prefetchStatistics = null;
+
+    // Validation every validationInterval epochs, either in line or on a
+    // background thread (see setValidationInterval and setAsyncValidation)
+    private int validationInterval = 1;
+    private ExecutorService validationExecutor = null;
+
     /** General constructor method.
      *
      * @param network The neural network to train.
@@ -34,9 +91,82 @@ public class Trainer extends Learner {
     public Trainer(Network network, NavigableMap<Header, List<String>> data,
                    int batchSize, boolean weighted, int numBins, int numEpochs,
                    Validator validator) {
+        this(network, data, batchSize, weighted, numBins, numEpochs, validator, null);
+    }
+
+    /** General constructor method with an {@code Optimiser}.
+     *
+     * @param network The neural network to train.
+     * @param data All the training data for the {@code network}.
+     * @param batchSize The number of datapoints used in each epoch.
+     * @param weighted If {@code true} then we use the {@code WeightedPartitioner},
+     *                 otherwise we use the standard {@code Partitioner}.
+     * @param numBins If {@code weighted} is {@code true} and the {@code network} is
+     *                a regressor, then we need to specify the number of bins for the
+     *                {@code WeightedPartitioner}. Otherwise, this parameter is ignored.
+     * @param numEpochs The number of epochs we are training for.
+     * @param validator The validator used (if any). Pass {@code null}
+     *                  for no validation.
+     * @param optimiser The update rule for the weights and biases. Pass
+     *                  {@code null} to use the learning rate (and momentum, if
+     *                  adaptive) of the {@code network}.
+     */
+    public Trainer(Network network, NavigableMap<Header, List<String>> data,
+                   int batchSize, boolean weighted, int numBins, int numEpochs,
+                   Validator validator, Optimiser optimiser) {
         super(network, data, batchSize, weighted, numBins);
         this.numEpochs = numEpochs;
         this.validator = validator;
+        this.optimiser = optimiser;
+        this.lossDf.put("Training", new ArrayList<>());
+        if (validator != null) {
+            this.lossDf.put("Validation", new ArrayList<>());
+        }
+    }
+
+    /** General constructor method for a primitive {@code Dataset}.
+     *
+     * @param network The neural network to train.
+     * @param dataset All the training data for the {@code network}.
+     * @param batchSize The number of datapoints used in each epoch.
+     * @param weighted If {@code true} then we use the {@code WeightedPartitioner},
+     *                 otherwise we use the standard {@code Partitioner}.
+     * @param numBins If {@code weighted} is {@code true} and the {@code network} is
+     *                a regressor, then we need to specify the number of bins for the
+     *                {@code WeightedPartitioner}. Otherwise, this parameter is ignored.
+     * @param numEpochs The number of epochs we are training for.
+     * @param validator The validator used (if any). Pass {@code null}
+     *                  for no validation.
+     */
+    public Trainer(Network network, Dataset dataset, int batchSize, boolean weighted,
+                   int numBins, int numEpochs, Validator validator) {
+        this(network, dataset, batchSize, weighted, numBins, numEpochs, validator, null);
+    }
+
+    /** General constructor method for a primitive {@code Dataset} with an
+     * {@code Optimiser}.
+     *
+     * @param network The neural network to train.
+     * @param dataset All the training data for the {@code network}.
+     * @param batchSize The number of datapoints used in each epoch.
+     * @param weighted If {@code true} then we use the {@code WeightedPartitioner},
+     *                 otherwise we use the standard {@code Partitioner}.
+     * @param numBins If {@code weighted} is {@code true} and the {@code network} is
+     *                a regressor, then we need to specify the number of bins for the
+     *                {@code WeightedPartitioner}. Otherwise, this parameter is ignored.
+     * @param numEpochs The number of epochs we are training for.
+     * @param validator The validator used (if any). Pass {@code null}
+     *                  for no validation.
+     * @param optimiser The update rule for the weights and biases. Pass
+     *                  {@code null} to use the learning rate (and momentum, if
+     *                  adaptive) of the {@code network}.
+     */
+    public Trainer(Network network, Dataset dataset, int batchSize, boolean weighted,
+                   int numBins, int numEpochs, Validator validator, Optimiser optimiser) {
+        super(network, dataset, batchSize, weighted, numBins);
+        this.numEpochs = numEpochs;
+        this.validator = validator;
+        this.optimiser = optimiser;
         this.lossDf.put("Training", new ArrayList<>());
         if (validator != null) {
             this.lossDf.put("Validation", new ArrayList<>());
@@ -54,6 +184,7 @@ public class Trainer extends Learner {
                    int batchSize, int numEpochs) {
         super(network, data, batchSize);
         this.numEpochs = numEpochs;
+        this.optimiser = null;
         this.lossDf.put("Training", new ArrayList<>());
     }
 
@@ -64,27 +195,63 @@ public class Trainer extends Learner {
      */
     @Override
     void storeGradients(int id) {
-        double y = getDf().get(Header.Y).get(id);
+        // Read the label straight from the dataset, without boxing
+        double y = getDataset().getTarget(id);
 
         // Take gradients of loss and store them in the edges (backwards)
-        List<List<List<Edge>>> edges = getNetwork().getEdges();
-        Collections.reverse(edges);
-        for (List<List<Edge>> edgeLayer : edges) {
-            for (List<Edge> rightNeuron : edgeLayer) {
-                boolean first = true;
-                for (Edge edge : rightNeuron) {
-                    getNetwork().storeGradientOfLoss(edge, y, first);
-                    first = false;
-                }
-            }
+        getNetwork().storeGradientsOfLoss(y);
+    }
+
+    /** Stores the gradients of the loss functions in the {@code workspace}
+     * after a forward pass of a chunk of datapoints as matrices.
+     *
+     * @param y The true classes/values of the datapoints in the chunk.
+     * @param n The number of datapoints in the chunk.
+     * @param workspace The {@code BatchWorkspace} used for the forward pass.
+     */
+    @Override
+    void storeBatchGradients(double[] y, int n, BatchWorkspace workspace) {
+        getNetwork().storeGradientsOfLoss(y, n, workspace);
+    }
+
+    /** Replaces the {@code dataset} (see {@code Learner.setDataset}). The
+     * gather buffers of the {@code prefetcher} hold whole batches, so it is
+     * rebuilt if the batches grow.
+     *
+     * @param dataset The new data to train on.
+     * @param batchSize The number of datapoints per batch.
+     */
+    @Override
+    void setDataset(Dataset dataset, int batchSize) {
+        int previousBatchSize = getBatchSize();
+        super.setDataset(dataset, batchSize);
+        if (prefetcher != null && batchSize > previousBatchSize) {
+            prefetcher.close();
+            prefetcher = new BatchPrefetcher(this, prefetchDepth, batchSize,
+                    prefetchStatistics);
         }
     }
 
+    /** Adds the gradients of one worker to the gradients of the network,
+     * ready for {@code backPropagateOneBatch}.
+     *
+     * @param workspace The {@code BatchWorkspace} of the worker.
+     */
+    @Override
+    void reduceBatchGradients(BatchWorkspace workspace) {
+        getNetwork().accumulateGradients(workspace);
+    }
+
     /** Performs back propagation for one batch of datapoints (stored within
-     * the memory of the edges).
+     * the memory of the edges), using the {@code optimiser} if there is one.
      *
      */
     void backPropagateOneBatch() {
+        if (optimiser != null) {
+            getNetwork().backPropagate(optimiser);
+            return;
+        }
+
         // Back propagate all the weights first
         getNetwork().backPropagateWeights();
 
@@ -92,25 +259,34 @@ public class Trainer extends Learner {
         getNetwork().backPropagateBiases();
     }
 
-    /** Performs training of the network.
+    /** Performs training of the network. Training stops early if the
+     * monitored loss stops improving (see {@code setEarlyStopping}) or a budget
+     * runs out (see {@code setTimeBudget} and {@code setSampleBudget}), which
+     * are checked at the end of each epoch.
+     * <p>
+     * With asynchronous validation (see {@code setAsyncValidation}), the
+     * validation losses are collected in epoch order at the end of later
+     * epochs, and all the outstanding ones are waited for before returning.
+     * </p>
      *
      */
     @Override
     public void run() {
         int factor = (int) Math.ceil((double) numEpochs / 100);
-        for (int epoch = 0; epoch < numEpochs; epoch ++) {
-            double totalLoss = 0.0;
-            // Partition all the datapoints into batches
-            List<List<Integer>> batchPartition = getPartitioner().call();
-            int itsPerEpoch = (int) Math
-                    .ceil((double) getNumDatapoints() / getBatchSize());
-            for (int iteration = 0; iteration < itsPerEpoch; iteration ++) {
-                List<Integer> batchIds = batchPartition.get(iteration);
-
-                // Do forward pass and back propagation for this specific batch
-                totalLoss += forwardPassOneBatch(batchIds);
-                backPropagateOneBatch();
-            }
+        long startTime = clock.getAsLong();
+        long numSamples = 0;
+        Deque<PendingValidation> pendingValidations = new ArrayDeque<>();
+        boolean stopped = false;
+        bestLoss = Double.POSITIVE_INFINITY;
+        numWithoutImprovement = 0;
+        bestParameters = null;
+        stoppingReason = StoppingReason.COMPLETED;
+        bestEpoch = -1;
+        step = startEpoch * getItsPerEpoch();
+        for (int epoch = startEpoch; epoch < numEpochs; epoch ++) {
+            currentEpoch = epoch;
+            double totalLoss = trainOneEpoch();
+            numSamples += getNumDatapoints();
             double loss = Math.round(10000 * totalLoss / getNumDatapoints()) / 10000.0;
             if (epoch % factor == 0) {
                 System.out.println("Epoch: " + epoch);
@@ -118,17 +294,532 @@ public class Trainer extends Learner {
             }
             // Record the loss and potential validation loss
             lossDf.get("Training").add(loss);
-            if (validator != null) {
-                double validationLoss = validator.validate(factor);
-                lossDf.get("Validation").add(validationLoss);
+            if (checkpointPath != null && (epoch + 1) % checkpointInterval == 0) {
+                saveCheckpoint(epoch + 1);
             }
+
+            // Keep the best parameters, and stop if the (validation) loss has
+            // not improved by more than minDelta for patience observations
+            if (validator == null) {
+                stopped = observe(epoch, loss, null);
+            } else if ((epoch + 1) % validationInterval == 0 || epoch == numEpochs - 1) {
+                if (validationExecutor == null) {
+                    double validationLoss = validator.validate(factor);
+                    lossDf.get("Validation").add(validationLoss);
+                    stopped = observe(epoch, validationLoss, null);
+                } else {
+                    // Validate a frozen copy of the network, so training can carry on
+                    InferenceSession session = getNetwork().newInferenceSession();
+                    ParameterSnapshot parameters = (patience > 0)
+                            ? getNetwork().newSnapshot() : null;
+                    Future<Double> future = validationExecutor
+                            .submit(() -> validator.validate(session));
+                    pendingValidations.add(new PendingValidation(epoch, future, parameters));
+                }
+            }
+            if (! stopped) {
+                stopped = collectValidations(pendingValidations, false, factor, false);
+            }
+            if (stopped) {
+                stoppingReason = StoppingReason.EARLY_STOPPED;
+                break;
+            }
+            if (timeBudget != null
+                    && clock.getAsLong() - startTime >= timeBudget.toNanos()) {
+                stoppingReason = StoppingReason.TIME_BUDGET;
+                break;
+            }
+            if (sampleBudget > 0 && numSamples >= sampleBudget) {
+                stoppingReason = StoppingReason.SAMPLE_BUDGET;
+                break;
+            }
+        }
+        // Validations which finish late can still call for early stopping, but
+        // after an early stop they are only recorded
+        if (collectValidations(pendingValidations, true, factor,
+                stoppingReason == StoppingReason.EARLY_STOPPED)
+                && stoppingReason == StoppingReason.COMPLETED) {
+            stoppingReason = StoppingReason.EARLY_STOPPED;
         }
+        if (bestParameters != null) {
+            bestParameters.restoreInto(getNetwork());
+        }
+        bestParameters = null;
+        startEpoch = 0;
         // At the end, update the categorical dataframe
         if (! isRegressor()) {
             updateCategoricalDataframe();
         }
     }
 
+    /** Records the validation losses which have finished, in epoch order,
+     * stopping at the first which has not finished (unless {@code wait}).
+     *
+     * @param pendingValidations The validations which have been submitted, in
+     *                           epoch order.
+     * @param wait If {@code true}, wait for all the validations to finish.
+     * @param factor The epochs on which we need to print out the validation.
+     * @param stopped Whether training has already stopped early, in which case
+     *                the validation losses are recorded but not observed.
+     * @return {@code true} if training should stop early.
+     */
+    private boolean collectValidations(Deque<PendingValidation> pendingValidations,
+                                       boolean wait, int factor, boolean stopped) {
+        while (! pendingValidations.isEmpty()
+                && (wait || pendingValidations.peek().future.isDone())) {
+            PendingValidation pending = pendingValidations.poll();
+            double validationLoss = await(pending.future);
+            if (pending.epoch % factor == 0) {
+                System.out.printf("Validation loss (epoch %d): %.4f%n",
+                        pending.epoch, validationLoss);
+            }
+            lossDf.get("Validation").add(validationLoss);
+            // Once stopped, the rest are recorded but no longer observed
+            if (! stopped) {
+                stopped = observe(pending.epoch, validationLoss, pending.parameters);
+            }
+        }
+        return stopped;
+    }
+
+    /** Passes the monitored loss of an epoch to the {@code schedule}, and
+     * keeps track of the best loss for early stopping.
+     *
+     * @param epoch The epoch.
+     * @param loss The validation loss (or the training loss, without a validator).
+     * @param parameters The parameters of the network at the end of the
+     *                   {@code epoch}, or {@code null} to take them from the
+     *                   network now.
+     * @return {@code true} if training should stop early.
+     */
+    private boolean observe(int epoch, double loss, ParameterSnapshot parameters) {
+        if (schedule != null) {
+            schedule.observe(epoch, loss);
+        }
+        if (loss < bestLoss - minDelta) {
+            bestLoss = loss;
+            bestEpoch = epoch;
+            numWithoutImprovement = 0;
+            if (patience > 0) {
+                bestParameters = (parameters != null) ? parameters
+                        : getNetwork().newSnapshot();
+            }
+            return false;
+        }
+        return patience > 0 && ++ numWithoutImprovement >= patience;
+    }
+
+    /** Performs one epoch of training over all the datapoints.
+     *
+     * @return The total loss of the epoch.
+     */
+    double trainOneEpoch() {
+        if (hogwild) {
+            return trainOneEpochHogwild();
+        }
+        if (prefetcher != null) {
+            return trainOneEpochPrefetched();
+        }
+        double totalLoss = 0.0;
+        // Partition all the datapoints into batches
+        Batches batches = getPartitioner().shuffle();
+        int itsPerEpoch = getItsPerEpoch();
+        while (batches.next()) {
+            if (schedule != null) {
+                setLearningRate(schedule.getLearningRate(baseLearningRate, currentEpoch,
+                        step, itsPerEpoch));
+            }
+            step ++;
+
+            // Do forward pass and back propagation for this specific batch
+            totalLoss += forwardPassOneBatch(batches.getIds(), batches.getOffset(),
+                    batches.getLength());
+            backPropagateOneBatch();
+        }
+        return totalLoss;
+    }
+
+    /** Performs one epoch of training with prefetching (see
+     * {@code setPrefetch}). The {@code prefetcher} gathers the batches on its
+     * own thread, while this thread passes each batch through the network as
+     * one matrix and back propagates.
+     *
+     * @return The total loss of the epoch.
+     */
+    double trainOneEpochPrefetched() {
+        Batches batches = getPartitioner().shuffle();
+        int[] ids = batches.getIds();
+        int itsPerEpoch = batches.getNumBatches();
+        ensureWorkspaces(1, getBatchSize());
+        prefetcher.start(batches);
+        double totalLoss = 0.0;
+        try {
+            for (int iteration = 0; iteration < itsPerEpoch; iteration ++) {
+                BatchPrefetcher.Slot slot = prefetcher.take();
+                if (schedule != null) {
+                    setLearningRate(schedule.getLearningRate(baseLearningRate, currentEpoch,
+                            step, itsPerEpoch));
+                }
+                step ++;
+
+                // Train on this batch, then hand its buffer back to be refilled
+                totalLoss += forwardPassGathered(ids, slot.getOffset(), slot.getLength(),
+                        slot.getBatchX(), slot.getBatchY(), 0);
+                reduceBatchGradients(getWorkspace(0));
+                prefetcher.release(slot);
+                backPropagateOneBatch();
+            }
+            prefetcher.finish();
+        } catch (RuntimeException e) {
+            // The prefetch thread may be stuck mid-epoch, so start afresh
+            prefetcher.close();
+            prefetcher = new BatchPrefetcher(this, prefetchDepth, getBatchSize(),
+                    prefetchStatistics);
+            throw e;
+        }
+        return totalLoss;
+    }
+
+    /** Performs one epoch of Hogwild training (see {@code setHogwild}). Each
+     * worker thread takes the next batch of the partition, passes it through
+     * the network with its own {@code BatchWorkspace}, and applies the
+     * gradients straight to the weights and biases, without waiting for the
+     * other workers.
+     *
+     * @return The total loss of the epoch.
+     */
+    double trainOneEpochHogwild() {
+        Batches batches = getPartitioner().shuffle();
+        int itsPerEpoch = batches.getNumBatches();
+        int numWorkers = Math.min(getNumThreads(), itsPerEpoch);
+        ensureWorkspaces(numWorkers, getBatchSize());
+        AtomicInteger nextBatch = new AtomicInteger();
+        int firstStep = step;
+        double totalLoss = 0.0;
+        if (numWorkers == 1) {
+            totalLoss = trainHogwildWorker(batches, nextBatch, firstStep, 0);
+        } else {
+            List<Future<Double>> futures = new ArrayList<>();
+            for (int worker = 0; worker < numWorkers; worker ++) {
+                int w = worker;
+                futures.add(getExecutor().submit(
+                        () -> trainHogwildWorker(batches, nextBatch, firstStep, w)));
+            }
+            for (Future<Double> future : futures) {
+                totalLoss += await(future);
+            }
+        }
+        step = firstStep + itsPerEpoch;
+        return totalLoss;
+    }
+
+    /** The loop of one Hogwild worker, which trains on batches until there
+     * are none left in the epoch.
+     *
+     * @param batches The batches of the epoch.
+     * @param nextBatch The index of the next batch to take, shared by the workers.
+     * @param firstStep The number of batches trained before this epoch.
+     * @param worker The index of the worker.
+     * @return The total loss of the batches trained by this worker.
+     */
+    private double trainHogwildWorker(Batches batches, AtomicInteger nextBatch,
+                                      int firstStep, int worker) {
+        int itsPerEpoch = batches.getNumBatches();
+        BatchWorkspace workspace = getWorkspace(worker);
+        double totalLoss = 0.0;
+        int batch;
+        while ((batch = nextBatch.getAndIncrement()) < itsPerEpoch) {
+            int offset = batches.getOffset(batch);
+            // Each worker passes the learning rate to its own updates, rather
+            // than setting it on the shared network
+            double learningRate = (schedule != null)
+                    ? schedule.getLearningRate(baseLearningRate, currentEpoch,
+                            firstStep + batch, itsPerEpoch)
+                    : getNetwork().getLearningRate();
+            long stamp = hogwildStatistics.beginUpdate();
+            totalLoss += forwardPassChunk(batches.getIds(), offset,
+                    offset + batches.getLength(batch), worker);
+            getNetwork().applyGradients(workspace, learningRate);
+            hogwildStatistics.endUpdate(stamp);
+        }
+        return totalLoss;
+    }
+
+    /** The number of batches in each epoch.
+     *
+     * @return The number of batches.
+     */
+    private int getItsPerEpoch() {
+        return (int) Math.ceil((double) getNumDatapoints() / getBatchSize());
+    }
+
+    /** Sets the learning rate of the {@code optimiser}, or of the network if
+     * there is no {@code optimiser}.
+     *
+     * @param learningRate The new learning rate.
+     */
+    private void setLearningRate(double learningRate) {
+        if (optimiser != null) {
+            optimiser.setLearningRate(learningRate);
+        } else {
+            getNetwork().setLearningRate(learningRate);
+        }
+    }
+
+    /** Saves a {@code Checkpoint} of the network to the {@code checkpointPath}.
+     *
+     * @param epoch The number of epochs trained so far.
+     * @throws RuntimeException If the checkpoint cannot be written.
+     */
+    void saveCheckpoint(int epoch) {
+        List<String> categoryNames = isRegressor() ? List.of() : getCategoryNames();
+        try {
+            Checkpoint.save(getNetwork(), categoryNames, epoch, checkpointPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not save checkpoint to %s."
+                    .formatted(checkpointPath), e);
+        }
+    }
+
+    /** Turns on periodic checkpointing, so that a {@code Checkpoint} of the
+     * network is saved to {@code path} every {@code interval} epochs during
+     * {@code run}. Pass {@code null} to turn checkpointing off.
+     *
+     * @param path The path of the checkpoint file, which is overwritten each time.
+     * @param interval The number of epochs between checkpoints.
+     */
+    public void setCheckpointing(Path path, int interval) {
+        if (path != null && interval < 1) {
+            throw new IllegalArgumentException("interval must be positive (%d)"
+                    .formatted(interval));
+        }
+        this.checkpointPath = path;
+        this.checkpointInterval = interval;
+    }
+
+    /** Sets a schedule for the learning rate, which is consulted before every
+     * batch of {@code run}, and told the validation loss at each validation (or
+     * the training loss at the end of every epoch, without a validator). The current learning rate
+     * of the {@code optimiser} (or of the network, if there is no
+     * {@code optimiser}) is taken as the base learning rate. Pass {@code null}
+     * to keep the learning rate fixed.
+     *
+     * @param schedule The learning rate schedule.
+     */
+    public void setLearningRateSchedule(LearningRateSchedule schedule) {
+        this.schedule = schedule;
+        if (schedule != null) {
+            this.baseLearningRate = (optimiser != null) ? optimiser.getLearningRate()
+                    : getNetwork().getLearningRate();
+        }
+    }
+
+    /** Turns on early stopping, so that {@code run} stops once the validation
+     * loss (or the training loss, without a validator) has not improved by more
+     * than {@code minDelta} for {@code patience} epochs in a row. The weights
+     * and biases of the best epoch are then restored. Pass a {@code patience}
+     * of zero to turn early stopping off.
+     * <p>
+     * With a validation interval (see {@code setValidationInterval}), the
+     * {@code patience} counts validations rather than epochs.
+     * </p>
+     *
+     * @param patience The number of epochs without improvement before stopping.
+     * @param minDelta The amount by which the loss must fall to count as an
+     *                 improvement.
+     */
+    public void setEarlyStopping(int patience, double minDelta) {
+        if (patience < 0 || minDelta < 0.0) {
+            throw new IllegalArgumentException(
+                    "patience and minDelta must not be negative (patience = %d, minDelta = %f)"
+                            .formatted(patience, minDelta));
+        }
+        this.patience = patience;
+        this.minDelta = minDelta;
+    }
+
+    /** Sets a wall-clock budget for {@code run}, after which training stops
+     * at the end of the current epoch. Pass {@code null} for no budget.
+     *
+     * @param timeBudget The maximum time spent training.
+     */
+    public void setTimeBudget(Duration timeBudget) {
+        if (timeBudget != null && (timeBudget.isNegative() || timeBudget.isZero())) {
+            throw new IllegalArgumentException("timeBudget must be positive (%s)"
+                    .formatted(timeBudget));
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    /** Sets a budget of datapoints processed by {@code run}, after which
+     * training stops at the end of the current epoch. Pass zero for no budget.
+     *
+     * @param sampleBudget The maximum number of datapoints trained on.
+     */
+    public void setSampleBudget(long sampleBudget) {
+        if (sampleBudget < 0) {
+            throw new IllegalArgumentException("sampleBudget must not be negative (%d)"
+                    .formatted(sampleBudget));
+        }
+        this.sampleBudget = sampleBudget;
+    }
+
+    /** Turns Hogwild training on or off. If on, the {@code numThreads} worker
+     * threads (see {@code setNumThreads}) each take batches from the partition
+     * in turn, and apply their gradients straight to the shared weights and
+     * biases without any locks or waiting for the other workers. This removes
+     * the barrier at the end of each batch, at the cost of some updates being
+     * found from weights which another worker has since changed (see
+     * {@code getHogwildStatistics}). Unlike the other modes, the results are
+     * not reproducible with more than one thread. Only plain gradient descent
+     * (with momentum, if the network is adaptive) is supported.
+     *
+     * @param hogwild Whether to train without locks.
+     * @throws IllegalStateException If the {@code Trainer} has an {@code optimiser}.
+     */
+    public void setHogwild(boolean hogwild) {
+        if (hogwild && prefetchDepth > 0) {
+            throw new IllegalStateException("Hogwild training does not support prefetching");
+        }
+        if (hogwild && optimiser != null) {
+            throw new IllegalStateException(
+                    "Hogwild training does not support the %s optimiser"
+                            .formatted(optimiser.getClass().getSimpleName()));
+        }
+        this.hogwild = hogwild;
+        this.hogwildStatistics = hogwild ? new HogwildStatistics() : null;
+    }
+
+    /** Turns prefetching on or off. If on, a background thread gathers the
+     * coordinates and targets of the next {@code prefetchDepth} batches into
+     * reusable buffers while the current batch trains, waiting when all the
+     * buffers are full. Each batch is then passed through the network as one
+     * matrix on the training thread, giving the same results as
+     * {@code setBatched(true)} with one thread. How long training waits for
+     * batches is recorded in {@code getPrefetchStatistics}.
+     *
+     * @param prefetchDepth The number of batches to gather ahead, or {@code 0}
+     *                      to turn prefetching off.
+     * @throws IllegalArgumentException If {@code prefetchDepth} is negative.
+     * @throws IllegalStateException If Hogwild training is on.
+     */
+    public void setPrefetch(int prefetchDepth) {
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException(
+                    "prefetchDepth must be non-negative (%d)".formatted(prefetchDepth));
+        }
+        if (prefetchDepth > 0 && hogwild) {
+            throw new IllegalStateException("Hogwild training does not support prefetching");
+        }
+        if (prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        }
+        this.prefetchDepth = prefetchDepth;
+        if (prefetchDepth > 0) {
+            prefetchStatistics = new PrefetchStatistics();
+            prefetcher = new BatchPrefetcher(this, prefetchDepth, getBatchSize(),
+                    prefetchStatistics);
+        } else {
+            prefetchStatistics = null;
+        }
+    }
+
+    /** Sets the weight of each class when sampling the batches of a weighted
+     * {@code Trainer} (see {@code WeightedPartitioner.setClassWeights}).
+     *
+     * @param weights The (unnormalised) weight of each category (or bin, for
+     *                regression), or {@code null} for equal weights.
+     * @throws IllegalStateException If the {@code Trainer} is not weighted.
+     */
+    public void setClassWeights(double[] weights) {
+        getWeightedPartitioner().setClassWeights(weights);
+    }
+
+    /** Sets the weight of each datapoint when sampling the batches of a
+     * weighted {@code Trainer} (see {@code WeightedPartitioner.setSampleWeights}).
+     *
+     * @param weights The (unnormalised) weight of each datapoint, or
+     *                {@code null} for equal class weights.
+     * @throws IllegalStateException If the {@code Trainer} is not weighted.
+     */
+    public void setSampleWeights(double[] weights) {
+        getWeightedPartitioner().setSampleWeights(weights);
+    }
+
+    /** The {@code partitioner}, if it is a {@code WeightedPartitioner}.
+     *
+     * @return The {@code WeightedPartitioner}.
+     * @throws IllegalStateException If the {@code Trainer} is not weighted.
+     */
+    private WeightedPartitioner getWeightedPartitioner() {
+        if (! (getPartitioner() instanceof WeightedPartitioner weightedPartitioner)) {
+            throw new IllegalStateException(
+                    "Sampling weights need a weighted Trainer");
+        }
+        return weightedPartitioner;
+    }
+
+    /** Sets how often {@code run} validates the network. The network is
+     * validated at the end of every {@code validationInterval} epochs, and at
+     * the end of the last epoch.
+     *
+     * @param validationInterval The number of epochs between validations.
+     */
+    public void setValidationInterval(int validationInterval) {
+        if (validationInterval < 1) {
+            throw new IllegalArgumentException("validationInterval must be positive (%d)"
+                    .formatted(validationInterval));
+        }
+        this.validationInterval = validationInterval;
+    }
+
+    /** Turns asynchronous validation on or off. If on, {@code run} validates
+     * a frozen copy of the network (see {@code Network.newInferenceSession}) on
+     * a background thread, while training carries on with the next epoch. The
+     * validation losses are the same as with validation in line, but early
+     * stopping (see {@code setEarlyStopping}) may stop a few epochs later, once
+     * the validation results have come back. The parameters restored are still
+     * those of the best validated epoch.
+     *
+     * @param asyncValidation Whether to validate on a background thread.
+     */
+    public void setAsyncValidation(boolean asyncValidation) {
+        if (validationExecutor != null) {
+            validationExecutor.shutdown();
+            validationExecutor = null;
+        }
+        if (asyncValidation) {
+            validationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "validation-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /** Restores the network from a {@code Checkpoint} (for example, one saved
+     * by a job which crashed), so that the next call to {@code run} carries on
+     * from the epoch after the checkpoint was taken. If the checkpoint was
+     * trained with an {@code Optimiser} of the same class as this
+     * {@code Trainer}, its moments and step are carried on too.
+     *
+     * @param path The path of the checkpoint file.
+     * @throws IOException If an IO error occurs.
+     * @throws IllegalArgumentException If the checkpoint does not match the
+     * network or the categories of the data.
+     */
+    public void resumeFrom(Path path) throws IOException {
+        Checkpoint checkpoint = Checkpoint.load(path);
+        if (! isRegressor() && ! checkpoint.getCategoryNames().equals(getCategoryNames())) {
+            throw new IllegalArgumentException(
+                    "Checkpoint categories %s do not match the data %s"
+                            .formatted(checkpoint.getCategoryNames(), getCategoryNames()));
+        }
+        checkpoint.restoreInto(getNetwork());
+        startEpoch = checkpoint.getEpoch();
+    }
+
     /** Creates scatter plot from the data and their predicted values.
      *
      * @param title An optional title to append to the plot.
@@ -170,4 +861,102 @@ public class Trainer extends Learner {
         }
         return returnMap;
     }
+
+    /** Getter for {@code optimiser}.
+     *
+     * @return The update rule, or {@code null} if the learning rate of the
+     * {@code network} is used.
+     */
+    public Optimiser getOptimiser() {
+        return optimiser;
+    }
+
+    /** Whether validation runs on a background thread.
+     *
+     * @return {@code true} if validation is asynchronous.
+     */
+    public boolean isAsyncValidation() {
+        return validationExecutor != null;
+    }
+
+    /** Getter for {@code hogwild}.
+     *
+     * @return {@code true} if training without locks.
+     */
+    public boolean isHogwild() {
+        return hogwild;
+    }
+
+    /** Getter for {@code hogwildStatistics}.
+     *
+     * @return The counts of the updates (and their conflicts) since Hogwild
+     * training was turned on, or {@code null} if it is off.
+     */
+    public HogwildStatistics getHogwildStatistics() {
+        return hogwildStatistics;
+    }
+
+    /** Getter for {@code prefetchDepth}.
+     *
+     * @return The number of batches gathered ahead, or {@code 0} if
+     * prefetching is off.
+     */
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    /** Getter for {@code prefetchStatistics}.
+     *
+     * @return How long training has waited for batches since prefetching was
+     * turned on, or {@code null} if it is off.
+     */
+    public PrefetchStatistics getPrefetchStatistics() {
+        return prefetchStatistics;
+    }
+
+    /** Getter for {@code stoppingReason}.
+     *
+     * @return Why the last call to {@code run} stopped, or {@code null} if
+     * {@code run} has not been called.
+     */
+    public StoppingReason getStoppingReason() {
+        return stoppingReason;
+    }
+
+    /** Getter for {@code bestEpoch}.
+     *
+     * @return The epoch of the last call to {@code run} with the lowest
+     * validation loss (or training loss, without a validator), or -1 if
+     * {@code run} has not been called.
+     */
+    public int getBestEpoch() {
+        return bestEpoch;
+    }
+
+    /** Setter for {@code clock}. For testing.
+     *
+     * @param clock The source of the time in nanoseconds.
+     */
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /** A validation submitted to the background thread, with the epoch it
+     * was taken at and the parameters of the network at that point (if
+     * needed for early stopping).
+     *
+     */
+    private static final class PendingValidation {
+
+        private final int epoch;
+        private final Future<Double> future;
+        private final ParameterSnapshot parameters;
+
+        private PendingValidation(int epoch, Future<Double> future,
+                                  ParameterSnapshot parameters) {
+            this.epoch = epoch;
+            this.future = future;
+            this.parameters = parameters;
+        }
+    }
 }
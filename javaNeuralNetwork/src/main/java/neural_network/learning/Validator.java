@@ -1,6 +1,8 @@
 package neural_network.learning;
 
+import neural_network.components.InferenceSession;
 import neural_network.components.Network;
+import neural_network.util.Dataset;
 import neural_network.util.Header;
 
 import java.io.IOException;
@@ -30,6 +32,22 @@ public class Validator extends Learner {
         super(network, data, batchSize, weighted, numBins);
     }
 
+    /** Constructor for a primitive {@code Dataset} - matches {@code Learner}.
+     *
+     * @param network The neural network to train.
+     * @param dataset All the data to be passed to the {@code network}.
+     * @param batchSize The number of datapoints per batch for an epoch.
+     * @param weighted If {@code true} then we use the {@code WeightedPartitioner},
+     *                 else we use the {@code Partitioner}.
+     * @param numBins If {@code weighted} is {@code true} and the {@code network} is
+     *                a regressor, then we need to specify the number of bins for the
+     *                {@code WeightedPartitioner}. Otherwise, this parameter is ignored.
+     */
+    public Validator(Network network, Dataset dataset, int batchSize, boolean weighted,
+                     int numBins) {
+        super(network, dataset, batchSize, weighted, numBins);
+    }
+
     /** Default constructor for non-weighted partitions - matches {@code Learner}.
      *
      * @param network The neural network to train.
@@ -46,35 +64,36 @@ public class Validator extends Learner {
     @Override
     public void run() {}
 
-    /** Performs validation of the network.
+    /** Performs validation of the network. The datapoints are evaluated in
+     * order, without shuffling or storing gradients (see {@code evaluate}).
      *
      * @param factor The epochs on which we need to print out the validation.
      * @return The validation loss.
      */
     double validate(int factor) {
-        double totalLoss = 0.0;
-        List<List<Integer>> batchPartition = getPartitioner().call();
-        int itsPerEpoch = (int) Math
-                .ceil((double) getNumDatapoints() / getBatchSize());
-        for (int iteration = 0; iteration < itsPerEpoch; iteration ++) {
-            List<Integer> batchIds = batchPartition.get(iteration);
-
-            // Do forward pass and back propagation for this specific batch
-            totalLoss += forwardPassOneBatch(batchIds);
-        }
-        double loss = Math.round(10000 * totalLoss / getNumDatapoints()) / 10000.0;
+        double loss = Math.round(10000 * evaluate() / getNumDatapoints()) / 10000.0;
         if (epoch % factor == 0) {
             System.out.printf("Validation loss: %.4f%n", loss);
         }
-
-        if (! isRegressor()) {
-            updateCategoricalDataframe();
-        }
         // Keep a track of the epoch and increment it here
         epoch ++;
         return loss;
     }
 
+    /** Performs validation of a frozen copy of the network, taken (for
+     * example) at the end of an epoch. The network itself is not touched, so
+     * this can run on a background thread while the network carries on
+     * training. Unlike {@code validate(int)}, nothing is printed.
+     *
+     * @param session The frozen copy of the network.
+     * @return The validation loss.
+     */
+    double validate(InferenceSession session) {
+        double loss = Math.round(10000 * evaluate(session) / getNumDatapoints()) / 10000.0;
+        epoch ++;
+        return loss;
+    }
+
     /** Creates scatter plot from the data and their predicted values.
      *
      * @param title An optional title to append to the plot.
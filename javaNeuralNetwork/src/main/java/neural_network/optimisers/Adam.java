@@ -0,0 +1,99 @@
+package neural_network.optimisers;
+
+import static java.lang.Math.pow;
+import static java.lang.Math.sqrt;
+
+/** Class to represent Adam, which keeps running averages of the gradients
+ * ({@code m}) and the squared gradients ({@code v}) of each parameter, and
+ * updates it by {@code p -= learningRate * mHat / (sqrt(vHat) + epsilon)},
+ * where {@code mHat} and {@code vHat} are corrected for their bias towards zero.
+ *
+ */
+public final class Adam implements Optimiser {
+
+    private double learningRate;
+    private final double beta1;
+    private final double beta2;
+    private final double epsilon;
+
+    /** Constructor method.
+     *
+     * @param learningRate The learning rate.
+     * @param beta1 The decay of the first moment, in {@code [0, 1)}.
+     * @param beta2 The decay of the second moment, in {@code [0, 1)}.
+     * @param epsilon The constant added to the denominator for stability.
+     */
+    public Adam(double learningRate, double beta1, double beta2, double epsilon) {
+        setLearningRate(learningRate);
+        this.beta1 = Hyperparameters.checkFraction("beta1", beta1);
+        this.beta2 = Hyperparameters.checkFraction("beta2", beta2);
+        this.epsilon = Hyperparameters.checkPositive("epsilon", epsilon);
+    }
+
+    /** Constructor method with the usual defaults ({@code beta1 = 0.9},
+     * {@code beta2 = 0.999} and {@code epsilon = 1e-8}).
+     *
+     * @param learningRate The learning rate.
+     */
+    public Adam(double learningRate) {
+        this(learningRate, 0.9, 0.999, 1e-8);
+    }
+
+    /** The number of arrays of state needed for each array of parameters.
+     *
+     * @return The number of moments (the first and second moments).
+     */
+    @Override
+    public int getNumMoments() {
+        return 2;
+    }
+
+    /** Updates the parameters from {@code from} (inclusive) to {@code to}
+     * (exclusive) using their average gradients.
+     *
+     * @param parameters The parameters, which are updated in place.
+     * @param gradients The average gradients of the loss with respect to
+     *                  each parameter.
+     * @param moments The first and second moments, which are updated in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param step The number of updates made so far, including this one.
+     * @param weights Whether the parameters are weights ({@code true}) or
+     *                biases ({@code false}).
+     */
+    @Override
+    public void update(double[] parameters, double[] gradients, double[][] moments,
+                       int from, int to, int step, boolean weights) {
+        double[] m = moments[0];
+        double[] v = moments[1];
+
+        // Fold both bias corrections into the step size
+        double stepSize = learningRate * sqrt(1 - pow(beta2, step)) / (1 - pow(beta1, step));
+        double correctedEpsilon = epsilon * sqrt(1 - pow(beta2, step));
+        for (int j = from; j < to; j ++) {
+            double g = gradients[j];
+            m[j] = beta1 * m[j] + (1 - beta1) * g;
+            v[j] = beta2 * v[j] + (1 - beta2) * g * g;
+            parameters[j] -= stepSize * m[j] / (sqrt(v[j]) + correctedEpsilon);
+        }
+    }
+
+    /** Getter method for {@code learningRate}.
+     *
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    /** Setter method for {@code learningRate}.
+     *
+     * @param learningRate The new learning rate.
+     * @throws IllegalArgumentException If the {@code learningRate} is not positive.
+     */
+    @Override
+    public void setLearningRate(double learningRate) {
+        this.learningRate = Hyperparameters.checkPositive("learningRate", learningRate);
+    }
+}
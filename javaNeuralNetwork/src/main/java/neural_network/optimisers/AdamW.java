@@ -0,0 +1,98 @@
+package neural_network.optimisers;
+
+/** Class to represent AdamW, which is {@code Adam} with weight decay that is
+ * decoupled from the gradients, {@code p -= learningRate * weightDecay * p}.
+ * The decay is only applied to the weights, not the biases.
+ *
+ */
+public final class AdamW implements Optimiser {
+
+    private final Adam adam;
+    private final double weightDecay;
+
+    /** Constructor method.
+     *
+     * @param learningRate The learning rate.
+     * @param beta1 The decay of the first moment, in {@code [0, 1)}.
+     * @param beta2 The decay of the second moment, in {@code [0, 1)}.
+     * @param epsilon The constant added to the denominator for stability.
+     * @param weightDecay The weight decay.
+     */
+    public AdamW(double learningRate, double beta1, double beta2, double epsilon,
+                 double weightDecay) {
+        this.adam = new Adam(learningRate, beta1, beta2, epsilon);
+        this.weightDecay = Hyperparameters.checkPositive("weightDecay", weightDecay);
+    }
+
+    /** Constructor method with the usual defaults of {@code Adam}.
+     *
+     * @param learningRate The learning rate.
+     * @param weightDecay The weight decay.
+     */
+    public AdamW(double learningRate, double weightDecay) {
+        this(learningRate, 0.9, 0.999, 1e-8, weightDecay);
+    }
+
+    /** The number of arrays of state needed for each array of parameters.
+     *
+     * @return The number of moments (the first and second moments).
+     */
+    @Override
+    public int getNumMoments() {
+        return adam.getNumMoments();
+    }
+
+    /** Updates the parameters from {@code from} (inclusive) to {@code to}
+     * (exclusive) using their average gradients.
+     *
+     * @param parameters The parameters, which are updated in place.
+     * @param gradients The average gradients of the loss with respect to
+     *                  each parameter.
+     * @param moments The first and second moments, which are updated in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param step The number of updates made so far, including this one.
+     * @param weights Whether the parameters are weights ({@code true}) or
+     *                biases ({@code false}).
+     */
+    @Override
+    public void update(double[] parameters, double[] gradients, double[][] moments,
+                       int from, int to, int step, boolean weights) {
+        // The Adam update does not depend on the parameters, so the decay can
+        // be applied first
+        if (weights) {
+            double factor = 1 - adam.getLearningRate() * weightDecay;
+            for (int j = from; j < to; j ++) {
+                parameters[j] *= factor;
+            }
+        }
+        adam.update(parameters, gradients, moments, from, to, step, weights);
+    }
+
+    /** Getter method for {@code learningRate}.
+     *
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate() {
+        return adam.getLearningRate();
+    }
+
+    /** Setter method for {@code learningRate}.
+     *
+     * @param learningRate The new learning rate.
+     * @throws IllegalArgumentException If the {@code learningRate} is not positive.
+     */
+    @Override
+    public void setLearningRate(double learningRate) {
+        adam.setLearningRate(learningRate);
+    }
+
+    /** Getter method for {@code weightDecay}.
+     *
+     * @return The weight decay.
+     */
+    public double getWeightDecay() {
+        return weightDecay;
+    }
+}
@@ -0,0 +1,72 @@
+package neural_network.optimisers;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.cos;
+
+/** Class to represent cosine annealing with warm restarts. Over each cycle,
+ * the learning rate falls from its base value to {@code minLearningRate}
+ * along half a cosine wave, and then restarts. The first cycle lasts
+ * {@code period} epochs, and each cycle is {@code periodMultiplier} times
+ * longer than the one before.
+ *
+ */
+public final class CosineAnnealing implements LearningRateSchedule {
+
+    private final int period;
+    private final int periodMultiplier;
+    private final double minLearningRate;
+
+    /** Constructor method.
+     *
+     * @param period The number of epochs in the first cycle.
+     * @param periodMultiplier The growth of each cycle compared to the last.
+     * @param minLearningRate The learning rate at the end of each cycle.
+     */
+    public CosineAnnealing(int period, int periodMultiplier, double minLearningRate) {
+        if (period < 1 || periodMultiplier < 1) {
+            throw new IllegalArgumentException(
+                    "period and periodMultiplier must be positive " +
+                    "(period = %d, periodMultiplier = %d)".formatted(period, periodMultiplier));
+        }
+        if (minLearningRate < 0.0) {
+            throw new IllegalArgumentException("minLearningRate must not be negative (%f)"
+                    .formatted(minLearningRate));
+        }
+        this.period = period;
+        this.periodMultiplier = periodMultiplier;
+        this.minLearningRate = minLearningRate;
+    }
+
+    /** Constructor method without restarts, annealing to zero over {@code period}
+     * epochs and then restarting with cycles of the same length.
+     *
+     * @param period The number of epochs in each cycle.
+     */
+    public CosineAnnealing(int period) {
+        this(period, 1, 0.0);
+    }
+
+    /** The learning rate for the next batch, found from how far through its
+     * cycle the batch is.
+     *
+     * @param baseLearningRate The learning rate before any scheduling.
+     * @param epoch The current epoch (from 0).
+     * @param step The number of batches trained so far, over all epochs.
+     * @param stepsPerEpoch The number of batches in each epoch.
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate(double baseLearningRate, int epoch, int step,
+                                  int stepsPerEpoch) {
+        // Find the cycle containing this step, in units of steps
+        long cycleLength = (long) period * stepsPerEpoch;
+        long position = step;
+        while (position >= cycleLength) {
+            position -= cycleLength;
+            cycleLength *= periodMultiplier;
+        }
+        double progress = (double) position / cycleLength;
+        return minLearningRate
+                + (baseLearningRate - minLearningRate) * (1 + cos(PI * progress)) / 2;
+    }
+}
@@ -0,0 +1,36 @@
+package neural_network.optimisers;
+
+import static java.lang.Math.pow;
+
+/** Class to represent exponential decay, which multiplies the learning rate
+ * by {@code decayRate} per epoch, smoothly from one batch to the next.
+ *
+ */
+public final class ExponentialDecay implements LearningRateSchedule {
+
+    private final double decayRate;
+
+    /** Constructor method.
+     *
+     * @param decayRate The factor by which the learning rate is multiplied
+     *                  over each epoch, in {@code (0, 1)}.
+     */
+    public ExponentialDecay(double decayRate) {
+        this.decayRate = Hyperparameters.checkPositive("decayRate",
+                Hyperparameters.checkFraction("decayRate", decayRate));
+    }
+
+    /** The learning rate for the next batch, {@code base * decayRate^(step / stepsPerEpoch)}.
+     *
+     * @param baseLearningRate The learning rate before any scheduling.
+     * @param epoch The current epoch (from 0).
+     * @param step The number of batches trained so far, over all epochs.
+     * @param stepsPerEpoch The number of batches in each epoch.
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate(double baseLearningRate, int epoch, int step,
+                                  int stepsPerEpoch) {
+        return baseLearningRate * pow(decayRate, (double) step / stepsPerEpoch);
+    }
+}
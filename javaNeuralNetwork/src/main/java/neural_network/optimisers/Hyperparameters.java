@@ -0,0 +1,37 @@
+package neural_network.optimisers;
+
+/** Class containing the checks on the hyperparameters of the {@code Optimisers}.
+ *
+ */
+final class Hyperparameters {
+
+    private Hyperparameters() {}
+
+    /** Checks that a hyperparameter is positive.
+     *
+     * @param name The name of the hyperparameter.
+     * @param value The value of the hyperparameter.
+     * @return The {@code value}.
+     * @throws IllegalArgumentException If the {@code value} is not positive.
+     */
+    static double checkPositive(String name, double value) {
+        if (! (value > 0.0)) {
+            throw new IllegalArgumentException("%s must be positive (%f)".formatted(name, value));
+        }
+        return value;
+    }
+
+    /** Checks that a hyperparameter is in {@code [0, 1)}.
+     *
+     * @param name The name of the hyperparameter.
+     * @param value The value of the hyperparameter.
+     * @return The {@code value}.
+     * @throws IllegalArgumentException If the {@code value} is not in {@code [0, 1)}.
+     */
+    static double checkFraction(String name, double value) {
+        if (! (value >= 0.0 && value < 1.0)) {
+            throw new IllegalArgumentException("%s must be in [0, 1) (%f)".formatted(name, value));
+        }
+        return value;
+    }
+}
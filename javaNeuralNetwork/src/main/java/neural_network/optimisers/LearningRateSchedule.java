@@ -0,0 +1,27 @@
+package neural_network.optimisers;
+
+/** Interface for a schedule of the learning rate over training, which is
+ * consulted by the {@code Trainer} before every batch.
+ *
+ */
+public interface LearningRateSchedule {
+
+    /** The learning rate to use for the next batch.
+     *
+     * @param baseLearningRate The learning rate before any scheduling.
+     * @param epoch The current epoch (from 0).
+     * @param step The number of batches trained so far, over all epochs.
+     * @param stepsPerEpoch The number of batches in each epoch.
+     * @return The learning rate.
+     */
+    double getLearningRate(double baseLearningRate, int epoch, int step, int stepsPerEpoch);
+
+    /** Tells the schedule the loss at the end of an epoch (the validation loss
+     * if there is a validator), for schedules which adapt to it. Does nothing
+     * by default.
+     *
+     * @param epoch The epoch which has just finished (from 0).
+     * @param loss The loss of that epoch.
+     */
+    default void observe(int epoch, double loss) {}
+}
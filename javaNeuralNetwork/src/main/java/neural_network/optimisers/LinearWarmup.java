@@ -0,0 +1,63 @@
+package neural_network.optimisers;
+
+/** Class to represent a linear warmup, which raises the learning rate from
+ * nearly zero to its base value over the first {@code warmupEpochs} epochs,
+ * before handing over to another schedule (which then starts from its epoch 0).
+ *
+ */
+public final class LinearWarmup implements LearningRateSchedule {
+
+    private final int warmupEpochs;
+    private final LearningRateSchedule after;
+
+    /** Constructor method.
+     *
+     * @param warmupEpochs The number of epochs of warmup.
+     * @param after The schedule after the warmup. Pass {@code null} to keep
+     *              the base learning rate.
+     */
+    public LinearWarmup(int warmupEpochs, LearningRateSchedule after) {
+        if (warmupEpochs < 1) {
+            throw new IllegalArgumentException("warmupEpochs must be positive (%d)"
+                    .formatted(warmupEpochs));
+        }
+        this.warmupEpochs = warmupEpochs;
+        this.after = after;
+    }
+
+    /** The learning rate for the next batch, which is
+     * {@code base * (step + 1) / warmupSteps} during the warmup.
+     *
+     * @param baseLearningRate The learning rate before any scheduling.
+     * @param epoch The current epoch (from 0).
+     * @param step The number of batches trained so far, over all epochs.
+     * @param stepsPerEpoch The number of batches in each epoch.
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate(double baseLearningRate, int epoch, int step,
+                                  int stepsPerEpoch) {
+        int warmupSteps = warmupEpochs * stepsPerEpoch;
+        if (step < warmupSteps) {
+            return baseLearningRate * (step + 1) / warmupSteps;
+        }
+        if (after == null) {
+            return baseLearningRate;
+        }
+        return after.getLearningRate(baseLearningRate, epoch - warmupEpochs,
+                step - warmupSteps, stepsPerEpoch);
+    }
+
+    /** Passes the loss on to the schedule after the warmup, once the warmup
+     * is over.
+     *
+     * @param epoch The epoch which has just finished (from 0).
+     * @param loss The loss of that epoch.
+     */
+    @Override
+    public void observe(int epoch, double loss) {
+        if (after != null && epoch >= warmupEpochs) {
+            after.observe(epoch - warmupEpochs, loss);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package neural_network.optimisers;
+
+/** Class to represent gradient descent with momentum,
+ * {@code v = gamma * v + learningRate * g} and {@code p -= v}. This is the
+ * same update as an adaptive {@code Network}, but it is also applied to the
+ * biases.
+ *
+ */
+public final class Momentum implements Optimiser {
+
+    private double learningRate;
+    private final double gamma;
+
+    /** Constructor method.
+     *
+     * @param learningRate The learning rate.
+     * @param gamma The momentum parameter, in {@code [0, 1)}.
+     */
+    public Momentum(double learningRate, double gamma) {
+        setLearningRate(learningRate);
+        this.gamma = Hyperparameters.checkFraction("gamma", gamma);
+    }
+
+    /** The number of arrays of state needed for each array of parameters.
+     *
+     * @return The number of moments (the velocities).
+     */
+    @Override
+    public int getNumMoments() {
+        return 1;
+    }
+
+    /** Updates the parameters from {@code from} (inclusive) to {@code to}
+     * (exclusive) using their average gradients.
+     *
+     * @param parameters The parameters, which are updated in place.
+     * @param gradients The average gradients of the loss with respect to
+     *                  each parameter.
+     * @param moments The velocities, which are updated in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param step The number of updates made so far, including this one.
+     * @param weights Whether the parameters are weights ({@code true}) or
+     *                biases ({@code false}).
+     */
+    @Override
+    public void update(double[] parameters, double[] gradients, double[][] moments,
+                       int from, int to, int step, boolean weights) {
+        double[] velocities = moments[0];
+        for (int j = from; j < to; j ++) {
+            velocities[j] = gamma * velocities[j] + learningRate * gradients[j];
+            parameters[j] -= velocities[j];
+        }
+    }
+
+    /** Getter method for {@code learningRate}.
+     *
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    /** Setter method for {@code learningRate}.
+     *
+     * @param learningRate The new learning rate.
+     * @throws IllegalArgumentException If the {@code learningRate} is not positive.
+     */
+    @Override
+    public void setLearningRate(double learningRate) {
+        this.learningRate = Hyperparameters.checkPositive("learningRate", learningRate);
+    }
+
+    /** Getter method for {@code gamma}.
+     *
+     * @return The momentum parameter.
+     */
+    public double getGamma() {
+        return gamma;
+    }
+}
@@ -0,0 +1,48 @@
+package neural_network.optimisers;
+
+/** Interface for an update rule of gradient descent, which uses the average
+ * gradients of the loss over a batch to update the parameters (weights or
+ * biases) of one {@code Layer}.
+ * <p>
+ * Any state of the update rule is held in the {@code moments}, which are
+ * arrays parallel to the parameters, owned by the {@code Layer}. There are
+ * {@code getNumMoments()} of these, and they start at zero.
+ * </p>
+ *
+ */
+public interface Optimiser {
+
+    /** The number of arrays of state needed for each array of parameters.
+     *
+     * @return The number of moments.
+     */
+    int getNumMoments();
+
+    /** Updates the parameters from {@code from} (inclusive) to {@code to}
+     * (exclusive) using their average gradients.
+     *
+     * @param parameters The parameters, which are updated in place.
+     * @param gradients The average gradients of the loss with respect to
+     *                  each parameter.
+     * @param moments The state of the update rule, which is updated in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param step The number of updates made so far, including this one.
+     * @param weights Whether the parameters are weights ({@code true}) or
+     *                biases ({@code false}).
+     */
+    void update(double[] parameters, double[] gradients, double[][] moments,
+                int from, int to, int step, boolean weights);
+
+    /** Getter method for the learning rate.
+     *
+     * @return The learning rate.
+     */
+    double getLearningRate();
+
+    /** Setter method for the learning rate.
+     *
+     * @param learningRate The new learning rate.
+     */
+    void setLearningRate(double learningRate);
+}
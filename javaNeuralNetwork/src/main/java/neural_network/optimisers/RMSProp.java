@@ -0,0 +1,89 @@
+package neural_network.optimisers;
+
+import static java.lang.Math.sqrt;
+
+/** Class to represent RMSProp, which scales the learning rate of each
+ * parameter by a running average of its squared gradients,
+ * {@code s = rho * s + (1 - rho) * g^2} and
+ * {@code p -= learningRate * g / (sqrt(s) + epsilon)}.
+ *
+ */
+public final class RMSProp implements Optimiser {
+
+    private double learningRate;
+    private final double rho;
+    private final double epsilon;
+
+    /** Constructor method.
+     *
+     * @param learningRate The learning rate.
+     * @param rho The decay of the running average, in {@code [0, 1)}.
+     * @param epsilon The constant added to the denominator for stability.
+     */
+    public RMSProp(double learningRate, double rho, double epsilon) {
+        setLearningRate(learningRate);
+        this.rho = Hyperparameters.checkFraction("rho", rho);
+        this.epsilon = Hyperparameters.checkPositive("epsilon", epsilon);
+    }
+
+    /** Constructor method with the usual defaults ({@code rho = 0.9} and
+     * {@code epsilon = 1e-8}).
+     *
+     * @param learningRate The learning rate.
+     */
+    public RMSProp(double learningRate) {
+        this(learningRate, 0.9, 1e-8);
+    }
+
+    /** The number of arrays of state needed for each array of parameters.
+     *
+     * @return The number of moments (the running averages of the squared gradients).
+     */
+    @Override
+    public int getNumMoments() {
+        return 1;
+    }
+
+    /** Updates the parameters from {@code from} (inclusive) to {@code to}
+     * (exclusive) using their average gradients.
+     *
+     * @param parameters The parameters, which are updated in place.
+     * @param gradients The average gradients of the loss with respect to
+     *                  each parameter.
+     * @param moments The running averages of the squared gradients, which are updated in place.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param step The number of updates made so far, including this one.
+     * @param weights Whether the parameters are weights ({@code true}) or
+     *                biases ({@code false}).
+     */
+    @Override
+    public void update(double[] parameters, double[] gradients, double[][] moments,
+                       int from, int to, int step, boolean weights) {
+        double[] squares = moments[0];
+        for (int j = from; j < to; j ++) {
+            double g = gradients[j];
+            squares[j] = rho * squares[j] + (1 - rho) * g * g;
+            parameters[j] -= learningRate * g / (sqrt(squares[j]) + epsilon);
+        }
+    }
+
+    /** Getter method for {@code learningRate}.
+     *
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    /** Setter method for {@code learningRate}.
+     *
+     * @param learningRate The new learning rate.
+     * @throws IllegalArgumentException If the {@code learningRate} is not positive.
+     */
+    @Override
+    public void setLearningRate(double learningRate) {
+        this.learningRate = Hyperparameters.checkPositive("learningRate", learningRate);
+    }
+}
@@ -0,0 +1,84 @@
+package neural_network.optimisers;
+
+/** Class to represent a schedule which multiplies the learning rate by
+ * {@code factor} whenever the loss (usually the validation loss) has not
+ * improved by more than {@code minDelta} for {@code patience} epochs, down to
+ * {@code minLearningRate}.
+ *
+ */
+public final class ReduceOnPlateau implements LearningRateSchedule {
+
+    private final double factor;
+    private final int patience;
+    private final double minDelta;
+    private final double minLearningRate;
+    private double scale = 1.0;
+    private double bestLoss = Double.POSITIVE_INFINITY;
+    private int epochsWithoutImprovement = 0;
+
+    /** Constructor method.
+     *
+     * @param factor The factor by which the learning rate is multiplied, in {@code (0, 1)}.
+     * @param patience The number of epochs without improvement before reducing.
+     * @param minDelta The amount by which the loss must fall to count as an improvement.
+     * @param minLearningRate The smallest learning rate.
+     */
+    public ReduceOnPlateau(double factor, int patience, double minDelta, double minLearningRate) {
+        if (patience < 1) {
+            throw new IllegalArgumentException("patience must be positive (%d)"
+                    .formatted(patience));
+        }
+        if (minDelta < 0.0 || minLearningRate < 0.0) {
+            throw new IllegalArgumentException(
+                    "minDelta and minLearningRate must not be negative " +
+                    "(minDelta = %f, minLearningRate = %f)".formatted(minDelta, minLearningRate));
+        }
+        this.factor = Hyperparameters.checkPositive("factor",
+                Hyperparameters.checkFraction("factor", factor));
+        this.patience = patience;
+        this.minDelta = minDelta;
+        this.minLearningRate = minLearningRate;
+    }
+
+    /** Constructor method with the usual defaults ({@code minDelta = 0} and
+     * {@code minLearningRate = 0}).
+     *
+     * @param factor The factor by which the learning rate is multiplied, in {@code (0, 1)}.
+     * @param patience The number of epochs without improvement before reducing.
+     */
+    public ReduceOnPlateau(double factor, int patience) {
+        this(factor, patience, 0.0, 0.0);
+    }
+
+    /** The learning rate for the next batch, which is the base learning rate
+     * reduced once for each plateau so far.
+     *
+     * @param baseLearningRate The learning rate before any scheduling.
+     * @param epoch The current epoch (from 0).
+     * @param step The number of batches trained so far, over all epochs.
+     * @param stepsPerEpoch The number of batches in each epoch.
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate(double baseLearningRate, int epoch, int step,
+                                  int stepsPerEpoch) {
+        return Math.max(minLearningRate, baseLearningRate * scale);
+    }
+
+    /** Reduces the learning rate if the loss has not improved for
+     * {@code patience} epochs.
+     *
+     * @param epoch The epoch which has just finished (from 0).
+     * @param loss The loss of that epoch.
+     */
+    @Override
+    public void observe(int epoch, double loss) {
+        if (loss < bestLoss - minDelta) {
+            bestLoss = loss;
+            epochsWithoutImprovement = 0;
+        } else if (++ epochsWithoutImprovement >= patience) {
+            scale *= factor;
+            epochsWithoutImprovement = 0;
+        }
+    }
+}
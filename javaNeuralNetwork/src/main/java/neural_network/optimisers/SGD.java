@@ -0,0 +1,67 @@
+package neural_network.optimisers;
+
+/** Class to represent plain stochastic gradient descent,
+ * {@code p -= learningRate * g}.
+ *
+ */
+public final class SGD implements Optimiser {
+
+    private double learningRate;
+
+    /** Constructor method.
+     *
+     * @param learningRate The learning rate.
+     */
+    public SGD(double learningRate) {
+        setLearningRate(learningRate);
+    }
+
+    /** The number of arrays of state needed for each array of parameters.
+     *
+     * @return The number of moments (zero, as there is no state).
+     */
+    @Override
+    public int getNumMoments() {
+        return 0;
+    }
+
+    /** Updates the parameters from {@code from} (inclusive) to {@code to}
+     * (exclusive) using their average gradients.
+     *
+     * @param parameters The parameters, which are updated in place.
+     * @param gradients The average gradients of the loss with respect to
+     *                  each parameter.
+     * @param moments Unused, as there is no state.
+     * @param from The start of the range (inclusive).
+     * @param to The end of the range (exclusive).
+     * @param step The number of updates made so far, including this one.
+     * @param weights Whether the parameters are weights ({@code true}) or
+     *                biases ({@code false}).
+     */
+    @Override
+    public void update(double[] parameters, double[] gradients, double[][] moments,
+                       int from, int to, int step, boolean weights) {
+        for (int j = from; j < to; j ++) {
+            parameters[j] -= learningRate * gradients[j];
+        }
+    }
+
+    /** Getter method for {@code learningRate}.
+     *
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    /** Setter method for {@code learningRate}.
+     *
+     * @param learningRate The new learning rate.
+     * @throws IllegalArgumentException If the {@code learningRate} is not positive.
+     */
+    @Override
+    public void setLearningRate(double learningRate) {
+        this.learningRate = Hyperparameters.checkPositive("learningRate", learningRate);
+    }
+}
@@ -0,0 +1,42 @@
+package neural_network.optimisers;
+
+import static java.lang.Math.pow;
+
+/** Class to represent step decay, which multiplies the learning rate by
+ * {@code factor} every {@code stepSize} epochs.
+ *
+ */
+public final class StepDecay implements LearningRateSchedule {
+
+    private final int stepSize;
+    private final double factor;
+
+    /** Constructor method.
+     *
+     * @param stepSize The number of epochs between each decay.
+     * @param factor The factor by which the learning rate is multiplied, in {@code (0, 1)}.
+     */
+    public StepDecay(int stepSize, double factor) {
+        if (stepSize < 1) {
+            throw new IllegalArgumentException("stepSize must be positive (%d)"
+                    .formatted(stepSize));
+        }
+        this.stepSize = stepSize;
+        this.factor = Hyperparameters.checkPositive("factor",
+                Hyperparameters.checkFraction("factor", factor));
+    }
+
+    /** The learning rate for the next batch, {@code base * factor^(epoch / stepSize)}.
+     *
+     * @param baseLearningRate The learning rate before any scheduling.
+     * @param epoch The current epoch (from 0).
+     * @param step The number of batches trained so far, over all epochs.
+     * @param stepsPerEpoch The number of batches in each epoch.
+     * @return The learning rate.
+     */
+    @Override
+    public double getLearningRate(double baseLearningRate, int epoch, int step,
+                                  int stepsPerEpoch) {
+        return baseLearningRate * pow(factor, epoch / stepSize);
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * The {@code optimisers} package contains the update rules used to perform
+ * gradient descent on the weights and biases of a neural network.
+ * <p>
+ * Each {@code Optimiser} is stateless itself. Any state it needs (such as the
+ * first and second moments of {@code Adam}) is held in primitive arrays owned
+ * by each {@code Layer}, parallel to its weights and biases. The learning rate
+ * can also be changed over training by a {@code LearningRateSchedule}.
+ * </p>
+ *
+ * @since 1.0.0
+ * @author mghosh00
+ * @version 1.0.0
+ */
+package neural_network.optimisers;
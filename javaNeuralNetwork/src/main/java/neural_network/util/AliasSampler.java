@@ -0,0 +1,120 @@
+package neural_network.util;
+
+import java.util.random.RandomGenerator;
+
+/** Class to sample indices {@code 0, ..., n - 1} with given weights in
+ * constant time per draw, using Vose's alias method. The weights are split
+ * into {@code n} columns of equal height, each holding (part of) its own
+ * index and the rest of one other index (its alias). A draw picks a column
+ * uniformly, then its own index or its alias with the probability stored
+ * for the column.
+ *
+ */
+public final class AliasSampler {
+
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /** Constructor method, building the alias tables in linear time.
+     *
+     * @param weights The (unnormalised) weight of each index.
+     * @throws IllegalArgumentException If there are no weights, if any weight
+     * is negative or not finite, or if all the weights are zero.
+     */
+    public AliasSampler(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("weights must not be empty");
+        }
+        double total = 0.0;
+        for (int i = 0; i < n; i ++) {
+            if (! (weights[i] >= 0.0) || Double.isInfinite(weights[i])) {
+                throw new IllegalArgumentException(
+                        "weights must be finite and non-negative (weights[%d] = %s)"
+                                .formatted(i, weights[i]));
+            }
+            total += weights[i];
+        }
+        if (total == 0.0) {
+            throw new IllegalArgumentException("weights must not all be zero");
+        }
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+
+        // Scale the weights so that their mean is one, then sort the columns
+        // into those below (small) and above (large) the mean, as stacks
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < n; i ++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[numSmall ++] = i;
+            } else {
+                large[numLarge ++] = i;
+            }
+        }
+
+        // Top up each small column with part of a large one
+        while (numSmall > 0 && numLarge > 0) {
+            int less = small[-- numSmall];
+            int more = large[-- numLarge];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[numSmall ++] = more;
+            } else {
+                large[numLarge ++] = more;
+            }
+        }
+
+        // Whatever is left is full, up to rounding errors
+        while (numLarge > 0) {
+            int more = large[-- numLarge];
+            probabilities[more] = 1.0;
+            aliases[more] = more;
+        }
+        while (numSmall > 0) {
+            int less = small[-- numSmall];
+            probabilities[less] = 1.0;
+            aliases[less] = less;
+        }
+    }
+
+    /** Draws one index.
+     *
+     * @param random The random numbers to draw with.
+     * @return The index, with probability proportional to its weight.
+     */
+    public int sample(RandomGenerator random) {
+        int column = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[column] ? column : aliases[column];
+    }
+
+    /** The number of indices.
+     *
+     * @return The number of weights.
+     */
+    public int size() {
+        return probabilities.length;
+    }
+
+    /** The probability of drawing an index. Mainly for testing purposes.
+     *
+     * @param index The index.
+     * @return The probability of drawing {@code index}.
+     */
+    double getProbability(int index) {
+        int n = probabilities.length;
+        double probability = probabilities[index];
+        for (int column = 0; column < n; column ++) {
+            if (aliases[column] == index && column != index) {
+                probability += 1.0 - probabilities[column];
+            }
+        }
+        return probability / n;
+    }
+}
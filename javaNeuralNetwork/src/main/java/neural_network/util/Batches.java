@@ -0,0 +1,125 @@
+package neural_network.util;
+
+/** Class to hand out the batches of one epoch as ranges of an array of
+ * datapoint ids, without boxing the ids or creating a list per batch. The
+ * batches are the consecutive ranges of {@code setSize} ids (the last one
+ * may be shorter). A {@code Partitioner} reuses one {@code Batches} (and one
+ * array of ids) for every epoch.
+ * <p>
+ * It is used like an iterator:
+ * </p>
+ * <pre>{@code
+ * Batches batches = partitioner.shuffle();
+ * while (batches.next()) {
+ *     int[] ids = batches.getIds();
+ *     for (int i = batches.getOffset(); i < batches.getOffset() + batches.getLength(); i ++) {
+ *         ... ids[i] ...
+ *     }
+ * }
+ * }</pre>
+ *
+ */
+public final class Batches {
+
+    private final int[] ids;
+    private final int setSize;
+    private final int numBatches;
+    private int batch = -1;
+
+    /** Constructor method.
+     *
+     * @param ids The ids of the datapoints, in the order of the batches. These
+     *            are not copied.
+     * @param setSize The size of each batch.
+     * @throws IllegalArgumentException If {@code setSize} is not positive.
+     */
+    public Batches(int[] ids, int setSize) {
+        if (setSize <= 0) {
+            throw new IllegalArgumentException(
+                    "setSize (%d) must be a positive integer.".formatted(setSize));
+        }
+        this.ids = ids;
+        this.setSize = setSize;
+        this.numBatches = (ids.length + setSize - 1) / setSize;
+    }
+
+    /** Moves on to the next batch.
+     *
+     * @return {@code true} if there is a next batch, {@code false} if all the
+     * batches have been handed out.
+     */
+    public boolean next() {
+        if (batch + 1 >= numBatches) {
+            batch = numBatches;
+            return false;
+        }
+        batch ++;
+        return true;
+    }
+
+    /** Goes back to before the first batch.
+     *
+     */
+    public void reset() {
+        batch = -1;
+    }
+
+    /** Getter method for {@code ids}.
+     *
+     * @return The ids of the datapoints, in the order of the batches.
+     */
+    public int[] getIds() {
+        return ids;
+    }
+
+    /** Getter method for {@code numBatches}.
+     *
+     * @return The number of batches.
+     */
+    public int getNumBatches() {
+        return numBatches;
+    }
+
+    /** The index in {@code ids} of the first datapoint of the current batch.
+     *
+     * @return The offset of the current batch.
+     */
+    public int getOffset() {
+        return getOffset(batch);
+    }
+
+    /** The number of datapoints in the current batch.
+     *
+     * @return The length of the current batch.
+     */
+    public int getLength() {
+        return getLength(batch);
+    }
+
+    /** The index in {@code ids} of the first datapoint of a batch. Unlike
+     * {@code next}, this can be called from several threads at once.
+     *
+     * @param batch The index of the batch.
+     * @return The offset of the batch.
+     * @throws IndexOutOfBoundsException If there is no such batch.
+     */
+    public int getOffset(int batch) {
+        if (batch < 0 || batch >= numBatches) {
+            throw new IndexOutOfBoundsException(
+                    "No batch %d of %d".formatted(batch, numBatches));
+        }
+        return batch * setSize;
+    }
+
+    /** The number of datapoints in a batch. Unlike {@code next}, this can be
+     * called from several threads at once.
+     *
+     * @param batch The index of the batch.
+     * @return The length of the batch.
+     * @throws IndexOutOfBoundsException If there is no such batch.
+     */
+    public int getLength(int batch) {
+        int offset = getOffset(batch);
+        return Math.min(setSize, ids.length - offset);
+    }
+}
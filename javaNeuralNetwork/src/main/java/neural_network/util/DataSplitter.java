@@ -3,6 +3,7 @@ package neural_network.util;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
 
+import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
@@ -85,10 +86,137 @@ public class DataSplitter {
         df.putAll(csvToMap());
 
         int n = df.get(Header.Y).size();
-        int propTotal = proportions.stream().mapToInt(Integer::intValue).sum();
-        List<Integer> splits = new ArrayList<>(List.of(0));
+        List<Integer> splits = getSplits(n);
         List<NavigableMap<Header, List<String>>> dfs = new ArrayList<>();
+        for (int i = 0; i < splits.size() - 1; i ++) {
+            // The below delegates the task of getting the subset of df to another
+            // method, getSubDf
+            dfs.add(getSubDf(splits.get(i), splits.get(i + 1)));
+        }
+        return dfs;
+    }
+
+    /** Splits the data into train:valid:test like {@code split}, but reads the
+     * .csv file straight into a primitive {@code Dataset}, without building a
+     * dataframe of {@code Strings}. The returned {@code Datasets} are slices of
+     * one {@code Dataset}, so no data is copied, and they share the same
+     * category names.
+     *
+     * @param regression Whether the last column holds values (regression) or
+     *                   categories (classification).
+     * @return A list containing the training, validation and testing
+     *         {@code Datasets} or fewer, if fewer proportions have been passed.
+     * @throws RuntimeException If the path cannot be found or if the .csv file
+     * is not of the correct format.
+     */
+    public List<Dataset> splitDataset(boolean regression) {
+        Dataset dataset = csvToDataset(regression);
+        List<Integer> splits = getSplits(dataset.size());
+        List<Dataset> datasets = new ArrayList<>();
+        for (int i = 0; i < splits.size() - 1; i ++) {
+            datasets.add(dataset.slice(splits.get(i), splits.get(i + 1)));
+        }
+        return datasets;
+    }
 
+    /** Opens the .csv file to be read in chunks of up to {@code chunkSize}
+     * datapoints, with each chunk split into train:valid:test as it is read
+     * (see {@code DatasetChunkReader}). Unlike {@code split} and
+     * {@code splitDataset}, this never holds the whole file in memory.
+     *
+     * @param regression Whether the last column holds values (regression) or
+     *                   categories (classification).
+     * @param categoryNames The category names (ignored for regression).
+     * @param chunkSize The maximum number of datapoints in each chunk.
+     * @return The {@code DatasetChunkReader}, which must be closed by the caller.
+     * @throws RuntimeException If the path cannot be found or if the .csv file
+     * is not of the correct format.
+     */
+    public DatasetChunkReader readChunks(boolean regression, List<String> categoryNames,
+                                         int chunkSize) {
+        if (csvFormat == null) {
+            csvFormat = CSVFormat.DEFAULT.builder()
+                    .build();
+        }
+        try {
+            return new DatasetChunkReader(new BufferedReader(new FileReader(path)), csvFormat,
+                    regression, categoryNames, proportions, chunkSize);
+        } catch (IOException e) {
+            throw new RuntimeException("Path %s is invalid.".formatted(path));
+        }
+    }
+
+    /** Reads the .csv file with data straight into primitive arrays.
+     *
+     * @param regression Whether the last column holds values (regression) or
+     *                   categories (classification).
+     * @return The {@code Dataset}.
+     * @throws RuntimeException If the path cannot be found or if the .csv file
+     * is not of the correct format.
+     */
+    Dataset csvToDataset(boolean regression) {
+        try (Reader in = new FileReader(path)) {
+            if (csvFormat == null) {
+                csvFormat = CSVFormat.DEFAULT.builder()
+                        .build();
+            }
+            // The first record holds the headers
+            Iterator<CSVRecord> records = csvFormat.parse(in).iterator();
+            int dimensions = records.next().size() - 1;
+            Header.setDimensions(dimensions);
+
+            // The arrays grow as the records are read. Categories are numbered
+            // in the order they are first seen, and sorted at the end
+            double[] features = new double[1024 * dimensions];
+            double[] targets = new double[1024];
+            Map<String, Integer> categories = new HashMap<>();
+            int n = 0;
+            while (records.hasNext()) {
+                CSVRecord record = records.next();
+                if (n == targets.length) {
+                    features = Arrays.copyOf(features, 2 * features.length);
+                    targets = Arrays.copyOf(targets, 2 * targets.length);
+                }
+                for (int i = 0; i < dimensions; i ++) {
+                    features[n * dimensions + i] = Double.parseDouble(record.get(i));
+                }
+                String y = record.get(dimensions);
+                targets[n] = (regression) ? Double.parseDouble(y)
+                        : categories.computeIfAbsent(y, k -> categories.size());
+                n ++;
+            }
+            features = Arrays.copyOf(features, n * dimensions);
+            targets = Arrays.copyOf(targets, n);
+            if (regression) {
+                return Dataset.regression(features, targets, dimensions);
+            }
+
+            // Relabel the categories in sorted order
+            List<String> categoryNames = new ArrayList<>(new TreeSet<>(categories.keySet()));
+            int[] relabel = new int[categoryNames.size()];
+            for (int c = 0; c < categoryNames.size(); c ++) {
+                relabel[categories.get(categoryNames.get(c))] = c;
+            }
+            int[] labels = new int[n];
+            for (int i = 0; i < n; i ++) {
+                labels[i] = relabel[(int) targets[i]];
+            }
+            return Dataset.classification(features, labels, dimensions, categoryNames);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Path %s is invalid.".formatted(path));
+        }
+    }
+
+    /** Finds the indices at which to split {@code n} datapoints according to
+     * the {@code proportions}.
+     *
+     * @param n The number of datapoints.
+     * @return The split indices, starting with 0 and ending with {@code n}.
+     */
+    List<Integer> getSplits(int n) {
+        int propTotal = proportions.stream().mapToInt(Integer::intValue).sum();
+        List<Integer> splits = new ArrayList<>(List.of(0));
         for (int i = 0; i < proportions.size() - 1; i ++) {
             // Gets the length of this dataframe based on the proportions
             int lenNewDf = (int) (n * ((double) proportions.get(i) / propTotal));
@@ -97,15 +225,9 @@ public class DataSplitter {
                 lenNewDf = 1;
             }
             splits.add(splits.stream().mapToInt(Integer::intValue).sum() + lenNewDf);
-
-            // The below delegates the task of getting the subset of df to another
-            // method, getSubDf
-            dfs.add(getSubDf(splits.get(i), splits.get(i + 1)));
         }
-        int finalSplit = splits.get(splits.size() - 1);
-        dfs.add(getSubDf(finalSplit, n));
-
-        return dfs;
+        splits.add(n);
+        return splits;
     }
 
     /** Returns a subset of the dataframe {@code df} from entry {@code fromIndex}
@@ -0,0 +1,342 @@
+package neural_network.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/** Class to represent a dataset of numerical datapoints, stored in primitive
+ * arrays rather than a dataframe of {@code Strings}.
+ * <p>
+ * The features are held in a single row-major {@code double[]} (one row per
+ * datapoint), with the true value of each datapoint in a {@code double[]} of
+ * targets. For classification, the targets are the indices of the categories
+ * in {@code categoryNames}, which are also available as an {@code int[]} of
+ * labels. This takes 8 bytes per feature, compared with a boxed {@code Double}
+ * or {@code String} per cell in a dataframe.
+ * </p>
+ * <p>
+ * Rows, columns and slices of a {@code Dataset} are views over the same arrays,
+ * so no data is copied when a {@code Dataset} is split.
+ * </p>
+ *
+ */
+public final class Dataset {
+
+    private final int dimensions;
+    private final double[] features;
+    private final double[] targets;
+    private final int[] labels;
+    private final List<String> categoryNames;
+
+    // The rows of the arrays covered by this Dataset (for slices)
+    private final int start;
+    private final int size;
+
+    /** Constructor method.
+     *
+     * @param dimensions The number of features per datapoint.
+     * @param features The features in row-major order.
+     * @param targets The true values (or category indices) of the datapoints.
+     * @param labels The category indices of the datapoints ({@code null} for
+     *               regression).
+     * @param categoryNames The category names (empty for regression).
+     * @param start The first row of the arrays in this {@code Dataset}.
+     * @param size The number of rows in this {@code Dataset}.
+     */
+    private Dataset(int dimensions, double[] features, double[] targets, int[] labels,
+                    List<String> categoryNames, int start, int size) {
+        this.dimensions = dimensions;
+        this.features = features;
+        this.targets = targets;
+        this.labels = labels;
+        this.categoryNames = categoryNames;
+        this.start = start;
+        this.size = size;
+    }
+
+    /** Creates a regression {@code Dataset}. The arrays are not copied.
+     *
+     * @param features The features in row-major order.
+     * @param targets The true values of the datapoints.
+     * @param dimensions The number of features per datapoint.
+     * @return The {@code Dataset}.
+     */
+    public static Dataset regression(double[] features, double[] targets, int dimensions) {
+        checkShape(features.length, targets.length, dimensions);
+        return new Dataset(dimensions, features, targets, null, List.of(), 0, targets.length);
+    }
+
+    /** Creates a classification {@code Dataset}. The arrays are not copied.
+     *
+     * @param features The features in row-major order.
+     * @param labels The indices of the categories of the datapoints.
+     * @param dimensions The number of features per datapoint.
+     * @param categoryNames The category names.
+     * @return The {@code Dataset}.
+     */
+    public static Dataset classification(double[] features, int[] labels, int dimensions,
+                                         List<String> categoryNames) {
+        checkShape(features.length, labels.length, dimensions);
+        double[] targets = new double[labels.length];
+        for (int i = 0; i < labels.length; i ++) {
+            if (labels[i] < 0 || labels[i] >= categoryNames.size()) {
+                throw new IllegalArgumentException(
+                        "Label %d of datapoint %d does not match any category"
+                                .formatted(labels[i], i));
+            }
+            targets[i] = labels[i];
+        }
+        return new Dataset(dimensions, features, targets, labels,
+                List.copyOf(categoryNames), 0, labels.length);
+    }
+
+    /** Creates a {@code Dataset} from a dataframe (as read by the
+     * {@code DataSplitter}), parsing every cell. For classification, the
+     * categories are sorted and numbered from 0.
+     *
+     * @param df The dataframe, with columns {@code X_1, X_2, ..., Y}.
+     * @param regression Whether the {@code Y} column holds values (regression)
+     *                   or categories (classification).
+     * @return The {@code Dataset}.
+     */
+    public static Dataset fromDataframe(NavigableMap<Header, List<String>> df,
+                                        boolean regression) {
+        List<Header> featureHeaders = new ArrayList<>(df.keySet());
+        featureHeaders.remove(Header.Y);
+        featureHeaders.remove(Header.Y_HAT);
+        int dimensions = featureHeaders.size();
+        List<String> yColumn = df.get(Header.Y);
+        int numDatapoints = yColumn.size();
+
+        double[] features = new double[numDatapoints * dimensions];
+        for (int c = 0; c < dimensions; c ++) {
+            List<String> column = df.get(featureHeaders.get(c));
+            for (int i = 0; i < numDatapoints; i ++) {
+                features[i * dimensions + c] = Double.parseDouble(column.get(i));
+            }
+        }
+        if (regression) {
+            double[] targets = new double[numDatapoints];
+            for (int i = 0; i < numDatapoints; i ++) {
+                targets[i] = Double.parseDouble(yColumn.get(i));
+            }
+            return regression(features, targets, dimensions);
+        }
+        List<String> categoryNames = new ArrayList<>(new TreeSet<>(yColumn));
+        int[] labels = new int[numDatapoints];
+        for (int i = 0; i < numDatapoints; i ++) {
+            labels[i] = categoryNames.indexOf(yColumn.get(i));
+        }
+        return classification(features, labels, dimensions, categoryNames);
+    }
+
+    /** Checks that the array lengths match the number of datapoints.
+     *
+     * @param numFeatures The length of the features array.
+     * @param numDatapoints The number of datapoints.
+     * @param dimensions The number of features per datapoint.
+     */
+    private static void checkShape(int numFeatures, int numDatapoints, int dimensions) {
+        if (dimensions < 1 || numFeatures != numDatapoints * dimensions) {
+            throw new IllegalArgumentException(
+                    "features must have dimensions (%d) values for each of the %d datapoints (%d)"
+                            .formatted(dimensions, numDatapoints, numFeatures));
+        }
+    }
+
+    /** The number of datapoints.
+     *
+     * @return The number of datapoints in the {@code Dataset}.
+     */
+    public int size() {
+        return size;
+    }
+
+    /** Getter method for {@code dimensions}.
+     *
+     * @return The number of features per datapoint.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /** Whether this is a regression {@code Dataset}.
+     *
+     * @return {@code true} for regression, {@code false} for classification.
+     */
+    public boolean isRegression() {
+        return labels == null;
+    }
+
+    /** Getter method for {@code categoryNames}.
+     *
+     * @return The category names (empty for regression).
+     */
+    public List<String> getCategoryNames() {
+        return categoryNames;
+    }
+
+    /** Gets one feature of one datapoint.
+     *
+     * @param row The index of the datapoint.
+     * @param column The index of the feature.
+     * @return The feature.
+     */
+    public double get(int row, int column) {
+        checkRow(row);
+        if (column < 0 || column >= dimensions) {
+            throw new IndexOutOfBoundsException("Column %d out of bounds for %d features"
+                    .formatted(column, dimensions));
+        }
+        return features[(start + row) * dimensions + column];
+    }
+
+    /** Gets the true value (or category index) of one datapoint.
+     *
+     * @param row The index of the datapoint.
+     * @return The target.
+     */
+    public double getTarget(int row) {
+        checkRow(row);
+        return targets[start + row];
+    }
+
+    /** Gets the category index of one datapoint (classification only).
+     *
+     * @param row The index of the datapoint.
+     * @return The label.
+     * @throws UnsupportedOperationException If this is a regression {@code Dataset}.
+     */
+    public int getLabel(int row) {
+        if (labels == null) {
+            throw new UnsupportedOperationException("A regression Dataset has no labels");
+        }
+        checkRow(row);
+        return labels[start + row];
+    }
+
+    /** Copies the features of one datapoint into {@code dest}.
+     *
+     * @param row The index of the datapoint.
+     * @param dest The array to copy into.
+     * @param destOffset The index in {@code dest} to copy the first feature to.
+     */
+    public void copyRow(int row, double[] dest, int destOffset) {
+        checkRow(row);
+        System.arraycopy(features, (start + row) * dimensions, dest, destOffset, dimensions);
+    }
+
+    /** A read-only view of the features of one datapoint.
+     *
+     * @param row The index of the datapoint.
+     * @return The features, without copying.
+     */
+    public List<Double> row(int row) {
+        checkRow(row);
+        return new ArrayView(features, (start + row) * dimensions, 1, dimensions);
+    }
+
+    /** A read-only view of one feature of every datapoint.
+     *
+     * @param column The index of the feature.
+     * @return The column, without copying.
+     */
+    public List<Double> column(int column) {
+        if (column < 0 || column >= dimensions) {
+            throw new IndexOutOfBoundsException("Column %d out of bounds for %d features"
+                    .formatted(column, dimensions));
+        }
+        return new ArrayView(features, start * dimensions + column, dimensions, size);
+    }
+
+    /** A read-only view of the targets of every datapoint.
+     *
+     * @return The targets, without copying.
+     */
+    public List<Double> targets() {
+        return new ArrayView(targets, start, 1, size);
+    }
+
+    /** A view of the datapoints from {@code fromRow} (inclusive) to
+     * {@code toRow} (exclusive), sharing the same arrays.
+     *
+     * @param fromRow The first datapoint (inclusive).
+     * @param toRow The last datapoint (exclusive).
+     * @return The slice, without copying.
+     */
+    public Dataset slice(int fromRow, int toRow) {
+        if (fromRow < 0 || toRow > size || fromRow > toRow) {
+            throw new IndexOutOfBoundsException("Slice [%d, %d) out of bounds for %d datapoints"
+                    .formatted(fromRow, toRow, size));
+        }
+        return new Dataset(dimensions, features, targets, labels, categoryNames,
+                start + fromRow, toRow - fromRow);
+    }
+
+    /** Converts the {@code Dataset} to a dataframe of {@code Strings}, for
+     * example for plotting. Note that this copies every cell.
+     *
+     * @return The dataframe, with columns {@code X_1, X_2, ..., Y}.
+     */
+    public NavigableMap<Header, List<String>> toDataframe() {
+        NavigableMap<Header, List<String>> df = new TreeMap<>();
+        Header[] headers = Header.values();
+        for (int c = 0; c < dimensions; c ++) {
+            df.put(headers[c], column(c).stream().map(String::valueOf).toList());
+        }
+        List<String> yColumn = new ArrayList<>(size);
+        for (int i = 0; i < size; i ++) {
+            yColumn.add(isRegression() ? String.valueOf(targets[start + i])
+                    : categoryNames.get(labels[start + i]));
+        }
+        df.put(Header.Y, yColumn);
+        return df;
+    }
+
+    /** Checks that a row is within this {@code Dataset}.
+     *
+     * @param row The index of the datapoint.
+     */
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row %d out of bounds for %d datapoints"
+                    .formatted(row, size));
+        }
+    }
+
+    /** A read-only {@code List} view over evenly spaced elements of an array.
+     *
+     */
+    private static final class ArrayView extends AbstractList<Double> implements RandomAccess {
+
+        private final double[] array;
+        private final int offset;
+        private final int stride;
+        private final int length;
+
+        private ArrayView(double[] array, int offset, int stride, int length) {
+            this.array = array;
+            this.offset = offset;
+            this.stride = stride;
+            this.length = length;
+        }
+
+        @Override
+        public Double get(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index %d out of bounds for length %d"
+                        .formatted(index, length));
+            }
+            return array[offset + index * stride];
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package neural_network.util;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/** Class to read a .csv file of data in chunks, straight into primitive
+ * {@code Datasets}, so that the whole file never needs to be held in memory.
+ * <p>
+ * Each call to {@code next} reads up to {@code chunkSize} datapoints and splits
+ * them into training, validation and testing {@code Datasets} as they are read.
+ * As the number of datapoints in the file is not known in advance, the split is
+ * interleaved rather than contiguous: with proportions 8:1:1, the datapoints
+ * 0-7 go to training, 8 to validation, 9 to testing, 10-17 to training and so on.
+ * </p>
+ * <p>
+ * For classification, the category names must be given in advance, so that the
+ * labels of every chunk refer to the same categories.
+ * </p>
+ *
+ */
+public final class DatasetChunkReader implements Iterator<List<Dataset>>, Closeable {
+
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> records;
+    private final boolean regression;
+    private final List<String> categoryNames;
+    private final Map<String, Integer> categories = new HashMap<>();
+    private final int numSplits;
+    private final int[] splitPattern;
+    private final int chunkSize;
+    private final int dimensions;
+    private long numRead = 0;
+
+    /** Constructor method. The first record of the .csv file holds the headers.
+     *
+     * @param in The reader of the .csv file (closed by {@code close}).
+     * @param csvFormat The format of the .csv file.
+     * @param regression Whether the last column holds values (regression) or
+     *                   categories (classification).
+     * @param categoryNames The category names (ignored for regression).
+     * @param proportions The proportions in the sequence training:validation:testing.
+     * @param chunkSize The maximum number of datapoints read by each call to {@code next}.
+     * @throws IOException If an IO error occurs.
+     */
+    DatasetChunkReader(Reader in, CSVFormat csvFormat, boolean regression,
+                       List<String> categoryNames, List<Integer> proportions,
+                       int chunkSize) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive (%d)"
+                    .formatted(chunkSize));
+        }
+        if (! regression && (categoryNames == null || categoryNames.isEmpty())) {
+            throw new IllegalArgumentException("categoryNames must be given to read " +
+                    "classification data in chunks");
+        }
+        this.regression = regression;
+        this.categoryNames = (regression) ? List.of() : List.copyOf(categoryNames);
+        for (int c = 0; c < this.categoryNames.size(); c ++) {
+            categories.put(this.categoryNames.get(c), c);
+        }
+        this.chunkSize = chunkSize;
+
+        // splitPattern.get(i % propTotal) is the split of datapoint i
+        this.numSplits = proportions.size();
+        int propTotal = proportions.stream().mapToInt(Integer::intValue).sum();
+        this.splitPattern = new int[propTotal];
+        int index = 0;
+        for (int split = 0; split < numSplits; split ++) {
+            for (int j = 0; j < proportions.get(split); j ++) {
+                splitPattern[index ++] = split;
+            }
+        }
+
+        this.parser = csvFormat.parse(in);
+        this.records = parser.iterator();
+        if (! records.hasNext()) {
+            parser.close();
+            throw new IllegalArgumentException("The .csv file has no headers");
+        }
+        this.dimensions = records.next().size() - 1;
+        Header.setDimensions(dimensions);
+    }
+
+    /** Whether there are any more datapoints to read.
+     *
+     * @return {@code true} if {@code next} will return at least one datapoint.
+     */
+    @Override
+    public boolean hasNext() {
+        return records.hasNext();
+    }
+
+    /** Reads the next chunk of up to {@code chunkSize} datapoints.
+     *
+     * @return One {@code Dataset} per proportion, in the order
+     *         training, validation, testing (some of which may be empty).
+     * @throws NoSuchElementException If there are no more datapoints.
+     * @throws IllegalArgumentException If a category is not one of the
+     * {@code categoryNames}.
+     */
+    @Override
+    public List<Dataset> next() {
+        if (! hasNext()) {
+            throw new NoSuchElementException("No more datapoints in the .csv file");
+        }
+        // Fresh buffers for each chunk, as the Datasets of the previous chunk
+        // are views over the old ones
+        double[][] features = new double[numSplits][];
+        double[][] targets = new double[numSplits][];
+        int[][] labels = new int[numSplits][];
+        int[] sizes = new int[numSplits];
+        for (int split = 0; split < numSplits; split ++) {
+            int capacity = capacity(split);
+            features[split] = new double[capacity * dimensions];
+            targets[split] = new double[capacity];
+            labels[split] = new int[capacity];
+        }
+
+        for (int i = 0; i < chunkSize && records.hasNext(); i ++) {
+            CSVRecord record = records.next();
+            int split = splitPattern[(int) (numRead % splitPattern.length)];
+            int row = sizes[split] ++;
+            for (int c = 0; c < dimensions; c ++) {
+                features[split][row * dimensions + c] = Double.parseDouble(record.get(c));
+            }
+            String y = record.get(dimensions);
+            if (regression) {
+                targets[split][row] = Double.parseDouble(y);
+            } else {
+                Integer label = categories.get(y);
+                if (label == null) {
+                    throw new IllegalArgumentException(
+                            "Category %s of datapoint %d is not one of %s"
+                                    .formatted(y, numRead, categoryNames));
+                }
+                labels[split][row] = label;
+            }
+            numRead ++;
+        }
+
+        List<Dataset> datasets = new ArrayList<>();
+        for (int split = 0; split < numSplits; split ++) {
+            Dataset dataset = (regression)
+                    ? Dataset.regression(features[split], targets[split], dimensions)
+                    : Dataset.classification(features[split], labels[split], dimensions,
+                            categoryNames);
+            datasets.add(dataset.slice(0, sizes[split]));
+        }
+        return datasets;
+    }
+
+    /** The largest number of datapoints of one chunk which can go to a split.
+     *
+     * @param split The index of the split.
+     * @return The capacity of the buffers for the split.
+     */
+    private int capacity(int split) {
+        int perPattern = 0;
+        for (int s : splitPattern) {
+            if (s == split) {
+                perPattern ++;
+            }
+        }
+        long numPatterns = (chunkSize + splitPattern.length - 1) / splitPattern.length;
+        return (int) Math.min(chunkSize, numPatterns * perPattern);
+    }
+
+    /** Getter method for {@code dimensions}.
+     *
+     * @return The number of features per datapoint.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /** Getter method for {@code numRead}.
+     *
+     * @return The number of datapoints read so far.
+     */
+    public long getNumRead() {
+        return numRead;
+    }
+
+    /** Closes the .csv file.
+     *
+     * @throws IOException If an IO error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
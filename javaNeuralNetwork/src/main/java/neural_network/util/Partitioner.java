@@ -1,10 +1,8 @@
 package neural_network.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.IntStream;
 
 /** Class to randomly partition {@code numInts} integers into sets of size
  * {@code setSize}.
@@ -14,7 +12,13 @@ public class Partitioner {
 
     private final int numInts;
     private final int setSize;
-    private Random random = new Random();
+    private final long instance = RandomStreams.nextInstance("partitioner");
+    private int epoch = 0;
+    private Random override = null;
+    private Random random = null;
+    // Allocated by the first shuffle, then reused
+    private int[] ids = null;
+    private Batches batches = null;
 
     /** Constructor method.
      *
@@ -35,33 +39,84 @@ public class Partitioner {
         this.setSize = setSize;
     }
 
+    /** Shuffles the integers from {@code 0} to {@code numInts - 1} in place
+     * and hands out the sets as ranges of them. The same array of integers
+     * (and the same {@code Batches}) is reused for every call, so the
+     * {@code Batches} of the previous call must no longer be in use.
+     *
+     * @return The {@code Batches} of this call, before the first set.
+     */
+    public Batches shuffle() {
+        if (ids == null) {
+            ids = new int[numInts];
+            for (int i = 0; i < numInts; i ++) {
+                ids[i] = i;
+            }
+            batches = new Batches(ids, setSize);
+        }
+        nextEpoch();
+        fill(ids);
+        batches.reset();
+        return batches;
+    }
+
     /** Shuffles all integers from {@code 0} to {@code numInts - 1} and creates
-     * a partition of this list.
+     * a partition of this list. This boxes every integer, so {@code shuffle}
+     * should be preferred for large datasets.
      *
      * @return The partitioned list.
      */
     public List<List<Integer>> call() {
-        List<Integer> ints = new ArrayList<>(IntStream.range(0, numInts)
-                .boxed().toList());
-        Collections.shuffle(ints, random);
+        Batches batches = shuffle();
         List<List<Integer>> outputList = new ArrayList<>();
-        int numSets = (int) Math.ceil((double) numInts / setSize);
-        for (int i = 0; i < numSets - 1; i ++) {
-            outputList.add(ints.subList(i * setSize, (i + 1) * setSize));
+        while (batches.next()) {
+            List<Integer> set = new ArrayList<>(batches.getLength());
+            for (int i = batches.getOffset(); i < batches.getOffset() + batches.getLength(); i ++) {
+                set.add(ids[i]);
+            }
+            outputList.add(set);
         }
-        outputList.add(ints.subList((numSets - 1) * setSize, numInts));
         return outputList;
     }
 
-    /** Sets the new {@code random} for {@code Collections.shuffle}. To be
+    /** Fills {@code ids} with the integers for the next call, by shuffling
+     * them in place with the Fisher-Yates shuffle. This makes the same draws
+     * from {@code random}, in the same order, as {@code Collections.shuffle}.
+     *
+     * @param ids The integers of the previous call, to be overwritten.
+     */
+    protected void fill(int[] ids) {
+        for (int i = ids.length; i > 1; i --) {
+            int j = random.nextInt(i);
+            int tmp = ids[i - 1];
+            ids[i - 1] = ids[j];
+            ids[j] = tmp;
+        }
+    }
+
+    /** Sets the new {@code random} for the shuffles. To be
      * used for testing purposes.
      *
      * @param random The new random.
      */
     void setRandom(Random random) {
+        this.override = random;
         this.random = random;
     }
 
+    /** Moves on to the random numbers of the next call. Unless {@code random}
+     * has been set, each call has its own stream from {@code RandomStreams},
+     * keyed by this {@code Partitioner} and the number of previous calls.
+     *
+     */
+    private void nextEpoch() {
+        if (override == null) {
+            // Subclasses may draw from a Random, so it is seeded from the stream
+            random = new Random(RandomStreams.stream("partitioner", instance, epoch).nextLong());
+        }
+        epoch ++;
+    }
+
     /** Getter method for {@code numInts}. For subclasses.
      *
      * @return The number of integers.
@@ -80,7 +135,7 @@ public class Partitioner {
 
     /** Getter method for {@code random}. For subclasses.
      *
-     * @return The random instance.
+     * @return The random instance for the current call (see {@code nextEpoch}).
      */
     protected Random getRandom() {
         return random;
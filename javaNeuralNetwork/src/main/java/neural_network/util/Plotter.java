@@ -22,6 +22,15 @@ public class Plotter {
     private static XYChart chart = null;
     private static SwingWrapper<XYChart> wrappedChart = null;
 
+    /** Creates a scatter plot of the true classes/values of a {@code Dataset}.
+     *
+     * @param dataset The data to plot.
+     * @param title The title of the plot.
+     */
+    public static void datapointScatter(Dataset dataset, String title) throws IOException {
+        datapointScatter(dataset.toDataframe(), "true", title, dataset.isRegression());
+    }
+
     /** Creates a scatter plot of the predicted/true classes for a given set
      * of data.
      *
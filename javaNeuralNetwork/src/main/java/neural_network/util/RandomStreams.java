@@ -0,0 +1,97 @@
+package neural_network.util;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Class providing the random numbers for every component (the initial
+ * weights of a {@code Network}, the shuffles of a {@code Partitioner} and the
+ * datapoints of a {@code DataGenerator}) from one seed.
+ * <p>
+ * Rather than sharing one {@code java.util.Random} (whose seed is updated by
+ * a compare-and-swap on every draw, so threads drawing at once contend for it),
+ * each component is given its own {@code SplittableRandom}, found from the seed,
+ * a purpose (such as {@code "network"}) and some keys (such as the index of
+ * the component and of a {@code Layer}). A component can then {@code split}
+ * further generators, for example one per thread, without any shared state.
+ * After {@code setSeed}, creating the same components in the same order gives
+ * the same random numbers, so runs can be reproduced exactly.
+ * </p>
+ *
+ */
+public final class RandomStreams {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static volatile long seed = new SplittableRandom().nextLong();
+    private static final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private RandomStreams() {}
+
+    /** Sets the seed of all random numbers, and restarts the count of the
+     * components created for each purpose (see {@code nextInstance}).
+     *
+     * @param seed The new seed.
+     */
+    public static void setSeed(long seed) {
+        RandomStreams.seed = seed;
+        counters.clear();
+    }
+
+    /** Getter method for {@code seed}.
+     *
+     * @return The seed of all random numbers. Unless {@code setSeed} has been
+     * called, this is chosen at random.
+     */
+    public static long getSeed() {
+        return seed;
+    }
+
+    /** The index of the next component created for a {@code purpose}, counting
+     * from zero since the last call to {@code setSeed}.
+     *
+     * @param purpose The purpose of the random numbers, such as {@code "network"}.
+     * @return The index of the component.
+     */
+    public static long nextInstance(String purpose) {
+        return counters.computeIfAbsent(purpose, key -> new AtomicLong()).getAndIncrement();
+    }
+
+    /** Creates the generator for a {@code purpose} and some {@code keys}. The
+     * same seed, {@code purpose} and {@code keys} always give the same random
+     * numbers, whichever thread asks for them and in whichever order.
+     *
+     * @param purpose The purpose of the random numbers, such as {@code "network"}.
+     * @param keys The keys identifying the stream, such as the index of the
+     *             component (see {@code nextInstance}) and of a {@code Layer}.
+     * @return The new generator.
+     */
+    public static SplittableRandom stream(String purpose, long... keys) {
+        long h = mix(seed ^ purpose.hashCode());
+        for (long key : keys) {
+            h = mix(h + GOLDEN_GAMMA * (key + 1));
+        }
+        return new SplittableRandom(h);
+    }
+
+    /** Creates the generator for the next component created for a
+     * {@code purpose} (see {@code nextInstance}).
+     *
+     * @param purpose The purpose of the random numbers, such as {@code "network"}.
+     * @return The new generator.
+     */
+    public static SplittableRandom nextStream(String purpose) {
+        return stream(purpose, nextInstance(purpose));
+    }
+
+    /** The finaliser of SplitMix64, which scrambles the bits of {@code z}.
+     *
+     * @param z The value to scramble.
+     * @return The scrambled value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -5,12 +5,26 @@ import java.util.stream.Stream;
 
 /** Class to create a number of sets of size {@code setSize} from a list of
  * {@code numInts} integers weighted by which ground truth class each integer lies in.
+ * By default, each class is equally likely to be drawn. Instead, the classes
+ * (see {@code setClassWeights}) or the integers themselves (see
+ * {@code setSampleWeights}) can be given arbitrary weights, which are drawn
+ * from with an {@code AliasSampler} in constant time.
  *
  */
 public class WeightedPartitioner extends Partitioner {
 
     private int numBins;
     private final Map<Integer, List<Integer>> classMap = new HashMap<>();
+    // The original class (or bin) of each relabelled class, and the number of
+    // original classes (or bins), including those with no integers
+    private final int[] classLabels;
+    private int numLabels;
+    // The integers of class k are classMembers[classStarts[k]] to
+    // classMembers[classStarts[k + 1] - 1]
+    private int[] classStarts;
+    private int[] classMembers;
+    private AliasSampler classSampler = null;
+    private AliasSampler sampleSampler = null;
 
     /** General constructor method.
      *
@@ -61,7 +75,10 @@ public class WeightedPartitioner extends Partitioner {
             }
 
             // Finally, relabel the bins to 0, 1, 2, ...
+            this.numLabels = numBins;
+            this.classLabels = new int[this.numBins];
             for (int k = 0; k < this.numBins; k ++) {
+                classLabels[k] = initialMap.firstKey();
                 // The below line polls the first key in the initialMap and uses it
                 // to retrieve the list of integers at this entry. Then, this is put
                 // in the new classMap with relabelled key
@@ -73,12 +90,35 @@ public class WeightedPartitioner extends Partitioner {
             List<Integer> yClasses = yVals.stream()
                     .map(x -> (int) (double) x)
                     .toList();
-            this.numBins = (new HashSet<>(yVals)).size();
+            NavigableMap<Integer, List<Integer>> initialMap = new TreeMap<>();
             for (int i = 0; i < yClasses.size(); i ++) {
-                classMap.computeIfAbsent(yClasses.get(i),
+                initialMap.computeIfAbsent(yClasses.get(i),
                         k -> new ArrayList<>()).add(i);
             }
+            this.numBins = initialMap.size();
+            this.numLabels = initialMap.isEmpty() ? 0 : initialMap.lastKey() + 1;
+
+            // Relabel the classes to 0, 1, 2, ... (in case some classes of a
+            // Dataset have no datapoints)
+            this.classLabels = new int[this.numBins];
+            int k = 0;
+            for (Map.Entry<Integer, List<Integer>> entry : initialMap.entrySet()) {
+                classLabels[k] = entry.getKey();
+                classMap.put(k ++, entry.getValue());
+            }
+        }
+
+        // Flatten the classes into primitive arrays for sampling
+        this.classStarts = new int[this.numBins + 1];
+        this.classMembers = new int[numInts];
+        int position = 0;
+        for (int k = 0; k < this.numBins; k ++) {
+            classStarts[k] = position;
+            for (int i : classMap.get(k)) {
+                classMembers[position ++] = i;
+            }
         }
+        classStarts[this.numBins] = position;
     }
 
     /** Constructor for classification. Note that {@code numBins} will not be used
@@ -92,40 +132,116 @@ public class WeightedPartitioner extends Partitioner {
         this(numInts, setSize, yVals, false, 10);
     }
 
-    /** Uses weights for each class to create sets of size {@code setSize} containing
-     * integers (sampled with replacement).
+    /** Constructor for a {@code Dataset}, using its targets as the classes/values.
      *
-     * @return The list of lists of datapoint indices.
+     * @param dataset The {@code Dataset} to partition.
+     * @param setSize Size of each set.
+     * @param numBins If {@code dataset} is for regression, this represents the
+     *                number of bins to split the data into. Otherwise, this
+     *                parameter is ignored.
      */
-    public List<List<Integer>> call() {
-        // This produces a list of class indices of size numInts
-        List<Integer> chosenClasses = getRandom()
-                .ints(getNumInts(), 0, numBins)
-                .boxed().toList();
-
-        List<List<Integer>> outputList = new ArrayList<>();
-        int numSets = (int) Math.ceil((double) getNumInts() / getSetSize());
-        for (int i = 0; i < numSets - 1; i ++) {
-            List<Integer> innerList = new ArrayList<>();
-            for (int j = 0; j < getSetSize(); j ++) {
-                int chosenClass = chosenClasses.get(i * getSetSize() + j);
-                List<Integer> classList = classMap.get(chosenClass);
-                int chosenInt = classList.get(
-                        getRandom().nextInt(classList.size()));
-                innerList.add(chosenInt);
+    public WeightedPartitioner(Dataset dataset, int setSize, int numBins) {
+        this(dataset.size(), setSize, dataset.targets(), dataset.isRegression(), numBins);
+        if (! dataset.isRegression()) {
+            // Weights are given per category, even for categories with no datapoints
+            this.numLabels = Math.max(numLabels, dataset.getCategoryNames().size());
+        }
+    }
+
+    /** Uses weights for each class (or each integer) to fill {@code ids}
+     * with integers (sampled with replacement), which are then handed out as
+     * sets of size {@code setSize}.
+     *
+     * @param ids The integers of the previous call, to be overwritten.
+     */
+    @Override
+    protected void fill(int[] ids) {
+        Random random = getRandom();
+        if (sampleSampler != null) {
+            for (int k = 0; k < ids.length; k ++) {
+                ids[k] = sampleSampler.sample(random);
+            }
+        } else if (classSampler != null) {
+            for (int k = 0; k < ids.length; k ++) {
+                ids[k] = sampleFromClass(classSampler.sample(random), random);
+            }
+        } else {
+            // First choose a class for each integer, then an integer of that class
+            PrimitiveIterator.OfInt chosenClasses = random
+                    .ints(getNumInts(), 0, numBins)
+                    .iterator();
+            for (int k = 0; k < ids.length; k ++) {
+                ids[k] = chosenClasses.nextInt();
+            }
+            for (int k = 0; k < ids.length; k ++) {
+                ids[k] = sampleFromClass(ids[k], random);
             }
-            outputList.add(innerList);
         }
-        List<Integer> finalList = new ArrayList<>();
-        for (int k = (numSets - 1) * getSetSize(); k < getNumInts(); k ++) {
-            int chosenClass = chosenClasses.get(k);
-            List<Integer> classList = classMap.get(chosenClass);
-            int chosenInt = classList.get(
-                    getRandom().nextInt(classList.size()));
-            finalList.add(chosenInt);
+    }
+
+    /** Draws an integer of a class uniformly.
+     *
+     * @param chosenClass The (relabelled) class.
+     * @param random The random numbers to draw with.
+     * @return The integer.
+     */
+    private int sampleFromClass(int chosenClass, Random random) {
+        int start = classStarts[chosenClass];
+        int size = classStarts[chosenClass + 1] - start;
+        return classMembers[start + random.nextInt(size)];
+    }
+
+    /** Sets the weight of each class, replacing any weights of the integers.
+     * The weights are indexed by the original class (the category of a
+     * {@code Dataset}), or by bin for regression. The weights of classes with
+     * no integers are ignored.
+     *
+     * @param weights The (unnormalised) weight of each class, or {@code null}
+     *                for equal weights.
+     * @throws IllegalArgumentException If there is not one weight per class,
+     * or the weights are invalid (see {@code AliasSampler}).
+     */
+    public void setClassWeights(double[] weights) {
+        if (weights != null && weights.length != numLabels) {
+            throw new IllegalArgumentException(
+                    "There must be one weight per class (%d weights, %d classes)"
+                            .formatted(weights.length, numLabels));
+        }
+        this.sampleSampler = null;
+        if (weights == null) {
+            this.classSampler = null;
+            return;
+        }
+        double[] binWeights = new double[numBins];
+        for (int k = 0; k < numBins; k ++) {
+            binWeights[k] = weights[classLabels[k]];
         }
-        outputList.add(finalList);
-        return outputList;
+        this.classSampler = new AliasSampler(binWeights);
+    }
+
+    /** Sets the weight of each integer, replacing any weights of the classes.
+     *
+     * @param weights The (unnormalised) weight of each integer, or {@code null}
+     *                for equal class weights.
+     * @throws IllegalArgumentException If there is not one weight per integer,
+     * or the weights are invalid (see {@code AliasSampler}).
+     */
+    public void setSampleWeights(double[] weights) {
+        if (weights != null && weights.length != getNumInts()) {
+            throw new IllegalArgumentException(
+                    "There must be one weight per integer (%d weights, %d integers)"
+                            .formatted(weights.length, getNumInts()));
+        }
+        this.sampleSampler = (weights == null) ? null : new AliasSampler(weights);
+        this.classSampler = null;
+    }
+
+    /** Getter method for {@code numBins}.
+     *
+     * @return The number of (non-empty) classes or bins.
+     */
+    public int getNumBins() {
+        return numBins;
     }
 
     /** Getter for {@code classMap}. Mainly for testing purposes.
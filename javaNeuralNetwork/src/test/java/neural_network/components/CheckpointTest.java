@@ -0,0 +1,209 @@
+package neural_network.components;
+
+import neural_network.optimisers.Adam;
+import neural_network.util.RandomStreams;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Network network;
+    private Network regressionNetwork;
+
+    @BeforeEach
+    void setUp() {
+        Edge.setRandom(new Random(3));
+        network = new Network(3, 2, new ArrayList<>(List.of(4, 5)),
+                3, 0.1, 0.02, false, true, 0.9, false);
+        regressionNetwork = new Network(2, 1, new ArrayList<>(List.of(6)),
+                3, 0.2, 0.03, true, false, Double.NaN, false);
+        for (Network net : List.of(network, regressionNetwork)) {
+            List<Layer> layers = net.getLayers();
+            for (Layer layer : layers.subList(1, layers.size())) {
+                for (int j = 0; j < layer.size(); j ++) {
+                    layer.getBiases()[j] = 0.1 * j - 0.2;
+                }
+                for (int j = 0; j < layer.getVelocities().length; j ++) {
+                    layer.getVelocities()[j] = 0.01 * j;
+                }
+            }
+        }
+    }
+
+    private static void assertSameParameters(Network expected, Network actual) {
+        assertEquals(expected.getNeuronCounts(), actual.getNeuronCounts());
+        List<Layer> expectedLayers = expected.getLayers();
+        List<Layer> actualLayers = actual.getLayers();
+        for (int i = 1; i < expectedLayers.size(); i ++) {
+            assertArrayEquals(expectedLayers.get(i).getWeights(), actualLayers.get(i).getWeights());
+            assertArrayEquals(expectedLayers.get(i).getBiases(), actualLayers.get(i).getBiases());
+            assertArrayEquals(expectedLayers.get(i).getVelocities(),
+                    actualLayers.get(i).getVelocities());
+        }
+    }
+
+    @Test
+    void saveAndLoad() throws IOException {
+        Path path = tempDir.resolve("network.ckpt");
+        Checkpoint.save(network, List.of("a", "b", "\u00e7"), 7, path);
+        assertFalse(Files.exists(tempDir.resolve("network.ckpt.tmp")));
+
+        Checkpoint checkpoint = Checkpoint.load(path);
+        Network loaded = checkpoint.getNetwork();
+        assertEquals(7, checkpoint.getEpoch());
+        assertIterableEquals(List.of("a", "b", "\u00e7"), checkpoint.getCategoryNames());
+        assertFalse(loaded.isRegressor());
+        assertEquals(0.1, loaded.getLeak());
+        assertEquals(0.02, loaded.getLearningRate());
+        assertTrue(loaded.isAdaptive());
+        assertEquals(0.9, loaded.getGamma());
+        assertSameParameters(network, loaded);
+
+        // The loaded network makes the same predictions
+        double[] x = {0.5, -1.0, 2.0};
+        assertArrayEquals(network.forwardPassOneDatapoint(x).clone(),
+                loaded.forwardPassOneDatapoint(x), 1e-12);
+    }
+
+    @Test
+    void saveAndLoadRegression() throws IOException {
+        Path path = tempDir.resolve("regression.ckpt");
+        Checkpoint.save(regressionNetwork, List.of(), 0, path);
+
+        // Overwriting an existing checkpoint
+        Checkpoint.save(regressionNetwork, List.of(), 3, path);
+        Checkpoint checkpoint = Checkpoint.load(path);
+        assertEquals(3, checkpoint.getEpoch());
+        assertIterableEquals(List.of(), checkpoint.getCategoryNames());
+        assertTrue(checkpoint.getNetwork().isRegressor());
+        assertFalse(checkpoint.getNetwork().isAdaptive());
+        assertTrue(Double.isNaN(checkpoint.getNetwork().getGamma()));
+        assertSameParameters(regressionNetwork, checkpoint.getNetwork());
+    }
+
+    @Test
+    void loadDrawsNoRandomNumbers() throws IOException {
+        Path path = tempDir.resolve("network.ckpt");
+        Checkpoint.save(network, List.of("a", "b", "c"), 7, path);
+
+        // Loading leaves the seeded weights of later networks unchanged
+        Edge.setRandom(null);
+        Network.setRandom(null);
+        RandomStreams.setSeed(5);
+        Checkpoint.load(path);
+        Network afterLoad = new Network(3, 1, new ArrayList<>(List.of(4)));
+        RandomStreams.setSeed(5);
+        Network withoutLoad = new Network(3, 1, new ArrayList<>(List.of(4)));
+        assertSameParameters(withoutLoad, afterLoad);
+
+        // And never touches the random hooks
+        Random mockRandom = mock(Random.class);
+        Edge.setRandom(mockRandom);
+        Network.setRandom(mockRandom);
+        assertSameParameters(network, Checkpoint.load(path).getNetwork());
+        verifyNoInteractions(mockRandom);
+        Edge.setRandom(null);
+        Network.setRandom(null);
+    }
+
+    @Test
+    void loadErroneous() throws IOException {
+        Path notCheckpoint = tempDir.resolve("data.csv");
+        Files.writeString(notCheckpoint, "1,2,3\n");
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> Checkpoint.load(notCheckpoint));
+        assertEquals("%s is not a Network checkpoint".formatted(notCheckpoint),
+                exception1.getMessage());
+
+        Path futureVersion = tempDir.resolve("future.ckpt");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(futureVersion))) {
+            out.writeInt(0x4E4E4350);
+            out.writeInt(Checkpoint.VERSION + 1);
+        }
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> Checkpoint.load(futureVersion));
+        assertEquals("Unsupported checkpoint version %d (expected %d)"
+                .formatted(Checkpoint.VERSION + 1, Checkpoint.VERSION), exception2.getMessage());
+    }
+
+    @Test
+    void saveAndLoadOptimiserState() throws IOException {
+        Adam adam = new Adam(0.01);
+        double[] x = {0.5, -1.0, 2.0};
+        for (int step = 0; step < 3; step ++) {
+            network.forwardPassOneDatapoint(x);
+            network.storeGradientsOfLoss(1);
+            network.backPropagate(adam);
+        }
+        Path path = tempDir.resolve("network.ckpt");
+        Checkpoint.save(network, List.of("a", "b", "c"), 1, path);
+        Checkpoint checkpoint = Checkpoint.load(path);
+        Network loaded = checkpoint.getNetwork();
+        Network target = new Network(3, 2, new ArrayList<>(List.of(4, 5)),
+                3, 0.1, 0.02, false, true, 0.9, false);
+        checkpoint.restoreInto(target);
+
+        // The moments and step are restored ...
+        for (Network restored : List.of(loaded, target)) {
+            assertEquals(Adam.class.getName(), restored.getOptimiserName());
+            assertEquals(3, restored.getOptimiserStep());
+            List<Layer> layers = network.getLayers();
+            List<Layer> restoredLayers = restored.getLayers();
+            for (int i = 1; i < layers.size(); i ++) {
+                for (int m = 0; m < 2; m ++) {
+                    assertArrayEquals(layers.get(i).getWeightMoments()[m],
+                            restoredLayers.get(i).getWeightMoments()[m]);
+                    assertArrayEquals(layers.get(i).getBiasMoments()[m],
+                            restoredLayers.get(i).getBiasMoments()[m]);
+                }
+            }
+        }
+
+        // ... so a new Adam carries on training exactly where the old one stopped
+        Adam loadedAdam = new Adam(0.01);
+        Adam targetAdam = new Adam(0.01);
+        for (int step = 0; step < 2; step ++) {
+            for (Network net : List.of(network, loaded, target)) {
+                net.forwardPassOneDatapoint(x);
+                net.storeGradientsOfLoss(1);
+            }
+            network.backPropagate(adam);
+            loaded.backPropagate(loadedAdam);
+            target.backPropagate(targetAdam);
+        }
+        assertEquals(5, loaded.getOptimiserStep());
+        assertSameParameters(network, loaded);
+        assertSameParameters(network, target);
+    }
+
+    @Test
+    void restoreInto() throws IOException {
+        Path path = tempDir.resolve("network.ckpt");
+        Checkpoint.save(network, List.of("a", "b", "c"), 2, path);
+        Network target = new Network(3, 2, new ArrayList<>(List.of(4, 5)),
+                3, 0.1, 0.02, false, true, 0.9, false);
+        Checkpoint checkpoint = Checkpoint.load(path);
+        checkpoint.restoreInto(target);
+        assertSameParameters(network, target);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> checkpoint.restoreInto(regressionNetwork));
+        assertEquals("Checkpoint layer sizes [3, 4, 5, 3] do not match the Network [2, 6, 1]",
+                exception.getMessage());
+    }
+}
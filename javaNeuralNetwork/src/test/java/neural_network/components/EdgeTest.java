@@ -1,5 +1,6 @@
 package neural_network.components;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -20,11 +21,17 @@ public class EdgeTest {
         Random mockRandom = mock(Random.class);
         when(mockRandom.nextDouble(-1, 1)).thenReturn(0.1);
         Edge.setRandom(mockRandom);
+        Edge.setRecordGradients(true);
         this.leftNeuron = new Neuron(4, 3);
         this.rightNeuron = new Neuron(5, 2);
         this.edge = new Edge(leftNeuron, rightNeuron);
     }
 
+    @AfterEach
+    void tearDown() {
+        Edge.setRecordGradients(false);
+    }
+
     @Test
     void constructErroneous() {
         Exception exception = assertThrows(RuntimeException.class,
@@ -52,6 +59,28 @@ public class EdgeTest {
                 edge.getLossGradients());
     }
 
+    @Test
+    void addLossGradientRunningSum() {
+        edge.addLossGradient(0.1);
+        edge.addLossGradient(0.2);
+        edge.addLossGradient(-0.5);
+        assertEquals(-0.2, edge.getLossGradientSum(), .00000001);
+        assertEquals(3, edge.getNumLossGradients());
+    }
+
+    @Test
+    void addLossGradientNotRecording() {
+        Edge.setRecordGradients(false);
+        edge.addLossGradient(0.1);
+        edge.addLossGradient(0.2);
+        assertEquals(0.3, edge.getLossGradientSum(), .00000001);
+        assertEquals(2, edge.getNumLossGradients());
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> edge.getLossGradients());
+        assertEquals("Loss gradients are only kept when recording gradients " +
+                "(see setRecordGradients)", exception.getMessage());
+    }
+
     @Test
     void clearLossGradients() {
         edge.addLossGradient(0.4);
@@ -59,6 +88,25 @@ public class EdgeTest {
                 edge.getLossGradients());
         edge.clearLossGradients();
         assertIterableEquals(new ArrayList<>(), edge.getLossGradients());
+        assertEquals(0.0, edge.getLossGradientSum());
+        assertEquals(0, edge.getNumLossGradients());
+    }
+
+    @Test
+    void constructView() {
+        Layer rightLayer = new Layer(5, 3, 4);
+        double[] weights = rightLayer.getWeights();
+        Edge viewEdge = new Edge(leftNeuron, rightLayer.getNeuron(2), rightLayer, 11);
+        assertEquals(0.1, weights[11]);
+        viewEdge.setWeight(0.6);
+        viewEdge.setVelocity(-0.4);
+        viewEdge.addLossGradient(0.3);
+        assertEquals(0.6, weights[11]);
+        assertEquals(-0.4, rightLayer.getVelocities()[11]);
+        assertEquals(0.3, rightLayer.getWeightGradients()[11]);
+        assertEquals(1, rightLayer.getWeightGradientCounts()[11]);
+        weights[11] = 0.8;
+        assertEquals(0.8, viewEdge.getWeight());
     }
 
     @Test
@@ -0,0 +1,123 @@
+package neural_network.components;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InferenceSessionTest {
+
+    private Network network;
+    private Network regressionNetwork;
+
+    @BeforeEach
+    void setUp() {
+        Edge.setRandom(new Random(3));
+        network = new Network(3, 2, new ArrayList<>(List.of(4, 5)),
+                3, 0.1, 0.01, false, false, Double.NaN, false);
+        regressionNetwork = new Network(3, 2, new ArrayList<>(List.of(4, 5)),
+                3, 0.1, 0.01, true, false, Double.NaN, false);
+        for (Network net : List.of(network, regressionNetwork)) {
+            for (Layer layer : net.getLayers().subList(1, 4)) {
+                double[] biases = layer.getBiases();
+                for (int j = 0; j < biases.length; j ++) {
+                    biases[j] = 0.1 * (j - 2);
+                }
+            }
+        }
+    }
+
+    @Test
+    void construct() {
+        InferenceSession session = network.newInferenceSession();
+        assertEquals(3, session.getNumFeatures());
+        assertEquals(3, session.getNumOutputs());
+        assertEquals(1, regressionNetwork.newInferenceSession().getNumOutputs());
+    }
+
+    @Test
+    void predictErroneous() {
+        InferenceSession session = network.newInferenceSession();
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> session.predict(new double[2], new double[3]));
+        assertEquals("Number of features must match the number of neurons in the " +
+                "input layer (2 != 3)", exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> session.predict(new double[3], new double[2]));
+        assertEquals("out must have space for every output neuron (2 < 3)",
+                exception2.getMessage());
+    }
+
+    @Test
+    void predict() {
+        for (Network net : List.of(network, regressionNetwork)) {
+            InferenceSession session = net.newInferenceSession();
+            double[] x = {0.5, -1.5, 2.0};
+            double[] out = new double[session.getNumOutputs()];
+            session.predict(x, out);
+            assertArrayEquals(net.forwardPassOneDatapoint(x), out, 1e-12);
+        }
+    }
+
+    @Test
+    void predictIsFrozen() {
+        InferenceSession session = network.newInferenceSession();
+        double[] x = {0.5, -1.5, 2.0};
+        double[] expected = network.forwardPassOneDatapoint(x).clone();
+
+        // Changing the network after creating the session has no effect
+        network.getLayers().get(3).getWeights()[0] += 1.0;
+        network.getLayers().get(3).getBiases()[1] -= 1.0;
+        double[] out = new double[3];
+        session.predict(x, out);
+        assertArrayEquals(expected, out, 1e-12);
+    }
+
+    @Test
+    void predictConcurrently() throws Exception {
+        InferenceSession session = network.newInferenceSession();
+        int numInputs = 200;
+        double[][] inputs = new double[numInputs][];
+        double[][] expected = new double[numInputs][];
+        Random random = new Random(5);
+        for (int n = 0; n < numInputs; n ++) {
+            inputs[n] = new double[]{random.nextDouble(-2, 2),
+                    random.nextDouble(-2, 2), random.nextDouble(-2, 2)};
+            expected[n] = network.forwardPassOneDatapoint(inputs[n]).clone();
+        }
+
+        // Many threads predicting at once should all see the right answers
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t ++) {
+                int start = t;
+                futures.add(executor.submit(() -> {
+                    double[] out = new double[3];
+                    boolean correct = true;
+                    for (int repeat = 0; repeat < 50; repeat ++) {
+                        for (int n = start; n < numInputs; n += 3) {
+                            session.predict(inputs[n], out);
+                            for (int j = 0; j < 3; j ++) {
+                                correct &= Math.abs(out[j] - expected[n][j]) < 1e-12;
+                            }
+                        }
+                    }
+                    return correct;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
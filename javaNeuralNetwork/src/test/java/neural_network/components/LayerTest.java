@@ -28,6 +28,31 @@ public class LayerTest {
         }
     }
 
+    @Test
+    void constructWithInputs() {
+        Layer hiddenLayer = new Layer(3, 4, 2);
+        assertEquals(2, hiddenLayer.getNumInputs());
+        assertEquals(4, hiddenLayer.getValues().length);
+        assertEquals(4, hiddenLayer.getBiases().length);
+        assertEquals(8, hiddenLayer.getWeights().length);
+        assertEquals(8, hiddenLayer.getVelocities().length);
+        assertEquals(0, layer.getNumInputs());
+        assertEquals(0, layer.getWeights().length);
+    }
+
+    @Test
+    void neuronsAreViews() {
+        // Writing to a neuron should write to the arrays of the layer
+        Neuron neuron = layer.getNeuron(4);
+        assertEquals(4, neuron.getRow());
+        neuron.setValue(0.3);
+        neuron.setBias(-0.2);
+        assertEquals(0.3, layer.getValues()[4]);
+        assertEquals(-0.2, layer.getBiases()[4]);
+        layer.getValues()[4] = 0.7;
+        assertEquals(0.7, neuron.getValue());
+    }
+
     @Test
     void string() {
         assertEquals("Layer 2", layer.toString());
@@ -1,13 +1,21 @@
 package neural_network.components;
 
+import neural_network.functions.MSELoss;
+import neural_network.optimisers.Adam;
+import neural_network.optimisers.SGD;
+import neural_network.functions.CrossEntropyLoss;
+import neural_network.util.RandomStreams;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +39,8 @@ public class NetworkTest {
         when(mockRandom.nextGaussian(anyDouble(), anyDouble())).thenReturn(0.2);
         Edge.setRandom(mockRandom);
         Network.setRandom(mockRandom);
+        Edge.setRecordGradients(true);
+        Neuron.setRecordGradients(true);
         defaultNetwork = new Network(3, 2, new ArrayList<>(
                 List.of(4, 2)));
         network = new Network(2, 3, new ArrayList<>(
@@ -45,6 +55,12 @@ public class NetworkTest {
                 true, true, 0.8, true);
     }
 
+    @AfterEach
+    void tearDown() {
+        Edge.setRecordGradients(false);
+        Neuron.setRecordGradients(false);
+    }
+
     @Test
     void constructErroneous() {
         Exception exception = assertThrows(IllegalArgumentException.class,
@@ -222,6 +238,66 @@ public class NetworkTest {
         assertIterableEquals(List.of(0.8), predList);
     }
 
+    @Test
+    void forwardPassOneDatapointPrimitiveErroneous() {
+        double[] erroneousData = {1.0, 2.0, 3.0};
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> network.forwardPassOneDatapoint(erroneousData));
+        assertEquals("Number of features must match the number of neurons " +
+                "in the input layer (3 != 2)", exception.getMessage());
+    }
+
+    @Test
+    void forwardPassOneDatapointPrimitive() {
+        // Use non-trivial weights and biases so that the paths can be compared
+        Random random = new Random(1);
+        for (Network net : List.of(network, regressionNetwork, defaultNetwork)) {
+            for (List<List<Edge>> edgeLayer : net.getEdges()) {
+                for (List<Edge> rightNeuron : edgeLayer) {
+                    for (Edge edge : rightNeuron) {
+                        edge.setWeight(random.nextDouble(-1, 1));
+                    }
+                }
+            }
+            for (Layer layer : net.getLayers()) {
+                for (Neuron neuron : layer.getNeurons()) {
+                    neuron.setBias(random.nextDouble(-1, 1));
+                }
+            }
+            int numFeatures = net.getNeuronCounts().get(0);
+            List<Double> xList = new ArrayList<>();
+            double[] x = new double[numFeatures];
+            for (int j = 0; j < numFeatures; j ++) {
+                x[j] = random.nextDouble(-2, 2);
+                xList.add(x[j]);
+            }
+            List<Double> expected = net.forwardPassOneDatapoint(xList);
+            double[] actual = net.forwardPassOneDatapoint(x);
+            assertEquals(expected.size(), actual.length);
+            for (int j = 0; j < actual.length; j ++) {
+                assertEquals(expected.get(j), actual[j], .00000001);
+            }
+        }
+    }
+
+    @Test
+    void forwardPassOneDatapointWithLoss() {
+        Random random = new Random(2);
+        double[] x = {random.nextDouble(-2, 2), random.nextDouble(-2, 2)};
+        int[] prediction = new int[1];
+
+        // The fused kernel matches a forward pass followed by the loss and argmax
+        double[] expected = network.forwardPassOneDatapoint(x).clone();
+        double expectedLoss = new CrossEntropyLoss().call(expected, 0, 1);
+        assertEquals(expectedLoss, network.forwardPassOneDatapoint(x, 1.0, prediction), 1e-12);
+        assertArrayEquals(expected, network.getLayers().get(4).getValues(), 1e-12);
+        assertEquals((expected[1] > expected[0]) ? 1 : 0, prediction[0]);
+
+        double regressionValue = regressionNetwork.forwardPassOneDatapoint(x)[0];
+        assertEquals(new MSELoss().call(regressionValue, 0.3),
+                regressionNetwork.forwardPassOneDatapoint(x, 0.3, prediction), 1e-12);
+    }
+
     @Test
     void calculatePreActivatedValue() {
         // Here, we wish to control all values involved so that we can
@@ -487,6 +563,367 @@ public class NetworkTest {
         }
     }
 
+    @Test
+    void storeGradientsOfLoss() {
+        for (boolean record : List.of(true, false)) {
+            Edge.setRecordGradients(record);
+            Neuron.setRecordGradients(record);
+            for (boolean regression : List.of(false, true)) {
+                Network randomNetwork = randomNetwork(regression);
+                double target = regression ? 0.7 : 2.0;
+                randomNetwork.forwardPassOneDatapoint(new double[]{0.3, -1.2, 0.8});
+
+                // Per-edge gradients, walking the layers in reverse
+                List<List<List<Edge>>> edges = randomNetwork.getEdges();
+                for (int i = edges.size() - 1; i >= 0; i --) {
+                    for (List<Edge> rightNeuron : edges.get(i)) {
+                        for (int k = 0; k < rightNeuron.size(); k ++) {
+                            randomNetwork.storeGradientOfLoss(rightNeuron.get(k), target, k == 0);
+                        }
+                    }
+                }
+                List<Layer> layers = randomNetwork.getLayers().subList(1, 4);
+                List<double[]> expected = new ArrayList<>();
+                for (Layer layer : layers) {
+                    expected.add(layer.getWeightGradients().clone());
+                    expected.add(layer.getBiasGradients().clone());
+                    expected.add(layer.getDeltas().clone());
+                    Arrays.fill(layer.getWeightGradients(), 0.0);
+                    Arrays.fill(layer.getBiasGradients(), 0.0);
+                    Arrays.fill(layer.getDeltas(), 0.0);
+                }
+
+                // The layer-wise backward pass should give the same deltas and
+                // gradients, each counted twice
+                randomNetwork.storeGradientsOfLoss(target);
+                for (int i = 0; i < 3; i ++) {
+                    Layer layer = layers.get(i);
+                    assertArrayEquals(expected.get(3 * i), layer.getWeightGradients(), 1e-12);
+                    assertArrayEquals(expected.get(3 * i + 1), layer.getBiasGradients(), 1e-12);
+                    assertArrayEquals(expected.get(3 * i + 2), layer.getDeltas(), 1e-12);
+                    for (int count : layer.getWeightGradientCounts()) {
+                        assertEquals(2, count);
+                    }
+                    for (int count : layer.getBiasGradientCounts()) {
+                        assertEquals(2, count);
+                    }
+                }
+                if (record) {
+                    Edge edge = edges.get(0).get(1).get(2);
+                    assertEquals(2, edge.getLossGradients().size());
+                    assertEquals(edge.getLossGradients().get(0),
+                            edge.getLossGradients().get(1), 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    void newBatchWorkspace() {
+        BatchWorkspace workspace = network.newBatchWorkspace(4);
+        assertEquals(4, workspace.getCapacity());
+        assertEquals(5, workspace.getNumLayers());
+        assertEquals(8, workspace.getValues(0).length);
+        assertEquals(12, workspace.getDeltas(4).length);
+        assertEquals(6, workspace.getWeightGradients(4).length);
+        assertEquals(3, workspace.getBiasGradients(4).length);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> network.newBatchWorkspace(0));
+        assertEquals("capacity must be positive (0)", exception.getMessage());
+    }
+
+    @Test
+    void forwardPassOneBatchErroneous() {
+        BatchWorkspace workspace = network.newBatchWorkspace(2);
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> network.forwardPassOneBatch(new double[6], 3, workspace));
+        assertEquals("batchSize must not exceed the capacity of the workspace (3 > 2)",
+                exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> network.forwardPassOneBatch(new double[3], 2, workspace));
+        assertEquals("x must contain batchSize rows of numFeatures values (3 < 4)",
+                exception2.getMessage());
+        Exception exception3 = assertThrows(IllegalArgumentException.class,
+                () -> defaultNetwork.forwardPassOneBatch(new double[6], 2, workspace));
+        assertEquals("workspace does not match the shape of the Network",
+                exception3.getMessage());
+    }
+
+    @Test
+    void forwardPassOneBatch() {
+        for (boolean regression : List.of(false, true)) {
+            Network randomNetwork = randomNetwork(regression);
+            double[] x = randomBatch(5, 3);
+            BatchWorkspace workspace = randomNetwork.newBatchWorkspace(8);
+            double[] batchOutput = randomNetwork.forwardPassOneBatch(x, 5, workspace).clone();
+            int numOutputs = regression ? 1 : 3;
+
+            // Each row should match the per-datapoint forward pass
+            for (int r = 0; r < 5; r ++) {
+                double[] row = new double[3];
+                System.arraycopy(x, r * 3, row, 0, 3);
+                double[] output = randomNetwork.forwardPassOneDatapoint(row);
+                for (int j = 0; j < numOutputs; j ++) {
+                    assertEquals(output[j], batchOutput[r * numOutputs + j], 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    void forwardPassOneBatchWithLoss() {
+        for (boolean regression : List.of(false, true)) {
+            Network randomNetwork = randomNetwork(regression);
+            double[] x = randomBatch(5, 3);
+            double[] targets = regression ? new double[]{0.5, -1.0, 2.0, 0.0, 1.5}
+                    : new double[]{0.0, 2.0, 1.0, 2.0, 0.0};
+            BatchWorkspace workspace = randomNetwork.newBatchWorkspace(5);
+            double[] output = randomNetwork.forwardPassOneBatch(x, 5, workspace).clone();
+            int numOutputs = regression ? 1 : 3;
+
+            // The loss and predictions match the unfused forward pass
+            double expectedLoss = 0.0;
+            int[] expectedPredictions = new int[5];
+            for (int r = 0; r < 5; r ++) {
+                if (regression) {
+                    expectedLoss += new MSELoss().call(output[r], targets[r]);
+                } else {
+                    expectedLoss += new CrossEntropyLoss().call(output, r * 3, (int) targets[r]);
+                    for (int j = 1; j < numOutputs; j ++) {
+                        if (output[r * 3 + j] > output[r * 3 + expectedPredictions[r]]) {
+                            expectedPredictions[r] = j;
+                        }
+                    }
+                }
+            }
+            int[] predictions = new int[5];
+            assertEquals(expectedLoss, randomNetwork.forwardPassOneBatch(x, targets, 5,
+                    workspace, predictions), 1e-12);
+            assertArrayEquals(output, Arrays.copyOf(workspace.getValues(3), 5 * numOutputs),
+                    1e-12);
+            if (! regression) {
+                assertArrayEquals(expectedPredictions, predictions);
+            }
+
+            // The gradients match those after the unfused forward pass
+            randomNetwork.storeGradientsOfLoss(targets, 5, workspace);
+            List<double[]> fusedGradients = new ArrayList<>();
+            for (int i = 1; i < 4; i ++) {
+                fusedGradients.add(workspace.getWeightGradients(i).clone());
+            }
+            workspace.clearGradients();
+            randomNetwork.forwardPassOneBatch(x, 5, workspace);
+            randomNetwork.storeGradientsOfLoss(targets, 5, workspace);
+            for (int i = 1; i < 4; i ++) {
+                assertArrayEquals(fusedGradients.get(i - 1), workspace.getWeightGradients(i),
+                        1e-12);
+            }
+        }
+        Network randomNetwork = randomNetwork(false);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> randomNetwork.forwardPassOneBatch(randomBatch(5, 3), new double[4], 5,
+                        randomNetwork.newBatchWorkspace(5), new int[5]));
+        assertEquals("targets must contain a value for each datapoint (4 < 5)",
+                exception.getMessage());
+    }
+
+    @Test
+    void storeGradientsOfLossBatch() {
+        for (boolean regression : List.of(false, true)) {
+            Network randomNetwork = randomNetwork(regression);
+            double[] x = randomBatch(5, 3);
+            double[] targets = regression ? new double[]{0.5, -1.0, 2.0, 0.0, 1.5}
+                    : new double[]{0.0, 2.0, 1.0, 2.0, 0.0};
+
+            // Per-datapoint gradients
+            for (int r = 0; r < 5; r ++) {
+                double[] row = new double[3];
+                System.arraycopy(x, r * 3, row, 0, 3);
+                randomNetwork.forwardPassOneDatapoint(row);
+                randomNetwork.storeGradientsOfLoss(targets[r]);
+            }
+            List<double[]> expectedWeightGradients = new ArrayList<>();
+            List<double[]> expectedBiasGradients = new ArrayList<>();
+            for (Layer layer : randomNetwork.getLayers().subList(1, 4)) {
+                expectedWeightGradients.add(layer.getWeightGradients().clone());
+                expectedBiasGradients.add(layer.getBiasGradients().clone());
+                Arrays.fill(layer.getWeightGradients(), 0.0);
+                Arrays.fill(layer.getWeightGradientCounts(), 0);
+                Arrays.fill(layer.getBiasGradients(), 0.0);
+                Arrays.fill(layer.getBiasGradientCounts(), 0);
+            }
+
+            // Batch gradients should match
+            BatchWorkspace workspace = randomNetwork.newBatchWorkspace(5);
+            randomNetwork.forwardPassOneBatch(x, 5, workspace);
+            randomNetwork.storeGradientsOfLoss(targets, 5, workspace);
+            assertEquals(5, workspace.getNumGradients());
+            randomNetwork.accumulateGradients(workspace);
+            assertEquals(0, workspace.getNumGradients());
+            for (int i = 1; i < 4; i ++) {
+                Layer layer = randomNetwork.getLayers().get(i);
+                assertArrayEquals(expectedWeightGradients.get(i - 1),
+                        layer.getWeightGradients(), 1e-12);
+                assertArrayEquals(expectedBiasGradients.get(i - 1),
+                        layer.getBiasGradients(), 1e-12);
+                for (int count : layer.getWeightGradientCounts()) {
+                    assertEquals(5, count);
+                }
+                for (int count : layer.getBiasGradientCounts()) {
+                    assertEquals(5, count);
+                }
+                for (double gradient : workspace.getWeightGradients(i)) {
+                    assertEquals(0.0, gradient);
+                }
+            }
+        }
+    }
+
+    @Test
+    void accumulateGradientsFromWorkers() {
+        Network randomNetwork = randomNetwork(false);
+        double[] x = randomBatch(5, 3);
+        double[] targets = {0.0, 2.0, 1.0, 2.0, 0.0};
+        BatchWorkspace workspace = randomNetwork.newBatchWorkspace(5);
+        randomNetwork.forwardPassOneBatch(x, 5, workspace);
+        randomNetwork.storeGradientsOfLoss(targets, 5, workspace);
+        List<double[]> expected = new ArrayList<>();
+        for (int i = 1; i < 4; i ++) {
+            expected.add(workspace.getWeightGradients(i).clone());
+        }
+
+        // Two workers with 3 and 2 datapoints each, reduced in worker order
+        BatchWorkspace worker0 = randomNetwork.newBatchWorkspace(3);
+        BatchWorkspace worker1 = randomNetwork.newBatchWorkspace(3);
+        randomNetwork.forwardPassOneBatch(x, 3, worker0);
+        randomNetwork.storeGradientsOfLoss(targets, 3, worker0);
+        randomNetwork.forwardPassOneBatch(Arrays.copyOfRange(x, 9, 15), 2, worker1);
+        randomNetwork.storeGradientsOfLoss(Arrays.copyOfRange(targets, 3, 5), 2, worker1);
+        randomNetwork.accumulateGradients(worker0);
+        randomNetwork.accumulateGradients(worker1);
+        for (int i = 1; i < 4; i ++) {
+            Layer layer = randomNetwork.getLayers().get(i);
+            assertArrayEquals(expected.get(i - 1), layer.getWeightGradients(), 1e-12);
+            assertEquals(5, layer.getWeightGradientCounts()[0]);
+        }
+    }
+
+    /** A network with randomly initialised weights and biases, with leaky
+     * ReLU so that negative hidden values are exercised.
+     */
+    @Test
+    void setLearningRate() {
+        network.setLearningRate(0.3);
+        assertEquals(0.3, network.getLearningRate());
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> network.setLearningRate(0.0));
+        assertEquals("learningRate must be positive (0.000000)", exception.getMessage());
+    }
+
+    @Test
+    void backPropagateWithOptimiser() {
+        for (boolean record : List.of(true, false)) {
+            Edge.setRecordGradients(record);
+            Neuron.setRecordGradients(record);
+            Network randomNetwork = randomNetwork(false);
+            List<Layer> layers = randomNetwork.getLayers().subList(1, 4);
+            for (double[] row : List.of(new double[]{0.3, -1.2, 0.8}, new double[]{1.0, 0.5, -2.0})) {
+                randomNetwork.forwardPassOneDatapoint(row);
+                randomNetwork.storeGradientsOfLoss(1.0);
+            }
+            List<double[]> saved = new ArrayList<>();
+            for (Layer layer : layers) {
+                saved.add(layer.getWeights().clone());
+                saved.add(layer.getBiases().clone());
+                saved.add(layer.getWeightGradients().clone());
+                saved.add(layer.getBiasGradients().clone());
+            }
+
+            // SGD with the learning rate of the network matches the default update
+            randomNetwork.backPropagateWeights();
+            randomNetwork.backPropagateBiases();
+            List<double[]> expected = new ArrayList<>();
+            for (int i = 0; i < 3; i ++) {
+                Layer layer = layers.get(i);
+                expected.add(layer.getWeights().clone());
+                expected.add(layer.getBiases().clone());
+                System.arraycopy(saved.get(4 * i), 0, layer.getWeights(), 0,
+                        layer.getWeights().length);
+                System.arraycopy(saved.get(4 * i + 1), 0, layer.getBiases(), 0,
+                        layer.getBiases().length);
+                System.arraycopy(saved.get(4 * i + 2), 0, layer.getWeightGradients(), 0,
+                        layer.getWeightGradients().length);
+                System.arraycopy(saved.get(4 * i + 3), 0, layer.getBiasGradients(), 0,
+                        layer.getBiasGradients().length);
+                Arrays.fill(layer.getWeightGradientCounts(), 2);
+                Arrays.fill(layer.getBiasGradientCounts(), 2);
+            }
+            randomNetwork.backPropagate(new SGD(0.01));
+            for (int i = 0; i < 3; i ++) {
+                Layer layer = layers.get(i);
+                assertArrayEquals(expected.get(2 * i), layer.getWeights(), 1e-15);
+                assertArrayEquals(expected.get(2 * i + 1), layer.getBiases(), 1e-15);
+
+                // The gradients are cleared for the next batch
+                assertArrayEquals(new double[layer.getWeightGradients().length],
+                        layer.getWeightGradients());
+                assertArrayEquals(new int[layer.getBiasGradientCounts().length],
+                        layer.getBiasGradientCounts());
+            }
+            if (record) {
+                assertEquals(0, randomNetwork.getEdges().get(0).get(0).get(0)
+                        .getLossGradients().size());
+            }
+        }
+    }
+
+    @Test
+    void backPropagateMoments() {
+        Network randomNetwork = randomNetwork(true);
+        Layer outputLayer = randomNetwork.getLayers().get(3);
+        Adam adam = new Adam(0.01);
+        for (int step = 0; step < 2; step ++) {
+            randomNetwork.forwardPassOneDatapoint(new double[]{0.3, -1.2, 0.8});
+            randomNetwork.storeGradientsOfLoss(5.0);
+            randomNetwork.backPropagate(adam);
+        }
+
+        // The moments are kept between updates by the same optimiser
+        assertEquals(2, outputLayer.getWeightMoments().length);
+        assertEquals(outputLayer.getWeights().length, outputLayer.getWeightMoments()[0].length);
+        assertEquals(1, outputLayer.getBiasMoments()[1].length);
+        assertNotEquals(0.0, outputLayer.getBiasMoments()[0][0]);
+
+        // ... but reset for a new optimiser
+        randomNetwork.forwardPassOneDatapoint(new double[]{0.3, -1.2, 0.8});
+        randomNetwork.storeGradientsOfLoss(5.0);
+        randomNetwork.backPropagate(new SGD(0.01));
+        assertEquals(0, outputLayer.getWeightMoments().length);
+    }
+
+    private static Network randomNetwork(boolean regression) {
+        Random random = new Random(7);
+        Edge.setRandom(random);
+        Network randomNetwork = new Network(3, 2, new ArrayList<>(List.of(4, 5)),
+                3, 0.1, 0.01, regression, false, Double.NaN, false);
+        for (Layer layer : randomNetwork.getLayers().subList(1, 4)) {
+            double[] biases = layer.getBiases();
+            for (int j = 0; j < biases.length; j ++) {
+                biases[j] = random.nextDouble(-1, 1);
+            }
+        }
+        return randomNetwork;
+    }
+
+    private static double[] randomBatch(int batchSize, int numFeatures) {
+        Random random = new Random(11);
+        double[] x = new double[batchSize * numFeatures];
+        for (int j = 0; j < x.length; j ++) {
+            x[j] = random.nextDouble(-2, 2);
+        }
+        return x;
+    }
+
     @Test
     void backPropagateWeightNoMomentum() {
         // The default network has adaptive = false
@@ -532,6 +969,20 @@ public class NetworkTest {
         assertEquals(0.005 * 0.1 - 2 * 0.8, edge.getVelocity());
     }
 
+    @Test
+    void backPropagateWeightNotRecording() {
+        // The running sums are used whether or not we record gradients
+        Edge.setRecordGradients(false);
+        Edge edge = defaultNetwork.getEdges().get(1).get(1).get(3);
+        edge.setWeight(1.0);
+        edge.addLossGradient(0.2);
+        edge.addLossGradient(0.4);
+        defaultNetwork.backPropagateWeight(edge);
+        assertEquals(1 - 0.01 * 0.3, edge.getWeight(), .00000001);
+        assertEquals(0, edge.getNumLossGradients());
+        assertEquals(0.0, edge.getLossGradientSum());
+    }
+
     @Test
     void backPropagateWeights() {
         Network spyNetwork = spy(network);
@@ -584,4 +1035,76 @@ public class NetworkTest {
             }
         }
     }
+
+    @Test
+    void setParallelThresholdErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> network.setParallelThreshold(0));
+        assertEquals("parallelThreshold must be positive (0)", exception.getMessage());
+    }
+
+    @Test
+    void layerParallelism() {
+        // A wide network, with a twin which stays serial
+        Edge.setRecordGradients(false);
+        Neuron.setRecordGradients(false);
+        Network.setRandom(new Random(4));
+        Network wideNetwork = new Network(3, 2, new ArrayList<>(List.of(300, 200)), 2,
+                0.01, 0.01, false, false, Double.NaN, true);
+        Network serialNetwork = new Network(3, 2, new ArrayList<>(List.of(300, 200)), 2,
+                0.01, 0.01, false, false, Double.NaN, true);
+        wideNetwork.newSnapshot().restoreInto(serialNetwork);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        wideNetwork.setLayerParallelism(pool);
+        wideNetwork.setParallelThreshold(1000);
+        assertEquals(pool, wideNetwork.getLayerParallelism());
+        assertEquals(1000, wideNetwork.getParallelThreshold());
+
+        double[] x = {0.5, -1.0, 2.0};
+        assertArrayEquals(serialNetwork.forwardPassOneDatapoint(x),
+                wideNetwork.forwardPassOneDatapoint(x), 1e-12);
+        serialNetwork.storeGradientsOfLoss(1.0);
+        wideNetwork.storeGradientsOfLoss(1.0);
+        for (int i = 1; i < 4; i ++) {
+            Layer layer = wideNetwork.getLayers().get(i);
+            Layer serialLayer = serialNetwork.getLayers().get(i);
+            assertArrayEquals(serialLayer.getValues(), layer.getValues(), 1e-12);
+            assertArrayEquals(serialLayer.getDeltas(), layer.getDeltas(), 1e-12);
+            assertArrayEquals(serialLayer.getWeightGradients(), layer.getWeightGradients(),
+                    1e-12);
+            assertArrayEquals(serialLayer.getWeightGradientCounts(),
+                    layer.getWeightGradientCounts());
+            assertArrayEquals(serialLayer.getBiasGradients(), layer.getBiasGradients(),
+                    1e-12);
+            assertArrayEquals(serialLayer.getBiasGradientCounts(),
+                    layer.getBiasGradientCounts());
+        }
+
+        // The session uses the same pool
+        double[] out = new double[2];
+        wideNetwork.newInferenceSession().predict(x, out);
+        assertArrayEquals(serialNetwork.forwardPassOneDatapoint(x), out, 1e-12);
+        pool.shutdown();
+    }
+
+    @Test
+    void seeded() {
+        // Without the mocks, the weights come from RandomStreams
+        Edge.setRandom(null);
+        Network.setRandom(null);
+        RandomStreams.setSeed(8);
+        Network network1 = new Network(2, 1, new ArrayList<>(List.of(4)), 3,
+                0.01, 0.01, false, false, Double.NaN, true);
+        Network network2 = new Network(2, 1, new ArrayList<>(List.of(4)), 3,
+                0.01, 0.01, false, false, Double.NaN, true);
+        RandomStreams.setSeed(8);
+        Network network3 = new Network(2, 1, new ArrayList<>(List.of(4)), 3,
+                0.01, 0.01, false, false, Double.NaN, true);
+        for (int i = 1; i < 3; i ++) {
+            assertArrayEquals(network1.getLayers().get(i).getWeights(),
+                    network3.getLayers().get(i).getWeights());
+            assertFalse(Arrays.equals(network1.getLayers().get(i).getWeights(),
+                    network2.getLayers().get(i).getWeights()));
+        }
+    }
 }
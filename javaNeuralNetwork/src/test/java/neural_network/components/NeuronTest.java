@@ -1,5 +1,6 @@
 package neural_network.components;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,9 +15,15 @@ public class NeuronTest {
 
     @BeforeEach
     void setUp() {
+        Neuron.setRecordGradients(true);
         this.neuron = new Neuron(3, 4);
     }
 
+    @AfterEach
+    void tearDown() {
+        Neuron.setRecordGradients(false);
+    }
+
     @Test
     void construct() {
         assertIterableEquals(new ArrayList<>(List.of(3, 4)), neuron.getId());
@@ -33,6 +40,27 @@ public class NeuronTest {
                              neuron.getBiasGradients());
     }
 
+    @Test
+    void addBiasGradientRunningSum() {
+        neuron.addBiasGradient(0.1);
+        neuron.addBiasGradient(0.2);
+        neuron.addBiasGradient(-0.5);
+        assertEquals(-0.2, neuron.getBiasGradientSum(), .00000001);
+        assertEquals(3, neuron.getNumBiasGradients());
+    }
+
+    @Test
+    void addBiasGradientNotRecording() {
+        Neuron.setRecordGradients(false);
+        neuron.addBiasGradient(0.1);
+        assertEquals(0.1, neuron.getBiasGradientSum());
+        assertEquals(1, neuron.getNumBiasGradients());
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> neuron.getBiasGradients());
+        assertEquals("Bias gradients are only kept when recording gradients " +
+                "(see setRecordGradients)", exception.getMessage());
+    }
+
     @Test
     void clearBiasGradients() {
         neuron.addBiasGradient(0.4);
@@ -40,6 +68,8 @@ public class NeuronTest {
                              neuron.getBiasGradients());
         neuron.clearBiasGradients();
         assertIterableEquals(new ArrayList<>(), neuron.getBiasGradients());
+        assertEquals(0.0, neuron.getBiasGradientSum());
+        assertEquals(0, neuron.getNumBiasGradients());
     }
 
     @Test
@@ -0,0 +1,72 @@
+package neural_network.components;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelRowsTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void isParallel() {
+        // 10 rows of 100 multiply-adds is 1000 in total
+        assertTrue(ParallelRows.isParallel(pool, 10, 100, 500));
+        assertFalse(ParallelRows.isParallel(pool, 10, 100, 501));
+        assertFalse(ParallelRows.isParallel(null, 10, 100, 1));
+        assertFalse(ParallelRows.isParallel(pool, 1, 100, 1));
+        ForkJoinPool serialPool = new ForkJoinPool(1);
+        assertFalse(ParallelRows.isParallel(serialPool, 10, 100, 1));
+        serialPool.shutdown();
+    }
+
+    @Test
+    void runSerial() {
+        // Too little work, so the rows are done in one range on this thread
+        List<int[]> ranges = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        ParallelRows.run(pool, 10, 100, 1000, (from, to) -> {
+            ranges.add(new int[]{from, to});
+            threads.add(Thread.currentThread());
+        });
+        assertEquals(1, ranges.size());
+        assertArrayEquals(new int[]{0, 10}, ranges.get(0));
+        assertEquals(Thread.currentThread(), threads.get(0));
+    }
+
+    @Test
+    void runParallel() {
+        // Each task holds at most 250 / 100 = 2 rows, and every row is done once
+        AtomicIntegerArray counts = new AtomicIntegerArray(100);
+        List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+        ParallelRows.run(pool, 100, 100, 250, (from, to) -> {
+            sizes.add(to - from);
+            for (int j = from; j < to; j ++) {
+                counts.incrementAndGet(j);
+            }
+        });
+        for (int j = 0; j < 100; j ++) {
+            assertEquals(1, counts.get(j));
+        }
+        assertTrue(sizes.size() >= 50);
+        assertTrue(sizes.stream().allMatch(size -> size <= 2));
+    }
+}
@@ -0,0 +1,42 @@
+package neural_network.components;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterSnapshotTest {
+
+    @Test
+    void restoreInto() {
+        Network network = new Network(3, 2, List.of(4, 3), 2, 0.01, 0.01,
+                false, true, 0.9, false);
+        Layer layer = network.getLayers().get(2);
+        layer.getBiases()[1] = 0.5;
+        layer.getVelocities()[3] = -0.2;
+        double[] expected = layer.getWeights().clone();
+        ParameterSnapshot snapshot = network.newSnapshot();
+
+        // Changes after the snapshot are undone by restoring it
+        for (Layer otherLayer : network.getLayers()) {
+            Arrays.fill(otherLayer.getWeights(), 0.3);
+            Arrays.fill(otherLayer.getBiases(), -0.1);
+            Arrays.fill(otherLayer.getVelocities(), 1.0);
+        }
+        snapshot.restoreInto(network);
+        assertArrayEquals(expected, layer.getWeights());
+        assertEquals(0.5, layer.getBiases()[1]);
+        assertEquals(-0.2, layer.getVelocities()[3]);
+    }
+
+    @Test
+    void restoreIntoErroneous() {
+        ParameterSnapshot snapshot = new Network(3, 2, List.of(4, 3)).newSnapshot();
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> snapshot.restoreInto(new Network(3, 1, List.of(4))));
+        assertEquals("Snapshot layer sizes [3, 4, 3, 2] do not match the Network [3, 4, 2]",
+                exception.getMessage());
+    }
+}
@@ -28,6 +28,11 @@ public abstract class ActivatorTest<T> {
             T x = (T) callMap.get("xs").get(i);
             double expectedValue = (double) callMap.get("values").get(i);
             assertEquals(expectedValue, activator.call(x), .00000001);
+
+            // The primitive method must agree with the boxed adapter
+            if (activator instanceof PrimitiveActivator primitive && x instanceof Double d) {
+                assertEquals(expectedValue, primitive.call((double) d), .00000001);
+            }
         }
     }
 
@@ -47,6 +52,10 @@ public abstract class ActivatorTest<T> {
                     () -> activator.gradient(x));
             assertEquals("gradient method should not be" +
                     "called from the Softmax class.", exception.getMessage());
+            if (activator instanceof PrimitiveActivator primitive) {
+                assertThrows(UnsupportedOperationException.class,
+                        () -> primitive.multiplyByGradient(new double[1], new double[1], 0, 1));
+            }
             return;
         }
 
@@ -59,6 +68,10 @@ public abstract class ActivatorTest<T> {
                 double expected = (double) expectedGradient;
                 double actual = (double) activator.gradient(x);
                 assertEquals(expected, actual, .00000001);
+                if (activator instanceof PrimitiveActivator primitive) {
+                    assertEquals(expected, primitive.gradient((double) (Double) x),
+                            .00000001);
+                }
             } else {
                 assertEquals(expectedGradient, activator.gradient(x));
             }
@@ -36,4 +36,20 @@ public class CrossEntropyLossTest {
         assertEquals(0.91629073, crossEntropyLoss.call(yHat, 1),
                 .00000001);
     }
+
+    @Test
+    void callPrimitiveErroneous() {
+        double[] yHatArray = {0.5, 0.5, -1.0, 0.4, 0.2, 2.0};
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> crossEntropyLoss.call(yHatArray, 2, 3));
+        assertEquals("Softmax value should be between 0" +
+                " and 1 (yHat[5] = 2.000000)", exception.getMessage());
+    }
+
+    @Test
+    void callPrimitive() {
+        double[] yHatArray = {0.5, 0.5, -1.0, 0.4, 0.2, 2.0};
+        assertEquals(0.91629073, crossEntropyLoss.call(yHatArray, 2, 1),
+                .00000001);
+    }
 }
@@ -3,10 +3,12 @@ package neural_network.functions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class LeakyReLUTest extends ActivatorTest<Double> {
@@ -26,6 +28,38 @@ public class LeakyReLUTest extends ActivatorTest<Double> {
         assertEquals(0.0, defaultReLU.getLeak());
     }
 
+    @Test
+    void callRange() {
+        double[] xArray = {-1.0, 2.0, -3.0, -4.0};
+        leakyReLU.call(xArray, 1, 4);
+        assertArrayEquals(new double[]{-1.0, 2.0, -0.03, -0.04}, xArray, 1e-12);
+    }
+
+    @Test
+    void multiplyByGradient() {
+        double[] xArray = {-1.0, 2.0, 0.0, -4.0};
+        double[] deltas = {3.0, 3.0, 3.0, 3.0};
+        leakyReLU.multiplyByGradient(xArray, deltas, 1, 4);
+        assertArrayEquals(new double[]{3.0, 3.0, 3.0, 0.03}, deltas, 1e-12);
+    }
+
+    @Test
+    void multiplyByGradientMatchesGradient() {
+        // The gradient is found from the activated values, even for a ReLU
+        // (where negative inputs give -0.0)
+        double[] zs = {-2.0, -0.5, 0.0, 0.5, 2.0};
+        for (LeakyReLU activator : List.of(leakyReLU, defaultReLU)) {
+            double[] xArray = zs.clone();
+            double[] deltas = new double[zs.length];
+            Arrays.fill(deltas, 3.0);
+            activator.call(xArray, 0, zs.length);
+            activator.multiplyByGradient(xArray, deltas, 0, zs.length);
+            for (int j = 0; j < zs.length; j ++) {
+                assertEquals(3.0 * activator.gradient(Double.valueOf(zs[j])), deltas[j], 1e-12);
+            }
+        }
+    }
+
     @Override
     public Map<String, List<Object>> getActivatorWithExpectedValue() {
         Map<String, List<Object>> valueMap = new HashMap<>();
@@ -0,0 +1,90 @@
+package neural_network.functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class MatrixKernelsTest {
+
+    // Sizes larger than one block, to check the edges of the tiles
+    private static final int M = 70;
+    private static final int N = 67;
+    private static final int K = 5;
+
+    private static double[] randomMatrix(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        double[] matrix = new double[rows * cols];
+        for (int j = 0; j < matrix.length; j ++) {
+            matrix[j] = random.nextDouble(-1, 1);
+        }
+        return matrix;
+    }
+
+    @Test
+    void multiplyTransposed() {
+        double[] a = randomMatrix(M, K, 1);
+        double[] b = randomMatrix(N, K, 2);
+        double[] c = new double[M * N];
+        MatrixKernels.multiplyTransposed(a, b, c, M, N, K);
+        double[] expected = new double[M * N];
+        for (int i = 0; i < M; i ++) {
+            for (int j = 0; j < N; j ++) {
+                for (int l = 0; l < K; l ++) {
+                    expected[i * N + j] += a[i * K + l] * b[j * K + l];
+                }
+            }
+        }
+        assertArrayEquals(expected, c, 1e-12);
+    }
+
+    @Test
+    void multiply() {
+        double[] a = randomMatrix(M, N, 3);
+        double[] b = randomMatrix(N, K, 4);
+        double[] c = randomMatrix(M, K, 5);
+        MatrixKernels.multiply(a, b, c, M, N, K);
+        double[] expected = new double[M * K];
+        for (int i = 0; i < M; i ++) {
+            for (int j = 0; j < N; j ++) {
+                for (int l = 0; l < K; l ++) {
+                    expected[i * K + l] += a[i * N + j] * b[j * K + l];
+                }
+            }
+        }
+        assertArrayEquals(expected, c, 1e-12);
+    }
+
+    @Test
+    void addTransposedProduct() {
+        double[] a = randomMatrix(M, N, 6);
+        double[] b = randomMatrix(M, K, 7);
+        double[] c = randomMatrix(N, K, 8);
+        double[] expected = c.clone();
+        MatrixKernels.addTransposedProduct(a, b, c, M, N, K);
+        for (int i = 0; i < M; i ++) {
+            for (int j = 0; j < N; j ++) {
+                for (int l = 0; l < K; l ++) {
+                    expected[j * K + l] += a[i * N + j] * b[i * K + l];
+                }
+            }
+        }
+        assertArrayEquals(expected, c, 1e-12);
+    }
+
+    @Test
+    void addColumnSums() {
+        double[] a = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0};
+        double[] c = {1.0, -1.0, 0.5};
+        MatrixKernels.addColumnSums(a, c, 2, 3);
+        assertArrayEquals(new double[]{6.0, 6.0, 9.5}, c, 1e-12);
+    }
+
+    @Test
+    void addToRows() {
+        double[] a = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0};
+        MatrixKernels.addToRows(a, new double[]{1.0, -1.0, 0.5}, 2, 3);
+        assertArrayEquals(new double[]{2.0, 1.0, 3.5, 5.0, 4.0, 6.5}, a, 1e-12);
+    }
+}
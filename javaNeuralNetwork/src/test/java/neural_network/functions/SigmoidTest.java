@@ -1,11 +1,16 @@
 package neural_network.functions;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class SigmoidTest extends ActivatorTest<Double> {
 
     private Sigmoid sigmoid;
@@ -32,4 +37,35 @@ public class SigmoidTest extends ActivatorTest<Double> {
         gradientMap.put("gradients", List.of(0.25, 0.19661193, 0.19661193));
         return gradientMap;
     }
+
+    @Test
+    void callRange() {
+        double[] xArray = {5.0, 0.0, 1.0, -1.0, -800.0, 5.0};
+        sigmoid.call(xArray, 1, 5);
+        assertArrayEquals(new double[] {5.0, 0.5, 0.73105858, 0.26894142, 0.0, 5.0},
+                xArray, 1e-8);
+    }
+
+    @Test
+    void multiplyByGradient() {
+        // The gradient is found from the activated values
+        double[] xArray = {0.0, 1.0, -1.0};
+        double[] deltas = {2.0, 2.0, 2.0};
+        sigmoid.call(xArray, 1, 3);
+        sigmoid.multiplyByGradient(xArray, deltas, 1, 3);
+        assertArrayEquals(new double[] {2.0, 0.39322386, 0.39322386}, deltas, 1e-8);
+    }
+
+    @Test
+    void multiplyByGradientMatchesGradient() {
+        double[] zs = {-6.0, -2.5, -0.3, 0.0, 0.7, 3.2, 8.0};
+        double[] xArray = zs.clone();
+        double[] deltas = new double[zs.length];
+        Arrays.fill(deltas, 1.5);
+        sigmoid.call(xArray, 0, zs.length);
+        sigmoid.multiplyByGradient(xArray, deltas, 0, zs.length);
+        for (int j = 0; j < zs.length; j ++) {
+            assertEquals(1.5 * sigmoid.gradient(Double.valueOf(zs[j])), deltas[j], 1e-12);
+        }
+    }
 }
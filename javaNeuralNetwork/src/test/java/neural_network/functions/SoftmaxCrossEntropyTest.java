@@ -0,0 +1,76 @@
+package neural_network.functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SoftmaxCrossEntropyTest {
+
+    @Test
+    void callErroneous() {
+        double[] logits = {1.0, 2.0, 3.0};
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> SoftmaxCrossEntropy.call(logits, new double[]{3.0}, 1, 3, null, null));
+        assertEquals("Label 3 of row 0 is not one of the 3 classes", exception.getMessage());
+    }
+
+    @Test
+    void call() {
+        double[] logits = {1.0, 2.0, 3.0, 0.5, -1.0, 0.0};
+        double[] labels = {2.0, 1.0};
+        double[] deltas = new double[6];
+        int[] predictions = new int[2];
+
+        // The loss and probabilities match Softmax followed by CrossEntropyLoss
+        Softmax softmax = new Softmax();
+        CrossEntropyLoss crossEntropyLoss = new CrossEntropyLoss();
+        double[] p = logits.clone();
+        softmax.activate(p, 0, 3);
+        softmax.activate(p, 3, 6);
+        List<Double> p1 = List.of(p[0], p[1], p[2]);
+        List<Double> p2 = List.of(p[3], p[4], p[5]);
+        double expectedLoss = crossEntropyLoss.call(p1, 2) + crossEntropyLoss.call(p2, 1);
+        assertEquals(expectedLoss, SoftmaxCrossEntropy.call(logits, labels, 2, 3,
+                deltas, predictions), 1e-12);
+        for (int j = 0; j < 3; j ++) {
+            assertEquals(p1.get(j), logits[j], 1e-12);
+            assertEquals(p2.get(j), logits[3 + j], 1e-12);
+            assertEquals(p1.get(j) - ((j == 2) ? 1.0 : 0.0), deltas[j], 1e-12);
+            assertEquals(p2.get(j) - ((j == 1) ? 1.0 : 0.0), deltas[3 + j], 1e-12);
+        }
+        assertArrayEquals(new int[]{2, 0}, predictions);
+    }
+
+    @Test
+    void callOneRow() {
+        double[] logits = {0.5, -1.0, 0.0};
+        double[] batchLogits = logits.clone();
+        double[] deltas = new double[3];
+        double[] batchDeltas = new double[3];
+        int[] prediction = new int[1];
+        int[] batchPrediction = new int[1];
+
+        // The same as a batch of one row
+        double expectedLoss = SoftmaxCrossEntropy.call(batchLogits, new double[]{1.0}, 1, 3,
+                batchDeltas, batchPrediction);
+        assertEquals(expectedLoss, SoftmaxCrossEntropy.call(logits, 1, deltas, prediction));
+        assertArrayEquals(batchLogits, logits);
+        assertArrayEquals(batchDeltas, deltas);
+        assertArrayEquals(new int[]{0}, prediction);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> SoftmaxCrossEntropy.call(logits, -1, null, null));
+        assertEquals("Label -1 of row 0 is not one of the 3 classes", exception.getMessage());
+    }
+
+    @Test
+    void callLargeLogits() {
+        // The probability of the true class underflows, but the loss is finite
+        double[] logits = {0.0, 1000.0};
+        assertEquals(1000.0, SoftmaxCrossEntropy.call(logits, new double[]{0.0}, 1, 2,
+                null, null), 1e-9);
+        assertArrayEquals(new double[]{0.0, 1.0}, logits, 1e-12);
+    }
+}
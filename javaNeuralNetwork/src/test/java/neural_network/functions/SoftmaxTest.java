@@ -1,12 +1,15 @@
 package neural_network.functions;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class SoftmaxTest extends ActivatorTest<Double> {
 
     private Softmax softmax;
@@ -38,4 +41,26 @@ public class SoftmaxTest extends ActivatorTest<Double> {
         gradientMap.put("gradients", null);
         return gradientMap;
     }
+
+    @Test
+    void activate() {
+        double[] zArray = {-2.0, 0.0, 2.0, 4.0};
+        softmax.activate(zArray);
+        double[] expected = {0.00214401, 0.01584220, 0.11705891, 0.86495488};
+        for (int i = 0; i < 4; i ++) {
+            assertEquals(expected[i], zArray[i], .00000001);
+        }
+    }
+
+    @Test
+    void activateRange() {
+        // Two rows of a batch, only the second of which is activated
+        double[] zArray = {1.0, 1.0, 1.0, 1.0, -2.0, 0.0, 2.0, 4.0};
+        softmax.activate(zArray, 4, 8);
+        double[] expected = {1.0, 1.0, 1.0, 1.0,
+                0.00214401, 0.01584220, 0.11705891, 0.86495488};
+        for (int i = 0; i < 8; i ++) {
+            assertEquals(expected[i], zArray[i], .00000001);
+        }
+    }
 }
@@ -91,4 +91,12 @@ public class TransferFunctionTest extends ActivatorTest<List<Double>> {
         gradientMap.put("gradients", List.of(gradient));
         return gradientMap;
     }
+
+    @Test
+    void callPrimitive() {
+        // The weights for this neuron start at index 2 of the weight matrix
+        double[] o = {1.0, 2.0, 3.0};
+        double[] weights = {5.0, 5.0, -1.0, 0.0, 1.0, 5.0};
+        assertEquals(4.0, transfer.call(o, weights, 2, bias));
+    }
 }
@@ -0,0 +1,126 @@
+package neural_network.functions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorKernelsTest {
+
+    // Lengths either side of the vector widths, to cover the scalar tails
+    private final int[] lengths = {0, 1, 3, 4, 7, 8, 9, 33, 512};
+    private final Kernels originalKernels = VectorKernels.getKernels();
+    private final Random random = new Random(11);
+
+    @AfterEach
+    void restoreKernels() {
+        VectorKernels.setKernels(originalKernels);
+    }
+
+    /** The kernels to test: always the scalar kernels, and the SIMD kernels
+     * when the vector module is present.
+     */
+    private List<Kernels> allKernels() {
+        List<Kernels> kernels = new ArrayList<>(List.of(new ScalarKernels()));
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            kernels.add(new SimdKernels());
+        }
+        return kernels;
+    }
+
+    private double[] randomArray(int length) {
+        return random.doubles(length, -5.0, 5.0).toArray();
+    }
+
+    @Test
+    void isSimd() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(vectorModule, VectorKernels.isSimd());
+        VectorKernels.setKernels(new ScalarKernels());
+        assertFalse(VectorKernels.isSimd());
+    }
+
+    @Test
+    void dot() {
+        for (Kernels kernels : allKernels()) {
+            for (int length : lengths) {
+                double[] a = randomArray(length + 2);
+                double[] b = randomArray(length + 1);
+                double expected = 0.0;
+                for (int i = 0; i < length; i ++) {
+                    expected += a[i + 2] * b[i + 1];
+                }
+                assertEquals(expected, kernels.dot(a, 2, b, 1, length), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    void axpy() {
+        for (Kernels kernels : allKernels()) {
+            for (int length : lengths) {
+                double[] x = randomArray(length);
+                double[] y = randomArray(length + 3);
+                double[] expected = y.clone();
+                for (int i = 0; i < length; i ++) {
+                    expected[i + 3] += 1.5 * x[i];
+                }
+                kernels.axpy(1.5, x, 0, y, 3, length);
+                assertArrayEquals(expected, y, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void leakyReLU() {
+        for (Kernels kernels : allKernels()) {
+            for (int length : lengths) {
+                double[] x = randomArray(length + 2);
+                double[] expected = x.clone();
+                for (int j = 1; j < length + 1; j ++) {
+                    expected[j] = (x[j] >= 0) ? x[j] : 0.1 * x[j];
+                }
+                kernels.leakyReLU(x, 1, length + 1, 0.1);
+                assertArrayEquals(expected, x);
+            }
+        }
+    }
+
+    @Test
+    void sigmoid() {
+        for (Kernels kernels : allKernels()) {
+            for (int length : lengths) {
+                double[] x = randomArray(length);
+                double[] expected = new double[length];
+                for (int j = 0; j < length; j ++) {
+                    expected[j] = 1 / (1 + Math.exp(-x[j]));
+                }
+                kernels.sigmoid(x, 0, length);
+                assertArrayEquals(expected, x, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void softmax() {
+        for (Kernels kernels : allKernels()) {
+            for (int length : lengths) {
+                double[] z = randomArray(length + 1);
+                z[0] = 1000.0;
+                double[] expected = z.clone();
+                new ScalarKernels().softmax(expected, 1, length + 1);
+                kernels.softmax(z, 1, length + 1);
+                assertArrayEquals(expected, z, 1e-12);
+                double sum = 0.0;
+                for (int j = 1; j < length + 1; j ++) {
+                    sum += z[j];
+                }
+                assertEquals((length == 0) ? 0.0 : 1.0, sum, 1e-12);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package neural_network.learning;
+
+import neural_network.components.Network;
+import neural_network.util.Batches;
+import neural_network.util.Dataset;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BatchPrefetcherTest {
+
+    private final double[] x = {0, 0, 1, 1, 2, 2, 3, 3, 4, 4};
+    private final int[] labels = {0, 1, 0, 1, 0};
+    private final int[] ids = {3, 1, 4, 0, 2};
+    private Trainer trainer;
+    private PrefetchStatistics statistics;
+    private BatchPrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() {
+        Dataset dataset = Dataset.classification(x, labels, 2, List.of("a", "b"));
+        trainer = spy(new Trainer(new Network(2, 1, List.of(3)), dataset, 2, false, 0, 1, null));
+        statistics = new PrefetchStatistics();
+        prefetcher = new BatchPrefetcher(trainer, 2, 2, statistics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.close();
+    }
+
+    @Test
+    void takeInOrder() {
+        prefetcher.start(new Batches(ids, 2));
+        int[][] expectedIds = {{3, 1}, {4, 0}, {2}};
+        for (int batch = 0; batch < 3; batch ++) {
+            BatchPrefetcher.Slot slot = prefetcher.take();
+            assertEquals(2 * batch, slot.getOffset());
+            assertEquals(expectedIds[batch].length, slot.getLength());
+            for (int r = 0; r < slot.getLength(); r ++) {
+                int id = expectedIds[batch][r];
+                assertEquals(id, slot.getBatchX()[2 * r]);
+                assertEquals(id, slot.getBatchX()[2 * r + 1]);
+                assertEquals(labels[id], slot.getBatchY()[r]);
+            }
+            prefetcher.release(slot);
+        }
+        prefetcher.finish();
+        assertEquals(3, statistics.getNumBatches());
+
+        // Nothing is left for this epoch
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> prefetcher.take());
+        assertEquals("No batches left to prefetch", exception.getMessage());
+    }
+
+    @Test
+    void backpressure() throws InterruptedException {
+        // With two buffers and none handed back, only two batches are gathered
+        prefetcher.start(new Batches(ids, 1));
+        BatchPrefetcher.Slot first = prefetcher.take();
+        BatchPrefetcher.Slot second = prefetcher.take();
+        Thread.sleep(50);
+        verify(trainer, times(2)).gatherBatch(any(int[].class), anyInt(), anyInt(),
+                any(double[].class), any(double[].class));
+        prefetcher.release(first);
+        prefetcher.release(second);
+        for (int batch = 2; batch < 5; batch ++) {
+            prefetcher.release(prefetcher.take());
+        }
+        prefetcher.finish();
+        assertEquals(5, statistics.getNumBatches());
+        assertTrue(statistics.getProducerWaitTime().toNanos() > 0);
+    }
+
+    @Test
+    void producerFailure() {
+        doThrow(new IllegalArgumentException("bad row")).when(trainer).gatherBatch(
+                any(int[].class), anyInt(), anyInt(), any(double[].class), any(double[].class));
+        prefetcher.start(new Batches(ids, 2));
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> prefetcher.take());
+        assertEquals("bad row", exception.getMessage());
+    }
+
+    @Test
+    void takeSlowLastBatch() {
+        // The last gather outlasts several polls, and the prefetch thread
+        // finishes straight after putting it
+        doAnswer(invocation -> {
+            if ((int) invocation.getArgument(1) == 4) {
+                Thread.sleep(50);
+            }
+            return invocation.callRealMethod();
+        }).when(trainer).gatherBatch(any(int[].class), anyInt(), anyInt(),
+                any(double[].class), any(double[].class));
+        for (int epoch = 0; epoch < 5; epoch ++) {
+            prefetcher.start(new Batches(ids, 2));
+            for (int batch = 0; batch < 3; batch ++) {
+                BatchPrefetcher.Slot slot = prefetcher.take();
+                assertEquals(2 * batch, slot.getOffset());
+                prefetcher.release(slot);
+            }
+            prefetcher.finish();
+        }
+        assertEquals(15, statistics.getNumBatches());
+    }
+}
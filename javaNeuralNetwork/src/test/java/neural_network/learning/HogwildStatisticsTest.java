@@ -0,0 +1,33 @@
+package neural_network.learning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HogwildStatisticsTest {
+
+    @Test
+    void updates() {
+        HogwildStatistics statistics = new HogwildStatistics();
+        assertEquals(0.0, statistics.getConflictRate());
+        assertEquals(0.0, statistics.getMeanStaleness());
+
+        // Two workers begin together, so the second to finish is a conflict
+        long stamp1 = statistics.beginUpdate();
+        long stamp2 = statistics.beginUpdate();
+        statistics.endUpdate(stamp1);
+        statistics.endUpdate(stamp2);
+        // Then one worker begins after both, but two more updates land first
+        long stamp3 = statistics.beginUpdate();
+        statistics.endUpdate(statistics.beginUpdate());
+        statistics.endUpdate(statistics.beginUpdate());
+        statistics.endUpdate(stamp3);
+
+        assertEquals(5, statistics.getNumUpdates());
+        assertEquals(2, statistics.getNumConflicts());
+        assertEquals(0.4, statistics.getConflictRate(), 1e-12);
+        assertEquals(0.6, statistics.getMeanStaleness(), 1e-12);
+        assertEquals("Hogwild updates: 5, conflict rate: 0.4000, mean staleness: 0.6000",
+                statistics.toString());
+    }
+}
@@ -8,14 +8,14 @@ import neural_network.util.Partitioner;
 import neural_network.util.WeightedPartitioner;
 import org.junit.jupiter.api.Test;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 public abstract class LearnerTest {
 
@@ -87,8 +87,8 @@ public abstract class LearnerTest {
             // either softmax probabilities or regression values
             List<Integer> batchIds =
                     (List<Integer>) forwardPassMap.get("batchIds").get(i);
-            List<List<Double>> outputNeuronVals =
-                    (List<List<Double>>) forwardPassMap.get("outputNeuronVals").get(i);
+            List<double[]> outputNeuronVals =
+                    (List<double[]>) forwardPassMap.get("outputNeuronVals").get(i);
             double totalLoss = (double) forwardPassMap.get("totalLosses").get(i);
             if (doRegression) {
                 MSELoss mockMSELoss =
@@ -104,7 +104,7 @@ public abstract class LearnerTest {
                     int batchId = batchIds.get(j);
                     // Check that the output neuron regression value has
                     // been written to the df
-                    double predictedYHat = outputNeuronVals.get(j).get(0);
+                    double predictedYHat = outputNeuronVals.get(j)[0];
                     assertEquals(predictedYHat,
                             df.get(Header.Y_HAT).get(batchId));
                     verify(mockMSELoss, times(1))
@@ -130,18 +130,40 @@ public abstract class LearnerTest {
                     // to the df
                     assertEquals(predictedYHats.get(j),
                             df.get(Header.Y_HAT).get(batchId));
-                    verify(mockCrossEntropyLoss, times(1))
-                            .call(outputNeuronVals.get(j), trueYHats.get(j));
+                    verify(mockNetwork, times(1)).forwardPassOneDatapoint(
+                            any(double[].class), eq((double) trueYHats.get(j)), any(int[].class));
                     verify(spyLearner, times(1))
                             .storeGradients(batchId);
                 }
+                // The fused forward pass replaces the separate loss
+                verifyNoInteractions(mockCrossEntropyLoss);
+                verify(mockNetwork, never()).forwardPassOneDatapoint(any(double[].class));
+                continue;
             }
 
             verify(mockNetwork, times(batchIds.size()))
-                    .forwardPassOneDatapoint(anyList());
+                    .forwardPassOneDatapoint(any(double[].class));
         }
     }
 
+    /** Stubs the fused forward pass of a mock classification {@code Network},
+     * which returns the given losses and writes the given predicted classes in turn.
+     *
+     * @param mockNetwork The mock {@code Network}.
+     * @param losses The loss of each datapoint.
+     * @param predictions The predicted class of each datapoint.
+     */
+    static void stubFusedForwardPass(Network mockNetwork, List<Double> losses,
+                                     List<Integer> predictions) {
+        Iterator<Double> lossIterator = losses.iterator();
+        Iterator<Integer> predictionIterator = predictions.iterator();
+        doAnswer(invocation -> {
+            invocation.<int[]>getArgument(2)[0] = predictionIterator.next();
+            return lossIterator.next();
+        }).when(mockNetwork).forwardPassOneDatapoint(any(double[].class), anyDouble(),
+                any(int[].class));
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     void updateCategoricalDataframe() {
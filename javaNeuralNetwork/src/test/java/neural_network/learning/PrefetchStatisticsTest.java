@@ -0,0 +1,31 @@
+package neural_network.learning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefetchStatisticsTest {
+
+    @Test
+    void records() {
+        PrefetchStatistics statistics = new PrefetchStatistics();
+        assertEquals(0.0, statistics.getStallRate());
+
+        // One batch was ready, two were waited for
+        statistics.recordTake(0);
+        statistics.recordTake(1_500_000);
+        statistics.recordTake(500_000);
+        statistics.recordProducerWait(250_000);
+        statistics.recordProducerWait(250_000);
+
+        assertEquals(3, statistics.getNumBatches());
+        assertEquals(2, statistics.getNumStalls());
+        assertEquals(2.0 / 3.0, statistics.getStallRate(), 1e-12);
+        assertEquals(Duration.ofMillis(2), statistics.getStallTime());
+        assertEquals(Duration.ofNanos(500_000), statistics.getProducerWaitTime());
+        assertEquals("Prefetched batches: 3, stall rate: 0.6667, stall time: 2.000 ms, "
+                + "producer wait: 0.500 ms", statistics.toString());
+    }
+}
@@ -0,0 +1,124 @@
+package neural_network.learning;
+
+import neural_network.components.Network;
+import neural_network.util.DataSplitter;
+import neural_network.util.Dataset;
+import neural_network.util.Plotter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StreamingTrainerTest {
+
+    @TempDir
+    Path tempDir;
+    private DataSplitter splitter;
+    private Network network;
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        StringBuilder csv = new StringBuilder("X_1,X_2,X_3,Y\n");
+        for (int i = 0; i < 20; i ++) {
+            csv.append(i % 7 - 3).append(",").append(2 - i % 5).append(",")
+                    .append(i % 3).append(",").append((i % 2 == 0) ? "l" : "r").append("\n");
+        }
+        Path path = tempDir.resolve("data.csv");
+        Files.writeString(path, csv.toString());
+        splitter = new DataSplitter(path.toString(), List.of(3, 1, 1));
+        network = new Network(3, 2, List.of(4, 3));
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new StreamingTrainer(network, splitter, List.of("l", "r"), 4, 5, 2));
+        assertEquals("Batch size must be positive and no bigger than the chunk size " +
+                "(batchSize = 5, chunkSize = 4)", exception.getMessage());
+    }
+
+    @Test
+    void run() {
+        StreamingTrainer trainer = spy(new StreamingTrainer(network, splitter,
+                List.of("l", "r"), 5, 2, 3));
+        double[] x = {1.0, -2.0, 0.5};
+        double[] before = network.forwardPassOneDatapoint(x).clone();
+        trainer.run();
+
+        // 4 chunks of 5 datapoints per epoch, each with 3 training and 1 validation
+        verify(trainer, times(12)).trainOnChunk(any(Dataset.class));
+        verify(trainer, times(12)).validateOnChunk(any(Dataset.class));
+        Map<String, List<Double>> lossDf = trainer.getLossDf();
+        assertEquals(3, lossDf.get("Training").size());
+        assertEquals(3, lossDf.get("Validation").size());
+        assertFalse(Arrays.equals(before, network.forwardPassOneDatapoint(x)));
+    }
+
+    @Test
+    void runReusesTrainer() {
+        StreamingTrainer trainer = spy(new StreamingTrainer(network, splitter,
+                List.of("l", "r"), 5, 2, 2));
+        trainer.setNumThreads(2);
+        Set<Trainer> trainers = new HashSet<>();
+        Set<Validator> validators = new HashSet<>();
+        doAnswer(invocation -> {
+            Object loss = invocation.callRealMethod();
+            trainers.add(trainer.getTrainer());
+            return loss;
+        }).when(trainer).trainOnChunk(any(Dataset.class));
+        doAnswer(invocation -> {
+            Object loss = invocation.callRealMethod();
+            validators.add(trainer.getValidator());
+            return loss;
+        }).when(trainer).validateOnChunk(any(Dataset.class));
+        trainer.run();
+
+        // One Trainer and Validator for all 8 chunks, released after the run
+        assertEquals(1, trainers.size());
+        assertEquals(1, validators.size());
+        assertNull(trainers.iterator().next().getExecutor());
+        assertNull(validators.iterator().next().getExecutor());
+        assertNull(trainer.getTrainer());
+        assertNull(trainer.getValidator());
+    }
+
+    @Test
+    void runBatched() {
+        StreamingTrainer trainer = new StreamingTrainer(network, splitter,
+                List.of("l", "r"), 8, 2, 2);
+        trainer.setBatched(true);
+        trainer.setNumThreads(2);
+        trainer.run();
+        assertEquals(2, trainer.getLossDf().get("Training").size());
+    }
+
+    @Test
+    void generateLossPlot() throws IOException {
+        StreamingTrainer trainer = new StreamingTrainer(network, splitter,
+                List.of("l", "r"), 5, 2, 1);
+        try (MockedStatic<Plotter> mockPlotter = mockStatic(Plotter.class)) {
+            trainer.generateLossPlot("test_title");
+            mockPlotter.verify(() -> Plotter.plotLoss(anyMap(), eq("test_title")));
+        }
+    }
+}
@@ -6,7 +6,6 @@ import neural_network.functions.MSELoss;
 import neural_network.util.Header;
 import neural_network.util.Partitioner;
 import neural_network.util.Plotter;
-import neural_network.util.WeightedPartitioner;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,10 +21,6 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 public class TesterTest extends LearnerTest {
-    private final List<List<Integer>> partitions = List.of(
-            List.of(2, 4, 0), List.of(3, 1));
-    private final List<List<Integer>> weightedPartitions = List.of(
-            List.of(1, 3, 2), List.of(0, 4, 3));
     private final List<Double> batchLosses = List.of(
             0.5, 0.2);
     private final NavigableMap<Header, List<String>> testingDf = new TreeMap<>(Map.of(
@@ -109,20 +104,19 @@ public class TesterTest extends LearnerTest {
 
     @Override
     public Map<String, List<Object>> getLearnerWithExpectedLoss() {
-        List<List<Double>> outputNeuronVals = List.of(
-                List.of(0.2, 0.8));
-        List<List<Double>> regOutputNeuronVals = List.of(
-                List.of(1.9));
+        List<double[]> outputNeuronVals = List.of(
+                new double[]{0.2, 0.8});
+        List<double[]> regOutputNeuronVals = List.of(
+                new double[]{1.9});
         Map<String, List<Object>> forwardPassMap = new HashMap<>();
         Network mockNetwork = mock(Network.class);
-        doReturn(List.of(0.2, 0.8)).when(mockNetwork)
-                .forwardPassOneDatapoint(anyList());
+        stubFusedForwardPass(mockNetwork, List.of(0.2), List.of(1));
         Network mockRegNetwork = mock(Network.class);
-        doReturn(List.of(1.9)).when(mockRegNetwork)
-                .forwardPassOneDatapoint(anyList());
+        doReturn(regOutputNeuronVals.get(0)).when(mockRegNetwork)
+                .forwardPassOneDatapoint(any(double[].class));
         CrossEntropyLoss mockCrossEntropyLoss = mock(CrossEntropyLoss.class);
         doReturn(0.2).when(mockCrossEntropyLoss)
-                .call(anyList(), anyInt());
+                .call(any(double[].class), anyInt(), anyInt());
         MSELoss mockMSELoss = mock(MSELoss.class);
         doReturn(0.2).when(mockMSELoss)
                 .call(anyDouble(), anyDouble());
@@ -164,52 +158,50 @@ public class TesterTest extends LearnerTest {
 
     @Test
     void runDefault() {
-        // Mock most of the tester methods and the partitioner call
+        // Mock the evaluation and the partitioner
         Tester spyTester = spy(defaultTester);
         Partitioner mockPartitioner = mock(Partitioner.class);
-        when(mockPartitioner.call()).thenReturn(partitions);
         spyTester.setPartitioner(mockPartitioner);
-        doReturn(0.5, 0.2)
-                .when(spyTester).forwardPassOneBatch(anyList());
-        doNothing().when(spyTester).updateCategoricalDataframe();
+        doReturn(0.7).when(spyTester).evaluate();
         // Run
         spyTester.run();
-        // Ensure the partitioner and forward propagate are called the
-        // correct number of times
-        verify(mockPartitioner, times(1)).call();
-        for (int i = 0; i < 2; i ++) {
-            verify(spyTester, times(1))
-                    .forwardPassOneBatch(partitions.get(i));
-        }
+        // Ensure the datapoints are neither shuffled nor passed through the
+        // training path
+        verify(mockPartitioner, never()).shuffle();
+        verify(spyTester, never()).forwardPassOneBatch(any(int[].class), anyInt(), anyInt());
         // Now check the print calls
         assertTrue(outContent.toString().contains("Testing loss: 0.1400"));
-        // Now validate again and check that this time, the epoch has increased,
-        // and we get no print for epoch 1
-        verify(spyTester, times(1))
-                .updateCategoricalDataframe();
+        verify(spyTester, never()).updateCategoricalDataframe();
     }
 
     @Test
     void run() {
-        // Mock most of the tester methods and the partitioner call
+        // The categories are only found once they are needed, and the
+        // confusion matrix is found from the predicted classes
         Tester spyTester = spy(tester);
-        WeightedPartitioner mockPartitioner = mock(WeightedPartitioner.class);
-        when(mockPartitioner.call()).thenReturn(weightedPartitions);
-        spyTester.setPartitioner(mockPartitioner);
-        doReturn(0.5, 0.2)
-                .when(spyTester).forwardPassOneBatch(anyList());
-        doNothing().when(spyTester).updateCategoricalDataframe();
-        // Run
+        doNothing().when(spyTester).printConfusion(anyList());
+        doNothing().when(spyTester).printDiceScores(anyList());
         spyTester.run();
-        // Ensure the partitioner and forward propagate are called the
-        // correct number of times
-        verify(mockPartitioner, times(1)).call();
-        for (int i = 0; i < 2; i ++) {
-            verify(spyTester, times(1))
-                    .forwardPassOneBatch(weightedPartitions.get(i));
+        spyTester.generateConfusion();
+        verify(spyTester, never()).updateCategoricalDataframe();
+        List<String> y = spyTester.getCategoricalDf().get(Header.Y);
+        List<String> yHat = spyTester.getCategoricalDf().get(Header.Y_HAT);
+        verify(spyTester, times(1)).updateCategoricalDataframe();
+        List<List<Integer>> expectedContingencyTable = new ArrayList<>();
+        for (String yCategory : List.of("l", "r")) {
+            List<Integer> row = new ArrayList<>();
+            for (String yHatCategory : List.of("l", "r")) {
+                int count = 0;
+                for (int i = 0; i < 5; i ++) {
+                    if (y.get(i).equals(yCategory) && yHat.get(i).equals(yHatCategory)) {
+                        count ++;
+                    }
+                }
+                row.add(count);
+            }
+            expectedContingencyTable.add(row);
         }
-        verify(spyTester, times(1))
-                .updateCategoricalDataframe();
+        verify(spyTester, times(1)).printConfusion(expectedContingencyTable);
     }
 
     @Test
@@ -1,13 +1,24 @@
 package neural_network.learning;
 
+import neural_network.components.BatchWorkspace;
+import neural_network.components.Checkpoint;
 import neural_network.components.Edge;
+import neural_network.components.InferenceSession;
 import neural_network.components.Network;
 import neural_network.functions.CrossEntropyLoss;
 import neural_network.functions.MSELoss;
+import neural_network.optimisers.Adam;
+import neural_network.optimisers.LearningRateSchedule;
+import neural_network.optimisers.Optimiser;
+import neural_network.util.Batches;
+import neural_network.util.DataSplitter;
+import neural_network.util.Dataset;
 import neural_network.util.Header;
 import neural_network.util.Partitioner;
 import neural_network.util.Plotter;
+import neural_network.util.WeightedPartitioner;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -15,7 +26,12 @@ import org.mockito.stubbing.Answer;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -131,20 +147,19 @@ public class TrainerTest extends LearnerTest {
 
     @Override
     public Map<String, List<Object>> getLearnerWithExpectedLoss() {
-        List<List<Double>> outputNeuronVals = List.of(
-                List.of(0.2, 0.8), List.of(0.7, 0.3));
-        List<List<Double>> regOutputNeuronVals = List.of(
-                List.of(1.9), List.of(0.2));
+        List<double[]> outputNeuronVals = List.of(
+                new double[]{0.2, 0.8}, new double[]{0.7, 0.3});
+        List<double[]> regOutputNeuronVals = List.of(
+                new double[]{1.9}, new double[]{0.2});
         Map<String, List<Object>> forwardPassMap = new HashMap<>();
         Network mockNetwork = mock(Network.class);
-        doReturn(List.of(0.2, 0.8), List.of(0.7, 0.3)).when(mockNetwork)
-                .forwardPassOneDatapoint(anyList());
+        stubFusedForwardPass(mockNetwork, List.of(0.2, 0.3), List.of(1, 0));
         Network mockRegNetwork = mock(Network.class);
-        doReturn(List.of(1.9), List.of(0.2)).when(mockRegNetwork)
-                .forwardPassOneDatapoint(anyList());
+        doReturn(regOutputNeuronVals.get(0), regOutputNeuronVals.get(1)).when(mockRegNetwork)
+                .forwardPassOneDatapoint(any(double[].class));
         CrossEntropyLoss mockCrossEntropyLoss = mock(CrossEntropyLoss.class);
         doReturn(0.2, 0.3).when(mockCrossEntropyLoss)
-                .call(anyList(), anyInt());
+                .call(any(double[].class), anyInt(), anyInt());
         MSELoss mockMSELoss = mock(MSELoss.class);
         doReturn(0.2, 0.3).when(mockMSELoss)
                 .call(anyDouble(), anyDouble());
@@ -229,27 +244,198 @@ public class TrainerTest extends LearnerTest {
         }
     }
 
+    @Test
+    void constructFromDatasetErroneous() {
+        Dataset regDataset = Dataset.fromDataframe(regTrainingDf, true);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Trainer(network, regDataset, 2, false, 10, 5, null));
+        assertEquals("The dataset must be for classification to match the network",
+                exception.getMessage());
+    }
+
+    @Test
+    void constructFromDataset() {
+        Dataset dataset = Dataset.fromDataframe(trainingDf, false);
+        Trainer datasetTrainer = new Trainer(network, dataset, 2, true, 10, 5, null);
+        assertIterableEquals(List.of("l", "r"), datasetTrainer.getCategoryNames());
+        assertSame(dataset, datasetTrainer.getDataset());
+        assertInstanceOf(WeightedPartitioner.class, datasetTrainer.getPartitioner());
+        NavigableMap<Header, List<Double>> datasetDf = datasetTrainer.getDf();
+        for (Header header : df.keySet()) {
+            assertIterableEquals(df.get(header), datasetDf.get(header));
+        }
+        NavigableMap<Header, List<String>> datasetCategoricalDf =
+                datasetTrainer.getCategoricalDf();
+        assertIterableEquals(trainingDf.get(Header.Y), datasetCategoricalDf.get(Header.Y));
+        assertIterableEquals(Collections.nCopies(10, ""),
+                datasetCategoricalDf.get(Header.Y_HAT));
+    }
+
+    @Test
+    void setDataset() {
+        Dataset dataset = Dataset.fromDataframe(trainingDf, false);
+        Trainer datasetTrainer = new Trainer(network, dataset, 2, false, 10, 5, null);
+        datasetTrainer.setNumThreads(2);
+        ExecutorService executor = datasetTrainer.getExecutor();
+        Partitioner partitioner = datasetTrainer.getPartitioner();
+
+        // The partition is kept for a chunk of the same size ...
+        Dataset sameSize = Dataset.fromDataframe(trainingDf, false);
+        datasetTrainer.setDataset(sameSize, 2);
+        assertSame(sameSize, datasetTrainer.getDataset());
+        assertSame(partitioner, datasetTrainer.getPartitioner());
+
+        // ... and rebuilt for a smaller one, but the worker threads are kept
+        Dataset smaller = dataset.slice(0, 6);
+        datasetTrainer.setDataset(smaller, 2);
+        assertEquals(6, datasetTrainer.getNumDatapoints());
+        assertNotSame(partitioner, datasetTrainer.getPartitioner());
+        assertSame(executor, datasetTrainer.getExecutor());
+        assertTrue(datasetTrainer.forwardPassOneBatch(new int[]{4, 5}, 0, 2) > 0);
+        assertEquals(6, datasetTrainer.getDf().get(Header.Y_HAT).size());
+        assertEquals(6, datasetTrainer.getCategoricalDf().get(Header.Y_HAT).size());
+        datasetTrainer.setNumThreads(1);
+
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> datasetTrainer.setDataset(Dataset.fromDataframe(regTrainingDf, true), 2));
+        assertEquals("The dataset must have 3 features for classification to match the network",
+                exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> datasetTrainer.setDataset(dataset.slice(0, 1), 2));
+        assertEquals("Batch size must be smaller than number of datapoints",
+                exception2.getMessage());
+        Trainer weightedTrainer = new Trainer(network, dataset, 2, true, 10, 5, null);
+        Exception exception3 = assertThrows(IllegalStateException.class,
+                () -> weightedTrainer.setDataset(dataset, 2));
+        assertEquals("Cannot replace the dataset of a weighted partition",
+                exception3.getMessage());
+    }
+
+    @Test
+    void runFromDataset(@TempDir Path tempDir) throws IOException {
+        // Training from a Dataset gives the same losses as from the dataframe
+        Partitioner mockPartitioner = mock(Partitioner.class);
+        when(mockPartitioner.shuffle()).thenAnswer(invocation -> toBatches(partitions));
+        Network dfNetwork = new Network(3, 2, List.of(4, 3));
+        Path path = tempDir.resolve("network.ckpt");
+        Checkpoint.save(dfNetwork, List.of("l", "r"), 0, path);
+        Network datasetNetwork = Checkpoint.load(path).getNetwork();
+        Trainer dfTrainer = new Trainer(dfNetwork, trainingDf, 2, 5);
+        dfTrainer.setPartitioner(mockPartitioner);
+        Trainer datasetTrainer = new Trainer(datasetNetwork,
+                Dataset.fromDataframe(trainingDf, false), 2, false, 10, 5, null);
+        datasetTrainer.setPartitioner(mockPartitioner);
+        dfTrainer.run();
+        datasetTrainer.run();
+        assertIterableEquals(dfTrainer.getLossDf().get("Training"),
+                datasetTrainer.getLossDf().get("Training"));
+        assertIterableEquals(dfTrainer.getCategoricalDf().get(Header.Y_HAT),
+                datasetTrainer.getCategoricalDf().get(Header.Y_HAT));
+    }
+
     @Test
     void storeGradients() {
         Network spyNetwork = spy(network);
-        doNothing().when(spyNetwork).storeGradientOfLoss(
-                any(Edge.class), anyInt(), anyBoolean());
         trainer.setNetwork(spyNetwork);
         int id = 4;
         trainer.storeGradients(id);
-        List<List<List<Edge>>> edges = network.getEdges();
-        for (List<List<Edge>> edgeLayer : edges) {
-            for (List<Edge> rightNeuron : edgeLayer) {
-                boolean first = true;
-                for (Edge edge : rightNeuron) {
-                    verify(spyNetwork, times(1))
-                            .storeGradientOfLoss(edge, 0, first);
-                    first = false;
-                }
+
+        // The layer-wise backward pass finds each delta once, without going
+        // through the edges one at a time
+        verify(spyNetwork, times(1)).storeGradientsOfLoss(0.0);
+        verify(spyNetwork, never()).storeGradientOfLoss(any(Edge.class), anyDouble(),
+                anyBoolean());
+    }
+
+    @Test
+    void storeGradientsWithoutCopying() {
+        // Neither the df nor the edges should be copied for each datapoint
+        Network spyNetwork = spy(network);
+        doNothing().when(spyNetwork).storeGradientsOfLoss(anyDouble());
+        Trainer spyTrainer = spy(trainer);
+        spyTrainer.setNetwork(spyNetwork);
+        spyTrainer.storeGradients(5);
+        verify(spyNetwork, times(1)).storeGradientsOfLoss(1.0);
+        verify(spyNetwork, never()).getEdges();
+        verify(spyTrainer, never()).getDf();
+    }
+
+    @Test
+    void forwardPassOneBatchMatrix() {
+        for (Trainer learner : List.of(trainer, regTrainer)) {
+            List<Integer> batchIds = List.of(6, 2, 9);
+            assertFalse(learner.isBatched());
+            double expectedLoss = learner.forwardPassOneBatch(batchIds);
+            List<Double> expectedYHat = learner.getDf().get(Header.Y_HAT);
+
+            // The matrix path should give the same loss and predictions
+            learner.setBatched(true);
+            assertTrue(learner.isBatched());
+            double loss = learner.forwardPassOneBatch(batchIds);
+            List<Double> yHat = learner.getDf().get(Header.Y_HAT);
+            assertEquals(expectedLoss, loss, 1e-12);
+            for (int id : batchIds) {
+                assertEquals(expectedYHat.get(id), yHat.get(id), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void storeBatchGradients() {
+        Network spyNetwork = spy(network);
+        trainer.setNetwork(spyNetwork);
+        trainer.setBatched(true);
+        trainer.forwardPassOneBatch(List.of(4, 5));
+        verify(spyNetwork, times(1)).storeGradientsOfLoss(
+                any(double[].class), eq(2), any(BatchWorkspace.class));
+        verify(spyNetwork, times(1)).accumulateGradients(any(BatchWorkspace.class));
+        verify(spyNetwork, never()).storeGradientsOfLoss(anyDouble());
+    }
+
+    @Test
+    void setNumThreadsErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> trainer.setNumThreads(0));
+        assertEquals("numThreads must be positive (0)", exception.getMessage());
+    }
+
+    @Test
+    void forwardPassOneBatchParallel() {
+        for (Trainer learner : List.of(trainer, regTrainer)) {
+            List<Integer> batchIds = List.of(6, 2, 9, 0, 3, 1, 8);
+            double expectedLoss = learner.forwardPassOneBatch(batchIds);
+            List<Double> expectedYHat = learner.getDf().get(Header.Y_HAT);
+
+            // Splitting the batch across workers should give the same loss
+            // and predictions
+            learner.setNumThreads(3);
+            assertEquals(3, learner.getNumThreads());
+            double loss = learner.forwardPassOneBatch(batchIds);
+            List<Double> yHat = learner.getDf().get(Header.Y_HAT);
+            assertEquals(expectedLoss, loss, 1e-12);
+            for (int id : batchIds) {
+                assertEquals(expectedYHat.get(id), yHat.get(id), 1e-12);
             }
+            learner.setNumThreads(1);
         }
     }
 
+    @Test
+    void reduceBatchGradientsInWorkerOrder() {
+        Network spyNetwork = spy(network);
+        trainer.setNetwork(spyNetwork);
+        trainer.setNumThreads(3);
+        trainer.forwardPassOneBatch(List.of(6, 2, 9, 0, 3, 1, 8));
+        trainer.setNumThreads(1);
+
+        // Chunks of 3, 3 and 1 datapoints, reduced one after the other
+        verify(spyNetwork, times(2)).storeGradientsOfLoss(
+                any(double[].class), eq(3), any(BatchWorkspace.class));
+        verify(spyNetwork, times(1)).storeGradientsOfLoss(
+                any(double[].class), eq(1), any(BatchWorkspace.class));
+        verify(spyNetwork, times(3)).accumulateGradients(any(BatchWorkspace.class));
+    }
+
     @Test
     void backPropagateOneBatch() {
         Network mockNetwork = mock(Network.class);
@@ -261,12 +447,27 @@ public class TrainerTest extends LearnerTest {
                 .backPropagateBiases();
     }
 
+    @Test
+    void backPropagateOneBatchWithOptimiser() {
+        Optimiser optimiser = new Adam(0.01);
+        Trainer optimisedTrainer = new Trainer(network, trainingDf, 2, false, 0, 5,
+                null, optimiser);
+        assertSame(optimiser, optimisedTrainer.getOptimiser());
+        assertNull(trainer.getOptimiser());
+        Network mockNetwork = mock(Network.class);
+        optimisedTrainer.setNetwork(mockNetwork);
+        optimisedTrainer.backPropagateOneBatch();
+        verify(mockNetwork, times(1)).backPropagate(optimiser);
+        verify(mockNetwork, never()).backPropagateWeights();
+        verify(mockNetwork, never()).backPropagateBiases();
+    }
+
     @Test
     void runDefault() {
         // Mock most of the trainer methods and the partitioner call
         Trainer spyTrainer = spy(defaultTrainer);
         Partitioner mockPartitioner = mock(Partitioner.class);
-        when(mockPartitioner.call()).thenReturn(partitions);
+        when(mockPartitioner.shuffle()).thenAnswer(invocation -> toBatches(partitions));
         spyTrainer.setPartitioner(mockPartitioner);
         doAnswer(new Answer<>() {
             int callIndex = -1;
@@ -275,17 +476,17 @@ public class TrainerTest extends LearnerTest {
                 callIndex ++;
                 return batchLosses.get(callIndex);
             }
-        }).when(spyTrainer).forwardPassOneBatch(anyList());
+        }).when(spyTrainer).forwardPassOneBatch(any(int[].class), anyInt(), anyInt());
         doNothing().when(spyTrainer).backPropagateOneBatch();
         doNothing().when(spyTrainer).updateCategoricalDataframe();
         // Run
         spyTrainer.run();
         // Ensure the partitioner, forward propagate and back propagate
         // have been called the right number of times
-        verify(mockPartitioner, times(5)).call();
+        verify(mockPartitioner, times(5)).shuffle();
         for (int i = 0; i < 5; i ++) {
             verify(spyTrainer, times(5))
-                    .forwardPassOneBatch(partitions.get(i));
+                    .forwardPassOneBatch(any(int[].class), eq(2 * i), eq(2));
         }
         verify(spyTrainer, times(25))
                 .backPropagateOneBatch();
@@ -315,7 +516,7 @@ public class TrainerTest extends LearnerTest {
         Trainer spyTrainer = spy(new Trainer(network, trainingDf, 2, true,
                 10, 5, mockValidator));
         Partitioner mockPartitioner = mock(Partitioner.class);
-        when(mockPartitioner.call()).thenReturn(weightedPartitions);
+        when(mockPartitioner.shuffle()).thenAnswer(invocation -> toBatches(weightedPartitions));
         spyTrainer.setPartitioner(mockPartitioner);
         doAnswer(new Answer<>() {
             int callIndex = -1;
@@ -324,17 +525,17 @@ public class TrainerTest extends LearnerTest {
                 callIndex ++;
                 return batchLosses.get(callIndex);
             }
-        }).when(spyTrainer).forwardPassOneBatch(anyList());
+        }).when(spyTrainer).forwardPassOneBatch(any(int[].class), anyInt(), anyInt());
         doNothing().when(spyTrainer).backPropagateOneBatch();
         doNothing().when(spyTrainer).updateCategoricalDataframe();
         // Run
         spyTrainer.run();
         // Ensure the partitioner, forward propagate and back propagate
         // have been called the right number of times
-        verify(mockPartitioner, times(5)).call();
+        verify(mockPartitioner, times(5)).shuffle();
         for (int i = 0; i < 5; i ++) {
             verify(spyTrainer, times(5))
-                    .forwardPassOneBatch(weightedPartitions.get(i));
+                    .forwardPassOneBatch(any(int[].class), eq(2 * i), eq(2));
         }
         verify(spyTrainer, times(25))
                 .backPropagateOneBatch();
@@ -376,9 +577,9 @@ public class TrainerTest extends LearnerTest {
         // This is just to test the print calls
         Trainer spyTrainer = spy(new Trainer(network, trainingDf, 2, 120));
         Partitioner mockPartitioner = mock(Partitioner.class);
-        when(mockPartitioner.call()).thenReturn(partitions);
+        when(mockPartitioner.shuffle()).thenAnswer(invocation -> toBatches(partitions));
         spyTrainer.setPartitioner(mockPartitioner);
-        doReturn(0.1).when(spyTrainer).forwardPassOneBatch(anyList());
+        doReturn(0.1).when(spyTrainer).forwardPassOneBatch(any(int[].class), anyInt(), anyInt());
         doNothing().when(spyTrainer).backPropagateOneBatch();
         doNothing().when(spyTrainer).updateCategoricalDataframe();
         // Run
@@ -393,6 +594,455 @@ public class TrainerTest extends LearnerTest {
         assertFalse(output.contains("Epoch: 109"));
     }
 
+    @Test
+    void setEarlyStoppingErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> trainer.setEarlyStopping(-1, 0.0));
+        assertEquals("patience and minDelta must not be negative " +
+                "(patience = -1, minDelta = 0.000000)", exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> trainer.setTimeBudget(Duration.ZERO));
+        assertEquals("timeBudget must be positive (PT0S)", exception2.getMessage());
+        Exception exception3 = assertThrows(IllegalArgumentException.class,
+                () -> trainer.setSampleBudget(-5));
+        assertEquals("sampleBudget must not be negative (-5)", exception3.getMessage());
+    }
+
+    @Test
+    void runCompleted() {
+        assertNull(defaultTrainer.getStoppingReason());
+        assertEquals(-1, defaultTrainer.getBestEpoch());
+        Trainer spyTrainer = spy(defaultTrainer);
+        doReturn(0.4, 0.3, 0.5, 0.2, 0.2).when(spyTrainer).trainOneEpoch();
+        spyTrainer.run();
+
+        // Without a validator, the best epoch has the lowest training loss
+        assertEquals(StoppingReason.COMPLETED, spyTrainer.getStoppingReason());
+        assertEquals(3, spyTrainer.getBestEpoch());
+    }
+
+    @Test
+    void runEarlyStopping() {
+        double[] x = {1.0, -2.0, 0.5};
+        List<double[]> outputs = new ArrayList<>();
+        Validator mockValidator = mock(Validator.class);
+        List<Double> validationLosses = List.of(0.9, 0.5, 0.6, 0.55, 0.7);
+        when(mockValidator.validate(anyInt())).thenAnswer(invocation -> {
+            outputs.add(network.forwardPassOneDatapoint(x).clone());
+            return validationLosses.get(outputs.size() - 1);
+        });
+        Trainer earlyTrainer = new Trainer(network, trainingDf, 2, false, 0, 10,
+                mockValidator);
+        earlyTrainer.setEarlyStopping(2, 0.0);
+        earlyTrainer.run();
+
+        // The loss stops improving after epoch 1, so we stop after epoch 3 and
+        // restore the weights from the end of epoch 1
+        assertEquals(StoppingReason.EARLY_STOPPED, earlyTrainer.getStoppingReason());
+        assertEquals(1, earlyTrainer.getBestEpoch());
+        assertEquals(4, earlyTrainer.getLossDf().get("Training").size());
+        assertFalse(Arrays.equals(outputs.get(1), outputs.get(3)));
+        assertArrayEquals(outputs.get(1), network.forwardPassOneDatapoint(x), 1e-12);
+    }
+
+    @Test
+    void runEarlyStoppingMinDelta() {
+        Validator mockValidator = mock(Validator.class);
+        doReturn(0.9, 0.85, 0.8, 0.7).when(mockValidator).validate(anyInt());
+        Trainer spyTrainer = spy(new Trainer(network, trainingDf, 2, false, 0, 10,
+                mockValidator));
+        doReturn(1.0).when(spyTrainer).trainOneEpoch();
+        spyTrainer.setEarlyStopping(2, 0.1);
+        spyTrainer.run();
+        assertEquals(StoppingReason.EARLY_STOPPED, spyTrainer.getStoppingReason());
+        assertEquals(0, spyTrainer.getBestEpoch());
+        verify(spyTrainer, times(3)).trainOneEpoch();
+    }
+
+    @Test
+    void runBudgets() {
+        // 10 datapoints per epoch
+        Trainer spyTrainer = spy(new Trainer(network, trainingDf, 2, 100));
+        doReturn(1.0).when(spyTrainer).trainOneEpoch();
+        spyTrainer.setSampleBudget(25);
+        spyTrainer.run();
+        assertEquals(StoppingReason.SAMPLE_BUDGET, spyTrainer.getStoppingReason());
+        verify(spyTrainer, times(3)).trainOneEpoch();
+
+        // The clock moves on by one second each time it is read
+        long[] time = {0};
+        spyTrainer.setSampleBudget(0);
+        spyTrainer.setClock(() -> time[0] += 1_000_000_000L);
+        spyTrainer.setTimeBudget(Duration.ofMillis(2500));
+        spyTrainer.run();
+        assertEquals(StoppingReason.TIME_BUDGET, spyTrainer.getStoppingReason());
+        verify(spyTrainer, times(6)).trainOneEpoch();
+    }
+
+    @Test
+    void setHogwildErroneous() {
+        Trainer adamTrainer = new Trainer(network, trainingDf, 2, false, 0, 5, null,
+                new Adam(0.01));
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> adamTrainer.setHogwild(true));
+        assertEquals("Hogwild training does not support the Adam optimiser",
+                exception.getMessage());
+        assertFalse(adamTrainer.isHogwild());
+    }
+
+    @Test
+    void setPrefetchErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> trainer.setPrefetch(-1));
+        assertEquals("prefetchDepth must be non-negative (-1)", exception1.getMessage());
+        trainer.setHogwild(true);
+        Exception exception2 = assertThrows(IllegalStateException.class,
+                () -> trainer.setPrefetch(2));
+        assertEquals("Hogwild training does not support prefetching", exception2.getMessage());
+        trainer.setHogwild(false);
+        trainer.setPrefetch(2);
+        Exception exception3 = assertThrows(IllegalStateException.class,
+                () -> trainer.setHogwild(true));
+        assertEquals("Hogwild training does not support prefetching", exception3.getMessage());
+        trainer.setPrefetch(0);
+        assertEquals(0, trainer.getPrefetchDepth());
+        assertNull(trainer.getPrefetchStatistics());
+    }
+
+    @Test
+    void runPrefetch() {
+        // Prefetching gives the same results as the batched path
+        Network prefetchNetwork = new Network(3, 2, List.of(4, 3));
+        network.newSnapshot().restoreInto(prefetchNetwork);
+        Partitioner mockPartitioner = mock(Partitioner.class);
+        when(mockPartitioner.shuffle()).thenAnswer(invocation -> toBatches(partitions));
+        Trainer batchedTrainer = new Trainer(network, trainingDf, 2, 5);
+        batchedTrainer.setBatched(true);
+        batchedTrainer.setPartitioner(mockPartitioner);
+        batchedTrainer.run();
+        Trainer prefetchTrainer = new Trainer(prefetchNetwork, trainingDf, 2, 5);
+        prefetchTrainer.setPrefetch(2);
+        prefetchTrainer.setPartitioner(mockPartitioner);
+        prefetchTrainer.run();
+
+        assertEquals(2, prefetchTrainer.getPrefetchDepth());
+        assertIterableEquals(batchedTrainer.getLossDf().get("Training"),
+                prefetchTrainer.getLossDf().get("Training"));
+        assertIterableEquals(batchedTrainer.getCategoricalDf().get(Header.Y_HAT),
+                prefetchTrainer.getCategoricalDf().get(Header.Y_HAT));
+        double[] x = {1.0, -2.0, 0.5};
+        assertArrayEquals(network.forwardPassOneDatapoint(x),
+                prefetchNetwork.forwardPassOneDatapoint(x), 0.0);
+        PrefetchStatistics statistics = prefetchTrainer.getPrefetchStatistics();
+        assertEquals(25, statistics.getNumBatches());
+        assertTrue(statistics.getNumStalls() <= 25);
+        prefetchTrainer.setPrefetch(0);
+    }
+
+    @Test
+    void runHogwildOneThread() {
+        // With one thread, Hogwild training applies the same updates as the
+        // batched path, batch by batch
+        Network hogwildNetwork = new Network(3, 2, List.of(4, 3));
+        network.newSnapshot().restoreInto(hogwildNetwork);
+        Partitioner mockPartitioner = mock(Partitioner.class);
+        when(mockPartitioner.shuffle()).thenAnswer(invocation -> toBatches(partitions));
+        Trainer batchedTrainer = new Trainer(network, trainingDf, 2, 5);
+        batchedTrainer.setBatched(true);
+        batchedTrainer.setPartitioner(mockPartitioner);
+        batchedTrainer.run();
+        Trainer hogwildTrainer = new Trainer(hogwildNetwork, trainingDf, 2, 5);
+        hogwildTrainer.setHogwild(true);
+        hogwildTrainer.setPartitioner(mockPartitioner);
+        hogwildTrainer.run();
+
+        assertTrue(hogwildTrainer.isHogwild());
+        List<Double> expectedLosses = batchedTrainer.getLossDf().get("Training");
+        List<Double> losses = hogwildTrainer.getLossDf().get("Training");
+        for (int i = 0; i < 5; i ++) {
+            assertEquals(expectedLosses.get(i), losses.get(i), 1e-4);
+        }
+        double[] x = {1.0, -2.0, 0.5};
+        assertArrayEquals(network.forwardPassOneDatapoint(x),
+                hogwildNetwork.forwardPassOneDatapoint(x), 1e-12);
+        HogwildStatistics statistics = hogwildTrainer.getHogwildStatistics();
+        assertEquals(25, statistics.getNumUpdates());
+        assertEquals(0, statistics.getNumConflicts());
+        assertEquals(0.0, statistics.getMeanStaleness());
+    }
+
+    @Test
+    void runHogwild() {
+        Trainer hogwildTrainer = new Trainer(network, trainingDf, 2, 20);
+        hogwildTrainer.setNumThreads(4);
+        hogwildTrainer.setHogwild(true);
+        hogwildTrainer.run();
+        assertEquals(20, hogwildTrainer.getLossDf().get("Training").size());
+        HogwildStatistics statistics = hogwildTrainer.getHogwildStatistics();
+        assertEquals(100, statistics.getNumUpdates());
+        assertTrue(statistics.getConflictRate() >= 0.0 && statistics.getConflictRate() <= 1.0);
+        assertTrue(statistics.getMeanStaleness() >= 0.0);
+        assertTrue(statistics.toString().startsWith("Hogwild updates: 100, conflict rate: "));
+        hogwildTrainer.setHogwild(false);
+        assertNull(hogwildTrainer.getHogwildStatistics());
+    }
+
+    @Test
+    void runHogwildConvergence() {
+        // Compare Hogwild training with synchronous training on the bundled
+        // circle example, from the same starting weights
+        NavigableMap<Header, List<String>> circleData = new DataSplitter(
+                "src/main/resources/examples/classification/circle/circle_data.csv",
+                List.of(1)).split().get(0);
+        Network syncNetwork = new Network(2, 3, List.of(4, 4, 4),
+                2, 0.01, 0.05, false, false, Double.NaN, true);
+        Network hogwildNetwork = new Network(2, 3, List.of(4, 4, 4),
+                2, 0.01, 0.05, false, false, Double.NaN, true);
+        syncNetwork.newSnapshot().restoreInto(hogwildNetwork);
+        Trainer syncTrainer = new Trainer(syncNetwork, circleData, 16, 40);
+        syncTrainer.setBatched(true);
+        syncTrainer.setNumThreads(4);
+        syncTrainer.run();
+        Trainer hogwildTrainer = new Trainer(hogwildNetwork, circleData, 16, 40);
+        hogwildTrainer.setNumThreads(4);
+        hogwildTrainer.setHogwild(true);
+        hogwildTrainer.run();
+
+        List<Double> syncLosses = syncTrainer.getLossDf().get("Training");
+        List<Double> hogwildLosses = hogwildTrainer.getLossDf().get("Training");
+        assertTrue(hogwildLosses.get(39) < hogwildLosses.get(0));
+        assertEquals(syncLosses.get(39), hogwildLosses.get(39), 0.15);
+    }
+
+    @Test
+    void setValidationIntervalErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> trainer.setValidationInterval(0));
+        assertEquals("validationInterval must be positive (0)", exception.getMessage());
+    }
+
+    @Test
+    void runValidationInterval() {
+        // With 5 epochs, we validate after epochs 1, 3 and 4 (the last)
+        Validator mockValidator = mock(Validator.class);
+        doReturn(0.5).when(mockValidator).validate(anyInt());
+        Trainer intervalTrainer = new Trainer(network, trainingDf, 2, false, 0, 5,
+                mockValidator);
+        intervalTrainer.setValidationInterval(2);
+        intervalTrainer.run();
+        verify(mockValidator, times(3)).validate(anyInt());
+        assertEquals(5, intervalTrainer.getLossDf().get("Training").size());
+        assertEquals(3, intervalTrainer.getLossDf().get("Validation").size());
+    }
+
+    @Test
+    void runAsyncValidation() {
+        // Without any training, the validation losses are the same either way
+        Trainer syncTrainer = spy(new Trainer(network, trainingDf, 2, false, 0, 4,
+                new Validator(network, validationDf, 1)));
+        doReturn(1.0).when(syncTrainer).trainOneEpoch();
+        syncTrainer.run();
+        Trainer asyncTrainer = spy(new Trainer(network, trainingDf, 2, false, 0, 4,
+                new Validator(network, validationDf, 1)));
+        doReturn(1.0).when(asyncTrainer).trainOneEpoch();
+        asyncTrainer.setAsyncValidation(true);
+        assertTrue(asyncTrainer.isAsyncValidation());
+        asyncTrainer.run();
+        assertEquals(syncTrainer.getLossDf(), asyncTrainer.getLossDf());
+
+        // The losses are recorded in epoch order, even if the first is the slowest
+        Validator mockValidator = mock(Validator.class);
+        List<Double> validationLosses = List.of(0.4, 0.3, 0.2, 0.1);
+        int[] numCalls = {0};
+        when(mockValidator.validate(any(InferenceSession.class))).thenAnswer(invocation -> {
+            if (numCalls[0] == 0) {
+                Thread.sleep(50);
+            }
+            return validationLosses.get(numCalls[0] ++);
+        });
+        Trainer orderedTrainer = new Trainer(network, trainingDf, 2, false, 0, 4,
+                mockValidator);
+        orderedTrainer.setAsyncValidation(true);
+        orderedTrainer.run();
+        verify(mockValidator, never()).validate(anyInt());
+        assertEquals(validationLosses, orderedTrainer.getLossDf().get("Validation"));
+        assertEquals(3, orderedTrainer.getBestEpoch());
+        orderedTrainer.setAsyncValidation(false);
+        assertFalse(orderedTrainer.isAsyncValidation());
+    }
+
+    @Test
+    void runAsyncEarlyStopping() {
+        double[] x = {1.0, -2.0, 0.5};
+        List<double[]> outputs = Collections.synchronizedList(new ArrayList<>());
+        Validator mockValidator = mock(Validator.class);
+        List<Double> validationLosses = List.of(0.9, 0.5, 0.6, 0.55, 0.7, 0.8, 0.9, 1.0,
+                1.1, 1.2);
+        when(mockValidator.validate(any(InferenceSession.class))).thenAnswer(invocation -> {
+            InferenceSession session = invocation.getArgument(0);
+            double[] output = new double[2];
+            session.predict(x, output);
+            outputs.add(output);
+            return validationLosses.get(outputs.size() - 1);
+        });
+        Trainer earlyTrainer = new Trainer(network, trainingDf, 2, false, 0, 10,
+                mockValidator);
+        earlyTrainer.setEarlyStopping(2, 0.0);
+        earlyTrainer.setAsyncValidation(true);
+        earlyTrainer.run();
+
+        // The results may come back a few epochs late, but the weights from
+        // the end of epoch 1 are still restored
+        assertEquals(StoppingReason.EARLY_STOPPED, earlyTrainer.getStoppingReason());
+        assertEquals(1, earlyTrainer.getBestEpoch());
+        int numEpochs = earlyTrainer.getLossDf().get("Training").size();
+        assertTrue(numEpochs >= 4);
+        assertEquals(numEpochs, earlyTrainer.getLossDf().get("Validation").size());
+        assertArrayEquals(outputs.get(1), network.forwardPassOneDatapoint(x), 1e-12);
+    }
+
+    @Test
+    void runAsyncEarlyStoppingWithPendingValidations() {
+        // Patience runs out on the validation of epoch 3, which is collected at
+        // the end of epoch 4 while the (better) validation of epoch 4 still runs
+        CountDownLatch epoch4Started = new CountDownLatch(1);
+        CountDownLatch epoch3Validated = new CountDownLatch(1);
+        Validator mockValidator = mock(Validator.class);
+        List<Double> validationLosses = List.of(0.9, 0.5, 0.6, 0.7, 0.1, 0.1, 0.1, 0.1);
+        AtomicInteger numValidations = new AtomicInteger();
+        when(mockValidator.validate(any(InferenceSession.class))).thenAnswer(invocation -> {
+            int epoch = numValidations.getAndIncrement();
+            if (epoch == 3) {
+                epoch4Started.await();
+                epoch3Validated.countDown();
+            } else if (epoch == 4) {
+                Thread.sleep(200);
+            }
+            return validationLosses.get(epoch);
+        });
+        LearningRateSchedule schedule = mock(LearningRateSchedule.class);
+        Trainer earlyTrainer = spy(new Trainer(network, trainingDf, 2, false, 0, 8,
+                mockValidator));
+        int[] numEpochs = {0};
+        doAnswer(invocation -> {
+            if (numEpochs[0] ++ == 4) {
+                epoch4Started.countDown();
+                epoch3Validated.await();
+                Thread.sleep(20);
+            }
+            return 1.0;
+        }).when(earlyTrainer).trainOneEpoch();
+        earlyTrainer.setLearningRateSchedule(schedule);
+        earlyTrainer.setEarlyStopping(2, 0.0);
+        earlyTrainer.setAsyncValidation(true);
+        earlyTrainer.run();
+
+        // The late validation is recorded, but neither becomes the best epoch
+        // nor steps the schedule
+        assertEquals(StoppingReason.EARLY_STOPPED, earlyTrainer.getStoppingReason());
+        assertEquals(5, earlyTrainer.getLossDf().get("Training").size());
+        assertEquals(validationLosses.subList(0, 5),
+                earlyTrainer.getLossDf().get("Validation"));
+        assertEquals(1, earlyTrainer.getBestEpoch());
+        verify(schedule).observe(3, 0.7);
+        verify(schedule, never()).observe(eq(4), anyDouble());
+    }
+
+    @Test
+    void runWithLearningRateSchedule() {
+        // 5 batches per epoch for 5 epochs
+        List<Double> learningRates = new ArrayList<>();
+        LearningRateSchedule schedule = spy(new LearningRateSchedule() {
+            @Override
+            public double getLearningRate(double baseLearningRate, int epoch, int step,
+                                          int stepsPerEpoch) {
+                return baseLearningRate / (step + 1);
+            }
+        });
+        Network spyNetwork = spy(network);
+        defaultTrainer.setNetwork(spyNetwork);
+        doAnswer(invocation -> {
+            learningRates.add(invocation.getArgument(0));
+            return invocation.callRealMethod();
+        }).when(spyNetwork).setLearningRate(anyDouble());
+        defaultTrainer.setLearningRateSchedule(schedule);
+        defaultTrainer.run();
+        assertEquals(25, learningRates.size());
+        for (int step = 0; step < 25; step ++) {
+            assertEquals(0.01 / (step + 1), learningRates.get(step), 1e-15);
+        }
+        verify(schedule, times(1)).getLearningRate(0.01, 3, 17, 5);
+        for (int epoch = 0; epoch < 5; epoch ++) {
+            verify(schedule, times(1)).observe(eq(epoch), anyDouble());
+        }
+    }
+
+    @Test
+    void runWithLearningRateScheduleOptimiser() {
+        Adam adam = new Adam(0.02);
+        Trainer optimisedTrainer = new Trainer(network, trainingDf, 2, false, 0, 2,
+                null, adam);
+        optimisedTrainer.setLearningRateSchedule(
+                (baseLearningRate, epoch, step, stepsPerEpoch) -> baseLearningRate * (epoch + 1));
+        optimisedTrainer.run();
+
+        // The schedule changes the optimiser, not the network
+        assertEquals(0.04, adam.getLearningRate(), 1e-15);
+        assertEquals(0.01, network.getLearningRate());
+    }
+
+    @Test
+    void setCheckpointingErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> trainer.setCheckpointing(Path.of("network.ckpt"), 0));
+        assertEquals("interval must be positive (0)", exception.getMessage());
+    }
+
+    @Test
+    void runWithCheckpointing(@TempDir Path tempDir) throws IOException {
+        // Checkpoints after epochs 2 and 4 of 5
+        Path path = tempDir.resolve("network.ckpt");
+        Trainer spyTrainer = spy(defaultTrainer);
+        spyTrainer.setCheckpointing(path, 2);
+        spyTrainer.run();
+        verify(spyTrainer, times(1)).saveCheckpoint(2);
+        verify(spyTrainer, times(1)).saveCheckpoint(4);
+        verify(spyTrainer, times(2)).saveCheckpoint(anyInt());
+        Checkpoint checkpoint = Checkpoint.load(path);
+        assertEquals(4, checkpoint.getEpoch());
+        assertIterableEquals(List.of("l", "r"), checkpoint.getCategoryNames());
+    }
+
+    @Test
+    void resumeFrom(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("network.ckpt");
+        Checkpoint.save(network, List.of("l", "r"), 4, path);
+        Network resumedNetwork = new Network(3, 2, List.of(4, 3));
+        Trainer resumedTrainer = new Trainer(resumedNetwork, trainingDf, 2, 5);
+        resumedTrainer.resumeFrom(path);
+
+        // The weights are restored and only the last epoch is run
+        double[] x = {1.0, -2.0, 0.5};
+        assertArrayEquals(network.forwardPassOneDatapoint(x).clone(),
+                resumedNetwork.forwardPassOneDatapoint(x), 1e-12);
+        resumedTrainer.run();
+        assertEquals(1, resumedTrainer.getLossDf().get("Training").size());
+
+        // A second run starts from the beginning again
+        resumedTrainer.run();
+        assertEquals(6, resumedTrainer.getLossDf().get("Training").size());
+    }
+
+    @Test
+    void resumeFromErroneous(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("network.ckpt");
+        Checkpoint.save(network, List.of("l", "u"), 4, path);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> trainer.resumeFrom(path));
+        assertEquals("Checkpoint categories [l, u] do not match the data [l, r]",
+                exception.getMessage());
+    }
+
     @Test
     void generateScatter() throws IOException {
         try (MockedStatic<Plotter> mockPlotter = mockStatic(Plotter.class)) {
@@ -426,4 +1076,39 @@ public class TrainerTest extends LearnerTest {
                             "test_title"), times(1));
         }
     }
+
+    @Test
+    void setWeights() {
+        Exception exception = assertThrows(IllegalStateException.class,
+                () -> defaultTrainer.setClassWeights(new double[] {1.0, 2.0}));
+        assertEquals("Sampling weights need a weighted Trainer", exception.getMessage());
+        assertThrows(IllegalStateException.class,
+                () -> defaultTrainer.setSampleWeights(new double[10]));
+
+        // Only the datapoints of the first class are trained on
+        trainer.setClassWeights(new double[] {1.0, 0.0});
+        Batches batches = trainer.getPartitioner().shuffle();
+        String firstClass = trainer.getCategoryNames().get(0);
+        for (int id : batches.getIds()) {
+            assertEquals(firstClass, trainingDf.get(Header.Y).get(id));
+        }
+
+        // And only datapoint 4 with these weights
+        double[] weights = new double[10];
+        weights[4] = 1.0;
+        trainer.setSampleWeights(weights);
+        assertArrayEquals(new int[10], Arrays.stream(trainer.getPartitioner().shuffle().getIds())
+                .map(id -> id - 4).toArray());
+    }
+
+    /** Flattens a partition (of equal sets, except maybe the last) into
+     * {@code Batches}, as handed out by a {@code Partitioner}.
+     *
+     * @param partition The sets of ids.
+     * @return The {@code Batches}.
+     */
+    private static Batches toBatches(List<List<Integer>> partition) {
+        int[] ids = partition.stream().flatMap(List::stream).mapToInt(Integer::intValue).toArray();
+        return new Batches(ids, partition.get(0).size());
+    }
 }
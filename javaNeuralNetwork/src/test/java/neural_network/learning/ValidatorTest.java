@@ -6,7 +6,6 @@ import neural_network.functions.MSELoss;
 import neural_network.util.Header;
 import neural_network.util.Partitioner;
 import neural_network.util.Plotter;
-import neural_network.util.WeightedPartitioner;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,10 +24,6 @@ import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.doNothing;
 
 public class ValidatorTest extends LearnerTest {
-    private final List<List<Integer>> partitions = List.of(
-            List.of(2), List.of(0), List.of(1), List.of(3));
-    private final List<List<Integer>> weightedPartitions = List.of(
-            List.of(2), List.of(2), List.of(1), List.of(0));
     private final List<Double> batchLosses = List.of(
             0.4, 0.2, 0.5, 0.1);
     private final NavigableMap<Header, List<String>> validationDf = new TreeMap<>(Map.of(
@@ -112,20 +107,19 @@ public class ValidatorTest extends LearnerTest {
 
     @Override
     public Map<String, List<Object>> getLearnerWithExpectedLoss() {
-        List<List<Double>> outputNeuronVals = List.of(
-                List.of(0.2, 0.8));
-        List<List<Double>> regOutputNeuronVals = List.of(
-                List.of(1.9));
+        List<double[]> outputNeuronVals = List.of(
+                new double[]{0.2, 0.8});
+        List<double[]> regOutputNeuronVals = List.of(
+                new double[]{1.9});
         Map<String, List<Object>> forwardPassMap = new HashMap<>();
         Network mockNetwork = mock(Network.class);
-        doReturn(List.of(0.2, 0.8)).when(mockNetwork)
-                .forwardPassOneDatapoint(anyList());
+        stubFusedForwardPass(mockNetwork, List.of(0.2), List.of(1));
         Network mockRegNetwork = mock(Network.class);
-        doReturn(List.of(1.9)).when(mockRegNetwork)
-                .forwardPassOneDatapoint(anyList());
+        doReturn(regOutputNeuronVals.get(0)).when(mockRegNetwork)
+                .forwardPassOneDatapoint(any(double[].class));
         CrossEntropyLoss mockCrossEntropyLoss = mock(CrossEntropyLoss.class);
         doReturn(0.2).when(mockCrossEntropyLoss)
-                .call(anyList(), anyInt());
+                .call(any(double[].class), anyInt(), anyInt());
         MSELoss mockMSELoss = mock(MSELoss.class);
         doReturn(0.2).when(mockMSELoss)
                 .call(anyDouble(), anyDouble());
@@ -167,59 +161,72 @@ public class ValidatorTest extends LearnerTest {
 
     @Test
     void validateDefault() {
-        // Mock most of the validator methods and the partitioner call
+        // Mock the evaluation and the partitioner
         Validator spyValidator = spy(defaultValidator);
         Partitioner mockPartitioner = mock(Partitioner.class);
-        when(mockPartitioner.call()).thenReturn(partitions);
         spyValidator.setPartitioner(mockPartitioner);
-        doReturn(0.4, 0.2, 0.5, 0.1)
-                .when(spyValidator).forwardPassOneBatch(anyList());
-        doNothing().when(spyValidator).updateCategoricalDataframe();
+        doReturn(1.2, 0.4).when(spyValidator).evaluate();
         // Validate
         spyValidator.validate(1);
-        // Ensure the partitioner and forward propagate are called the
-        // correct number of times
-        verify(mockPartitioner, times(1)).call();
-        for (int i = 0; i < 4; i ++) {
-            verify(spyValidator, times(1))
-                    .forwardPassOneBatch(partitions.get(i));
-        }
+        // Ensure the datapoints are neither shuffled nor passed through the
+        // training path
+        verify(mockPartitioner, never()).shuffle();
+        verify(spyValidator, never()).forwardPassOneBatch(any(int[].class), anyInt(), anyInt());
         // Now check the print calls
         assertTrue(outContent.toString().contains("Validation loss: 0.3000"));
         // Now validate again and check that this time, the epoch has increased,
         // and we get no print for epoch 1
-        doReturn(0.1, 0.1, 0.1, 0.1)
-                .when(spyValidator).forwardPassOneBatch(anyList());
         spyValidator.validate(2);
         assertTrue(outContent.toString().contains("Validation loss: 0.3000"));
         assertFalse(outContent.toString().contains("Validation loss: 0.1000"));
-        verify(spyValidator, times(2))
-                .updateCategoricalDataframe();
+        verify(spyValidator, never()).updateCategoricalDataframe();
     }
 
     @Test
     void validate() {
-        // Mock most of the validator methods and the partitioner call
+        // The loss and predictions match a forward pass of each datapoint
+        List<List<Double>> rows = List.of(List.of(4.0, 1.0, 3.0), List.of(2.0, 5.0, -4.0),
+                List.of(-2.0, -4.0, 1.0), List.of(-9.0, 2.0, 4.0));
+        List<Integer> labels = List.of(1, 1, 0, 0);
+        CrossEntropyLoss crossEntropyLoss = new CrossEntropyLoss();
+        double totalLoss = 0.0;
+        List<String> expectedYHat = new ArrayList<>();
+        for (int i = 0; i < 4; i ++) {
+            List<Double> softmaxVector = network.forwardPassOneDatapoint(rows.get(i));
+            totalLoss += crossEntropyLoss.call(softmaxVector, labels.get(i));
+            expectedYHat.add(softmaxVector.get(1) > softmaxVector.get(0) ? "r" : "l");
+        }
         Validator spyValidator = spy(validator);
-        WeightedPartitioner mockPartitioner = mock(WeightedPartitioner.class);
-        when(mockPartitioner.call()).thenReturn(weightedPartitions);
-        spyValidator.setPartitioner(mockPartitioner);
-        doReturn(0.4, 0.2, 0.5, 0.1)
-                .when(spyValidator).forwardPassOneBatch(anyList());
-        doNothing().when(spyValidator).updateCategoricalDataframe();
-        // Validate
-        spyValidator.validate(1);
-        // Ensure the partitioner and forward propagate are called the
-        // correct number of times
-        verify(mockPartitioner, times(1)).call();
-        verify(spyValidator, times(1))
-                .forwardPassOneBatch(List.of(0));
-        verify(spyValidator, times(1))
-                .forwardPassOneBatch(List.of(1));
-        verify(spyValidator, times(2))
-                .forwardPassOneBatch(List.of(2));
-        verify(spyValidator, times(1))
-                .updateCategoricalDataframe();
+        assertEquals(Math.round(10000 * totalLoss / 4) / 10000.0, spyValidator.validate(1));
+
+        // The categories are only found once they are needed
+        verify(spyValidator, never()).updateCategoricalDataframe();
+        assertIterableEquals(expectedYHat, spyValidator.getCategoricalDf().get(Header.Y_HAT));
+        spyValidator.getCategoricalDf();
+        verify(spyValidator, times(1)).updateCategoricalDataframe();
+
+        // Splitting the datapoints across threads gives the same result
+        Validator parallelValidator = new Validator(network, validationDf, 1);
+        parallelValidator.setNumThreads(3);
+        assertEquals(Math.round(10000 * totalLoss / 4) / 10000.0, parallelValidator.validate(1));
+        assertEquals(spyValidator.getCategoricalDf(), parallelValidator.getCategoricalDf());
+    }
+
+    @Test
+    void validateSession() {
+        // The frozen copy gives the same loss as the network itself, without
+        // touching the network
+        double expectedLoss = validator.validate(1);
+        Network spyNetwork = spy(network);
+        Validator sessionValidator = new Validator(spyNetwork, validationDf, 1);
+        assertEquals(expectedLoss, sessionValidator.validate(network.newInferenceSession()));
+        verify(spyNetwork, never()).forwardPassOneDatapoint(anyList());
+        assertEquals(validator.getCategoricalDf(), sessionValidator.getCategoricalDf());
+
+        double expectedRegLoss = regValidator.validate(1);
+        Validator regSessionValidator = new Validator(regNetwork, regValidationDf, 1);
+        assertEquals(expectedRegLoss,
+                regSessionValidator.validate(regNetwork.newInferenceSession()));
     }
 
     @Test
@@ -0,0 +1,38 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdamTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Adam(0.1, 0.9, 1.5, 1e-8));
+        assertEquals("beta2 must be in [0, 1) (1.500000)", exception.getMessage());
+    }
+
+    @Test
+    void update() {
+        Adam adam = new Adam(0.1, 0.9, 0.999, 1e-8);
+        assertEquals(2, adam.getNumMoments());
+        double[] parameters = {1.0};
+        double[][] moments = new double[2][1];
+
+        // The first step has size learningRate after the bias correction
+        adam.update(parameters, new double[]{3.0}, moments, 0, 1, 1, true);
+        assertEquals(0.3, moments[0][0], 1e-12);
+        assertEquals(0.009, moments[1][0], 1e-12);
+        assertEquals(0.9, parameters[0], 1e-8);
+
+        // Compare the second step with the textbook form
+        double previous = parameters[0];
+        adam.update(parameters, new double[]{-1.0}, moments, 0, 1, 2, true);
+        double m = 0.9 * 0.3 - 0.1;
+        double v = 0.999 * 0.009 + 0.001;
+        double mHat = m / (1 - 0.9 * 0.9);
+        double vHat = v / (1 - 0.999 * 0.999);
+        assertEquals(previous - 0.1 * mHat / (Math.sqrt(vHat) + 1e-8), parameters[0], 1e-12);
+    }
+}
@@ -0,0 +1,48 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdamWTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new AdamW(0.1, -0.01));
+        assertEquals("weightDecay must be positive (-0.010000)", exception.getMessage());
+    }
+
+    @Test
+    void update() {
+        AdamW adamW = new AdamW(0.1, 0.5);
+        Adam adam = new Adam(0.1);
+        assertEquals(2, adamW.getNumMoments());
+        assertEquals(0.5, adamW.getWeightDecay());
+
+        // The weights decay by learningRate * weightDecay, but the biases do not
+        for (boolean weights : List.of(true, false)) {
+            double[] parameters = {2.0, -1.0};
+            double[] expected = parameters.clone();
+            double[][] moments = new double[2][2];
+            double[][] expectedMoments = new double[2][2];
+            double[] gradients = {0.4, 0.2};
+            adamW.update(parameters, gradients, moments, 0, 2, 1, weights);
+            adam.update(expected, gradients, expectedMoments, 0, 2, 1, weights);
+            for (int j = 0; j < 2; j ++) {
+                double decay = weights ? 0.05 * new double[]{2.0, -1.0}[j] : 0.0;
+                assertEquals(expected[j] - decay, parameters[j], 1e-12);
+            }
+            assertArrayEquals(expectedMoments[1], moments[1], 1e-12);
+        }
+    }
+
+    @Test
+    void setLearningRate() {
+        AdamW adamW = new AdamW(0.1, 0.5);
+        adamW.setLearningRate(0.01);
+        assertEquals(0.01, adamW.getLearningRate());
+    }
+}
@@ -0,0 +1,40 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CosineAnnealingTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> new CosineAnnealing(2, 0, 0.0));
+        assertEquals("period and periodMultiplier must be positive " +
+                "(period = 2, periodMultiplier = 0)", exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> new CosineAnnealing(2, 1, -0.1));
+        assertEquals("minLearningRate must not be negative (-0.100000)",
+                exception2.getMessage());
+    }
+
+    @Test
+    void getLearningRate() {
+        // Cycles of 2 and then 4 epochs, with 2 steps per epoch
+        CosineAnnealing cosineAnnealing = new CosineAnnealing(2, 2, 0.01);
+        assertEquals(0.1, cosineAnnealing.getLearningRate(0.1, 0, 0, 2), 1e-15);
+        assertEquals(0.055, cosineAnnealing.getLearningRate(0.1, 1, 2, 2), 1e-15);
+
+        // Warm restart at step 4, with a cycle of 8 steps
+        assertEquals(0.1, cosineAnnealing.getLearningRate(0.1, 2, 4, 2), 1e-15);
+        assertEquals(0.055, cosineAnnealing.getLearningRate(0.1, 4, 8, 2), 1e-15);
+        assertEquals(0.1, cosineAnnealing.getLearningRate(0.1, 6, 12, 2), 1e-15);
+    }
+
+    @Test
+    void getLearningRateNoRestarts() {
+        CosineAnnealing cosineAnnealing = new CosineAnnealing(4);
+        assertEquals(0.05, cosineAnnealing.getLearningRate(0.1, 2, 2, 1), 1e-15);
+        assertEquals(0.1, cosineAnnealing.getLearningRate(0.1, 4, 4, 1), 1e-15);
+    }
+}
@@ -0,0 +1,25 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExponentialDecayTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new ExponentialDecay(1.0));
+        assertEquals("decayRate must be in [0, 1) (1.000000)", exception.getMessage());
+    }
+
+    @Test
+    void getLearningRate() {
+        ExponentialDecay exponentialDecay = new ExponentialDecay(0.81);
+        assertEquals(0.1, exponentialDecay.getLearningRate(0.1, 0, 0, 4));
+
+        // Half way through the first epoch, and at the start of the second
+        assertEquals(0.09, exponentialDecay.getLearningRate(0.1, 0, 2, 4), 1e-15);
+        assertEquals(0.081, exponentialDecay.getLearningRate(0.1, 1, 4, 4), 1e-15);
+    }
+}
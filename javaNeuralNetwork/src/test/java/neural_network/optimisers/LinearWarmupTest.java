@@ -0,0 +1,38 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LinearWarmupTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new LinearWarmup(0, null));
+        assertEquals("warmupEpochs must be positive (0)", exception.getMessage());
+    }
+
+    @Test
+    void getLearningRate() {
+        LinearWarmup linearWarmup = new LinearWarmup(2, null);
+        assertEquals(0.025, linearWarmup.getLearningRate(0.1, 0, 0, 2), 1e-15);
+        assertEquals(0.1, linearWarmup.getLearningRate(0.1, 1, 3, 2), 1e-15);
+        assertEquals(0.1, linearWarmup.getLearningRate(0.1, 5, 10, 2));
+    }
+
+    @Test
+    void after() {
+        LearningRateSchedule after = mock(LearningRateSchedule.class);
+        when(after.getLearningRate(0.1, 1, 2, 2)).thenReturn(0.07);
+        LinearWarmup linearWarmup = new LinearWarmup(2, after);
+
+        // The schedule after the warmup starts from epoch 0 and step 0
+        assertEquals(0.07, linearWarmup.getLearningRate(0.1, 3, 6, 2));
+        linearWarmup.observe(1, 0.5);
+        linearWarmup.observe(2, 0.4);
+        verify(after, times(1)).observe(0, 0.4);
+        verify(after, never()).observe(anyInt(), eq(0.5));
+    }
+}
@@ -0,0 +1,29 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MomentumTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Momentum(0.1, 1.0));
+        assertEquals("gamma must be in [0, 1) (1.000000)", exception.getMessage());
+    }
+
+    @Test
+    void update() {
+        Momentum momentum = new Momentum(0.1, 0.9);
+        assertEquals(1, momentum.getNumMoments());
+        assertEquals(0.9, momentum.getGamma());
+        double[] parameters = {1.0, 2.0};
+        double[][] moments = {{0.5, 0.0}};
+        momentum.update(parameters, new double[]{1.0, -2.0}, moments, 0, 2, 1, false);
+
+        // v = 0.9 * v + 0.1 * g and p -= v
+        assertArrayEquals(new double[]{0.55, -0.2}, moments[0], 1e-12);
+        assertArrayEquals(new double[]{0.45, 2.2}, parameters, 1e-12);
+    }
+}
@@ -0,0 +1,28 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NesterovTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Nesterov(0.1, -0.5));
+        assertEquals("gamma must be in [0, 1) (-0.500000)", exception.getMessage());
+    }
+
+    @Test
+    void update() {
+        Nesterov nesterov = new Nesterov(0.1, 0.9);
+        assertEquals(1, nesterov.getNumMoments());
+        double[] parameters = {1.0};
+        double[][] moments = {{0.5}};
+        nesterov.update(parameters, new double[]{1.0}, moments, 0, 1, 1, true);
+
+        // v = 0.9 * 0.5 + 0.1 = 0.55, and p -= 0.9 * 0.55 + 0.1
+        assertEquals(0.55, moments[0][0], 1e-12);
+        assertEquals(1.0 - 0.595, parameters[0], 1e-12);
+    }
+}
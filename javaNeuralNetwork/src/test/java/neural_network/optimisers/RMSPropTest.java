@@ -0,0 +1,30 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RMSPropTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new RMSProp(0.1, 0.9, 0.0));
+        assertEquals("epsilon must be positive (0.000000)", exception.getMessage());
+    }
+
+    @Test
+    void update() {
+        RMSProp rmsProp = new RMSProp(0.01);
+        assertEquals(1, rmsProp.getNumMoments());
+        double[] parameters = {1.0, 1.0};
+        double[][] moments = new double[1][2];
+        rmsProp.update(parameters, new double[]{2.0, -0.5}, moments, 0, 2, 1, true);
+
+        // s = 0.1 * g^2, so each step is 0.01 * sign(g) / sqrt(0.1)
+        assertArrayEquals(new double[]{0.4, 0.025}, moments[0], 1e-12);
+        double expectedStep = 0.01 / Math.sqrt(0.1);
+        assertArrayEquals(new double[]{1.0 - expectedStep, 1.0 + expectedStep},
+                parameters, 1e-7);
+    }
+}
@@ -0,0 +1,43 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReduceOnPlateauTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> new ReduceOnPlateau(0.5, 0));
+        assertEquals("patience must be positive (0)", exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> new ReduceOnPlateau(0.5, 2, -1.0, 0.0));
+        assertEquals("minDelta and minLearningRate must not be negative " +
+                "(minDelta = -1.000000, minLearningRate = 0.000000)", exception2.getMessage());
+    }
+
+    @Test
+    void observe() {
+        ReduceOnPlateau reduceOnPlateau = new ReduceOnPlateau(0.5, 2, 0.01, 0.03);
+        assertEquals(0.1, reduceOnPlateau.getLearningRate(0.1, 0, 0, 1));
+
+        // 0.795 is not enough of an improvement, so the rate halves after it
+        reduceOnPlateau.observe(0, 0.8);
+        reduceOnPlateau.observe(1, 0.9);
+        assertEquals(0.1, reduceOnPlateau.getLearningRate(0.1, 2, 2, 1));
+        reduceOnPlateau.observe(2, 0.795);
+        assertEquals(0.05, reduceOnPlateau.getLearningRate(0.1, 3, 3, 1));
+
+        // An improvement resets the patience
+        reduceOnPlateau.observe(3, 0.5);
+        reduceOnPlateau.observe(4, 0.6);
+        assertEquals(0.05, reduceOnPlateau.getLearningRate(0.1, 5, 5, 1));
+
+        // The rate never falls below minLearningRate
+        reduceOnPlateau.observe(5, 0.6);
+        reduceOnPlateau.observe(6, 0.6);
+        reduceOnPlateau.observe(7, 0.6);
+        assertEquals(0.03, reduceOnPlateau.getLearningRate(0.1, 8, 8, 1));
+    }
+}
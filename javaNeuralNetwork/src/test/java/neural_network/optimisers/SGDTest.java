@@ -0,0 +1,32 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SGDTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new SGD(0.0));
+        assertEquals("learningRate must be positive (0.000000)", exception.getMessage());
+    }
+
+    @Test
+    void update() {
+        SGD sgd = new SGD(0.1);
+        assertEquals(0, sgd.getNumMoments());
+        double[] parameters = {1.0, 2.0, 3.0};
+        sgd.update(parameters, new double[]{0.5, -1.0, 2.0}, new double[0][], 1, 3, 1, true);
+        assertArrayEquals(new double[]{1.0, 2.1, 2.8}, parameters, 1e-12);
+    }
+
+    @Test
+    void setLearningRate() {
+        SGD sgd = new SGD(0.1);
+        sgd.setLearningRate(0.5);
+        assertEquals(0.5, sgd.getLearningRate());
+        assertThrows(IllegalArgumentException.class, () -> sgd.setLearningRate(-1.0));
+    }
+}
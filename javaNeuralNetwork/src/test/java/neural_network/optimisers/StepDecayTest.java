@@ -0,0 +1,27 @@
+package neural_network.optimisers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StepDecayTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> new StepDecay(0, 0.5));
+        assertEquals("stepSize must be positive (0)", exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> new StepDecay(2, 0.0));
+        assertEquals("factor must be positive (0.000000)", exception2.getMessage());
+    }
+
+    @Test
+    void getLearningRate() {
+        StepDecay stepDecay = new StepDecay(3, 0.5);
+        assertEquals(0.1, stepDecay.getLearningRate(0.1, 0, 0, 4));
+        assertEquals(0.1, stepDecay.getLearningRate(0.1, 2, 11, 4));
+        assertEquals(0.05, stepDecay.getLearningRate(0.1, 3, 12, 4), 1e-15);
+        assertEquals(0.025, stepDecay.getLearningRate(0.1, 7, 28, 4), 1e-15);
+    }
+}
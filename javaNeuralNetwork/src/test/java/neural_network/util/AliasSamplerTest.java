@@ -0,0 +1,62 @@
+package neural_network.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AliasSamplerTest {
+
+    @Test
+    void constructErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> new AliasSampler(new double[0]));
+        assertEquals("weights must not be empty", exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> new AliasSampler(new double[] {1.0, -0.5}));
+        assertEquals("weights must be finite and non-negative (weights[1] = -0.5)",
+                exception2.getMessage());
+        Exception exception3 = assertThrows(IllegalArgumentException.class,
+                () -> new AliasSampler(new double[] {Double.NaN}));
+        assertEquals("weights must be finite and non-negative (weights[0] = NaN)",
+                exception3.getMessage());
+        Exception exception4 = assertThrows(IllegalArgumentException.class,
+                () -> new AliasSampler(new double[] {0.0, 0.0}));
+        assertEquals("weights must not all be zero", exception4.getMessage());
+    }
+
+    @Test
+    void construct() {
+        // The tables give back the normalised weights
+        double[] weights = {1.0, 0.0, 6.0, 2.0, 0.5, 0.5};
+        AliasSampler sampler = new AliasSampler(weights);
+        assertEquals(6, sampler.size());
+        for (int i = 0; i < weights.length; i ++) {
+            assertEquals(weights[i] / 10.0, sampler.getProbability(i), 1e-12);
+        }
+    }
+
+    @Test
+    void sample() {
+        // Heavily imbalanced weights over many classes
+        int n = 1000;
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i ++) {
+            weights[i] = (i % 100 == 0) ? 100.0 : 1.0;
+        }
+        AliasSampler sampler = new AliasSampler(weights);
+        SplittableRandom random = new SplittableRandom(5);
+        int numDraws = 200000;
+        int numHeavy = 0;
+        for (int d = 0; d < numDraws; d ++) {
+            int index = sampler.sample(random);
+            assertTrue(index >= 0 && index < n);
+            if (index % 100 == 0) {
+                numHeavy ++;
+            }
+        }
+        // 10 heavy classes carry 1000 of the 1990 total weight
+        assertEquals(1000.0 / 1990.0, (double) numHeavy / numDraws, 0.01);
+    }
+}
@@ -0,0 +1,66 @@
+package neural_network.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchesTest {
+
+    private final int[] ids = {4, 6, 2, 1, 7, 9, 8, 5, 3, 0};
+    private Batches batches;
+
+    @BeforeEach
+    void setUp() {
+        batches = new Batches(ids, 4);
+    }
+
+    @Test
+    void constructErroneous() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Batches(ids, 0));
+        assertEquals("setSize (0) must be a positive integer.", exception.getMessage());
+    }
+
+    @Test
+    void construct() {
+        assertSame(ids, batches.getIds());
+        assertEquals(3, batches.getNumBatches());
+        assertEquals(1, new Batches(ids, 10).getNumBatches());
+        assertEquals(10, new Batches(ids, 1).getNumBatches());
+    }
+
+    @Test
+    void next() {
+        assertTrue(batches.next());
+        assertEquals(0, batches.getOffset());
+        assertEquals(4, batches.getLength());
+        assertTrue(batches.next());
+        assertEquals(4, batches.getOffset());
+        assertEquals(4, batches.getLength());
+        assertTrue(batches.next());
+        assertEquals(8, batches.getOffset());
+        assertEquals(2, batches.getLength());
+        assertFalse(batches.next());
+        assertFalse(batches.next());
+        assertThrows(IndexOutOfBoundsException.class, () -> batches.getOffset());
+
+        // Going back to the start
+        batches.reset();
+        assertThrows(IndexOutOfBoundsException.class, () -> batches.getLength());
+        assertTrue(batches.next());
+        assertEquals(0, batches.getOffset());
+    }
+
+    @Test
+    void getBatch() {
+        assertEquals(4, batches.getOffset(1));
+        assertEquals(4, batches.getLength(1));
+        assertEquals(8, batches.getOffset(2));
+        assertEquals(2, batches.getLength(2));
+        Exception exception = assertThrows(IndexOutOfBoundsException.class,
+                () -> batches.getLength(3));
+        assertEquals("No batch 3 of 3", exception.getMessage());
+        assertThrows(IndexOutOfBoundsException.class, () -> batches.getOffset(-1));
+    }
+}
@@ -123,6 +123,46 @@ public class DataSplitterTest {
         Files.delete(Path.of("testing.csv"));
     }
 
+    @Test
+    void csvToDatasetErroneous() {
+        DataSplitter badSplitter = new DataSplitter("invalid_file.csv", List.of(4));
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> badSplitter.csvToDataset(false));
+        assertEquals("Path invalid_file.csv is invalid.", exception.getMessage());
+    }
+
+    @Test
+    void csvToDataset() throws IOException {
+        writeTestCsv();
+        DataSplitter goodSplitter = new DataSplitter("testing.csv", List.of(8, 1, 1));
+        Dataset dataset = goodSplitter.csvToDataset(false);
+        assertEquals(Dataset.fromDataframe(df, false).toDataframe(), dataset.toDataframe());
+        assertIterableEquals(List.of("0", "1"), dataset.getCategoryNames());
+
+        Dataset regDataset = goodSplitter.csvToDataset(true);
+        assertTrue(regDataset.isRegression());
+        assertEquals(Dataset.fromDataframe(df, true).toDataframe(), regDataset.toDataframe());
+
+        Files.delete(Path.of("testing.csv"));
+    }
+
+    @Test
+    void splitDataset() {
+        // The Datasets are split at the same indices as the dataframes
+        Dataset dataset = Dataset.fromDataframe(df, false);
+        for (DataSplitter splitter : List.of(splitter1, splitter2, splitter3, splitter4,
+                splitter5)) {
+            doReturn(dataset).when(splitter).csvToDataset(false);
+            List<NavigableMap<Header, List<String>>> expectedDfs = splitter.split();
+            List<Dataset> actualDatasets = splitter.splitDataset(false);
+            assertEquals(expectedDfs.size(), actualDatasets.size());
+            for (int i = 0; i < expectedDfs.size(); i ++) {
+                assertEquals(Dataset.fromDataframe(expectedDfs.get(i), false).toDataframe(),
+                        actualDatasets.get(i).toDataframe());
+            }
+        }
+    }
+
     @Test
     void split1() {
         // Tests an even split with training, validation and testing
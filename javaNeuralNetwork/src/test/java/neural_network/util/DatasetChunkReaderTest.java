@@ -0,0 +1,103 @@
+package neural_network.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetChunkReaderTest {
+
+    @TempDir
+    Path tempDir;
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 10 datapoints with 2 features each, X_1 holding the index
+        StringBuilder csv = new StringBuilder("X_1,X_2,Y\n");
+        for (int i = 0; i < 10; i ++) {
+            csv.append(i).append(",").append(-i).append(",")
+                    .append((i % 3 == 0) ? "l" : "r").append("\n");
+        }
+        path = tempDir.resolve("data.csv");
+        Files.writeString(path, csv.toString());
+    }
+
+    @Test
+    void constructErroneous() {
+        DataSplitter splitter = new DataSplitter(path.toString(), List.of(8, 1, 1));
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> splitter.readChunks(false, List.of(), 4));
+        assertEquals("categoryNames must be given to read classification data in chunks",
+                exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> splitter.readChunks(true, null, 0));
+        assertEquals("chunkSize must be positive (0)", exception2.getMessage());
+        DataSplitter badSplitter = new DataSplitter("invalid_file.csv", List.of(4));
+        Exception exception3 = assertThrows(RuntimeException.class,
+                () -> badSplitter.readChunks(true, null, 4));
+        assertEquals("Path invalid_file.csv is invalid.", exception3.getMessage());
+    }
+
+    @Test
+    void next() throws IOException {
+        // With 3:1:1, datapoints 0-2 and 5-7 are training, 3 and 8 validation
+        // and 4 and 9 testing
+        DataSplitter splitter = new DataSplitter(path.toString(), List.of(3, 1, 1));
+        try (DatasetChunkReader reader = splitter.readChunks(false, List.of("l", "r"), 4)) {
+            assertEquals(2, reader.getDimensions());
+            List<Dataset> chunk1 = reader.next();
+            assertEquals(3, chunk1.size());
+            assertIterableEquals(List.of(0.0, 1.0, 2.0), chunk1.get(0).column(0));
+            assertIterableEquals(List.of(0.0, 1.0, 1.0), chunk1.get(0).targets());
+            assertIterableEquals(List.of(3.0), chunk1.get(1).column(0));
+            assertEquals(0, chunk1.get(2).size());
+
+            List<Dataset> chunk2 = reader.next();
+            assertIterableEquals(List.of(5.0, 6.0, 7.0), chunk2.get(0).column(0));
+            assertIterableEquals(List.of(-5.0, -6.0, -7.0), chunk2.get(0).column(1));
+            assertIterableEquals(List.of(4.0), chunk2.get(2).column(0));
+            assertEquals(0, chunk2.get(1).size());
+
+            List<Dataset> chunk3 = reader.next();
+            assertEquals(0, chunk3.get(0).size());
+            assertIterableEquals(List.of(8.0), chunk3.get(1).column(0));
+            assertIterableEquals(List.of(9.0), chunk3.get(2).column(0));
+            assertEquals(10, reader.getNumRead());
+
+            // The first chunk is unchanged by reading the others
+            assertIterableEquals(List.of(0.0, 1.0, 2.0), chunk1.get(0).column(0));
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @Test
+    void nextRegression() throws IOException {
+        Files.writeString(path, "X_1,Y\n1,0.5\n2,1.5\n3,2.5\n");
+        DataSplitter splitter = new DataSplitter(path.toString(), List.of(1));
+        try (DatasetChunkReader reader = splitter.readChunks(true, null, 10)) {
+            List<Dataset> chunk = reader.next();
+            assertEquals(1, chunk.size());
+            assertTrue(chunk.get(0).isRegression());
+            assertIterableEquals(List.of(0.5, 1.5, 2.5), chunk.get(0).targets());
+        }
+    }
+
+    @Test
+    void nextErroneous() throws IOException {
+        DataSplitter splitter = new DataSplitter(path.toString(), List.of(1));
+        try (DatasetChunkReader reader = splitter.readChunks(false, List.of("l"), 4)) {
+            Exception exception = assertThrows(IllegalArgumentException.class, reader::next);
+            assertEquals("Category r of datapoint 1 is not one of [l]",
+                    exception.getMessage());
+        }
+    }
+}
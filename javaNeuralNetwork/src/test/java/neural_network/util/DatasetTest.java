@@ -0,0 +1,100 @@
+package neural_network.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetTest {
+
+    private final NavigableMap<Header, List<String>> df = new TreeMap<>(Map.of(
+            Header.X_1, List.of("3", "6", "0", "-4"),
+            Header.X_2, List.of("2", "-2", "1", "-3"),
+            Header.Y, List.of("r", "r", "u", "l")
+    ));
+    private final NavigableMap<Header, List<String>> regDf = new TreeMap<>(Map.of(
+            Header.X_1, List.of("3", "6", "0", "-4"),
+            Header.X_2, List.of("2", "-2", "1", "-3"),
+            Header.Y, List.of("1.2", "1.3", "1.4", "0.8")
+    ));
+    private Dataset dataset;
+    private Dataset regDataset;
+
+    @BeforeEach
+    void setUp() {
+        Header.setDimensions(2);
+        dataset = Dataset.fromDataframe(df, false);
+        regDataset = Dataset.fromDataframe(regDf, true);
+    }
+
+    @Test
+    void constructErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> Dataset.regression(new double[5], new double[3], 2));
+        assertEquals("features must have dimensions (2) values for each of " +
+                "the 3 datapoints (5)", exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> Dataset.classification(new double[4], new int[] {0, 2}, 2,
+                        List.of("a", "b")));
+        assertEquals("Label 2 of datapoint 1 does not match any category",
+                exception2.getMessage());
+    }
+
+    @Test
+    void fromDataframe() {
+        assertEquals(4, dataset.size());
+        assertEquals(2, dataset.getDimensions());
+        assertFalse(dataset.isRegression());
+        assertIterableEquals(List.of("l", "r", "u"), dataset.getCategoryNames());
+        assertIterableEquals(List.of(1.0, 1.0, 2.0, 0.0), dataset.targets());
+        assertEquals(2, dataset.getLabel(2));
+        assertEquals(-2.0, dataset.get(1, 1));
+
+        assertTrue(regDataset.isRegression());
+        assertIterableEquals(List.of(), regDataset.getCategoryNames());
+        assertEquals(1.4, regDataset.getTarget(2));
+        assertThrows(UnsupportedOperationException.class, () -> regDataset.getLabel(0));
+    }
+
+    @Test
+    void views() {
+        assertIterableEquals(List.of(6.0, -2.0), dataset.row(1));
+        assertIterableEquals(List.of(2.0, -2.0, 1.0, -3.0), dataset.column(1));
+        double[] dest = new double[4];
+        dataset.copyRow(3, dest, 1);
+        assertArrayEquals(new double[] {0.0, -4.0, -3.0, 0.0}, dest);
+        assertThrows(UnsupportedOperationException.class, () -> dataset.row(0).set(0, 1.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> dataset.row(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> dataset.column(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> dataset.get(0, 2));
+    }
+
+    @Test
+    void slice() {
+        Dataset slice = dataset.slice(1, 3);
+        assertEquals(2, slice.size());
+        assertIterableEquals(List.of(0.0, 1.0), slice.row(1));
+        assertIterableEquals(List.of(6.0, 0.0), slice.column(0));
+        assertIterableEquals(List.of(1.0, 2.0), slice.targets());
+        assertEquals(dataset.getCategoryNames(), slice.getCategoryNames());
+        assertEquals(0, slice.slice(1, 1).size());
+        Exception exception = assertThrows(IndexOutOfBoundsException.class,
+                () -> dataset.slice(2, 5));
+        assertEquals("Slice [2, 5) out of bounds for 4 datapoints", exception.getMessage());
+    }
+
+    @Test
+    void toDataframe() {
+        NavigableMap<Header, List<String>> actualDf = dataset.slice(2, 4).toDataframe();
+        assertIterableEquals(List.of("0.0", "-4.0"), actualDf.get(Header.X_1));
+        assertIterableEquals(List.of("1.0", "-3.0"), actualDf.get(Header.X_2));
+        assertIterableEquals(List.of("u", "l"), actualDf.get(Header.Y));
+        assertIterableEquals(List.of("1.2", "1.3", "1.4", "0.8"),
+                regDataset.toDataframe().get(Header.Y));
+    }
+}
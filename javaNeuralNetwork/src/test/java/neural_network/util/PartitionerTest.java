@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -87,4 +89,43 @@ public class PartitionerTest {
                 List.of(3), List.of(0)),
                 smallPartitioner.call());
     }
+
+    @Test
+    void callSeeded() {
+        // Without a random set, the shuffles come from RandomStreams
+        RandomStreams.setSeed(3);
+        Partitioner partitioner1 = new Partitioner(10, 5);
+        List<List<Integer>> firstEpoch = partitioner1.call();
+        List<List<Integer>> secondEpoch = partitioner1.call();
+        RandomStreams.setSeed(3);
+        Partitioner partitioner2 = new Partitioner(10, 5);
+        assertEquals(firstEpoch, partitioner2.call());
+        assertEquals(secondEpoch, partitioner2.call());
+        assertNotEquals(firstEpoch, secondEpoch);
+    }
+
+    @Test
+    void shuffle() {
+        // The first shuffle matches Collections.shuffle with the same random
+        List<Integer> expected = new ArrayList<>(ints);
+        Collections.shuffle(expected, new Random(42));
+        Batches batches = unevenPartitioner.shuffle();
+        int[] ids = batches.getIds();
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), ids);
+        assertEquals(4, batches.getNumBatches());
+        List<Integer> offsets = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        while (batches.next()) {
+            offsets.add(batches.getOffset());
+            lengths.add(batches.getLength());
+        }
+        assertIterableEquals(List.of(0, 3, 6, 9), offsets);
+        assertIterableEquals(List.of(3, 3, 3, 1), lengths);
+
+        // The next shuffle reuses the same array (and Batches), still holding
+        // a permutation
+        assertSame(batches, unevenPartitioner.shuffle());
+        assertSame(ids, batches.getIds());
+        assertIterableEquals(ints, Arrays.stream(ids).sorted().boxed().toList());
+    }
 }
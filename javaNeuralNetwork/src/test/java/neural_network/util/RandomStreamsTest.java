@@ -0,0 +1,59 @@
+package neural_network.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RandomStreamsTest {
+
+    private final long originalSeed = RandomStreams.getSeed();
+
+    @AfterEach
+    void tearDown() {
+        RandomStreams.setSeed(originalSeed);
+    }
+
+    @Test
+    void setSeed() {
+        RandomStreams.setSeed(12);
+        assertEquals(12, RandomStreams.getSeed());
+        assertEquals(0, RandomStreams.nextInstance("test"));
+        assertEquals(1, RandomStreams.nextInstance("test"));
+        assertEquals(0, RandomStreams.nextInstance("other"));
+
+        // The counts restart with the seed
+        RandomStreams.setSeed(12);
+        assertEquals(0, RandomStreams.nextInstance("test"));
+    }
+
+    @Test
+    void stream() {
+        RandomStreams.setSeed(5);
+        SplittableRandom random1 = RandomStreams.stream("test", 0, 1);
+        SplittableRandom random2 = RandomStreams.stream("test", 0, 1);
+        for (int i = 0; i < 10; i ++) {
+            assertEquals(random1.nextLong(), random2.nextLong());
+        }
+
+        // Different purposes, keys and seeds give different streams
+        long first = RandomStreams.stream("test", 0, 1).nextLong();
+        assertNotEquals(first, RandomStreams.stream("other", 0, 1).nextLong());
+        assertNotEquals(first, RandomStreams.stream("test", 1, 0).nextLong());
+        assertNotEquals(first, RandomStreams.stream("test", 0).nextLong());
+        RandomStreams.setSeed(6);
+        assertNotEquals(first, RandomStreams.stream("test", 0, 1).nextLong());
+    }
+
+    @Test
+    void nextStream() {
+        RandomStreams.setSeed(7);
+        long first = RandomStreams.nextStream("test").nextLong();
+        long second = RandomStreams.nextStream("test").nextLong();
+        assertNotEquals(first, second);
+        assertEquals(first, RandomStreams.stream("test", 0).nextLong());
+        assertEquals(second, RandomStreams.stream("test", 1).nextLong());
+    }
+}
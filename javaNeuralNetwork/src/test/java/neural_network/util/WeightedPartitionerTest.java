@@ -81,6 +81,23 @@ public class WeightedPartitionerTest {
         }
     }
 
+    @Test
+    void constructFromDataset() {
+        // Category 1 of 4 has no datapoints, so the classes are relabelled
+        int[] labels = {2, 2, 3, 3, 0, 2, 0, 2, 0, 2};
+        Dataset dataset = Dataset.classification(new double[10], labels, 1,
+                List.of("a", "b", "c", "d"));
+        WeightedPartitioner datasetPartitioner = new WeightedPartitioner(dataset, 5, 8);
+        assertEquals(10, datasetPartitioner.getNumInts());
+        Map<Integer, List<Integer>> classMap = datasetPartitioner.getClassMap();
+        assertEquals(evenPartitioner.getClassMap(), classMap);
+
+        double[] targets = regYVals.stream().mapToDouble(Double::doubleValue).toArray();
+        Dataset regDataset = Dataset.regression(new double[10], targets, 1);
+        assertEquals(regPartitioner.getClassMap(),
+                new WeightedPartitioner(regDataset, 5, 8).getClassMap());
+    }
+
     @Test
     void callEvenPartitioner() {
         assertIterableEquals(List.of(List.of(3, 4, 1, 8, 3), List.of(6, 6, 9, 2, 5)),
@@ -139,4 +156,83 @@ public class WeightedPartitionerTest {
         verify(mockRandom, times(3))
                 .nextInt(5);
     }
+
+    @Test
+    void setWeightsErroneous() {
+        Exception exception1 = assertThrows(IllegalArgumentException.class,
+                () -> evenPartitioner.setClassWeights(new double[] {1.0, 2.0}));
+        assertEquals("There must be one weight per class (2 weights, 3 classes)",
+                exception1.getMessage());
+        Exception exception2 = assertThrows(IllegalArgumentException.class,
+                () -> evenPartitioner.setSampleWeights(new double[3]));
+        assertEquals("There must be one weight per integer (3 weights, 10 integers)",
+                exception2.getMessage());
+    }
+
+    @Test
+    void callClassWeights() {
+        // Only class 2 (integers 2 and 3) can be drawn
+        WeightedPartitioner partitioner = new WeightedPartitioner(10, 5, yVals);
+        assertEquals(3, partitioner.getNumBins());
+        partitioner.setClassWeights(new double[] {0.0, 0.0, 1.0});
+        for (List<Integer> set : partitioner.call()) {
+            for (int i : set) {
+                assertTrue(i == 2 || i == 3);
+            }
+        }
+
+        // Back to equal class weights
+        partitioner.setClassWeights(null);
+        partitioner.setRandom(mockRandom);
+        assertIterableEquals(List.of(List.of(3, 4, 1, 8, 3), List.of(6, 6, 9, 2, 5)),
+                partitioner.call());
+    }
+
+    @Test
+    void callClassWeightsMissingClass() {
+        // Class 1 has no integers, but still has a weight (which is ignored)
+        List<Double> missingYVals = List.of(0.0, 2.0, 2.0, 0.0, 2.0, 0.0);
+        WeightedPartitioner partitioner = new WeightedPartitioner(6, 3, missingYVals);
+        assertEquals(2, partitioner.getNumBins());
+        partitioner.setClassWeights(new double[] {1.0, 7.0, 0.0});
+        for (List<Integer> set : partitioner.call()) {
+            for (int i : set) {
+                assertEquals(0.0, missingYVals.get(i));
+            }
+        }
+
+        // A Dataset takes one weight per category, even for trailing empty ones
+        Dataset dataset = Dataset.classification(new double[6], new int[] {0, 2, 2, 0, 2, 0},
+                1, List.of("a", "b", "c", "d"));
+        WeightedPartitioner datasetPartitioner = new WeightedPartitioner(dataset, 3, 10);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> datasetPartitioner.setClassWeights(new double[] {1.0, 7.0, 0.0}));
+        assertEquals("There must be one weight per class (3 weights, 4 classes)",
+                exception.getMessage());
+        datasetPartitioner.setClassWeights(new double[] {0.0, 7.0, 1.0, 5.0});
+        for (int id : datasetPartitioner.shuffle().getIds()) {
+            assertEquals(2, dataset.getLabel(id));
+        }
+    }
+
+    @Test
+    void callSampleWeights() {
+        // Only integers 7 and 9 can be drawn, with 7 three times as often
+        WeightedPartitioner partitioner = new WeightedPartitioner(10, 3, yVals);
+        partitioner.setClassWeights(new double[] {1.0, 1.0, 1.0});
+        double[] weights = new double[10];
+        weights[7] = 3.0;
+        weights[9] = 1.0;
+        partitioner.setSampleWeights(weights);
+        int numSevens = 0;
+        for (int epoch = 0; epoch < 500; epoch ++) {
+            for (List<Integer> set : partitioner.call()) {
+                for (int i : set) {
+                    assertTrue(i == 7 || i == 9);
+                    numSevens += (i == 7) ? 1 : 0;
+                }
+            }
+        }
+        assertEquals(0.75, numSevens / 5000.0, 0.03);
+    }
 }